@@ -0,0 +1,73 @@
+package io.skloch.heshustle.benchmarks;
+
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.graphics.g2d.TextureAtlas;
+import com.heslingtonhustle.renderer.AnimationClock;
+import com.heslingtonhustle.renderer.CharacterFrames;
+import com.heslingtonhustle.renderer.CharacterRenderer;
+import com.heslingtonhustle.screens.PlayScreen;
+import com.heslingtonhustle.state.Facing;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures drawing characters into a sprite batch, looking up each one's
+ * animation frame as PlayScreen does for the player and NPCs.
+ * Characters that look the same share their frames and every character
+ * shares one animation clock, as the NPCs on a map do.
+ * The batch has no real OpenGL behind it, see HeadlessGdx.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CharacterRenderBenchmark {
+    private static final Facing[] DIRECTIONS = Facing.values();
+
+    @Param({"1", "32", "500"})
+    public int characterCount;
+
+    private TextureAtlas atlas;
+    private SpriteBatch batch;
+    private CharacterRenderer[] characters;
+    private AnimationClock clock;
+    private int frame;
+
+    @Setup
+    public void setup() {
+        HeadlessGdx.start();
+        atlas = new TextureAtlas(PlayScreen.playerAtlasAsset);
+        batch = new SpriteBatch();
+        CharacterFrames[] frames = {
+                new CharacterFrames(atlas, "player-0", true),
+                new CharacterFrames(atlas, "player-1", true)
+        };
+        clock = new AnimationClock();
+        characters = new CharacterRenderer[characterCount];
+        for (int i = 0; i < characterCount; i++) {
+            characters[i] = new CharacterRenderer(14.4f, 14.4f, frames[i % 2], clock);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        batch.dispose();
+        atlas.dispose();
+    }
+
+    @Benchmark
+    public void renderFrame() {
+        Facing direction = DIRECTIONS[(frame / 60) % DIRECTIONS.length];
+        boolean moving = (frame++ / 30) % 2 == 0;
+        clock.update(1 / 60f);
+
+        batch.begin();
+        for (int i = 0; i < characters.length; i++) {
+            characters[i].render(batch, i * 16, i * 8, direction, moving);
+        }
+        batch.end();
+    }
+}
@@ -0,0 +1,35 @@
+package io.skloch.heshustle.benchmarks;
+
+import com.heslingtonhustle.state.Clock;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures getting the time shown on the HUD, which happens every frame.
+ * The time steps forward a minute each call so every branch of the 12 hour
+ * formatting is covered.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ClockBenchmark {
+    private static final int MINUTES_IN_DAY = 1440;
+
+    private Clock clock;
+    private int minute;
+
+    @Setup
+    public void setup() {
+        clock = new Clock();
+    }
+
+    @Benchmark
+    public String getTime() {
+        clock.setTime(minute++ % MINUTES_IN_DAY);
+        return clock.getTime();
+    }
+}
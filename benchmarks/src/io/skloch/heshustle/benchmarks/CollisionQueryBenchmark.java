@@ -0,0 +1,77 @@
+package io.skloch.heshustle.benchmarks;
+
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.utils.Array;
+import com.heslingtonhustle.map.SpatialGrid;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the cost of finding the collision objects overlapping the player,
+ * comparing the old scan over every object with the spatial grid used by MapManager.
+ * Objects are scattered over a campusEast sized map, 137x96 tiles of 16 pixels.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CollisionQueryBenchmark {
+    private static final float MAP_WIDTH = 137 * 16;
+    private static final float MAP_HEIGHT = 96 * 16;
+    private static final int QUERY_COUNT = 1024;
+
+    @Param({"100", "300", "1000", "3000", "10000"})
+    public int objectCount;
+
+    private Array<Rectangle> objects;
+    private SpatialGrid<Rectangle> grid;
+    private Rectangle[] queries;
+    private Array<Rectangle> out;
+    private int next;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(16);
+        objects = new Array<>(objectCount);
+        grid = new SpatialGrid<>(MAP_WIDTH, MAP_HEIGHT, 32);
+        for (int i = 0; i < objectCount; i++) {
+            Rectangle rectangle = new Rectangle(
+                    random.nextFloat() * MAP_WIDTH, random.nextFloat() * MAP_HEIGHT,
+                    16 + random.nextFloat() * 48, 16 + random.nextFloat() * 48);
+            objects.add(rectangle);
+            grid.add(rectangle, rectangle);
+        }
+
+        // The player's collision box in pixels, at various points on the map
+        queries = new Rectangle[QUERY_COUNT];
+        for (int i = 0; i < QUERY_COUNT; i++) {
+            queries[i] = new Rectangle(
+                    random.nextFloat() * MAP_WIDTH, random.nextFloat() * MAP_HEIGHT,
+                    14.4f, 5.76f);
+        }
+        out = new Array<>();
+    }
+
+    @Benchmark
+    public void linearScan(Blackhole blackhole) {
+        Rectangle query = queries[next++ & (QUERY_COUNT - 1)];
+        out.clear();
+        for (Rectangle rectangle : objects) {
+            if (query.overlaps(rectangle)) {
+                out.add(rectangle);
+            }
+        }
+        blackhole.consume(out.size);
+    }
+
+    @Benchmark
+    public void gridQuery(Blackhole blackhole) {
+        Rectangle query = queries[next++ & (QUERY_COUNT - 1)];
+        blackhole.consume(grid.query(query, out).size);
+    }
+}
@@ -0,0 +1,84 @@
+package io.skloch.heshustle.benchmarks;
+
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.graphics.g2d.TextureAtlas;
+import com.badlogic.gdx.math.Rectangle;
+import com.heslingtonhustle.map.MapManager;
+import com.heslingtonhustle.map.NpcCrowd;
+import com.heslingtonhustle.renderer.CharacterFrames;
+import com.heslingtonhustle.simulation.GameSimulation;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures one frame of a crowd of wandering NPCs on a campus sized map:
+ * a tick of updates then drawing the NPCs on screen, against the size of the crowd.
+ * The camera pans across the map so different NPCs come into view.
+ * The batch has no real OpenGL behind it, see HeadlessGdx.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CrowdBenchmark {
+    // The size of campusEast.tmx
+    private static final float MAP_WIDTH = 137 * 16;
+    private static final float MAP_HEIGHT = 96 * 16;
+
+    @Param({"100", "500", "1000", "2500", "5000"})
+    public int npcCount;
+
+    @Param({"true", "false"})
+    public boolean parallel;
+
+    private TextureAtlas atlas;
+    private SpriteBatch batch;
+    private ExecutorService executor;
+    private NpcCrowd crowd;
+    private CharacterFrames[] frames;
+    private final Rectangle view = new Rectangle(0, 0, 480, 270);
+    private int frame;
+
+    @Setup
+    public void setup() {
+        HeadlessGdx.start();
+        atlas = new TextureAtlas(MapManager.npcAtlasAsset);
+        batch = new SpriteBatch();
+        frames = new CharacterFrames[] {
+                new CharacterFrames(atlas, "npc-0", false),
+                new CharacterFrames(atlas, "npc-1", false)
+        };
+        if (parallel) {
+            executor = Executors.newFixedThreadPool(Math.max(1, Runtime.getRuntime().availableProcessors() - 1));
+        }
+        crowd = new NpcCrowd(MAP_WIDTH, MAP_HEIGHT, 16, 14.4f, executor);
+        // A few buildings to walk around
+        for (int i = 0; i < 20; i++) {
+            crowd.block(new Rectangle((i * 397) % MAP_WIDTH, (i * 211) % MAP_HEIGHT, 96, 64));
+        }
+        crowd.spawn(npcCount, frames.length, 20);
+    }
+
+    @TearDown
+    public void tearDown() {
+        if (executor != null) executor.shutdownNow();
+        batch.dispose();
+        atlas.dispose();
+    }
+
+    @Benchmark
+    public int renderFrame() {
+        view.setPosition((frame++ % 1600), MAP_HEIGHT / 3);
+        crowd.update(GameSimulation.TIME_STEP, view);
+
+        batch.begin();
+        int drawn = crowd.render(batch, frames, frame / 60f, view);
+        batch.end();
+        return drawn;
+    }
+}
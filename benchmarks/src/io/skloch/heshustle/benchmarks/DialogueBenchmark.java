@@ -0,0 +1,95 @@
+package io.skloch.heshustle.benchmarks;
+
+import com.badlogic.gdx.maps.MapProperties;
+import com.heslingtonhustle.state.DialogueManager;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures churning dialogue through the queue: adding a batch of boxes,
+ * some with options to scroll through, then submitting them all.
+ * The scripted benchmarks go through State the same way the game does,
+ * opening the debug console, or spamming an activity.
+ * Sounds are turned off, so only the queue itself is measured.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DialogueBenchmark {
+    // The last option of the debug console, which closes it
+    private static final int CLOSE_OPTION = 4;
+
+    @Param({"1", "8", "64"})
+    public int queueLength;
+
+    private DialogueManager dialogueManager;
+    private com.heslingtonhustle.state.State state;
+    private int selected;
+
+    @Setup
+    public void setup() {
+        dialogueManager = new DialogueManager(null);
+        state = new com.heslingtonhustle.state.State(dialogueManager);
+
+        // An activity that can be done any time, as often as wanted
+        MapProperties trigger = new MapProperties();
+        trigger.put("activity", "ducks");
+        trigger.put("type", "recreational");
+        trigger.put("score", 1);
+        trigger.put("energy_cost", 0);
+        trigger.put("hours", 0);
+        trigger.put("limit", -1);
+        trigger.put("prompt_message", "Feed the ducks?");
+        trigger.put("success_message", "The ducks are happy.");
+        state.setNearestTrigger(trigger);
+    }
+
+    @Benchmark
+    public void addThenSubmit(Blackhole blackhole) {
+        for (int i = 0; i < queueLength; i++) {
+            if (i % 2 == 0) {
+                dialogueManager.addDialogue("Would you like to sleep?", DialogueManager.YES_NO, option -> selected = option);
+            } else {
+                dialogueManager.addDialogue("You feel refreshed.");
+            }
+        }
+
+        while (!dialogueManager.isEmpty()) {
+            blackhole.consume(dialogueManager.getMessage());
+            if (dialogueManager.getOptions() != null) {
+                dialogueManager.increaseSelection();
+            }
+            dialogueManager.submit();
+        }
+        blackhole.consume(selected);
+    }
+
+    @Benchmark
+    public void debugConsole(Blackhole blackhole) {
+        for (int i = 0; i < queueLength; i++) {
+            state.pushTestDialogue();
+            // Scroll down through every option to close
+            for (int option = 0; option < CLOSE_OPTION; option++) {
+                dialogueManager.increaseSelection();
+            }
+            blackhole.consume(dialogueManager.getOptions());
+            dialogueManager.submit();
+        }
+    }
+
+    @Benchmark
+    public void activitySpam(Blackhole blackhole) {
+        for (int i = 0; i < queueLength; i++) {
+            state.handleInteraction();
+            // Yes, then close the success message
+            dialogueManager.submit();
+            blackhole.consume(dialogueManager.getMessage());
+            dialogueManager.submit();
+        }
+    }
+}
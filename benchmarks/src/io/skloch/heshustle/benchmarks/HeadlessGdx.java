@@ -0,0 +1,67 @@
+package io.skloch.heshustle.benchmarks;
+
+import com.badlogic.gdx.ApplicationAdapter;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.backends.headless.HeadlessApplication;
+import com.badlogic.gdx.backends.headless.HeadlessApplicationConfiguration;
+import com.badlogic.gdx.graphics.GL20;
+
+import java.lang.reflect.Proxy;
+import java.nio.IntBuffer;
+
+/**
+ * Starts libGDX without a window so benchmarks can load files and draw.
+ * OpenGL calls go to a GL20 that does nothing, so drawing measures everything
+ * the game does on the CPU up to handing vertices to the GPU.
+ */
+final class HeadlessGdx {
+    private static boolean started;
+
+    private HeadlessGdx() { }
+
+    /**
+     * Starts the headless application the first time it is called
+     */
+    static synchronized void start() {
+        if (started) return;
+
+        HeadlessApplicationConfiguration config = new HeadlessApplicationConfiguration();
+        // Never call render, the benchmarks drive everything themselves
+        config.updatesPerSecond = -1;
+        new HeadlessApplication(new ApplicationAdapter() { }, config);
+
+        Gdx.gl = Gdx.gl20 = noOpGL();
+        started = true;
+    }
+
+    /**
+     * Makes a GL20 where every call does nothing, except that shaders compile and link,
+     * and anything created gets a non-zero handle
+     */
+    private static GL20 noOpGL() {
+        return (GL20) Proxy.newProxyInstance(GL20.class.getClassLoader(), new Class<?>[]{GL20.class},
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "glCreateShader":
+                        case "glCreateProgram":
+                            return 1;
+                        case "glGetShaderiv":
+                        case "glGetProgramiv":
+                            int parameter = (Integer) args[1];
+                            if (parameter == GL20.GL_COMPILE_STATUS || parameter == GL20.GL_LINK_STATUS) {
+                                ((IntBuffer) args[2]).put(0, 1);
+                            }
+                            return null;
+                        default:
+                            break;
+                    }
+
+                    Class<?> returnType = method.getReturnType();
+                    if (returnType == int.class) return 0;
+                    if (returnType == boolean.class) return false;
+                    if (returnType == float.class) return 0f;
+                    if (returnType == String.class) return "";
+                    return null;
+                });
+    }
+}
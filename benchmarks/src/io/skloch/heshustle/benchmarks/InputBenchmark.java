@@ -0,0 +1,101 @@
+package io.skloch.heshustle.benchmarks;
+
+import com.badlogic.gdx.Input.Keys;
+import com.heslingtonhustle.input.KeyboardInputHandler;
+import com.heslingtonhustle.state.Action;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures a frame of keyboard input: a few keys going down and up, then
+ * the checks Player.move and the dialogue box make on the actions held.
+ * The keymap* benchmarks compare KeyboardInputHandler's keycode array and
+ * EnumSets, going through its event queue, against the HashMap of boxed
+ * keycodes and HashSets it used to have.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class InputBenchmark {
+    // Walking diagonally, pressing interact, then letting go of everything
+    private static final int[] KEYS_DOWN = {Keys.W, Keys.D, Keys.E, Keys.P};
+    private static final int[] KEYS_UP = {Keys.E, Keys.W, Keys.D, Keys.P};
+
+    private KeyboardInputHandler handler;
+
+    // The old way, kept here to compare against
+    private final HashMap<Integer, Action> hashKeymap = new HashMap<>();
+    private final HashSet<Action> hashHeld = new HashSet<>();
+    private final HashSet<Action> hashPressed = new HashSet<>();
+
+    @Setup
+    public void setup() {
+        handler = new KeyboardInputHandler();
+        hashKeymap.put(Keys.D, Action.MOVE_RIGHT);
+        hashKeymap.put(Keys.A, Action.MOVE_LEFT);
+        hashKeymap.put(Keys.W, Action.MOVE_UP);
+        hashKeymap.put(Keys.S, Action.MOVE_DOWN);
+        hashKeymap.put(Keys.E, Action.INTERACT);
+        hashKeymap.put(Keys.ESCAPE, Action.PAUSE);
+    }
+
+    /**
+     * The contains checks made on a tick's actions
+     */
+    private static int checkActions(Set<Action> held, Set<Action> pressed) {
+        int checks = 0;
+        if (held.contains(Action.MOVE_LEFT) && !held.contains(Action.MOVE_RIGHT)) checks++;
+        if (held.contains(Action.MOVE_RIGHT) && !held.contains(Action.MOVE_LEFT)) checks++;
+        if (held.contains(Action.MOVE_UP) && !held.contains(Action.MOVE_DOWN)) checks++;
+        if (held.contains(Action.MOVE_DOWN) && !held.contains(Action.MOVE_UP)) checks++;
+        if (pressed.contains(Action.MOVE_UP)) checks++;
+        if (pressed.contains(Action.MOVE_DOWN)) checks++;
+        if (pressed.contains(Action.INTERACT)) checks++;
+        return checks;
+    }
+
+    @Benchmark
+    public int keymapArrayEnumSet() {
+        int checks = 0;
+        for (int key : KEYS_DOWN) {
+            handler.keyDown(key);
+            handler.processEvents();
+            checks += checkActions(handler.getHeldActions(), handler.getPressedActions());
+        }
+        handler.resetPressedActions();
+        for (int key : KEYS_UP) {
+            handler.keyUp(key);
+            handler.processEvents();
+            checks += checkActions(handler.getHeldActions(), handler.getPressedActions());
+        }
+        return checks;
+    }
+
+    @Benchmark
+    public int keymapHashMapHashSet() {
+        int checks = 0;
+        for (int key : KEYS_DOWN) {
+            if (hashKeymap.containsKey(key)) {
+                hashHeld.add(hashKeymap.get(key));
+                hashPressed.add(hashKeymap.get(key));
+            }
+            checks += checkActions(hashHeld, hashPressed);
+        }
+        hashPressed.clear();
+        for (int key : KEYS_UP) {
+            if (hashKeymap.containsKey(key)) {
+                hashHeld.remove(hashKeymap.get(key));
+                hashPressed.remove(hashKeymap.get(key));
+            }
+            checks += checkActions(hashHeld, hashPressed);
+        }
+        return checks;
+    }
+}
@@ -0,0 +1,64 @@
+package io.skloch.heshustle.benchmarks;
+
+import com.badlogic.gdx.utils.Array;
+import com.heslingtonhustle.leaderboard.LeaderboardStore;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the leaderboard store with a leaderboard already holding many scores:
+ * adding a score, reading the top ten, and finding the rank of a score.
+ * The log is written to a temporary file without flushing each score to disk,
+ * so the store itself is measured rather than the disk.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LeaderboardBenchmark {
+    @Param({"10", "100000", "1000000"})
+    public int existingScores;
+
+    private File file;
+    private LeaderboardStore store;
+    private Random random;
+
+    @Setup
+    public void setup() throws IOException {
+        file = File.createTempFile("leaderboard", ".log");
+        file.delete();
+        store = new LeaderboardStore(file, false);
+
+        random = new Random(16);
+        for (int i = 0; i < existingScores; i++) {
+            store.add("Player " + i, random.nextInt(100000));
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        store.close();
+        file.delete();
+    }
+
+    @Benchmark
+    public int addScore() {
+        return store.add("Benchmark", random.nextInt(100000)).rank;
+    }
+
+    @Benchmark
+    public Array<LeaderboardStore.Entry> topTen() {
+        return store.top(10);
+    }
+
+    @Benchmark
+    public int rankOfScore() {
+        return store.rankOf(random.nextInt(100000));
+    }
+}
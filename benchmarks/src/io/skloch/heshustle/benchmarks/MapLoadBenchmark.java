@@ -0,0 +1,57 @@
+package io.skloch.heshustle.benchmarks;
+
+import com.badlogic.gdx.assets.loaders.resolvers.AbsoluteFileHandleResolver;
+import com.badlogic.gdx.maps.tiled.TiledMap;
+import com.heslingtonhustle.map.CompiledMapLoader;
+import com.heslingtonhustle.map.HeadlessTmxMapLoader;
+import com.heslingtonhustle.map.MapCompiler;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures reading a map from its TMX file against reading the same map
+ * compiled by MapCompiler. Both are loaded without textures, which take
+ * the same time either way, so only parsing the map is measured.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MapLoadBenchmark {
+    @Param({"Maps/campusEast.tmx", "Maps/urbanMap.tmx"})
+    public String map;
+
+    private HeadlessTmxMapLoader tmxLoader;
+    private CompiledMapLoader compiledLoader;
+    private File compiledFile;
+
+    @Setup
+    public void setup() throws IOException {
+        HeadlessGdx.start();
+        tmxLoader = new HeadlessTmxMapLoader();
+        compiledLoader = new CompiledMapLoader(new AbsoluteFileHandleResolver());
+        compiledFile = File.createTempFile("benchmark", CompiledMapLoader.COMPILED_EXTENSION);
+        // Benchmarks run from the assets folder
+        MapCompiler.compile(new File(map), compiledFile);
+    }
+
+    @TearDown
+    public void tearDown() {
+        compiledFile.delete();
+    }
+
+    @Benchmark
+    public TiledMap tmx() {
+        return tmxLoader.load(map);
+    }
+
+    @Benchmark
+    public TiledMap compiled() {
+        return compiledLoader.loadHeadless(compiledFile.getAbsolutePath());
+    }
+}
@@ -0,0 +1,66 @@
+package io.skloch.heshustle.benchmarks;
+
+import com.badlogic.gdx.maps.MapProperties;
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.math.Vector2;
+import com.heslingtonhustle.map.MapManager;
+import com.heslingtonhustle.state.Player;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the collision and trigger queries made every tick, on the real
+ * campusEast map with the player's real hitboxes at random points on the map.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapQueryBenchmark {
+    private static final int QUERY_COUNT = 1024;
+
+    @Param({"Maps/campusEast.tmx", "Maps/urbanMap.tmx"})
+    public String map;
+
+    private MapManager mapManager;
+    private Rectangle[] collisionBoxes;
+    private Rectangle[] triggerBoxes;
+    private int next;
+
+    @Setup
+    public void setup() {
+        HeadlessGdx.start();
+        mapManager = new MapManager(true);
+        mapManager.loadMap(map);
+
+        Vector2 size = mapManager.getCurrentMapWorldDimensions();
+        Random random = new Random(16);
+        Player player = new Player(0.9f, 0.9f);
+        collisionBoxes = new Rectangle[QUERY_COUNT];
+        triggerBoxes = new Rectangle[QUERY_COUNT];
+        for (int i = 0; i < QUERY_COUNT; i++) {
+            player.setPosition(random.nextFloat() * size.x, random.nextFloat() * size.y);
+            collisionBoxes[i] = new Rectangle(player.getCollisionBox());
+            triggerBoxes[i] = new Rectangle(player.getTriggerBox());
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        mapManager.dispose();
+    }
+
+    @Benchmark
+    public int overlappingRectangles() {
+        return mapManager.getOverlappingRectangles(collisionBoxes[next++ & (QUERY_COUNT - 1)]).size;
+    }
+
+    @Benchmark
+    public MapProperties nearestTrigger() {
+        return mapManager.getNearestTrigger(triggerBoxes[next++ & (QUERY_COUNT - 1)]);
+    }
+}
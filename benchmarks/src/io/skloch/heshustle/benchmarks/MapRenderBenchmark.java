@@ -0,0 +1,82 @@
+package io.skloch.heshustle.benchmarks;
+
+import com.badlogic.gdx.graphics.OrthographicCamera;
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.maps.MapRenderer;
+import com.badlogic.gdx.maps.tiled.TiledMap;
+import com.badlogic.gdx.maps.tiled.TmxMapLoader;
+import com.badlogic.gdx.maps.tiled.renderers.OrthogonalTiledMapRenderer;
+import com.badlogic.gdx.utils.Disposable;
+import com.heslingtonhustle.renderer.CachedTiledMapRenderer;
+import com.heslingtonhustle.screens.PlayScreen;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures drawing a frame of the map with libGDX's renderer, which sends
+ * every visible tile to the batch each frame, against CachedTiledMapRenderer,
+ * which draws tiles baked into a cache. The camera pans across the map as it
+ * would following the player, either at the game's zoom or zoomed out to
+ * the whole map. The renderers have no real OpenGL behind them, see HeadlessGdx.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapRenderBenchmark {
+    // The game's 1280x720 window at PlayScreen's zoom of 4.5
+    private static final float VIEW_WIDTH = 1280 / 4.5f;
+    private static final float VIEW_HEIGHT = 720 / 4.5f;
+
+    @Param({"orthogonal", "cached"})
+    public String renderer;
+
+    @Param({"player", "map"})
+    public String view;
+
+    private TiledMap map;
+    private SpriteBatch batch;
+    private MapRenderer mapRenderer;
+    private OrthographicCamera camera;
+    private float mapWidth;
+    private float mapHeight;
+    private int frame;
+
+    @Setup
+    public void setup() {
+        HeadlessGdx.start();
+        map = new TmxMapLoader().load(PlayScreen.campusEastMapPath);
+        batch = new SpriteBatch();
+        mapRenderer = renderer.equals("cached")
+                ? new CachedTiledMapRenderer(map, batch)
+                : new OrthogonalTiledMapRenderer(map, batch);
+
+        mapWidth = map.getProperties().get("width", Integer.class) * map.getProperties().get("tilewidth", Integer.class);
+        mapHeight = map.getProperties().get("height", Integer.class) * map.getProperties().get("tileheight", Integer.class);
+        camera = view.equals("map")
+                ? new OrthographicCamera(mapWidth, mapHeight)
+                : new OrthographicCamera(VIEW_WIDTH, VIEW_HEIGHT);
+        // Bake before measuring, as the game does on the first frame
+        renderFrame();
+    }
+
+    @TearDown
+    public void tearDown() {
+        ((Disposable) mapRenderer).dispose();
+        batch.dispose();
+        map.dispose();
+    }
+
+    @Benchmark
+    public void renderFrame() {
+        // Pan diagonally across the map and back
+        float progress = Math.abs((frame++ % 600) / 300f - 1);
+        camera.position.set(mapWidth * progress, mapHeight * progress, 0);
+        camera.update();
+        mapRenderer.setView(camera);
+        mapRenderer.render();
+    }
+}
@@ -0,0 +1,65 @@
+package io.skloch.heshustle.benchmarks;
+
+import com.badlogic.gdx.math.Vector2;
+import com.heslingtonhustle.map.MapManager;
+import com.heslingtonhustle.simulation.GameSimulation;
+import com.heslingtonhustle.state.Action;
+import com.heslingtonhustle.state.Player;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.EnumSet;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures moving the player for a tick and pushing them out of anything
+ * they walked into, as GameSimulation does. The player walks diagonally
+ * back and forth around the campusEast spawn point, so some ticks collide.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PlayerMovementBenchmark {
+    // How many ticks to walk each way before turning around
+    private static final int PACE_TICKS = 64;
+
+    private MapManager mapManager;
+    private Player player;
+    private Vector2 spawn;
+    private final EnumSet<Action> walkOut = EnumSet.noneOf(Action.class);
+    private final EnumSet<Action> walkBack = EnumSet.noneOf(Action.class);
+    private int tick;
+
+    @Setup
+    public void setup() {
+        HeadlessGdx.start();
+        mapManager = new MapManager(true);
+        mapManager.loadMap("Maps/campusEast.tmx");
+        spawn = mapManager.getSpawnPoint();
+        player = new Player(0.9f, 0.9f);
+        player.setPosition(spawn);
+
+        walkOut.add(Action.MOVE_LEFT);
+        walkOut.add(Action.MOVE_UP);
+        walkBack.add(Action.MOVE_RIGHT);
+        walkBack.add(Action.MOVE_DOWN);
+    }
+
+    @TearDown
+    public void tearDown() {
+        mapManager.dispose();
+    }
+
+    @Benchmark
+    public Player moveAndCollide() {
+        // Collisions can stop the player getting all the way back, so start again each lap
+        if (tick % (PACE_TICKS * 2) == 0) {
+            player.setPosition(spawn);
+        }
+        player.move((tick++ / PACE_TICKS) % 2 == 0 ? walkOut : walkBack, GameSimulation.TIME_STEP);
+        player.collide(mapManager.getOverlappingRectangles(player.getCollisionBox()));
+        return player;
+    }
+}
@@ -0,0 +1,92 @@
+package io.skloch.heshustle.benchmarks;
+
+import com.badlogic.gdx.Gdx;
+import com.heslingtonhustle.input.InputRecorder;
+import com.heslingtonhustle.input.ReplayInputHandler;
+import com.heslingtonhustle.input.ScriptedInputHandler;
+import com.heslingtonhustle.map.MapManager;
+import com.heslingtonhustle.screens.PlayScreen;
+import com.heslingtonhustle.simulation.GameSimulation;
+import com.heslingtonhustle.state.Action;
+import com.heslingtonhustle.state.DialogueManager;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures replaying a whole recorded session through the game logic, with no
+ * rendering and no frame cap, so the result is how long the ticks themselves take.
+ * A recording saved in game with F5 can be replayed with
+ * -Pjmh.params="replayFile=recording-123.hhrec", relative to the assets folder.
+ * Without one, a recording is made from a script that wanders around campus
+ * for ten minutes of game time.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ReplayBenchmark {
+    // Ten minutes of game time
+    private static final int SCRIPTED_TICKS = 60 * 60 * 10;
+
+    @Param({""})
+    public String replayFile;
+
+    private byte[] recording;
+    private GameSimulation simulation;
+    private ReplayInputHandler replay;
+
+    @Setup(Level.Trial)
+    public void record() {
+        HeadlessGdx.start();
+        if (!replayFile.isEmpty()) {
+            recording = Gdx.files.local(replayFile).readBytes();
+            return;
+        }
+
+        ScriptedInputHandler input = new ScriptedInputHandler()
+                .press(Action.INTERACT)
+                .hold(90, Action.MOVE_DOWN)
+                .hold(120, Action.MOVE_RIGHT)
+                .press(Action.MAP)
+                .waitTicks(120)
+                .press(Action.MAP)
+                .waitTicks(60)
+                .hold(120, Action.MOVE_LEFT)
+                .hold(90, Action.MOVE_UP, Action.MOVE_LEFT)
+                .press(Action.INTERACT)
+                .waitTicks(30);
+        input.setLooping(true);
+
+        InputRecorder recorder = new InputRecorder();
+        GameSimulation simulation = newSimulation();
+        simulation.setRecorder(recorder);
+        simulation.run(input, SCRIPTED_TICKS);
+        recording = recorder.toBytes();
+    }
+
+    /**
+     * Starts each replay from a new game, outside of the measured time
+     */
+    @Setup(Level.Invocation)
+    public void newGame() {
+        simulation = newSimulation();
+        replay = new ReplayInputHandler(recording, replayFile.isEmpty() ? "scripted recording" : replayFile);
+    }
+
+    @TearDown(Level.Invocation)
+    public void endGame() {
+        simulation.getMapManager().dispose();
+    }
+
+    private static GameSimulation newSimulation() {
+        return new GameSimulation(new DialogueManager(null), new MapManager(true), PlayScreen.campusEastMapPath);
+    }
+
+    @Benchmark
+    public long replayWholeGame() {
+        return simulation.replay(replay);
+    }
+}
@@ -0,0 +1,89 @@
+package io.skloch.heshustle.benchmarks;
+
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.utils.Array;
+import com.heslingtonhustle.map.SpatialGrid;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures finding the nearest trigger to the player on stress maps with
+ * thousands of triggers, comparing the old linear search (with its Vector2
+ * and Math.pow distance) against the trigger grid used by MapManager.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TriggerQueryBenchmark {
+    private static final float MAP_WIDTH = 137 * 16;
+    private static final float MAP_HEIGHT = 96 * 16;
+    private static final int QUERY_COUNT = 1024;
+
+    @Param({"100", "1000", "5000", "20000"})
+    public int triggerCount;
+
+    private Array<Rectangle> triggers;
+    private SpatialGrid<Rectangle> grid;
+    private Rectangle[] queries;
+    private int next;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(16);
+        triggers = new Array<>(triggerCount);
+        grid = new SpatialGrid<>(MAP_WIDTH, MAP_HEIGHT, 64);
+        for (int i = 0; i < triggerCount; i++) {
+            Rectangle trigger = new Rectangle(
+                    random.nextFloat() * MAP_WIDTH, random.nextFloat() * MAP_HEIGHT,
+                    8 + random.nextFloat() * 24, 8 + random.nextFloat() * 24);
+            triggers.add(trigger);
+            grid.add(trigger, trigger);
+        }
+
+        // The player's trigger box in pixels
+        queries = new Rectangle[QUERY_COUNT];
+        for (int i = 0; i < QUERY_COUNT; i++) {
+            queries[i] = new Rectangle(
+                    random.nextFloat() * MAP_WIDTH, random.nextFloat() * MAP_HEIGHT,
+                    43.2f, 36f);
+        }
+    }
+
+    @Benchmark
+    public Rectangle linearScan() {
+        Rectangle query = queries[next++ & (QUERY_COUNT - 1)];
+        float closestDistance = -1f;
+        Rectangle closest = null;
+        for (Rectangle trigger : triggers) {
+            if (query.overlaps(trigger)) {
+                float distance = distanceBetween(trigger, query);
+                if (closest == null || distance < closestDistance) {
+                    closest = trigger;
+                    closestDistance = distance;
+                }
+            }
+        }
+        return closest;
+    }
+
+    @Benchmark
+    public Rectangle gridNearest() {
+        return grid.nearest(queries[next++ & (QUERY_COUNT - 1)]);
+    }
+
+    /**
+     * The distance calculation MapManager used before the trigger grid
+     */
+    private static float distanceBetween(Rectangle rect1, Rectangle rect2) {
+        Vector2 centres1 = new Vector2(rect1.width / 2 + rect1.x, rect1.height / 2 + rect1.y);
+        Vector2 centres2 = new Vector2(rect2.width / 2 +  rect2.x, rect2.height / 2 + rect2.y);
+
+        return (float) Math.sqrt((Math.pow((centres1.x - centres2.x), 2) + Math.pow((centres1.y - centres2.y), 2)));
+    }
+}
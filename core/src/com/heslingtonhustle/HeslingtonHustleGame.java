@@ -4,19 +4,27 @@ import com.badlogic.gdx.Application;
 import com.badlogic.gdx.Game;
 import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.Screen;
+import com.badlogic.gdx.assets.AssetManager;
 import com.badlogic.gdx.files.FileHandle;
 import com.badlogic.gdx.math.Vector2;
 import com.badlogic.gdx.scenes.scene2d.ui.Skin;
+import com.badlogic.gdx.utils.TimeUtils;
+import com.heslingtonhustle.assets.AssetManifest;
+import com.heslingtonhustle.assets.TextureCache;
+import com.heslingtonhustle.input.ReplayInputHandler;
 import com.heslingtonhustle.screens.*;
 import com.heslingtonhustle.sound.SoundController;
 import com.heslingtonhustle.sound.Sounds;
 import com.heslingtonhustle.state.Activity;
+import com.heslingtonhustle.state.LeaderboardManager;
 
 import java.util.HashMap;
 
 public class HeslingtonHustleGame extends Game {
 	private Screen currentScreen;
 	private Screen previousScreen;
+	// The menu screens, kept rather than made again each time they're switched to
+	private ScreenPool screenPool;
 
 	public int width;
 	public int height;
@@ -26,6 +34,19 @@ public class HeslingtonHustleGame extends Game {
 
 	public static final String UiSkinAsset = "Graphics/uiskin/uiskin.json";
 	public static final String CreditsFilePath = "Text/credits.txt";
+	public AssetManager assets;
+	// Screens get their textures from here so they're shared rather than loaded again
+	public TextureCache textures;
+	// How long to spend loading assets each frame while the menus are open
+	private static final int BACKGROUND_LOAD_MILLIS = 8;
+	private boolean loadingInBackground;
+	// Used to log how long startup took
+	private long startTime;
+	private boolean firstMenuFrame;
+	// A recording to play back instead of the keyboard when the game starts, see setReplayPath
+	private String replayPath;
+	// A leaderboard service to share scores with, see setLeaderboardServer
+	private String leaderboardServer;
 
 
 	/**
@@ -44,25 +65,105 @@ public class HeslingtonHustleGame extends Game {
 	@Override
 	public void create() {
 		Gdx.app.setLogLevel(Application.LOG_DEBUG); // Logs all messages to the console
-		// Load skin
-		skin = new Skin(Gdx.files.internal(UiSkinAsset));
+		startTime = TimeUtils.millis();
 
 		credits = readTextFile(CreditsFilePath);
+		if (leaderboardServer != null) {
+			LeaderboardManager.useService(leaderboardServer);
+		}
 
-		soundController = new SoundController();
+		// Only the menu's assets are needed to show it, the rest load in the background
+		assets = AssetManifest.createAssetManager();
+		textures = new TextureCache(assets);
+		screenPool = new ScreenPool(this::createScreen);
+		AssetManifest.queue(assets, AssetManifest.MENU);
+		currentScreen = new LoadingScreen(this, this::menuLoaded);
+		setScreen(currentScreen);
+	}
+
+	/**
+	 * Called once the menu's assets have loaded, shows the menu
+	 * and starts loading the rest of the game's assets
+	 */
+	private void menuLoaded() {
+		Gdx.app.debug("DEBUG", "Menu assets loaded after " + TimeUtils.timeSinceMillis(startTime) + "ms");
+		skin = assets.get(UiSkinAsset, Skin.class);
+		soundController = new SoundController(assets);
+
+		AssetManifest.queue(assets, AssetManifest.GAME);
+		loadingInBackground = true;
+		firstMenuFrame = true;
 
 		switchScreen(AvailableScreens.MenuScreen, false);
 	}
 
+	/**
+	 * Loads assets in the background for part of the frame, then renders the current screen
+	 */
+	@Override
+	public void render() {
+		// Anything queued once the menu is up is loaded a bit each frame,
+		// including maps prefetched during the game
+		if (skin != null && assets.update(BACKGROUND_LOAD_MILLIS) && loadingInBackground) {
+			loadingInBackground = false;
+			Gdx.app.debug("DEBUG", "All assets loaded after " + TimeUtils.timeSinceMillis(startTime) + "ms");
+		}
+
+		super.render();
 
+		if (firstMenuFrame) {
+			firstMenuFrame = false;
+			Gdx.app.debug("DEBUG", "First menu frame after " + TimeUtils.timeSinceMillis(startTime) + "ms");
+		}
+	}
+
+	/**
+	 * Starts the game, waiting on a loading screen if the game's
+	 * assets haven't finished loading in the background yet
+	 * @param player The texture prefix of the player's chosen avatar
+	 */
 	public void startGame(String player) {
-		currentScreen = new PlayScreen(this, player);
+		if (!assets.isFinished()) {
+			currentScreen = new LoadingScreen(this, () -> startGame(player));
+			setScreen(currentScreen);
+			return;
+		}
+		if (currentScreen instanceof LoadingScreen) {
+			currentScreen.dispose();
+		}
+
+		long start = TimeUtils.millis();
+		ReplayInputHandler replay = null;
+		if (replayPath != null) {
+			replay = ReplayInputHandler.read(Gdx.files.local(replayPath));
+			Gdx.app.debug("DEBUG", "Replaying " + replay.totalTicks() + " ticks from " + replayPath);
+		}
+		currentScreen = new PlayScreen(this, player, replay);
 		soundController.setMusic(Sounds.GAME);
+		Gdx.app.debug("DEBUG", "Game started in " + TimeUtils.timeSinceMillis(start) + "ms");
 
 		setScreen(currentScreen);
 	}
 
 
+	/**
+	 * Shares the leaderboard with other kiosks through a LeaderboardServer
+	 * instead of keeping it on this computer
+	 * @param leaderboardServer The service's address, such as http://localhost:8086
+	 */
+	public void setLeaderboardServer(String leaderboardServer) {
+		this.leaderboardServer = leaderboardServer;
+	}
+
+	/**
+	 * Plays back a recording saved with F5 instead of reading the keyboard
+	 * whenever a game is started
+	 * @param replayPath The recording's path, relative to the working directory
+	 */
+	public void setReplayPath(String replayPath) {
+		this.replayPath = replayPath;
+	}
+
 	/**
 	 * Switches the game's screen to a new screen, while optionally storing
 	 * a reference to the previous screen so it can be restored
@@ -76,37 +177,69 @@ public class HeslingtonHustleGame extends Game {
 			previousScreen = currentScreen;
 		} else {
 			previousScreen = null;
-			if (currentScreen != null) {
-				currentScreen.dispose();
-			}
+			disposeScreen(currentScreen);
 		}
 
+		currentScreen = screenPool.get(screen);
 		switch (screen) {
 			case MenuScreen:
-				currentScreen = new MenuScreen(this);
+			case CreditScreen:
 				soundController.setMusic(Sounds.MENU);
 				break;
+		}
+
+		setScreen(currentScreen);
+	}
+
+	/**
+	 * Makes a new menu screen for the screen pool
+	 * @param screen The screen to make
+	 * @return The new screen
+	 */
+	private Screen createScreen(AvailableScreens screen) {
+		switch (screen) {
+			case MenuScreen:
+				return new MenuScreen(this);
 			case LeaderboardScreen:
-				currentScreen = new LeaderboardScreen(this);
-//				soundController.setMusic(Sounds.MENU);
-				break;
+				return new LeaderboardScreen(this);
 			case OptionsScreen:
-				currentScreen = new OptionsScreen(this);
-//				soundController.setMusic(Sounds.MENU);
-				break;
+				return new OptionsScreen(this);
 			case CreditScreen:
-				currentScreen = new CreditScreen(this);
-				soundController.setMusic(Sounds.MENU);
-				break;
+				return new CreditScreen(this);
 			case TutorialScreen:
-				currentScreen = new TutorialScreen(this);
-				break;
+				return new TutorialScreen(this);
 			case AvatarSelectScreen:
-				currentScreen = new AvatarSelectScreen(this);
-				break;
+				return new AvatarSelectScreen(this);
+			default:
+				throw new IllegalArgumentException(screen + " can't be switched to directly");
 		}
+	}
 
-		setScreen(currentScreen);
+	/**
+	 * Disposes a screen that is no longer needed, unless it's kept in the screen pool
+	 * @param screen The screen, or null
+	 */
+	private void disposeScreen(Screen screen) {
+		if (screen != null && !screenPool.contains(screen)) {
+			screen.dispose();
+		}
+	}
+
+	/**
+	 * Disposes the pooled menu screens that aren't being shown, to free memory
+	 * when the game is in the background. They're made again when next needed.
+	 */
+	public void evictScreens() {
+		screenPool.evict(currentScreen, previousScreen);
+	}
+
+	/**
+	 * Frees what memory can be freed while the game isn't being shown
+	 */
+	@Override
+	public void pause() {
+		super.pause();
+		evictScreens();
 	}
 
 	/**
@@ -117,9 +250,7 @@ public class HeslingtonHustleGame extends Game {
 	 */
 	public void switchToPreviousScreen(AvailableScreens onNone) {
 		if (previousScreen != null) {
-			if (currentScreen != null) {
-				currentScreen.dispose();
-			}
+			disposeScreen(currentScreen);
 			currentScreen = previousScreen;
 			setScreen(currentScreen);
 			currentScreen.resume();
@@ -139,9 +270,7 @@ public class HeslingtonHustleGame extends Game {
 	 *                        achievement
 	 */
 	public void gameOver(HashMap<String, Activity> activitiesCompleted, boolean stepAchievement) {
-		if (currentScreen != null) {
-			currentScreen.dispose();
-		}
+		disposeScreen(currentScreen);
 		currentScreen = new GameOverScreen(this, activitiesCompleted, stepAchievement);
 		setScreen(currentScreen);
 
@@ -165,6 +294,21 @@ public class HeslingtonHustleGame extends Game {
 
 	}
 
+	/**
+	 * Disposes the current screen, the pooled screens and all loaded assets
+	 */
+	@Override
+	public void dispose() {
+		super.dispose();
+		disposeScreen(currentScreen);
+		screenPool.dispose();
+		if (soundController != null) {
+			soundController.dispose();
+		}
+		assets.dispose();
+		LeaderboardManager.close();
+	}
+
 	/**
 	 * @return The current screen (for testing)
 	 */
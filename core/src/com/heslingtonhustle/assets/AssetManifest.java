@@ -0,0 +1,90 @@
+package com.heslingtonhustle.assets;
+
+import com.badlogic.gdx.assets.AssetDescriptor;
+import com.badlogic.gdx.assets.AssetManager;
+import com.badlogic.gdx.audio.Music;
+import com.badlogic.gdx.audio.Sound;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.BitmapFont;
+import com.badlogic.gdx.graphics.g2d.TextureAtlas;
+import com.badlogic.gdx.maps.tiled.TiledMap;
+import com.badlogic.gdx.maps.tiled.TmxMapLoader;
+import com.badlogic.gdx.scenes.scene2d.ui.Skin;
+import com.heslingtonhustle.HeslingtonHustleGame;
+import com.heslingtonhustle.map.CompiledMapLoader;
+import com.heslingtonhustle.map.MapManager;
+import com.heslingtonhustle.renderer.HudRenderer;
+import com.heslingtonhustle.screens.GameOverScreen;
+import com.heslingtonhustle.screens.MenuScreen;
+import com.heslingtonhustle.screens.PlayScreen;
+import com.heslingtonhustle.screens.TutorialScreen;
+import com.heslingtonhustle.sound.SoundController;
+
+/**
+ * Lists every asset the game loads through its AssetManager.
+ * Assets are split in two, the menu assets are loaded before anything is shown,
+ * then the game assets are loaded in the background while the player is in the menus.
+ */
+public final class AssetManifest {
+    /**
+     * Everything needed to show the menus
+     */
+    public static final AssetDescriptor<?>[] MENU = {
+            new AssetDescriptor<>(HeslingtonHustleGame.UiSkinAsset, Skin.class),
+            new AssetDescriptor<>(MenuScreen.menuBackgroundAsset, Texture.class),
+            new AssetDescriptor<>(SoundController.MenuMusicAsset, Music.class),
+            new AssetDescriptor<>(SoundController.OpenSfxAsset, Sound.class),
+            new AssetDescriptor<>(SoundController.CloseSfxAsset, Sound.class),
+            new AssetDescriptor<>(SoundController.OptionSwitchSfxAsset, Sound.class),
+            new AssetDescriptor<>(SoundController.ConfirmSfxAsset, Sound.class),
+    };
+
+    /**
+     * Everything needed to play the game, and the tutorial and game over screens
+     */
+    public static final AssetDescriptor<?>[] GAME = {
+            new AssetDescriptor<>(SoundController.GameMusicAsset, Music.class),
+            new AssetDescriptor<>(PlayScreen.playerAtlasAsset, TextureAtlas.class),
+            new AssetDescriptor<>(MapManager.npcAtlasAsset, TextureAtlas.class),
+            new AssetDescriptor<>(MapManager.labelFontAsset, BitmapFont.class),
+            new AssetDescriptor<>(HudRenderer.blackScreenAsset, Texture.class),
+            new AssetDescriptor<>(GameOverScreen.gameOverTableBackgroundAsset, Texture.class),
+            new AssetDescriptor<>(GameOverScreen.gameOverPath, Texture.class),
+            new AssetDescriptor<>(TutorialScreen.tutorialAsset1, Texture.class),
+            new AssetDescriptor<>(TutorialScreen.tutorialAsset2, Texture.class),
+            new AssetDescriptor<>(PlayScreen.campusEastMapPath, TiledMap.class),
+            new AssetDescriptor<>("Maps/urbanMap.tmx", TiledMap.class),
+    };
+
+    private AssetManifest() { }
+
+    /**
+     * Creates an asset manager that can load everything in the manifest,
+     * including compiled maps
+     * @return The new asset manager
+     */
+    public static AssetManager createAssetManager() {
+        AssetManager assets = new AssetManager();
+        // Maps that haven't been compiled, or have changed since, are loaded from their TMX file
+        assets.setLoader(TiledMap.class, ".tmx", new TmxMapLoader(assets.getFileHandleResolver()));
+        assets.setLoader(TiledMap.class, CompiledMapLoader.COMPILED_EXTENSION,
+                new CompiledMapLoader(assets.getFileHandleResolver()));
+        return assets;
+    }
+
+    /**
+     * Queues a list of assets to be loaded by an asset manager
+     * @param assets The asset manager to load with
+     * @param manifest The assets to load, either MENU or GAME
+     */
+    public static void queue(AssetManager assets, AssetDescriptor<?>[] manifest) {
+        for (AssetDescriptor<?> asset : manifest) {
+            if (asset.type == TiledMap.class) {
+                // Use the compiled map if the maps have been compiled
+                assets.load(CompiledMapLoader.findMapFile(asset.fileName), TiledMap.class);
+            } else {
+                assets.load(asset);
+            }
+        }
+    }
+}
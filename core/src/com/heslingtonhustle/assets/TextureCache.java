@@ -0,0 +1,94 @@
+package com.heslingtonhustle.assets;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.assets.AssetManager;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.ObjectIntMap;
+
+/**
+ * Textures shared between screens, counting how many screens are using each one.
+ * A texture is loaded through the game's AssetManager the first time it's acquired,
+ * and unloaded once every screen using it has released it. Textures that are in the
+ * AssetManifest stay loaded anyway, so screens that use them open straight away.
+ * Screens should acquire their textures when they are created and release them in dispose().
+ */
+public class TextureCache {
+    private final AssetManager assets;
+    private final ObjectIntMap<String> references = new ObjectIntMap<>();
+
+    /**
+     * @param assets The asset manager to load textures with
+     */
+    public TextureCache(AssetManager assets) {
+        this.assets = assets;
+    }
+
+    /**
+     * Gets a texture, loading it if it isn't already
+     * @param path The texture's path in the assets
+     * @return The texture, which must not be disposed, use release instead
+     */
+    public Texture acquire(String path) {
+        int count = references.get(path, 0);
+        if (count == 0) {
+            // Holds one reference in the asset manager for as long as any screen uses it
+            assets.load(path, Texture.class);
+            if (!assets.isLoaded(path, Texture.class)) {
+                Gdx.app.debug("DEBUG", "Loading texture " + path + " straight away");
+            }
+            assets.finishLoadingAsset(path);
+        }
+        references.put(path, count + 1);
+        return assets.get(path, Texture.class);
+    }
+
+    /**
+     * Acquires a texture and adds its path to a list, to release them all later
+     * @param path The texture's path in the assets
+     * @param acquired The list of paths to add the path to
+     * @return The texture
+     */
+    public Texture acquire(String path, Array<String> acquired) {
+        Texture texture = acquire(path);
+        acquired.add(path);
+        return texture;
+    }
+
+    /**
+     * Stops using a texture, unloading it if nothing else is using it
+     * @param path The texture's path in the assets
+     * @throws IllegalStateException If the texture hasn't been acquired
+     */
+    public void release(String path) {
+        int count = references.get(path, 0);
+        if (count == 0) {
+            throw new IllegalStateException("Texture " + path + " was released more times than it was acquired");
+        }
+        if (count == 1) {
+            references.remove(path, 0);
+            assets.unload(path);
+        } else {
+            references.put(path, count - 1);
+        }
+    }
+
+    /**
+     * Releases every texture in a list, then empties it
+     * @param acquired The paths of the textures to release
+     */
+    public void releaseAll(Array<String> acquired) {
+        for (int i = 0; i < acquired.size; i++) {
+            release(acquired.get(i));
+        }
+        acquired.clear();
+    }
+
+    /**
+     * @param path A texture's path in the assets
+     * @return The number of times the texture has been acquired and not released
+     */
+    public int getReferences(String path) {
+        return references.get(path, 0);
+    }
+}
@@ -0,0 +1,134 @@
+package com.heslingtonhustle.input;
+
+import com.heslingtonhustle.state.Action;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A fixed size queue of timestamped key events, each an action going down or up.
+ * One thread offers events and one other thread polls them, without locking:
+ * each side only writes its own index, and an event's slot is filled before the
+ * producer's index is moved past it.
+ * Nothing is allocated once the queue is made. If the queue fills up, new events
+ * are dropped and counted rather than waiting for the consumer.
+ */
+public class InputEventQueue {
+    private final int capacity;
+    private final int mask;
+    private final long[] times;
+    private final Action[] actions;
+    private final boolean[] down;
+    // The next event to write, only moved by the producer
+    private final AtomicLong tail = new AtomicLong();
+    // The next event to read, only moved by the consumer
+    private final AtomicLong head = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+
+    // The last event polled, only used by the consumer
+    private long polledTime;
+    private Action polledAction;
+    private boolean polledDown;
+
+    /**
+     * @param capacity The most events that can be waiting, a power of two
+     */
+    public InputEventQueue(int capacity) {
+        if (capacity <= 0 || (capacity & (capacity - 1)) != 0) {
+            throw new IllegalArgumentException("Capacity must be a power of two, not " + capacity);
+        }
+        this.capacity = capacity;
+        mask = capacity - 1;
+        times = new long[capacity];
+        actions = new Action[capacity];
+        down = new boolean[capacity];
+    }
+
+    /**
+     * Adds an event to the back of the queue. Only call from the producer thread.
+     * @param action The action of the key
+     * @param isDown True if the key went down, false if it came up
+     * @param time When it happened in nanoseconds, from System.nanoTime
+     * @return False if the queue was full, so the event was dropped
+     */
+    public boolean offer(Action action, boolean isDown, long time) {
+        long next = tail.get();
+        if (next - head.get() >= capacity) {
+            dropped.incrementAndGet();
+            return false;
+        }
+        int slot = (int) next & mask;
+        times[slot] = time;
+        actions[slot] = action;
+        down[slot] = isDown;
+        // Publishes the slot to the consumer
+        tail.lazySet(next + 1);
+        return true;
+    }
+
+    /**
+     * Takes the event at the front of the queue, which can then be read with
+     * getAction, isDown and getTime. Only call from the consumer thread.
+     * @return False if the queue was empty
+     */
+    public boolean poll() {
+        long next = head.get();
+        if (next == tail.get()) return false;
+        int slot = (int) next & mask;
+        polledTime = times[slot];
+        polledAction = actions[slot];
+        polledDown = down[slot];
+        // Gives the slot back to the producer
+        head.lazySet(next + 1);
+        return true;
+    }
+
+    /**
+     * @return The time of the event at the front of the queue, or Long.MAX_VALUE if it's empty
+     */
+    public long peekTime() {
+        long next = head.get();
+        if (next == tail.get()) return Long.MAX_VALUE;
+        return times[(int) next & mask];
+    }
+
+    /**
+     * @return The action of the last event polled
+     */
+    public Action getAction() {
+        return polledAction;
+    }
+
+    /**
+     * @return True if the last event polled was a key going down
+     */
+    public boolean isDown() {
+        return polledDown;
+    }
+
+    /**
+     * @return When the last event polled happened in nanoseconds
+     */
+    public long getTime() {
+        return polledTime;
+    }
+
+    /**
+     * @return The number of events waiting
+     */
+    public int size() {
+        // Head first, as it can only catch up to tail
+        long read = head.get();
+        return (int) (tail.get() - read);
+    }
+
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    /**
+     * @return The number of events dropped because the queue was full
+     */
+    public long getDropped() {
+        return dropped.get();
+    }
+}
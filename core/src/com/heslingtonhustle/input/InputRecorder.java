@@ -0,0 +1,141 @@
+package com.heslingtonhustle.input;
+
+import com.badlogic.gdx.files.FileHandle;
+import com.heslingtonhustle.state.Action;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Set;
+
+/**
+ * Records the actions the game logic is given each tick, so a playthrough can be
+ * replayed exactly with ReplayInputHandler.
+ * Ticks with the same actions are stored together as a run, so long stretches of
+ * walking or standing still take a few bytes.
+ * <p>
+ * The file is big endian, starting with a header:
+ * <pre>
+ * int  MAGIC
+ * byte VERSION
+ * byte number of actions, so recordings made before Action changed are refused
+ * int  number of ticks
+ * </pre>
+ * followed by runs until the end of the file, each one:
+ * <pre>
+ * varint held actions, bit n set for the action with ordinal n
+ * varint pressed actions, as above
+ * byte   FLAG_PAUSED if the game was paused
+ * varint number of ticks in the run
+ * </pre>
+ */
+public class InputRecorder {
+    static final int MAGIC = 0x48484952;
+    static final int VERSION = 1;
+    static final int FLAG_PAUSED = 1;
+    static final Action[] ACTIONS = Action.values();
+
+    private final ByteArrayOutputStream runs = new ByteArrayOutputStream();
+    // The run being recorded, written out once a tick differs from it
+    private int held;
+    private int pressed;
+    private boolean paused;
+    private int runTicks;
+    private int ticks;
+
+    public InputRecorder() {
+        // Each action is a bit of an int
+        if (ACTIONS.length > 31) {
+            throw new IllegalStateException("Too many actions to record");
+        }
+    }
+
+    /**
+     * Records the actions given to the game logic for one tick
+     * @param heldActions The actions held down during the tick
+     * @param pressedActions The actions pressed during the tick
+     * @param paused True if the game was paused during the tick
+     */
+    public void record(Set<Action> heldActions, Set<Action> pressedActions, boolean paused) {
+        int held = toMask(heldActions);
+        int pressed = toMask(pressedActions);
+        if (runTicks > 0 && (held != this.held || pressed != this.pressed || paused != this.paused)) {
+            writeRun(runs);
+            runTicks = 0;
+        }
+        this.held = held;
+        this.pressed = pressed;
+        this.paused = paused;
+        runTicks++;
+        ticks++;
+    }
+
+    /**
+     * Turns a set of actions into a bit for each, checking each action in
+     * turn rather than iterating the set so nothing is allocated
+     */
+    static int toMask(Set<Action> actions) {
+        int mask = 0;
+        if (actions.isEmpty()) return mask;
+        for (int i = 0; i < ACTIONS.length; i++) {
+            if (actions.contains(ACTIONS[i])) {
+                mask |= 1 << i;
+            }
+        }
+        return mask;
+    }
+
+    private void writeRun(ByteArrayOutputStream out) {
+        writeVarInt(out, held);
+        writeVarInt(out, pressed);
+        out.write(paused ? FLAG_PAUSED : 0);
+        writeVarInt(out, runTicks);
+    }
+
+    /**
+     * Writes an int 7 bits at a time, lowest first, with the top bit of each
+     * byte set if there are more to come
+     */
+    private static void writeVarInt(ByteArrayOutputStream out, int value) {
+        while ((value & ~0x7F) != 0) {
+            out.write((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.write(value);
+    }
+
+    /**
+     * @return The recording so far in the format described above
+     */
+    public byte[] toBytes() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(32 + runs.size());
+        out.write(MAGIC >>> 24);
+        out.write(MAGIC >>> 16);
+        out.write(MAGIC >>> 8);
+        out.write(MAGIC);
+        out.write(VERSION);
+        out.write(ACTIONS.length);
+        out.write(ticks >>> 24);
+        out.write(ticks >>> 16);
+        out.write(ticks >>> 8);
+        out.write(ticks);
+        byte[] finishedRuns = runs.toByteArray();
+        out.write(finishedRuns, 0, finishedRuns.length);
+        // The run being recorded is included, but kept going so recording can carry on
+        if (runTicks > 0) writeRun(out);
+        return out.toByteArray();
+    }
+
+    /**
+     * Saves the recording so far
+     * @param file The file to write, replacing anything already there
+     */
+    public void write(FileHandle file) {
+        file.writeBytes(toBytes(), false);
+    }
+
+    /**
+     * @return The number of ticks recorded
+     */
+    public int getTicks() {
+        return ticks;
+    }
+}
@@ -4,98 +4,175 @@ import com.badlogic.gdx.InputAdapter;
 import com.badlogic.gdx.Input.Keys;
 import com.heslingtonhustle.state.Action;
 
-import java.util.HashMap;
-import java.util.HashSet;
+import java.util.EnumSet;
+import java.util.function.LongSupplier;
 
 /**
  * Handles the user's inputs and translates these into Actions {@link Action} that the game can understand
+ * Key presses are queued with the time they happened, and only change the sets of actions
+ * when processEvents is called, so the game can take them in the order they happened,
+ * up to the time of each tick, and on a different thread to the one collecting them.
  * The set heldActions contains Actions called by keys that are being held down
  * The set pressedActions only contains Actions called on the pressed frame, and should be wiped afterwards
  */
 public class KeyboardInputHandler extends InputAdapter implements InputHandler {
-    private final HashMap<Integer, Action> inputMap;
-    private final HashSet<Action> heldActions;
-    private final HashSet<Action> pressedActions;
+    // Far more than can be pressed in a frame
+    public static final int EVENT_CAPACITY = 256;
+    // The action for each keycode, or null if the key does nothing
+    private final Action[] inputMap;
+    private final EnumSet<Action> heldActions;
+    private final EnumSet<Action> pressedActions;
+    private final InputEventQueue events;
+    private final LongSupplier clock;
+    // When the oldest event processed since takeOldestEventTime was called happened
+    private long oldestEventTime = Long.MAX_VALUE;
 
     /**
      * Assigns default keys to Actions, initialises empty sets heldActions and pressedActions to grab actions from
      */
     public KeyboardInputHandler() {
+        this(System::nanoTime);
+    }
+
+    /**
+     * @param clock Gives the current time in nanoseconds, to timestamp key presses with
+     */
+    public KeyboardInputHandler(LongSupplier clock) {
+        this.clock = clock;
+        events = new InputEventQueue(EVENT_CAPACITY);
 
         // Maps keys to actions
-        inputMap = new HashMap<>();
+        inputMap = new Action[Keys.MAX_KEYCODE + 1];
 
         // Sets for held and pressed Actions
-        heldActions = new HashSet<>();
-        pressedActions = new HashSet<>();
+        heldActions = EnumSet.noneOf(Action.class);
+        pressedActions = EnumSet.noneOf(Action.class);
 
         // Player movement keys
-        inputMap.put(Keys.D, Action.MOVE_RIGHT);
-        inputMap.put(Keys.A, Action.MOVE_LEFT);
-        inputMap.put(Keys.W, Action.MOVE_UP);
-        inputMap.put(Keys.S, Action.MOVE_DOWN);
+        inputMap[Keys.D] = Action.MOVE_RIGHT;
+        inputMap[Keys.A] = Action.MOVE_LEFT;
+        inputMap[Keys.W] = Action.MOVE_UP;
+        inputMap[Keys.S] = Action.MOVE_DOWN;
 
-        inputMap.put(Keys.RIGHT, Action.MOVE_RIGHT);
-        inputMap.put(Keys.LEFT, Action.MOVE_LEFT);
-        inputMap.put(Keys.UP, Action.MOVE_UP);
-        inputMap.put(Keys.DOWN, Action.MOVE_DOWN);
+        inputMap[Keys.RIGHT] = Action.MOVE_RIGHT;
+        inputMap[Keys.LEFT] = Action.MOVE_LEFT;
+        inputMap[Keys.UP] = Action.MOVE_UP;
+        inputMap[Keys.DOWN] = Action.MOVE_DOWN;
 
         // Other keys
-        inputMap.put(Keys.SPACE, Action.INTERACT);
-        inputMap.put(Keys.ENTER, Action.INTERACT);
-        inputMap.put(Keys.E, Action.INTERACT);
-        inputMap.put(Keys.M, Action.MAP);
-
-        inputMap.put(Keys.ESCAPE, Action.PAUSE);
-
-//        inputMap.put(Keys.COMMA, Action.DEBUGGING_ACTION1);
-//        inputMap.put(Keys.PERIOD, Action.DEBUGGING_ACTION2);
-//        inputMap.put(Keys.SLASH, Action.DEBUGGING_ACTION3);
+        inputMap[Keys.SPACE] = Action.INTERACT;
+        inputMap[Keys.ENTER] = Action.INTERACT;
+        inputMap[Keys.E] = Action.INTERACT;
+        inputMap[Keys.M] = Action.MAP;
+
+        inputMap[Keys.ESCAPE] = Action.PAUSE;
+
+        // Frame profiler overlay, and saving what it has recorded
+        inputMap[Keys.F3] = Action.TOGGLE_PROFILER;
+        inputMap[Keys.F4] = Action.SAVE_PROFILE;
+        // Saving the input so far so the game can be replayed
+        inputMap[Keys.F5] = Action.SAVE_RECORDING;
+
+//        inputMap[Keys.COMMA] = Action.DEBUGGING_ACTION1;
+//        inputMap[Keys.PERIOD] = Action.DEBUGGING_ACTION2;
+//        inputMap[Keys.SLASH] = Action.DEBUGGING_ACTION3;
     }
 
     /**
-     * Removes the corresponding action of the key to the sets heldActions and pressedActions (if not cleared already)
+     * Queues the corresponding action of the key to be added to the sets heldActions and pressedActions
      *
      * @param keycode one of the constants in {@link com.badlogic.gdx.Input.Keys}
      * @return True if key corresponded to an actions, false otherwise
      */
     @Override
     public boolean keyDown(int keycode) {
-        if (!inputMap.containsKey(keycode)) return false;
-
-        heldActions.add(inputMap.get(keycode));
-        pressedActions.add(inputMap.get(keycode));
+        Action action = getAction(keycode);
+        if (action == null) return false;
 
+        events.offer(action, true, clock.getAsLong());
         return true;
     }
 
     /**
-     * Adds the corresponding action of the key to the sets heldActions and pressedActions
+     * Queues the corresponding action of the key to be removed from the set heldActions
      *
      * @param keycode one of the constants in {@link com.badlogic.gdx.Input.Keys}
      * @return True if key corresponded to an actions, false otherwise
      */
     @Override
     public boolean keyUp(int keycode) {
-        if (!inputMap.containsKey(keycode)) return false;
-
-        heldActions.remove(inputMap.get(keycode));
-        pressedActions.remove(inputMap.get(keycode));
+        Action action = getAction(keycode);
+        if (action == null) return false;
 
+        events.offer(action, false, clock.getAsLong());
         return true;
     }
 
+    /**
+     * Updates the held and pressed actions with every queued key press
+     */
+    public void processEvents() {
+        processEvents(Long.MAX_VALUE);
+    }
+
+    /**
+     * Updates the held and pressed actions with the queued key presses that happened
+     * up to a time, in the order they happened. Later ones are left queued.
+     * A key released straight after being pressed stays in pressedActions, so quick
+     * taps aren't lost, until resetPressedActions is called.
+     * @param until The time in nanoseconds, from the same clock as the key presses
+     */
+    public void processEvents(long until) {
+        while (events.peekTime() <= until && events.poll()) {
+            Action action = events.getAction();
+            if (events.isDown()) {
+                heldActions.add(action);
+                pressedActions.add(action);
+            } else {
+                heldActions.remove(action);
+            }
+            oldestEventTime = Math.min(oldestEventTime, events.getTime());
+        }
+    }
+
+    /**
+     * Gets when the oldest key press processed since the last call happened,
+     * to measure how long input takes to reach the screen
+     * @return The time in nanoseconds, or -1 if no key presses have been processed
+     */
+    public long takeOldestEventTime() {
+        long oldest = oldestEventTime == Long.MAX_VALUE ? -1 : oldestEventTime;
+        oldestEventTime = Long.MAX_VALUE;
+        return oldest;
+    }
+
+    /**
+     * @return The queue of key presses not processed yet
+     */
+    public InputEventQueue getEvents() {
+        return events;
+    }
+
+    /**
+     * @param keycode A keycode, which can be outside the known keys such as Keys.ANY_KEY
+     * @return The action the key is mapped to, or null if it isn't
+     */
+    private Action getAction(int keycode) {
+        if (keycode < 0 || keycode >= inputMap.length) return null;
+        return inputMap[keycode];
+    }
+
     /**
      * @return Returns a set of the actions corresponding to the currently pressed keys
      */
-    public HashSet<Action> getHeldActions() {
+    public EnumSet<Action> getHeldActions() {
         return heldActions;
     }
 
     /**
      * @return The actions corresponding to the keys pressed on this frame only
      */
-    public HashSet<Action> getPressedActions() {
+    public EnumSet<Action> getPressedActions() {
         return pressedActions;
     }
 
@@ -0,0 +1,184 @@
+package com.heslingtonhustle.input;
+
+import com.badlogic.gdx.InputAdapter;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.IntArray;
+import com.heslingtonhustle.state.Action;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.EnumSet;
+
+import static com.heslingtonhustle.input.InputRecorder.ACTIONS;
+
+/**
+ * Plays back a recording made by InputRecorder, giving the game logic the same
+ * actions on every tick as when it was recorded.
+ * As the game logic runs in fixed ticks, replaying a recording from the start of a
+ * new game plays out exactly the same game, however fast or slow the ticks are run.
+ * Call nextTick() before each game tick to move the recording along.
+ */
+public class ReplayInputHandler extends InputAdapter implements InputHandler {
+    // Each run of ticks with the same actions, see InputRecorder for the format
+    private final IntArray runHeld;
+    private final IntArray runPressed;
+    private final IntArray runFlags;
+    private final IntArray runTicks;
+    private final int totalTicks;
+    private final EnumSet<Action> heldActions;
+    private final EnumSet<Action> pressedActions;
+    private boolean paused;
+    private int runIndex;
+    private int ticksIntoRun;
+    private int ticksPlayed;
+
+    /**
+     * Reads a recording
+     * @param recording The recording's bytes, as made by InputRecorder.toBytes()
+     * @param name The name of the recording to use in errors
+     * @throws GdxRuntimeException If the recording can't be read
+     */
+    public ReplayInputHandler(byte[] recording, String name) {
+        runHeld = new IntArray();
+        runPressed = new IntArray();
+        runFlags = new IntArray();
+        runTicks = new IntArray();
+        heldActions = EnumSet.noneOf(Action.class);
+        pressedActions = EnumSet.noneOf(Action.class);
+
+        ByteBuffer data = ByteBuffer.wrap(recording);
+        try {
+            if (data.remaining() < 10 || data.getInt() != InputRecorder.MAGIC) {
+                throw new GdxRuntimeException(name + " isn't an input recording");
+            }
+            int version = data.get();
+            if (version != InputRecorder.VERSION) {
+                throw new GdxRuntimeException(name + " was recorded as version " + version
+                        + ", but only version " + InputRecorder.VERSION + " can be replayed");
+            }
+            int actionCount = data.get();
+            if (actionCount != ACTIONS.length) {
+                throw new GdxRuntimeException(name + " was recorded with " + actionCount
+                        + " actions, but the game now has " + ACTIONS.length);
+            }
+            totalTicks = data.getInt();
+
+            int ticks = 0;
+            while (data.hasRemaining()) {
+                runHeld.add(readVarInt(data));
+                runPressed.add(readVarInt(data));
+                runFlags.add(data.get());
+                int length = readVarInt(data);
+                if (length <= 0) {
+                    throw new GdxRuntimeException(name + " has a run of " + length + " ticks");
+                }
+                runTicks.add(length);
+                ticks += length;
+            }
+            if (ticks != totalTicks) {
+                throw new GdxRuntimeException(name + " should have " + totalTicks + " ticks, but has " + ticks);
+            }
+        } catch (BufferUnderflowException e) {
+            throw new GdxRuntimeException(name + " ends part way through", e);
+        }
+    }
+
+    /**
+     * Reads a recording from a file
+     * @param file The file saved by InputRecorder.write()
+     * @return A handler that plays the recording
+     * @throws GdxRuntimeException If the file can't be read
+     */
+    public static ReplayInputHandler read(FileHandle file) {
+        return new ReplayInputHandler(file.readBytes(), file.path());
+    }
+
+    private static int readVarInt(ByteBuffer data) {
+        int value = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            byte b = data.get();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) return value;
+        }
+        throw new GdxRuntimeException("Varint is too long");
+    }
+
+    /**
+     * Moves the recording along by one tick, setting the held and pressed actions
+     * and whether the game is paused for the tick about to be run
+     */
+    public void nextTick() {
+        heldActions.clear();
+        pressedActions.clear();
+
+        // Runs are never empty, so one step is enough
+        if (runIndex < runTicks.size && ticksIntoRun >= runTicks.get(runIndex)) {
+            runIndex++;
+            ticksIntoRun = 0;
+        }
+        if (runIndex >= runTicks.size) return;
+
+        addActions(heldActions, runHeld.get(runIndex));
+        addActions(pressedActions, runPressed.get(runIndex));
+        paused = (runFlags.get(runIndex) & InputRecorder.FLAG_PAUSED) != 0;
+        ticksIntoRun++;
+        ticksPlayed++;
+    }
+
+    private static void addActions(EnumSet<Action> actions, int mask) {
+        for (int i = 0; mask != 0 && i < ACTIONS.length; i++) {
+            if ((mask & (1 << i)) != 0) {
+                actions.add(ACTIONS[i]);
+            }
+        }
+    }
+
+    /**
+     * Starts the recording again from its first tick
+     */
+    public void restart() {
+        runIndex = 0;
+        ticksIntoRun = 0;
+        ticksPlayed = 0;
+        paused = false;
+        heldActions.clear();
+        pressedActions.clear();
+    }
+
+    /**
+     * @return True if the game was paused during the current tick
+     */
+    public boolean isPaused() {
+        return paused;
+    }
+
+    /**
+     * @return True if every tick of the recording has been played
+     */
+    public boolean isFinished() {
+        return ticksPlayed >= totalTicks;
+    }
+
+    /**
+     * @return The number of ticks the whole recording takes to play
+     */
+    public int totalTicks() {
+        return totalTicks;
+    }
+
+    @Override
+    public EnumSet<Action> getHeldActions() {
+        return heldActions;
+    }
+
+    @Override
+    public EnumSet<Action> getPressedActions() {
+        return pressedActions;
+    }
+
+    @Override
+    public void resetPressedActions() {
+        pressedActions.clear();
+    }
+}
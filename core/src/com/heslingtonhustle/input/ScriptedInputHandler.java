@@ -0,0 +1,208 @@
+package com.heslingtonhustle.input;
+
+import com.badlogic.gdx.InputAdapter;
+import com.badlogic.gdx.utils.Array;
+import com.heslingtonhustle.state.Action;
+
+import java.util.EnumSet;
+
+/**
+ * Plays back a script of actions instead of reading the keyboard, so the game
+ * can be played without anyone at the controls.
+ * A script is a list of steps, each holding or pressing some actions, or waiting,
+ * for a number of ticks. Call nextTick() before each game tick to move the script along.
+ * <p>
+ * Scripts can also be written as text, one step per line:
+ * <pre>
+ * hold MOVE_UP 30
+ * hold MOVE_UP,MOVE_RIGHT 10
+ * press INTERACT
+ * wait 200
+ * </pre>
+ * Blank lines and lines starting with # are ignored.
+ */
+public class ScriptedInputHandler extends InputAdapter implements InputHandler {
+    private final Array<Step> steps;
+    private final EnumSet<Action> heldActions;
+    private final EnumSet<Action> pressedActions;
+    private boolean looping;
+    private int stepIndex;
+    private int stepTicks;
+
+    public ScriptedInputHandler() {
+        steps = new Array<>();
+        heldActions = EnumSet.noneOf(Action.class);
+        pressedActions = EnumSet.noneOf(Action.class);
+    }
+
+    /**
+     * Adds a step holding down actions for a number of ticks
+     * @param ticks The number of ticks to hold the actions for
+     * @param actions The actions to hold
+     * @return This handler, so steps can be chained
+     */
+    public ScriptedInputHandler hold(int ticks, Action... actions) {
+        steps.add(new Step(actions, ticks, false));
+        return this;
+    }
+
+    /**
+     * Adds a step pressing actions once, taking a single tick
+     * @param actions The actions to press
+     * @return This handler, so steps can be chained
+     */
+    public ScriptedInputHandler press(Action... actions) {
+        steps.add(new Step(actions, 1, true));
+        return this;
+    }
+
+    /**
+     * Adds a step doing nothing for a number of ticks
+     * @param ticks The number of ticks to wait
+     * @return This handler, so steps can be chained
+     */
+    public ScriptedInputHandler waitTicks(int ticks) {
+        steps.add(new Step(new Action[0], ticks, false));
+        return this;
+    }
+
+    /**
+     * Moves the script along by one tick, setting the held and pressed actions
+     * for the tick about to be run
+     */
+    public void nextTick() {
+        heldActions.clear();
+        pressedActions.clear();
+
+        // Skip finished and empty steps
+        while (stepIndex < steps.size && stepTicks >= steps.get(stepIndex).ticks) {
+            stepIndex++;
+            stepTicks = 0;
+            if (stepIndex == steps.size && looping) {
+                stepIndex = 0;
+                // A loop of empty steps would never finish
+                if (totalTicks() == 0) return;
+            }
+        }
+        if (stepIndex >= steps.size) return;
+
+        Step step = steps.get(stepIndex);
+        for (Action action : step.actions) {
+            if (step.press) {
+                pressedActions.add(action);
+            } else {
+                heldActions.add(action);
+            }
+        }
+        stepTicks++;
+    }
+
+    /**
+     * Starts the script again from its first step
+     */
+    public void restart() {
+        stepIndex = 0;
+        stepTicks = 0;
+        heldActions.clear();
+        pressedActions.clear();
+    }
+
+    /**
+     * @param looping If true, the script starts again from the top once it finishes
+     */
+    public void setLooping(boolean looping) {
+        this.looping = looping;
+    }
+
+    /**
+     * @return True if every step of the script has been played
+     */
+    public boolean isFinished() {
+        return !looping && stepIndex >= steps.size;
+    }
+
+    /**
+     * @return The number of ticks the whole script takes to play once
+     */
+    public int totalTicks() {
+        int total = 0;
+        for (Step step : steps) {
+            total += step.ticks;
+        }
+        return total;
+    }
+
+    /**
+     * Reads a script written as text, see the class description for the format
+     * @param script The text of the script
+     * @return A handler that plays the script
+     * @throws IllegalArgumentException If a line of the script can't be read
+     */
+    public static ScriptedInputHandler parse(String script) {
+        ScriptedInputHandler handler = new ScriptedInputHandler();
+        String[] lines = script.split("\\r?\\n");
+        for (int i = 0; i < lines.length; i++) {
+            String line = lines[i].trim();
+            if (line.isEmpty() || line.startsWith("#")) continue;
+
+            String[] parts = line.split("\\s+");
+            try {
+                switch (parts[0].toLowerCase()) {
+                    case "hold":
+                        handler.hold(Integer.parseInt(parts[2]), parseActions(parts[1]));
+                        break;
+                    case "press":
+                        handler.press(parseActions(parts[1]));
+                        break;
+                    case "wait":
+                        handler.waitTicks(Integer.parseInt(parts[1]));
+                        break;
+                    default:
+                        throw new IllegalArgumentException("Unknown step '" + parts[0] + "'");
+                }
+            } catch (IndexOutOfBoundsException | IllegalArgumentException e) {
+                throw new IllegalArgumentException("Can't read line " + (i + 1) + " of script: " + line, e);
+            }
+        }
+        return handler;
+    }
+
+    private static Action[] parseActions(String actions) {
+        String[] names = actions.split(",");
+        Action[] parsed = new Action[names.length];
+        for (int i = 0; i < names.length; i++) {
+            parsed[i] = Action.valueOf(names[i].trim().toUpperCase());
+        }
+        return parsed;
+    }
+
+    @Override
+    public EnumSet<Action> getHeldActions() {
+        return heldActions;
+    }
+
+    @Override
+    public EnumSet<Action> getPressedActions() {
+        return pressedActions;
+    }
+
+    @Override
+    public void resetPressedActions() {
+        pressedActions.clear();
+    }
+
+    /**
+     * A single step of a script
+     */
+    private static class Step {
+        final Action[] actions;
+        final int ticks;
+        final boolean press;
+
+        Step(Action[] actions, int ticks, boolean press) {
+            this.actions = actions;
+            this.ticks = ticks;
+            this.press = press;
+        }
+    }
+}
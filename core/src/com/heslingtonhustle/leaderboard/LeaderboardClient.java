@@ -0,0 +1,272 @@
+package com.heslingtonhustle.leaderboard;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.utils.Array;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sends scores to a LeaderboardServer and keeps a copy of its top scores.
+ * Everything that touches the disk or network happens on the client's own
+ * thread, so nothing here ever makes the game wait.
+ * Scores are put in a SubmissionQueue on disk first, then sent in batches,
+ * so scores made while the service can't be reached are sent once it can be,
+ * even if the game is closed in between. If the queue file can't be used, scores
+ * are queued in memory instead, so they are still sent while the game is running.
+ * The top scores are fetched again after scores are sent and every REFRESH_SECONDS.
+ */
+public class LeaderboardClient implements Closeable {
+    public static final int REFRESH_SECONDS = 30;
+    // The most scores sent in one request
+    private static final int BATCH_SIZE = 100;
+    private static final int CONNECT_TIMEOUT_MILLIS = 2000;
+    private static final int READ_TIMEOUT_MILLIS = 5000;
+
+    private final URL server;
+    private final int topCount;
+    private final ScheduledExecutorService executor;
+    private final AtomicInteger pending = new AtomicInteger();
+    private final AtomicInteger version = new AtomicInteger();
+    // Only used on the client's thread
+    private SubmissionQueue queue;
+    // Replaced rather than changed, so it can be read from any thread
+    private volatile Array<LeaderboardStore.Entry> cachedTop = new Array<>();
+    private volatile boolean reachable;
+    private volatile boolean queueSaved = true;
+
+    /**
+     * Starts the client, which sends any scores left in the queue from
+     * last time and fetches the top scores straight away
+     * @param server The service's address, such as http://localhost:8086
+     * @param queueFile The file to keep unsent scores in
+     * @param topCount The number of top scores to keep a copy of
+     */
+    public LeaderboardClient(URL server, File queueFile, int topCount) {
+        this.server = server;
+        this.topCount = topCount;
+        executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "leaderboard-client");
+            // Don't keep the game running once it has closed
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.execute(() -> {
+            try {
+                queue = new SubmissionQueue(queueFile);
+            } catch (RuntimeException e) {
+                queue = new SubmissionQueue();
+                queueFailed("Couldn't read leaderboard queue " + queueFile, e);
+            }
+            // Added rather than set, as scores may already have been submitted
+            pending.addAndGet(queue.size());
+        });
+        executor.scheduleWithFixedDelay(this::sync, 0, REFRESH_SECONDS, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Queues a score to be sent to the service, returning straight away
+     * @param name The player's name, already checked with LeaderboardManager.isValidName
+     * @param score The player's score
+     */
+    public void submit(String name, int score) {
+        SubmissionQueue.Submission submission =
+                new SubmissionQueue.Submission(UUID.randomUUID().toString(), name, score);
+        pending.incrementAndGet();
+        executor.execute(() -> {
+            try {
+                queue.add(submission);
+            } catch (RuntimeException e) {
+                // It wasn't added, so it goes in memory with the rest
+                queueFailed("Couldn't write to leaderboard queue", e);
+                queue.add(submission);
+            }
+            sync();
+        });
+    }
+
+    /**
+     * Switches to queueing scores in memory, as the queue file can't be used
+     */
+    private void queueFailed(String message, RuntimeException e) {
+        queue.keepInMemory();
+        queueSaved = false;
+        if (Gdx.app != null) {
+            Gdx.app.error("LEADERBOARD", message + ", scores will be lost if the game closes before they are sent", e);
+        }
+    }
+
+    /**
+     * Sends any queued scores and fetches the top scores, without waiting for either
+     * @return Done once the client has tried
+     */
+    public Future<?> refresh() {
+        return executor.submit(this::sync);
+    }
+
+    /**
+     * Sends the queue then fetches the top scores. Failures are left to be
+     * tried again on the next sync.
+     */
+    private void sync() {
+        try {
+            sendQueue();
+            fetchTop();
+            reachable = true;
+        } catch (IOException | RuntimeException e) {
+            // A scheduled task that throws is never run again
+            reachable = false;
+        }
+    }
+
+    private void sendQueue() throws IOException {
+        while (queue.size() > 0) {
+            Array<SubmissionQueue.Submission> batch = queue.peek(BATCH_SIZE);
+            StringBuilder body = new StringBuilder();
+            for (SubmissionQueue.Submission submission : batch) {
+                body.append(submission.toLine());
+            }
+            request("POST", "/scores", body.toString());
+
+            queue.remove(batch.size);
+            pending.addAndGet(-batch.size);
+        }
+    }
+
+    private void fetchTop() throws IOException {
+        String body = request("GET", "/top?count=" + topCount, null);
+
+        Array<LeaderboardStore.Entry> top = new Array<>(topCount);
+        for (String line : body.split("\n")) {
+            String[] parts = line.split(",");
+            if (parts.length != 3) continue;
+            top.add(new LeaderboardStore.Entry(-1, parts[1],
+                    Integer.parseInt(parts[2].trim()), Integer.parseInt(parts[0])));
+        }
+
+        if (!sameScores(top, cachedTop)) {
+            cachedTop = top;
+            version.incrementAndGet();
+        }
+    }
+
+    private static boolean sameScores(Array<LeaderboardStore.Entry> a, Array<LeaderboardStore.Entry> b) {
+        if (a.size != b.size) return false;
+        for (int i = 0; i < a.size; i++) {
+            if (a.get(i).score != b.get(i).score || !a.get(i).name.equals(b.get(i).name)) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Makes a request to the service
+     * @param body The text to send, or null for none
+     * @return The text sent back
+     * @throws IOException If the service can't be reached or replies with an error
+     */
+    private String request(String method, String path, String body) throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) new URL(server, path).openConnection();
+        try {
+            connection.setConnectTimeout(CONNECT_TIMEOUT_MILLIS);
+            connection.setReadTimeout(READ_TIMEOUT_MILLIS);
+            connection.setRequestMethod(method);
+            if (body != null) {
+                byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+                connection.setDoOutput(true);
+                connection.setFixedLengthStreamingMode(bytes.length);
+                connection.setRequestProperty("Content-Type", "text/plain; charset=utf-8");
+                try (OutputStream out = connection.getOutputStream()) {
+                    out.write(bytes);
+                }
+            }
+
+            int status = connection.getResponseCode();
+            if (status != HttpURLConnection.HTTP_OK) {
+                throw new IOException("Leaderboard service replied " + status + " to " + method + " " + path);
+            }
+            try (InputStream in = connection.getInputStream()) {
+                ByteArrayOutputStream reply = new ByteArrayOutputStream();
+                byte[] buffer = new byte[4096];
+                int read;
+                while ((read = in.read(buffer)) != -1) {
+                    reply.write(buffer, 0, read);
+                }
+                return new String(reply.toByteArray(), StandardCharsets.UTF_8);
+            }
+        } finally {
+            connection.disconnect();
+        }
+    }
+
+    /**
+     * @return The top scores last fetched, empty until they have been. Don't change it.
+     */
+    public Array<LeaderboardStore.Entry> getCachedTop() {
+        return cachedTop;
+    }
+
+    /**
+     * @return A number that goes up each time the cached top scores change
+     */
+    public int getVersion() {
+        return version.get();
+    }
+
+    /**
+     * @param score A score
+     * @return The rank the score would get among the cached top scores,
+     * more than the number cached if it wouldn't be among them
+     */
+    public int estimateRank(int score) {
+        Array<LeaderboardStore.Entry> top = cachedTop;
+        int rank = 1;
+        // Indexed, as Array's iterators can't be shared between threads
+        for (int i = 0; i < top.size; i++) {
+            if (top.get(i).score >= score) rank++;
+        }
+        return rank;
+    }
+
+    /**
+     * @return The number of scores submitted but not yet accepted by the service
+     */
+    public int getPendingCount() {
+        return pending.get();
+    }
+
+    /**
+     * @return False if the queue file couldn't be used, so unsent scores are only kept in memory
+     */
+    public boolean isQueueSaved() {
+        return queueSaved;
+    }
+
+    /**
+     * @return True if the service could be reached last time the client tried
+     */
+    public boolean isReachable() {
+        return reachable;
+    }
+
+    /**
+     * Stops the client. Any scores not yet sent stay in the queue file for next time,
+     * unless it couldn't be used.
+     */
+    @Override
+    public void close() {
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,276 @@
+package com.heslingtonhustle.leaderboard;
+
+import com.badlogic.gdx.utils.Array;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.Iterator;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.regex.Pattern;
+
+/**
+ * A small HTTP leaderboard service that kiosks can send their scores to,
+ * so every kiosk on a site shares one leaderboard. Scores are kept in a
+ * LeaderboardStore. Everything is plain text, one item per line:
+ * <pre>
+ * POST /scores          body "id,name,score" lines, replies with the number added
+ * GET  /top?count=10    replies "rank,name,score" lines, highest first
+ * GET  /rank?score=123  replies the rank the score would get
+ * </pre>
+ * Scores are flushed to disk once per request before replying, so a kiosk
+ * only forgets a score once it is safe.
+ * Each submission has an id chosen by the kiosk, and ids that have been saved
+ * recently are ignored, so a kiosk can safely send a batch again if it didn't
+ * hear back the first time. If a batch can't be saved, none of it is kept and
+ * the kiosk is told to send it again. Ids are only remembered while the service
+ * is running, so a batch sent again across a restart is added twice.
+ * <p>
+ * Can be run from the command line with the 'leaderboardServer' Gradle task.
+ */
+public class LeaderboardServer {
+    public static final int DEFAULT_PORT = 8086;
+    // The most scores accepted in one request
+    public static final int MAX_BATCH = 1000;
+    // How many submission ids are remembered to ignore repeats
+    private static final int REMEMBERED_IDS = 100000;
+    private static final int MAX_TOP = 1000;
+    // The same rule as LeaderboardManager.isValidName
+    private static final Pattern VALID_NAME = Pattern.compile("[a-zA-Z0-9 ]*[a-zA-Z0-9][a-zA-Z0-9 ]*");
+
+    private final LeaderboardStore store;
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final LinkedHashSet<String> seenIds = new LinkedHashSet<>();
+
+    /**
+     * Starts the service
+     * @param store The store to keep scores in
+     * @param host The address to listen on, "localhost" for just this computer or "0.0.0.0" for the network
+     * @param port The port to listen on, 0 to pick any free port
+     * @param threads The number of requests to handle at once
+     * @throws IOException If the port can't be listened on
+     */
+    public LeaderboardServer(LeaderboardStore store, String host, int port, int threads) throws IOException {
+        this.store = store;
+        server = HttpServer.create(new InetSocketAddress(host, port), 1024);
+        executor = Executors.newFixedThreadPool(threads);
+        server.setExecutor(executor);
+        server.createContext("/scores", this::handleScores);
+        server.createContext("/top", this::handleTop);
+        server.createContext("/rank", this::handleRank);
+        server.start();
+    }
+
+    /**
+     * @return The port the service is listening on
+     */
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    /**
+     * Stops the service, waiting up to a second for requests being handled to finish.
+     * The store is left open.
+     */
+    public void stop() {
+        server.stop(1);
+        executor.shutdown();
+    }
+
+    private void handleScores(HttpExchange exchange) throws IOException {
+        if (!exchange.getRequestMethod().equals("POST")) {
+            reply(exchange, 405, "Scores have to be POSTed");
+            return;
+        }
+
+        String[] lines = readBody(exchange.getRequestBody()).split("\n");
+        if (lines.length > MAX_BATCH) {
+            reply(exchange, 413, "At most " + MAX_BATCH + " scores can be sent at once");
+            return;
+        }
+
+        // Batches are added one at a time, and their ids are only remembered once the batch
+        // is on disk, so a copy sent again while the first is being flushed waits to see if it worked
+        Array<LeaderboardStore.Entry> added = new Array<>();
+        synchronized (seenIds) {
+            HashSet<String> batchIds = new HashSet<>();
+            try {
+                for (String line : lines) {
+                    String[] parts = line.trim().split(",");
+                    // Bad lines are skipped rather than failing the batch, or the kiosk would send them forever
+                    if (parts.length != 3 || !VALID_NAME.matcher(parts[1]).matches()) continue;
+                    int score;
+                    try {
+                        score = Integer.parseInt(parts[2]);
+                    } catch (NumberFormatException e) {
+                        continue;
+                    }
+                    if (seenIds.contains(parts[0]) || !batchIds.add(parts[0])) continue;
+
+                    try {
+                        added.add(store.add(parts[1].trim(), score));
+                    } catch (IllegalArgumentException e) {
+                        // The name is too long
+                        continue;
+                    }
+                }
+                // One flush for the whole batch, rather than one for each score
+                if (added.notEmpty()) store.flush();
+            } catch (RuntimeException e) {
+                // Take the scores back out, so they aren't counted twice when the kiosk sends them again
+                removeAll(added);
+                added = null;
+            }
+            if (added != null) remember(batchIds);
+        }
+
+        if (added == null) {
+            reply(exchange, 500, "Couldn't save scores");
+        } else {
+            reply(exchange, 200, Integer.toString(added.size));
+        }
+    }
+
+    /**
+     * Removes the scores of a batch that couldn't be saved, as far as possible
+     */
+    private void removeAll(Array<LeaderboardStore.Entry> entries) {
+        for (LeaderboardStore.Entry entry : entries) {
+            try {
+                store.remove(entry.id);
+            } catch (RuntimeException e) {
+                // The log can't be written at all, so the scores are only lost if it's never reopened
+                return;
+            }
+        }
+    }
+
+    /**
+     * Remembers the submission ids of a saved batch, forgetting the oldest once there are too many.
+     * Only call while holding seenIds.
+     */
+    private void remember(HashSet<String> ids) {
+        seenIds.addAll(ids);
+        Iterator<String> oldest = seenIds.iterator();
+        while (seenIds.size() > REMEMBERED_IDS) {
+            oldest.next();
+            oldest.remove();
+        }
+    }
+
+    private void handleTop(HttpExchange exchange) throws IOException {
+        int count = Math.min(MAX_TOP, queryInt(exchange, "count", 10));
+        Array<LeaderboardStore.Entry> top = store.top(count);
+
+        StringBuilder body = new StringBuilder();
+        for (LeaderboardStore.Entry entry : top) {
+            body.append(entry.rank).append(',').append(entry.name).append(',').append(entry.score).append('\n');
+        }
+        reply(exchange, 200, body.toString());
+    }
+
+    private void handleRank(HttpExchange exchange) throws IOException {
+        String score = queryValue(exchange, "score");
+        if (score == null) {
+            reply(exchange, 400, "Missing score");
+            return;
+        }
+        try {
+            reply(exchange, 200, Integer.toString(store.rankOf(Integer.parseInt(score))));
+        } catch (NumberFormatException e) {
+            reply(exchange, 400, "Score isn't a number");
+        }
+    }
+
+    private static int queryInt(HttpExchange exchange, String key, int defaultValue) {
+        String value = queryValue(exchange, key);
+        try {
+            return value == null ? defaultValue : Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            return defaultValue;
+        }
+    }
+
+    private static String queryValue(HttpExchange exchange, String key) {
+        String query = exchange.getRequestURI().getQuery();
+        if (query == null) return null;
+        for (String pair : query.split("&")) {
+            if (pair.startsWith(key + "=")) {
+                return pair.substring(key.length() + 1);
+            }
+        }
+        return null;
+    }
+
+    private static String readBody(InputStream in) throws IOException {
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        byte[] buffer = new byte[4096];
+        int read;
+        while ((read = in.read(buffer)) != -1) {
+            body.write(buffer, 0, read);
+        }
+        return new String(body.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+    private static void reply(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "text/plain; charset=utf-8");
+        exchange.sendResponseHeaders(status, bytes.length == 0 ? -1 : bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    /**
+     * Runs the service until the process is stopped
+     * @param args See printUsage()
+     */
+    public static void main(String[] args) throws IOException {
+        String host = "localhost";
+        int port = DEFAULT_PORT;
+        int threads = 8;
+        File file = new File("leaderboard-server.log");
+        try {
+            for (int i = 0; i < args.length; i++) {
+                switch (args[i]) {
+                    case "--host": host = args[++i]; break;
+                    case "--port": port = Integer.parseInt(args[++i]); break;
+                    case "--threads": threads = Integer.parseInt(args[++i]); break;
+                    case "--file": file = new File(args[++i]); break;
+                    default: throw new IllegalArgumentException(args[i]);
+                }
+            }
+        } catch (IndexOutOfBoundsException | IllegalArgumentException e) {
+            printUsage();
+            return;
+        }
+
+        // Flushed after each request rather than each score
+        LeaderboardStore store = new LeaderboardStore(file, false);
+        LeaderboardServer server = new LeaderboardServer(store, host, port, threads);
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            server.stop();
+            store.close();
+        }));
+        System.out.println("Leaderboard service with " + store.size() + " scores listening on "
+                + host + ":" + server.getPort());
+    }
+
+    private static void printUsage() {
+        System.out.println("Options:");
+        System.out.println("  --host <address>  Address to listen on, 0.0.0.0 for the network (default localhost)");
+        System.out.println("  --port <port>     Port to listen on (default " + DEFAULT_PORT + ")");
+        System.out.println("  --threads <n>     Requests handled at once (default 8)");
+        System.out.println("  --file <path>     Leaderboard log to keep scores in (default leaderboard-server.log)");
+    }
+}
@@ -0,0 +1,489 @@
+package com.heslingtonhustle.leaderboard;
+
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.IntArray;
+import com.badlogic.gdx.utils.IntIntMap;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+
+/**
+ * Stores every score ever added to the leaderboard, not just the top ten.
+ * Scores are appended to a log file, so adding one never rewrites the file,
+ * and are kept in memory in a ScoreIndex so the top scores and the rank of
+ * any score can be found in O(log n) time, even with millions of them.
+ * <p>
+ * The log starts with MAGIC, VERSION and the next id to give out when it was
+ * last compacted, so ids are never given out twice even once the scores using
+ * them have been compacted away. Then there is one record for each score added
+ * or removed:
+ * <pre>
+ * byte  ADD or REMOVE
+ * int   the entry's id
+ * int   the score, ADD only
+ * short the length of the name in UTF-8 bytes, then the name, ADD only
+ * int   CRC32 of the record up to here
+ * </pre>
+ * If the game stops part way through writing a record, that record is cut off
+ * the end of the log when it is next opened. If writing a record fails, it is
+ * cut off straight away, so later records aren't written after a broken one. Compacting writes the scores that
+ * haven't been removed to a new file, then moves it over the log in one step,
+ * so a crash during compaction leaves the old log as it was.
+ * <p>
+ * All methods are synchronized so the store can be shared between threads.
+ */
+public class LeaderboardStore implements Closeable {
+    static final int MAGIC = 0x48484C42;
+    static final int VERSION = 2;
+    // Version 1 logs, without the next id, can still be read
+    private static final int OLD_VERSION = 1;
+    private static final int OLD_HEADER_BYTES = 5;
+    private static final int HEADER_BYTES = 9;
+    private static final byte ADD = 1;
+    private static final byte REMOVE = 2;
+    // Longest name that can be stored, in UTF-8 bytes
+    public static final int MAX_NAME_BYTES = 1024;
+
+    private final Path path;
+    private final Path compactPath;
+    private final boolean sync;
+    private final ScoreIndex index = new ScoreIndex();
+    // Names by index slot, and index slots by id
+    private final Array<String> names = new Array<>();
+    private final IntIntMap slotsById = new IntIntMap();
+    private final CRC32 crc = new CRC32();
+    private final ByteBuffer record = ByteBuffer.allocate(15 + MAX_NAME_BYTES);
+    private FileChannel channel;
+    private int nextId;
+    // Records in the log that no longer count, removed scores and their removals
+    private int deadRecords;
+    private long discardedBytes;
+
+    /**
+     * A score on the leaderboard
+     */
+    public static class Entry {
+        public final int id;
+        public final String name;
+        public final int score;
+        // Where the score is on the leaderboard, starting from 1
+        public final int rank;
+
+        Entry(int id, String name, int score, int rank) {
+            this.id = id;
+            this.name = name;
+            this.score = score;
+            this.rank = rank;
+        }
+
+        @Override
+        public String toString() {
+            return rank + ". " + name + ": " + score;
+        }
+    }
+
+    /**
+     * Opens a leaderboard log, creating it if it doesn't exist, and reads
+     * every score in it. The log is compacted if most of it is removed scores.
+     * @param file The log file
+     * @param sync If true, each score is flushed to disk before add returns, so it
+     *             survives the computer losing power. Turn off for speed when that doesn't matter.
+     * @throws GdxRuntimeException If the log can't be read or isn't a leaderboard
+     */
+    public LeaderboardStore(File file, boolean sync) {
+        this.path = file.toPath();
+        this.compactPath = new File(file.getPath() + ".compact").toPath();
+        this.sync = sync;
+        try {
+            // Left over from a compaction that didn't finish, the log itself is still whole
+            Files.deleteIfExists(compactPath);
+            channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            load();
+        } catch (IOException e) {
+            close();
+            throw new GdxRuntimeException("Couldn't open leaderboard " + file, e);
+        }
+
+        if (deadRecords > index.size()) {
+            compact();
+        }
+    }
+
+    /**
+     * Reads every record in the log, cutting off any that were only partly written
+     */
+    private void load() throws IOException {
+        long size = channel.size();
+        if (size < OLD_HEADER_BYTES) {
+            startEmpty(size);
+            return;
+        }
+        if (size > Integer.MAX_VALUE) {
+            throw new IOException("Leaderboard is too big to read");
+        }
+
+        ByteBuffer data = ByteBuffer.allocate((int) size);
+        while (data.hasRemaining() && channel.read(data, data.position()) >= 0) {
+            // Keep reading until the buffer is full
+        }
+        data.flip();
+
+        if (data.getInt() != MAGIC) {
+            throw new IOException("Not a leaderboard log");
+        }
+        int version = data.get();
+        if (version == VERSION) {
+            if (size < HEADER_BYTES) {
+                startEmpty(size);
+                return;
+            }
+            nextId = data.getInt();
+        } else if (version != OLD_VERSION) {
+            throw new IOException("Leaderboard is version " + version + ", only versions "
+                    + OLD_VERSION + " and " + VERSION + " can be read");
+        }
+
+        int end = data.position();
+        while (data.hasRemaining()) {
+            if (!readRecord(data)) break;
+            end = data.position();
+        }
+
+        if (end < size) {
+            discardedBytes = size - end;
+            channel.truncate(end);
+        }
+        channel.position(end);
+    }
+
+    /**
+     * Starts a new log, as the file is new or the game stopped while the header was being written
+     * @param size The size of the file, all of which is thrown away
+     */
+    private void startEmpty(long size) throws IOException {
+        discardedBytes = size;
+        channel.truncate(0);
+        channel.position(0);
+        writeHeader(channel, nextId);
+    }
+
+    /**
+     * Reads a record and applies it
+     * @return False if the record is cut short or corrupt, in which case it and everything after is ignored
+     */
+    private boolean readRecord(ByteBuffer data) {
+        int start = data.position();
+        try {
+            byte type = data.get();
+            int id = data.getInt();
+            String name = null;
+            int score = 0;
+            if (type == ADD) {
+                score = data.getInt();
+                int nameLength = data.getShort() & 0xFFFF;
+                if (nameLength > MAX_NAME_BYTES || nameLength > data.remaining()) return false;
+                name = new String(data.array(), data.position(), nameLength, StandardCharsets.UTF_8);
+                data.position(data.position() + nameLength);
+            } else if (type != REMOVE) {
+                return false;
+            }
+
+            crc.reset();
+            crc.update(data.array(), start, data.position() - start);
+            if (data.getInt() != (int) crc.getValue()) return false;
+
+            if (type == ADD && slotsById.containsKey(id)) {
+                // Only possible if the log has been edited, the first score with the id is kept
+                deadRecords++;
+            } else if (type == ADD) {
+                insert(id, name, score);
+            } else if (removeFromIndex(id)) {
+                // The removal and the score it removed
+                deadRecords += 2;
+            } else {
+                deadRecords++;
+            }
+            return true;
+        } catch (BufferUnderflowException e) {
+            return false;
+        }
+    }
+
+    private int insert(int id, String name, int score) {
+        int slot = index.add(id, score);
+        if (slot == names.size) {
+            names.add(name);
+        } else {
+            names.set(slot, name);
+        }
+        slotsById.put(id, slot);
+        nextId = Math.max(nextId, id + 1);
+        return slot;
+    }
+
+    private boolean removeFromIndex(int id) {
+        int slot = slotsById.remove(id, -1);
+        if (slot == -1) return false;
+        index.remove(slot);
+        names.set(slot, null);
+        return true;
+    }
+
+    /**
+     * Adds a score to the leaderboard and appends it to the log
+     * @param name The player's name
+     * @param score The player's score
+     * @return The new entry, with its rank. Ties rank below scores added before them.
+     * @throws IllegalArgumentException If the name is longer than MAX_NAME_BYTES
+     * @throws GdxRuntimeException If the score couldn't be written
+     */
+    public synchronized Entry add(String name, int score) {
+        byte[] nameBytes = name.getBytes(StandardCharsets.UTF_8);
+        if (nameBytes.length > MAX_NAME_BYTES) {
+            throw new IllegalArgumentException("Name is longer than " + MAX_NAME_BYTES + " bytes");
+        }
+        int id = nextId;
+
+        record.clear();
+        record.put(ADD).putInt(id).putInt(score).putShort((short) nameBytes.length).put(nameBytes);
+        append();
+
+        int slot = insert(id, name, score);
+        return new Entry(id, name, score, index.rankOf(slot) + 1);
+    }
+
+    /**
+     * Removes a score from the leaderboard, for example if the name is rude
+     * @param id The id of the entry to remove
+     * @return True if there was an entry with that id
+     * @throws GdxRuntimeException If the removal couldn't be written
+     */
+    public synchronized boolean remove(int id) {
+        if (!slotsById.containsKey(id)) return false;
+
+        record.clear();
+        record.put(REMOVE).putInt(id);
+        append();
+
+        removeFromIndex(id);
+        deadRecords += 2;
+        return true;
+    }
+
+    /**
+     * Adds the CRC to the record being built and writes it to the end of the log.
+     * If it can't be written, any part that was is cut off again.
+     */
+    private void append() {
+        crc.reset();
+        crc.update(record.array(), 0, record.position());
+        record.putInt((int) crc.getValue());
+        record.flip();
+        long start = -1;
+        try {
+            start = channel.position();
+            while (record.hasRemaining()) {
+                channel.write(record);
+            }
+            if (sync) channel.force(false);
+        } catch (IOException e) {
+            // Otherwise reading the log would stop at this record, losing every one after it
+            if (start >= 0) {
+                try {
+                    channel.truncate(start);
+                    channel.position(start);
+                } catch (IOException ignored) {
+                    // Cut off when the log is next opened instead, along with anything after it
+                }
+            }
+            throw new GdxRuntimeException("Couldn't write to leaderboard " + path, e);
+        }
+    }
+
+    /**
+     * Flushes every score added so far to disk, for stores opened without sync
+     * that want to flush after a batch of scores rather than after each one
+     * @throws GdxRuntimeException If the log couldn't be flushed
+     */
+    public synchronized void flush() {
+        try {
+            channel.force(false);
+        } catch (IOException e) {
+            throw new GdxRuntimeException("Couldn't flush leaderboard " + path, e);
+        }
+    }
+
+    /**
+     * @param count The most entries to return
+     * @return The highest scores, highest first
+     */
+    public synchronized Array<Entry> top(int count) {
+        return range(0, count);
+    }
+
+    /**
+     * @param firstRank The rank of the first entry to return, starting from 1
+     * @param count The most entries to return
+     * @return Entries in order from that rank, for showing the leaderboard a page at a time
+     */
+    public synchronized Array<Entry> range(int firstRank, int count) {
+        int start = Math.max(0, firstRank - 1);
+        int end = Math.min(index.size(), start + Math.max(0, count));
+        Array<Entry> entries = new Array<>(Math.max(0, end - start));
+        for (int rank = start; rank < end; rank++) {
+            entries.add(entryAt(rank));
+        }
+        return entries;
+    }
+
+    /**
+     * @param rank A rank on the leaderboard, starting from 1
+     * @return The entry at that rank, or null if there aren't that many
+     */
+    public synchronized Entry get(int rank) {
+        if (rank < 1 || rank > index.size()) return null;
+        return entryAt(rank - 1);
+    }
+
+    private Entry entryAt(int position) {
+        int slot = index.select(position);
+        return new Entry(index.getId(slot), names.get(slot), index.getScore(slot), position + 1);
+    }
+
+    /**
+     * @param score A score
+     * @return The rank a new entry with that score would get, starting from 1
+     */
+    public synchronized int rankOf(int score) {
+        return index.countAbove(score) + 1;
+    }
+
+    /**
+     * @return The number of scores on the leaderboard
+     */
+    public synchronized int size() {
+        return index.size();
+    }
+
+    /**
+     * @return The number of records in the log that are for removed scores
+     */
+    public synchronized int getDeadRecords() {
+        return deadRecords;
+    }
+
+    /**
+     * @return The number of bytes of partly written records cut off the log when it was opened
+     */
+    public synchronized long getDiscardedBytes() {
+        return discardedBytes;
+    }
+
+    /**
+     * Rewrites the log with only the scores still on the leaderboard.
+     * The new log is written and flushed to a separate file first, then moved over
+     * the old one, so if the game stops part way through the old log is kept.
+     * @throws GdxRuntimeException If the new log couldn't be written or moved into place
+     */
+    public synchronized void compact() {
+        // Written in the order they were added so the log reads the same way as before
+        IntArray ids = new IntArray(slotsById.size);
+        for (IntIntMap.Entry entry : slotsById.entries()) {
+            ids.add(entry.key);
+        }
+        ids.sort();
+
+        try (FileChannel out = FileChannel.open(compactPath, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            // Keeps ids of compacted away scores from being given out again
+            writeHeader(out, nextId);
+            ByteBuffer buffer = ByteBuffer.allocate(64 * 1024);
+            for (int i = 0; i < ids.size; i++) {
+                int slot = slotsById.get(ids.get(i), -1);
+                byte[] nameBytes = names.get(slot).getBytes(StandardCharsets.UTF_8);
+                if (buffer.remaining() < 15 + nameBytes.length) {
+                    writeFully(out, buffer);
+                }
+                int start = buffer.position();
+                buffer.put(ADD).putInt(ids.get(i)).putInt(index.getScore(slot))
+                        .putShort((short) nameBytes.length).put(nameBytes);
+                crc.reset();
+                crc.update(buffer.array(), start, buffer.position() - start);
+                buffer.putInt((int) crc.getValue());
+            }
+            writeFully(out, buffer);
+            out.force(true);
+        } catch (IOException e) {
+            throw new GdxRuntimeException("Couldn't compact leaderboard " + path, e);
+        }
+
+        try {
+            // The log has to be closed before it can be replaced on Windows
+            channel.close();
+            try {
+                Files.move(compactPath, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(compactPath, path, StandardCopyOption.REPLACE_EXISTING);
+            }
+            channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            channel.position(channel.size());
+        } catch (IOException e) {
+            throw new GdxRuntimeException("Couldn't replace leaderboard " + path + " with its compacted log", e);
+        }
+        deadRecords = 0;
+    }
+
+    private static void writeHeader(FileChannel out, int nextId) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+        header.putInt(MAGIC).put((byte) VERSION).putInt(nextId);
+        writeFully(out, header);
+    }
+
+    /**
+     * Writes everything put in a buffer, then clears it for more
+     */
+    private static void writeFully(FileChannel out, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            out.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    /**
+     * @return The size of the log file in bytes
+     */
+    public synchronized long getLogBytes() {
+        try {
+            return channel.size();
+        } catch (IOException e) {
+            throw new GdxRuntimeException("Couldn't read leaderboard " + path, e);
+        }
+    }
+
+    /**
+     * Closes the log, the store can't be used after this
+     */
+    @Override
+    public synchronized void close() {
+        if (channel == null) return;
+        try {
+            channel.close();
+        } catch (IOException ignored) {
+            // Everything written has already been flushed or will be by the OS
+        }
+        channel = null;
+    }
+}
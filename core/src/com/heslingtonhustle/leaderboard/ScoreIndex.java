@@ -0,0 +1,237 @@
+package com.heslingtonhustle.leaderboard;
+
+import com.badlogic.gdx.utils.IntArray;
+
+import java.util.Arrays;
+
+/**
+ * Keeps every score on the leaderboard in order, highest first, with earlier
+ * scores first when two are the same.
+ * This is a treap, a binary search tree kept balanced by giving each node a
+ * random priority, where each node also knows the size of its subtree. That
+ * makes adding, removing, finding the entry at a rank and finding the rank of
+ * a score all take O(log n) time.
+ * Entries are stored in slots of parallel int arrays rather than as node
+ * objects, so millions of scores only take 24 bytes each.
+ */
+class ScoreIndex {
+    private static final int NONE = -1;
+    private int[] scores;
+    private int[] ids;
+    private int[] left;
+    private int[] right;
+    private int[] sizes;
+    private int[] priorities;
+    private final IntArray freeSlots = new IntArray();
+    private int slotsUsed;
+    private int root = NONE;
+    private int seed = 0x2545F491;
+
+    ScoreIndex() {
+        int capacity = 64;
+        scores = new int[capacity];
+        ids = new int[capacity];
+        left = new int[capacity];
+        right = new int[capacity];
+        sizes = new int[capacity];
+        priorities = new int[capacity];
+    }
+
+    /**
+     * Adds a score to the index
+     * @param id The entry's id, which breaks ties between scores, lowest first
+     * @param score The score
+     * @return The slot the entry is stored in
+     */
+    int add(int id, int score) {
+        int slot;
+        if (freeSlots.isEmpty()) {
+            if (slotsUsed == scores.length) grow();
+            slot = slotsUsed++;
+        } else {
+            slot = freeSlots.pop();
+        }
+        scores[slot] = score;
+        ids[slot] = id;
+        left[slot] = NONE;
+        right[slot] = NONE;
+        sizes[slot] = 1;
+        priorities[slot] = nextPriority();
+        root = insert(root, slot);
+        return slot;
+    }
+
+    /**
+     * Removes an entry from the index, its slot may be reused by the next add
+     * @param slot The slot returned when the entry was added
+     */
+    void remove(int slot) {
+        root = remove(root, slot);
+        freeSlots.add(slot);
+    }
+
+    /**
+     * @return The number of scores strictly higher than the given score
+     */
+    int countAbove(int score) {
+        int count = 0;
+        int node = root;
+        while (node != NONE) {
+            if (scores[node] > score) {
+                count += size(left[node]) + 1;
+                node = right[node];
+            } else {
+                node = left[node];
+            }
+        }
+        return count;
+    }
+
+    /**
+     * @param slot The slot of an entry in the index
+     * @return The entry's position in the index, 0 for the highest score
+     */
+    int rankOf(int slot) {
+        int rank = 0;
+        int node = root;
+        while (node != NONE && node != slot) {
+            if (before(slot, node)) {
+                node = left[node];
+            } else {
+                rank += size(left[node]) + 1;
+                node = right[node];
+            }
+        }
+        return rank + size(left[slot]);
+    }
+
+    /**
+     * @param rank A position in the index, 0 for the highest score
+     * @return The slot of the entry at that position
+     * @throws IndexOutOfBoundsException If there is no entry at that position
+     */
+    int select(int rank) {
+        if (rank < 0 || rank >= size()) {
+            throw new IndexOutOfBoundsException("Rank " + rank + " of " + size());
+        }
+        int node = root;
+        while (true) {
+            int leftSize = size(left[node]);
+            if (rank < leftSize) {
+                node = left[node];
+            } else if (rank == leftSize) {
+                return node;
+            } else {
+                rank -= leftSize + 1;
+                node = right[node];
+            }
+        }
+    }
+
+    int getScore(int slot) {
+        return scores[slot];
+    }
+
+    int getId(int slot) {
+        return ids[slot];
+    }
+
+    /**
+     * @return The number of entries in the index
+     */
+    int size() {
+        return size(root);
+    }
+
+    /**
+     * @return True if slot a comes before slot b
+     */
+    private boolean before(int a, int b) {
+        if (scores[a] != scores[b]) return scores[a] > scores[b];
+        return ids[a] < ids[b];
+    }
+
+    private int insert(int node, int slot) {
+        if (node == NONE) return slot;
+
+        if (before(slot, node)) {
+            left[node] = insert(left[node], slot);
+            if (priorities[left[node]] > priorities[node]) node = rotateRight(node);
+        } else {
+            right[node] = insert(right[node], slot);
+            if (priorities[right[node]] > priorities[node]) node = rotateLeft(node);
+        }
+        update(node);
+        return node;
+    }
+
+    private int remove(int node, int slot) {
+        if (node == NONE) return NONE;
+
+        if (node == slot) {
+            // Rotate the node down until it has at most one child, then replace it with that child
+            if (left[node] == NONE) return right[node];
+            if (right[node] == NONE) return left[node];
+            if (priorities[left[node]] > priorities[right[node]]) {
+                node = rotateRight(node);
+                right[node] = remove(right[node], slot);
+            } else {
+                node = rotateLeft(node);
+                left[node] = remove(left[node], slot);
+            }
+        } else if (before(slot, node)) {
+            left[node] = remove(left[node], slot);
+        } else {
+            right[node] = remove(right[node], slot);
+        }
+        update(node);
+        return node;
+    }
+
+    private int rotateRight(int node) {
+        int child = left[node];
+        left[node] = right[child];
+        right[child] = node;
+        update(node);
+        update(child);
+        return child;
+    }
+
+    private int rotateLeft(int node) {
+        int child = right[node];
+        right[node] = left[child];
+        left[child] = node;
+        update(node);
+        update(child);
+        return child;
+    }
+
+    private void update(int node) {
+        sizes[node] = size(left[node]) + size(right[node]) + 1;
+    }
+
+    private int size(int node) {
+        return node == NONE ? 0 : sizes[node];
+    }
+
+    /**
+     * A xorshift random number, seeded the same each time so the tree's
+     * shape only depends on what was added
+     */
+    private int nextPriority() {
+        seed ^= seed << 13;
+        seed ^= seed >>> 17;
+        seed ^= seed << 5;
+        return seed;
+    }
+
+    private void grow() {
+        int capacity = scores.length * 2;
+        scores = Arrays.copyOf(scores, capacity);
+        ids = Arrays.copyOf(ids, capacity);
+        left = Arrays.copyOf(left, capacity);
+        right = Arrays.copyOf(right, capacity);
+        sizes = Arrays.copyOf(sizes, capacity);
+        priorities = Arrays.copyOf(priorities, capacity);
+    }
+}
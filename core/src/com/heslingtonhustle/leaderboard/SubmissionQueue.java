@@ -0,0 +1,184 @@
+package com.heslingtonhustle.leaderboard;
+
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+
+/**
+ * Scores waiting to be sent to the leaderboard service, kept in a file so they
+ * aren't lost if the service can't be reached before the game closes.
+ * Each line of the file is one submission: "id,name,score". Adding a score
+ * appends a line and flushes it to disk. Removing sent scores writes the rest
+ * to a new file and moves it over the old one, so the queue is never half written.
+ * If the file can't be used, the queue can be kept in memory only instead.
+ * Not thread safe, LeaderboardClient only uses it from its own thread.
+ */
+class SubmissionQueue {
+    // Both null once the queue is only kept in memory
+    private Path path;
+    private Path rewritePath;
+    private final ArrayDeque<Submission> submissions = new ArrayDeque<>();
+
+    /**
+     * A score to send, with an id so the service can ignore it if it's sent twice
+     */
+    static class Submission {
+        final String id;
+        final String name;
+        final int score;
+
+        Submission(String id, String name, int score) {
+            this.id = id;
+            this.name = name;
+            this.score = score;
+        }
+
+        String toLine() {
+            return id + "," + name + "," + score + "\n";
+        }
+    }
+
+    /**
+     * Makes an empty queue that is only kept in memory
+     */
+    SubmissionQueue() {
+    }
+
+    /**
+     * Opens a queue, reading any scores left in it from last time
+     * @param file The file to keep the queue in, created if needed
+     * @throws GdxRuntimeException If the file exists but can't be read
+     */
+    SubmissionQueue(File file) {
+        path = file.toPath();
+        rewritePath = new File(file.getPath() + ".tmp").toPath();
+        if (!file.exists()) return;
+
+        String data;
+        try {
+            data = new String(Files.readAllBytes(path), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new GdxRuntimeException("Couldn't read leaderboard queue " + file, e);
+        }
+        for (String line : data.split("\n")) {
+            String[] parts = line.split(",");
+            // A line cut short by the game stopping while writing it is dropped
+            if (parts.length != 3) continue;
+            try {
+                submissions.add(new Submission(parts[0], parts[1], Integer.parseInt(parts[2].trim())));
+            } catch (NumberFormatException ignored) {
+                // As above
+            }
+        }
+        // Rewrite a cut short line away, so the next score isn't added on the end of it
+        if (!data.isEmpty() && !data.endsWith("\n")) {
+            remove(0);
+        }
+    }
+
+    /**
+     * Adds a score to the end of the queue and flushes it to disk
+     * @throws GdxRuntimeException If the score couldn't be written
+     */
+    void add(Submission submission) {
+        if (path == null) {
+            submissions.add(submission);
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            ByteBuffer line = ByteBuffer.wrap(submission.toLine().getBytes(StandardCharsets.UTF_8));
+            while (line.hasRemaining()) {
+                channel.write(line);
+            }
+            channel.force(false);
+        } catch (IOException e) {
+            throw new GdxRuntimeException("Couldn't write to leaderboard queue " + path, e);
+        }
+        submissions.add(submission);
+    }
+
+    /**
+     * @param count The most scores to return
+     * @return The oldest scores in the queue, oldest first
+     */
+    Array<Submission> peek(int count) {
+        Array<Submission> batch = new Array<>(Math.min(count, submissions.size()));
+        Iterator<Submission> iterator = submissions.iterator();
+        while (batch.size < count && iterator.hasNext()) {
+            batch.add(iterator.next());
+        }
+        return batch;
+    }
+
+    /**
+     * Removes the oldest scores once they have been sent
+     * @param count The number of scores to remove
+     * @throws GdxRuntimeException If the queue file couldn't be rewritten
+     */
+    void remove(int count) {
+        for (int i = 0; i < count && !submissions.isEmpty(); i++) {
+            submissions.removeFirst();
+        }
+        if (path == null) return;
+
+        StringBuilder remaining = new StringBuilder();
+        for (Submission submission : submissions) {
+            remaining.append(submission.toLine());
+        }
+        try (FileChannel channel = FileChannel.open(rewritePath, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            ByteBuffer data = ByteBuffer.wrap(remaining.toString().getBytes(StandardCharsets.UTF_8));
+            while (data.hasRemaining()) {
+                channel.write(data);
+            }
+            channel.force(false);
+        } catch (IOException e) {
+            throw new GdxRuntimeException("Couldn't write leaderboard queue " + rewritePath, e);
+        }
+
+        try {
+            try {
+                Files.move(rewritePath, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(rewritePath, path, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException e) {
+            throw new GdxRuntimeException("Couldn't replace leaderboard queue " + path, e);
+        }
+    }
+
+    /**
+     * Stops writing the queue to its file, keeping the scores already in it
+     */
+    void keepInMemory() {
+        path = null;
+        rewritePath = null;
+    }
+
+    /**
+     * @return True if the queue is kept in its file, false if only in memory
+     */
+    boolean isSaved() {
+        return path != null;
+    }
+
+    /**
+     * @return The number of scores waiting to be sent
+     */
+    int size() {
+        return submissions.size();
+    }
+}
@@ -0,0 +1,490 @@
+package com.heslingtonhustle.map;
+
+import com.badlogic.gdx.Files;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.assets.AssetDescriptor;
+import com.badlogic.gdx.assets.AssetLoaderParameters;
+import com.badlogic.gdx.assets.AssetManager;
+import com.badlogic.gdx.assets.loaders.AsynchronousAssetLoader;
+import com.badlogic.gdx.assets.loaders.FileHandleResolver;
+import com.badlogic.gdx.assets.loaders.TextureLoader;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.maps.ImageResolver;
+import com.badlogic.gdx.maps.MapLayer;
+import com.badlogic.gdx.maps.MapProperties;
+import com.badlogic.gdx.maps.objects.RectangleMapObject;
+import com.badlogic.gdx.maps.tiled.TiledMap;
+import com.badlogic.gdx.maps.tiled.TiledMapTile;
+import com.badlogic.gdx.maps.tiled.TiledMapTileLayer;
+import com.badlogic.gdx.maps.tiled.TiledMapTileSet;
+import com.badlogic.gdx.maps.tiled.tiles.AnimatedTiledMapTile;
+import com.badlogic.gdx.maps.tiled.tiles.StaticTiledMapTile;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.IntArray;
+import com.badlogic.gdx.utils.ObjectMap;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Loads maps compiled by MapCompiler, which are much quicker to load than TMX files
+ * as there is no XML to parse. The file is memory mapped where possible and read
+ * straight into a TiledMap, giving the same map that TmxMapLoader would.
+ * Can be used synchronously, or registered with an AssetManager for the
+ * COMPILED_EXTENSION suffix.
+ */
+public class CompiledMapLoader extends AsynchronousAssetLoader<TiledMap, CompiledMapLoader.Parameters> {
+    public static final String COMPILED_EXTENSION = ".hhmap";
+    // "HHMP"
+    static final int MAGIC = 0x48484D50;
+    static final int VERSION = 2;
+    static final byte TILE_LAYER = 0;
+    static final byte OBJECT_LAYER = 1;
+    static final byte STRING_PROPERTY = 0;
+    static final byte INT_PROPERTY = 1;
+    static final byte FLOAT_PROPERTY = 2;
+    static final byte BOOLEAN_PROPERTY = 3;
+    static final byte COLOR_PROPERTY = 4;
+    // Cells are stored as a tile id with the flips and rotation in the top bits, 0 is an empty cell
+    static final int FLIP_HORIZONTALLY = 0x80000000;
+    static final int FLIP_VERTICALLY = 0x40000000;
+    static final int ROTATION_SHIFT = 28;
+    static final int TILE_ID_MASK = 0x0FFFFFFF;
+    // Every image is replaced with an empty region, which loads no texture
+    private static final ImageResolver NO_IMAGES = name -> new TextureRegion();
+
+    // The file being loaded by the asset manager, read when its dependencies are found
+    private ByteBuffer buffer;
+    private TiledMap map;
+
+    public static class Parameters extends AssetLoaderParameters<TiledMap> {
+        public Texture.TextureFilter textureMinFilter = Texture.TextureFilter.Nearest;
+        public Texture.TextureFilter textureMagFilter = Texture.TextureFilter.Nearest;
+    }
+
+    public CompiledMapLoader(FileHandleResolver resolver) {
+        super(resolver);
+    }
+
+    /**
+     * Finds the file a map should be loaded from, the compiled map if there is one
+     * that is at least as new as the TMX file and the tilesets it was compiled from,
+     * otherwise the TMX file
+     * @param tmxPath The internal path of the TMX file
+     * @return The internal path to load the map from
+     */
+    public static String findMapFile(String tmxPath) {
+        String compiledPath = compiledPath(tmxPath);
+        FileHandle compiled = Gdx.files.internal(compiledPath);
+        if (!compiled.exists()) return tmxPath;
+
+        long compiledTime = compiled.lastModified();
+        if (compiledTime < Gdx.files.internal(tmxPath).lastModified()) {
+            Gdx.app.debug("DEBUG", compiledPath + " is older than its TMX file, ignoring it");
+            return tmxPath;
+        }
+        for (FileHandle source : readSources(compiled)) {
+            if (compiledTime < source.lastModified()) {
+                Gdx.app.debug("DEBUG", compiledPath + " is older than " + source.path() + ", ignoring it");
+                return tmxPath;
+            }
+        }
+        return compiledPath;
+    }
+
+    /**
+     * Reads the tileset files and images a map was compiled from
+     * @param file The compiled map
+     * @return The files, or none if the file isn't a compiled map this can load,
+     *         in which case loading it gives the reason
+     */
+    private static Array<FileHandle> readSources(FileHandle file) {
+        Array<FileHandle> sources = new Array<>();
+        ByteBuffer data = read(file);
+        if (data.remaining() < 12 || data.getInt() != MAGIC || data.getInt() != VERSION) return sources;
+
+        int count = data.getInt();
+        for (int i = 0; i < count; i++) {
+            sources.add(relativeFile(file, readString(data)));
+        }
+        return sources;
+    }
+
+    /**
+     * @param tmxPath The path of a TMX file
+     * @return The path its compiled map is written to
+     */
+    public static String compiledPath(String tmxPath) {
+        if (tmxPath.endsWith(".tmx")) {
+            tmxPath = tmxPath.substring(0, tmxPath.length() - ".tmx".length());
+        }
+        return tmxPath + COMPILED_EXTENSION;
+    }
+
+    /**
+     * Loads a compiled map and its textures
+     * @param fileName The file to load, found with the loader's resolver
+     * @return The loaded map, which owns its textures
+     */
+    public TiledMap load(String fileName) {
+        Parameters parameters = new Parameters();
+        FileHandle file = resolve(fileName);
+        ByteBuffer data = read(file);
+
+        ObjectMap<String, Texture> textures = new ObjectMap<>();
+        for (FileHandle image : readImages(file, data)) {
+            // Tilesets can share an image
+            if (textures.containsKey(image.path())) continue;
+
+            Texture texture = new Texture(image);
+            texture.setFilter(parameters.textureMinFilter, parameters.textureMagFilter);
+            textures.put(image.path(), texture);
+        }
+
+        TiledMap loaded = readMap(file, data, new ImageResolver.DirectImageResolver(textures));
+        loaded.setOwnedResources(textures.values().toArray());
+        return loaded;
+    }
+
+    /**
+     * Loads a compiled map without any textures, like HeadlessTmxMapLoader
+     * @param fileName The file to load, found with the loader's resolver
+     * @return The loaded map, which can't be rendered
+     */
+    public TiledMap loadHeadless(String fileName) {
+        FileHandle file = resolve(fileName);
+        return readMap(file, read(file), NO_IMAGES);
+    }
+
+    @Override
+    @SuppressWarnings("rawtypes")
+    public Array<AssetDescriptor> getDependencies(String fileName, FileHandle file, Parameters parameter) {
+        TextureLoader.TextureParameter textureParameter = new TextureLoader.TextureParameter();
+        if (parameter != null) {
+            textureParameter.minFilter = parameter.textureMinFilter;
+            textureParameter.magFilter = parameter.textureMagFilter;
+        } else {
+            textureParameter.minFilter = Texture.TextureFilter.Nearest;
+            textureParameter.magFilter = Texture.TextureFilter.Nearest;
+        }
+
+        buffer = read(file);
+        Array<AssetDescriptor> dependencies = new Array<>();
+        for (FileHandle image : readImages(file, buffer)) {
+            dependencies.add(new AssetDescriptor<>(image, Texture.class, textureParameter));
+        }
+        return dependencies;
+    }
+
+    @Override
+    public void loadAsync(AssetManager manager, String fileName, FileHandle file, Parameters parameter) {
+        map = readMap(file, buffer, new ImageResolver.AssetManagerImageResolver(manager));
+        buffer = null;
+    }
+
+    @Override
+    public TiledMap loadSync(AssetManager manager, String fileName, FileHandle file, Parameters parameter) {
+        TiledMap loaded = map;
+        map = null;
+        return loaded;
+    }
+
+    /**
+     * Reads a whole file, memory mapping it if it is on disk
+     */
+    private static ByteBuffer read(FileHandle file) {
+        if (file.type() != Files.FileType.Classpath && file.file().exists()) {
+            try (FileChannel channel = FileChannel.open(file.file().toPath(), StandardOpenOption.READ)) {
+                return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            } catch (IOException e) {
+                throw new GdxRuntimeException("Couldn't read compiled map " + file.path(), e);
+            }
+        }
+        // Inside a jar or an APK, so it has to be copied
+        return ByteBuffer.wrap(file.readBytes());
+    }
+
+    /**
+     * Reads the header, checking that it is a compiled map this can load
+     */
+    private static void readHeader(FileHandle file, ByteBuffer data) {
+        data.rewind();
+        if (data.remaining() < 8 || data.getInt() != MAGIC) {
+            throw new GdxRuntimeException(file.path() + " isn't a compiled map");
+        }
+        int version = data.getInt();
+        if (version != VERSION) {
+            throw new GdxRuntimeException(file.path() + " was compiled as version " + version
+                    + ", but only version " + VERSION + " can be loaded. Run the compileMaps task again");
+        }
+        // The files it was compiled from are only needed by findMapFile
+        int sources = data.getInt();
+        for (int i = 0; i < sources; i++) {
+            readString(data);
+        }
+    }
+
+    /**
+     * Reads the images used by each tileset
+     * @return The images, relative to the map file
+     */
+    private static Array<FileHandle> readImages(FileHandle file, ByteBuffer data) {
+        readHeader(file, data);
+        readProperties(data, new MapProperties());
+
+        Array<FileHandle> images = new Array<>();
+        int tileSets = data.getInt();
+        for (int i = 0; i < tileSets; i++) {
+            TileSetHeader header = new TileSetHeader(data);
+            images.add(relativeFile(file, header.imagePath));
+            skipTileSetBody(data);
+        }
+        return images;
+    }
+
+    /**
+     * Builds a map from a compiled file
+     * @param file The compiled file, tileset images are relative to it
+     * @param data The contents of the file
+     * @param images Gives the texture for each tileset's image
+     * @return The map
+     */
+    private static TiledMap readMap(FileHandle file, ByteBuffer data, ImageResolver images) {
+        readHeader(file, data);
+        TiledMap map = new TiledMap();
+        readProperties(data, map.getProperties());
+
+        int tileSets = data.getInt();
+        for (int i = 0; i < tileSets; i++) {
+            map.getTileSets().addTileSet(readTileSet(file, data, images));
+        }
+
+        int layers = data.getInt();
+        for (int i = 0; i < layers; i++) {
+            byte type = data.get();
+            if (type == TILE_LAYER) {
+                map.getLayers().add(readTileLayer(data, map));
+            } else if (type == OBJECT_LAYER) {
+                map.getLayers().add(readObjectLayer(data));
+            } else {
+                throw new GdxRuntimeException("Unknown layer type " + type + " in " + file.path());
+            }
+        }
+        return map;
+    }
+
+    /**
+     * The parts of a tileset needed to split its image into tiles
+     */
+    private static class TileSetHeader {
+        final String name;
+        final String imagePath;
+        final int firstId;
+        final int imageWidth;
+        final int imageHeight;
+        final int tileWidth;
+        final int tileHeight;
+        final int margin;
+        final int spacing;
+        final float offsetX;
+        final float offsetY;
+
+        TileSetHeader(ByteBuffer data) {
+            name = readString(data);
+            imagePath = readString(data);
+            firstId = data.getInt();
+            imageWidth = data.getInt();
+            imageHeight = data.getInt();
+            tileWidth = data.getInt();
+            tileHeight = data.getInt();
+            margin = data.getInt();
+            spacing = data.getInt();
+            offsetX = data.getFloat();
+            offsetY = data.getFloat();
+        }
+    }
+
+    private static TiledMapTileSet readTileSet(FileHandle file, ByteBuffer data, ImageResolver images) {
+        TileSetHeader header = new TileSetHeader(data);
+        TiledMapTileSet tileSet = new TiledMapTileSet();
+        tileSet.setName(header.name);
+        readProperties(data, tileSet.getProperties());
+
+        // Split the image into tiles in the same order as TmxMapLoader
+        TextureRegion image = images.getImage(relativeFile(file, header.imagePath).path());
+        int id = header.firstId;
+        for (int y = header.margin; y <= header.imageHeight - header.tileHeight; y += header.tileHeight + header.spacing) {
+            for (int x = header.margin; x <= header.imageWidth - header.tileWidth; x += header.tileWidth + header.spacing) {
+                TextureRegion region = image.getTexture() == null
+                        ? new TextureRegion()
+                        : new TextureRegion(image, x, y, header.tileWidth, header.tileHeight);
+                TiledMapTile tile = new StaticTiledMapTile(region);
+                tile.setId(id);
+                tile.setOffsetX(header.offsetX);
+                tile.setOffsetY(header.offsetY);
+                tileSet.putTile(id++, tile);
+            }
+        }
+
+        // Tiles with animations or properties. Animations are made from the static tiles,
+        // so animated tiles only replace them once every animation is made
+        Array<AnimatedTiledMapTile> animatedTiles = new Array<>();
+        int specialTiles = data.getInt();
+        for (int i = 0; i < specialTiles; i++) {
+            int tileId = data.getInt();
+            TiledMapTile tile = tileSet.getTile(tileId);
+
+            int frames = data.getInt();
+            if (frames > 0) {
+                Array<StaticTiledMapTile> frameTiles = new Array<>(frames);
+                IntArray intervals = new IntArray(frames);
+                for (int frame = 0; frame < frames; frame++) {
+                    frameTiles.add((StaticTiledMapTile) tileSet.getTile(data.getInt()));
+                    intervals.add(data.getInt());
+                }
+                AnimatedTiledMapTile animatedTile = new AnimatedTiledMapTile(intervals, frameTiles);
+                animatedTile.setId(tileId);
+                animatedTiles.add(animatedTile);
+                tile = animatedTile;
+            }
+            readProperties(data, tile.getProperties());
+        }
+
+        for (AnimatedTiledMapTile animatedTile : animatedTiles) {
+            tileSet.putTile(animatedTile.getId(), animatedTile);
+        }
+        return tileSet;
+    }
+
+    /**
+     * Moves past the parts of a tileset after its header
+     */
+    private static void skipTileSetBody(ByteBuffer data) {
+        readProperties(data, new MapProperties());
+        int specialTiles = data.getInt();
+        for (int i = 0; i < specialTiles; i++) {
+            data.getInt();
+            int frames = data.getInt();
+            data.position(data.position() + frames * 2 * Integer.BYTES);
+            readProperties(data, new MapProperties());
+        }
+    }
+
+    private static void readLayerInfo(ByteBuffer data, MapLayer layer) {
+        layer.setName(readString(data));
+        layer.setVisible(data.get() != 0);
+        layer.setOpacity(data.getFloat());
+        layer.setOffsetX(data.getFloat());
+        layer.setOffsetY(data.getFloat());
+        layer.setParallaxX(data.getFloat());
+        layer.setParallaxY(data.getFloat());
+        readProperties(data, layer.getProperties());
+    }
+
+    private static TiledMapTileLayer readTileLayer(ByteBuffer data, TiledMap map) {
+        int width = data.getInt();
+        int height = data.getInt();
+        int tileWidth = data.getInt();
+        int tileHeight = data.getInt();
+        TiledMapTileLayer layer = new TiledMapTileLayer(width, height, tileWidth, tileHeight);
+        readLayerInfo(data, layer);
+
+        // Rows are stored bottom first, the same way round as the layer
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                int cellData = data.getInt();
+                if (cellData == 0) continue;
+
+                TiledMapTile tile = map.getTileSets().getTile(cellData & TILE_ID_MASK);
+                if (tile == null) continue;
+
+                TiledMapTileLayer.Cell cell = new TiledMapTileLayer.Cell();
+                cell.setTile(tile);
+                cell.setFlipHorizontally((cellData & FLIP_HORIZONTALLY) != 0);
+                cell.setFlipVertically((cellData & FLIP_VERTICALLY) != 0);
+                cell.setRotation((cellData >>> ROTATION_SHIFT) & 3);
+                layer.setCell(x, y, cell);
+            }
+        }
+        return layer;
+    }
+
+    private static MapLayer readObjectLayer(ByteBuffer data) {
+        MapLayer layer = new MapLayer();
+        readLayerInfo(data, layer);
+
+        int objects = data.getInt();
+        for (int i = 0; i < objects; i++) {
+            String name = readString(data);
+            boolean visible = data.get() != 0;
+            RectangleMapObject object = new RectangleMapObject(
+                    data.getFloat(), data.getFloat(), data.getFloat(), data.getFloat());
+            object.setName(name);
+            object.setVisible(visible);
+            readProperties(data, object.getProperties());
+            layer.getObjects().add(object);
+        }
+        return layer;
+    }
+
+    private static void readProperties(ByteBuffer data, MapProperties properties) {
+        int count = data.getInt();
+        for (int i = 0; i < count; i++) {
+            String key = readString(data);
+            byte type = data.get();
+            switch (type) {
+                case STRING_PROPERTY:
+                    properties.put(key, readString(data));
+                    break;
+                case INT_PROPERTY:
+                    properties.put(key, data.getInt());
+                    break;
+                case FLOAT_PROPERTY:
+                    properties.put(key, data.getFloat());
+                    break;
+                case BOOLEAN_PROPERTY:
+                    properties.put(key, data.get() != 0);
+                    break;
+                case COLOR_PROPERTY:
+                    properties.put(key, new Color(data.getInt()));
+                    break;
+                default:
+                    throw new GdxRuntimeException("Unknown property type " + type + " for " + key);
+            }
+        }
+    }
+
+    /**
+     * Reads a string written as its length in UTF-8 bytes then the bytes, -1 for null
+     */
+    private static String readString(ByteBuffer data) {
+        int length = data.getInt();
+        if (length < 0) return null;
+
+        byte[] bytes = new byte[length];
+        data.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Finds a file relative to another file's folder, following any ".." in the path
+     */
+    private static FileHandle relativeFile(FileHandle file, String path) {
+        FileHandle result = file.parent();
+        for (String part : path.split("/")) {
+            if (part.equals("..")) {
+                result = result.parent();
+            } else if (!part.isEmpty() && !part.equals(".")) {
+                result = result.child(part);
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,79 @@
+package com.heslingtonhustle.map;
+
+import com.badlogic.gdx.assets.loaders.FileHandleResolver;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.maps.ImageResolver;
+import com.badlogic.gdx.maps.MapProperties;
+import com.badlogic.gdx.maps.tiled.TiledMap;
+import com.badlogic.gdx.maps.tiled.TiledMapTileSet;
+import com.badlogic.gdx.maps.tiled.TmxMapLoader;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.XmlReader;
+
+/**
+ * Loads Tiled maps without loading any of their textures, so that maps can be
+ * used for collisions and triggers when there is no graphics context.
+ * Every layer, tile and property is loaded as normal, but each tile has an empty
+ * texture region, so maps loaded this way can't be rendered.
+ */
+public class HeadlessTmxMapLoader extends TmxMapLoader {
+    // Every image is replaced with an empty region, which loads no texture
+    private static final ImageResolver NO_IMAGES = name -> new TextureRegion();
+
+    public HeadlessTmxMapLoader() {
+        super();
+    }
+
+    /**
+     * @param resolver Finds map files from their names, useful when there
+     *                 is no libGDX application to find internal files with
+     */
+    public HeadlessTmxMapLoader(FileHandleResolver resolver) {
+        super(resolver);
+    }
+
+    @Override
+    public TiledMap load(String fileName, Parameters parameter) {
+        FileHandle tmxFile = resolve(fileName);
+        root = xml.parse(tmxFile);
+        return loadTiledMap(tmxFile, parameter, NO_IMAGES);
+    }
+
+    /**
+     * Adds a tile for every tile in the tileset's image, working out how many
+     * there are from the image size written in the map rather than from the texture
+     */
+    @Override
+    protected void addStaticTiles(FileHandle tmxFile, ImageResolver imageResolver, TiledMapTileSet tileSet,
+                                  XmlReader.Element element, Array<XmlReader.Element> tileElements, String name,
+                                  int firstgid, int tilewidth, int tileheight, int spacing, int margin, String source,
+                                  int offsetX, int offsetY, String imageSource, int imageWidth, int imageHeight,
+                                  FileHandle image) {
+        if (image == null) {
+            // Every tile has its own image
+            for (XmlReader.Element tileElement : tileElements) {
+                int tileId = firstgid + tileElement.getIntAttribute("id");
+                addStaticTiledMapTile(tileSet, new TextureRegion(), tileId, offsetX, offsetY);
+            }
+            return;
+        }
+
+        // Same properties as when loading with textures
+        MapProperties props = tileSet.getProperties();
+        props.put("imagesource", imageSource);
+        props.put("imagewidth", imageWidth);
+        props.put("imageheight", imageHeight);
+        props.put("tilewidth", tilewidth);
+        props.put("tileheight", tileheight);
+        props.put("margin", margin);
+        props.put("spacing", spacing);
+
+        int id = firstgid;
+        for (int y = margin; y <= imageHeight - tileheight; y += tileheight + spacing) {
+            for (int x = margin; x <= imageWidth - tilewidth; x += tilewidth + spacing) {
+                addStaticTiledMapTile(tileSet, new TextureRegion(), id++, offsetX, offsetY);
+            }
+        }
+    }
+}
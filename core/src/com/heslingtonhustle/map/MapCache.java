@@ -0,0 +1,252 @@
+package com.heslingtonhustle.map;
+
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.maps.MapLayer;
+import com.badlogic.gdx.maps.MapRenderer;
+import com.badlogic.gdx.maps.tiled.TiledMap;
+import com.badlogic.gdx.maps.tiled.TiledMapTile;
+import com.badlogic.gdx.maps.tiled.TiledMapTileLayer;
+import com.badlogic.gdx.maps.tiled.TiledMapTileSet;
+import com.heslingtonhustle.renderer.CachedTiledMapRenderer;
+
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A least recently used cache of loaded maps and their renderers, kept under a memory budget.
+ * When a map is added or given a renderer and the cache goes over budget, the least recently
+ * used maps are evicted and passed to the eviction listener to be disposed.
+ * The most recently used map, which is the current map, is never evicted, even if it is
+ * over budget on its own.
+ * Sizes are estimates: texture pixels, tile cells and the renderer's tile cache.
+ */
+public class MapCache {
+    // Roughly what a Cell object and its reference in the layer take up
+    private static final int CELL_BYTES = 32;
+    private static final int TILE_BYTES = 64;
+    // Textures are stored as RGBA8888 on the GPU
+    private static final int TEXTURE_PIXEL_BYTES = 4;
+
+    /**
+     * Called when a map is removed from the cache, to dispose it
+     */
+    public interface EvictionListener {
+        /**
+         * @param path The path the map was cached under
+         * @param map The evicted map
+         * @param renderer The map's renderer, or null if it never had one
+         */
+        void evicted(String path, TiledMap map, MapRenderer renderer);
+    }
+
+    private static class Entry {
+        final TiledMap map;
+        final long mapBytes;
+        MapRenderer renderer;
+        long rendererBytes;
+
+        Entry(TiledMap map) {
+            this.map = map;
+            mapBytes = estimateBytes(map);
+        }
+    }
+
+    // In access order, so the first entry is always the least recently used
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(8, 0.75f, true);
+    private final EvictionListener listener;
+    private long budgetBytes;
+    private long usedBytes;
+    private int hits;
+    private int misses;
+    private int evictions;
+
+    /**
+     * @param budgetBytes The estimated memory the cached maps can use before old ones are evicted
+     * @param listener Called for each map that is evicted or cleared
+     */
+    public MapCache(long budgetBytes, EvictionListener listener) {
+        this.budgetBytes = budgetBytes;
+        this.listener = listener;
+    }
+
+    /**
+     * Gets a cached map, marking it as the most recently used
+     * @param path The path the map was cached under
+     * @return The map, or null if it isn't cached
+     */
+    public TiledMap get(String path) {
+        Entry entry = entries.get(path);
+        if (entry == null) {
+            misses++;
+            return null;
+        }
+        hits++;
+        return entry.map;
+    }
+
+    /**
+     * Adds a map as the most recently used, evicting old maps if over budget
+     * @param path The path to cache the map under
+     * @param map The loaded map
+     */
+    public void put(String path, TiledMap map) {
+        Entry old = entries.remove(path);
+        if (old != null) {
+            usedBytes -= old.mapBytes + old.rendererBytes;
+            listener.evicted(path, old.map, old.renderer);
+        }
+
+        Entry entry = new Entry(map);
+        entries.put(path, entry);
+        usedBytes += entry.mapBytes;
+        trim();
+    }
+
+    /**
+     * @param path The path a map was cached under
+     * @return The map's renderer, or null if it isn't cached or doesn't have one yet
+     */
+    public MapRenderer getRenderer(String path) {
+        Entry entry = entries.get(path);
+        return entry == null ? null : entry.renderer;
+    }
+
+    /**
+     * Stores the renderer for a cached map, counting its tile cache towards the budget
+     * @param path The path the map was cached under
+     * @param renderer The map's renderer, disposed with the map
+     */
+    public void putRenderer(String path, MapRenderer renderer) {
+        Entry entry = entries.get(path);
+        if (entry == null) {
+            throw new IllegalArgumentException(path + " isn't cached");
+        }
+        entry.renderer = renderer;
+        usedBytes -= entry.rendererBytes;
+        entry.rendererBytes = estimateBytes(renderer);
+        usedBytes += entry.rendererBytes;
+        trim();
+    }
+
+    /**
+     * Checks whether a map is cached, without counting as a use or a hit
+     * @param path The path the map was cached under
+     * @return True if the map is cached
+     */
+    public boolean contains(String path) {
+        return entries.containsKey(path);
+    }
+
+    /**
+     * Changes the budget, evicting maps straight away if the cache is now over it
+     * @param budgetBytes The estimated memory the cached maps can use
+     */
+    public void setBudget(long budgetBytes) {
+        this.budgetBytes = budgetBytes;
+        trim();
+    }
+
+    /**
+     * Removes every map, passing each to the eviction listener. Not counted as evictions.
+     */
+    public void clear() {
+        for (Map.Entry<String, Entry> entry : entries.entrySet()) {
+            listener.evicted(entry.getKey(), entry.getValue().map, entry.getValue().renderer);
+        }
+        entries.clear();
+        usedBytes = 0;
+    }
+
+    /**
+     * Evicts the least recently used maps until the cache is within budget,
+     * always keeping the most recently used one
+     */
+    private void trim() {
+        Iterator<Map.Entry<String, Entry>> iterator = entries.entrySet().iterator();
+        while (usedBytes > budgetBytes && entries.size() > 1) {
+            Map.Entry<String, Entry> eldest = iterator.next();
+            iterator.remove();
+            Entry entry = eldest.getValue();
+            usedBytes -= entry.mapBytes + entry.rendererBytes;
+            evictions++;
+            listener.evicted(eldest.getKey(), entry.map, entry.renderer);
+        }
+    }
+
+    /**
+     * Estimates the memory a map uses, from its textures, tiles and tile layer cells
+     * @param map The map to measure
+     * @return The estimated size in bytes
+     */
+    public static long estimateBytes(TiledMap map) {
+        long bytes = 0;
+
+        // Tilesets can share textures, so only count each once
+        IdentityHashMap<Texture, Boolean> textures = new IdentityHashMap<>();
+        for (TiledMapTileSet tileSet : map.getTileSets()) {
+            for (TiledMapTile tile : tileSet) {
+                bytes += TILE_BYTES;
+                TextureRegion region = tile.getTextureRegion();
+                Texture texture = region == null ? null : region.getTexture();
+                if (texture != null && textures.put(texture, Boolean.TRUE) == null) {
+                    bytes += (long) texture.getWidth() * texture.getHeight() * TEXTURE_PIXEL_BYTES;
+                }
+            }
+        }
+
+        for (MapLayer layer : map.getLayers()) {
+            if (layer instanceof TiledMapTileLayer) {
+                TiledMapTileLayer tileLayer = (TiledMapTileLayer) layer;
+                bytes += (long) tileLayer.getWidth() * tileLayer.getHeight() * CELL_BYTES;
+            }
+        }
+        return bytes;
+    }
+
+    /**
+     * Estimates the memory a renderer uses on top of its map
+     * @param renderer The renderer to measure
+     * @return The estimated size in bytes
+     */
+    public static long estimateBytes(MapRenderer renderer) {
+        if (renderer instanceof CachedTiledMapRenderer) {
+            // The whole cache is allocated up front, before anything is baked into it
+            return ((CachedTiledMapRenderer) renderer).getCacheBytes();
+        }
+        // Other renderers draw straight from the map
+        return 0;
+    }
+
+    /**
+     * @return The number of maps cached
+     */
+    public int size() { return entries.size(); }
+
+    /**
+     * @return The estimated memory used by the cached maps and renderers, in bytes
+     */
+    public long getUsedBytes() { return usedBytes; }
+
+    /**
+     * @return The estimated memory the cache can use before evicting, in bytes
+     */
+    public long getBudgetBytes() { return budgetBytes; }
+
+    /**
+     * @return The number of times get found the map cached
+     */
+    public int getHits() { return hits; }
+
+    /**
+     * @return The number of times get didn't find the map, so it had to be loaded
+     */
+    public int getMisses() { return misses; }
+
+    /**
+     * @return The number of maps evicted to stay within the budget
+     */
+    public int getEvictions() { return evictions; }
+}
@@ -0,0 +1,308 @@
+package com.heslingtonhustle.map;
+
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.maps.ImageResolver;
+import com.badlogic.gdx.maps.MapLayer;
+import com.badlogic.gdx.maps.MapObject;
+import com.badlogic.gdx.maps.MapProperties;
+import com.badlogic.gdx.maps.objects.RectangleMapObject;
+import com.badlogic.gdx.maps.tiled.TiledMap;
+import com.badlogic.gdx.maps.tiled.TiledMapTile;
+import com.badlogic.gdx.maps.tiled.TiledMapTileLayer;
+import com.badlogic.gdx.maps.tiled.TiledMapTileSet;
+import com.badlogic.gdx.maps.tiled.tiles.AnimatedTiledMapTile;
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.XmlReader;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+
+/**
+ * Compiles TMX maps into a binary file that CompiledMapLoader can load without
+ * parsing any XML. Tile layers are written as arrays of tile ids, and objects
+ * as their rectangle and typed properties.
+ * Run by the compileMaps Gradle task, with the TMX files to compile as arguments.
+ * Only maps using features the game uses can be compiled, those being tile and
+ * object layers, rectangle objects and tilesets made from a single image.
+ */
+public class MapCompiler {
+    /**
+     * Compiles each map given, writing the compiled map next to it
+     * @param args The paths of the TMX files to compile
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length == 0) {
+            System.out.println("Usage: MapCompiler <map.tmx>...");
+            return;
+        }
+
+        for (String path : args) {
+            File tmxFile = new File(path);
+            File compiledFile = new File(CompiledMapLoader.compiledPath(path));
+            long start = System.nanoTime();
+            compile(tmxFile, compiledFile);
+            System.out.printf("Compiled %s to %s (%d KB to %d KB) in %.1fms%n",
+                    tmxFile, compiledFile.getName(), tmxFile.length() / 1024, compiledFile.length() / 1024,
+                    (System.nanoTime() - start) / 1e6);
+        }
+    }
+
+    /**
+     * Compiles a TMX file
+     * @param tmxFile The map to compile
+     * @param compiledFile Where to write the compiled map
+     */
+    public static void compile(File tmxFile, File compiledFile) throws IOException {
+        try (OutputStream out = new BufferedOutputStream(new FileOutputStream(compiledFile))) {
+            compile(tmxFile, out);
+        }
+    }
+
+    /**
+     * Compiles a TMX file
+     * @param tmxFile The map to compile
+     * @param out The stream to write the compiled map to
+     */
+    public static void compile(File tmxFile, OutputStream out) throws IOException {
+        FileHandle tmxHandle = new FileHandle(tmxFile.getAbsoluteFile());
+        RecordingLoader loader = new RecordingLoader();
+        TiledMap map = loader.load(tmxHandle.path());
+
+        DataOutputStream data = new DataOutputStream(out);
+        data.writeInt(CompiledMapLoader.MAGIC);
+        data.writeInt(CompiledMapLoader.VERSION);
+        Path mapFolder = tmxFile.getAbsoluteFile().getParentFile().toPath().normalize();
+
+        // The tileset files and images the map was made from, so it can be compiled again if they change
+        data.writeInt(loader.sources.size());
+        for (FileHandle source : loader.sources) {
+            writeString(data, relativePath(mapFolder, source));
+        }
+        writeProperties(data, map.getProperties());
+
+        Array<TiledMapTileSet> tileSets = new Array<>();
+        for (TiledMapTileSet tileSet : map.getTileSets()) {
+            tileSets.add(tileSet);
+        }
+        data.writeInt(tileSets.size);
+        for (TiledMapTileSet tileSet : tileSets) {
+            FileHandle image = loader.images.get(tileSet);
+            if (image == null) {
+                throw new GdxRuntimeException("Tileset " + tileSet.getName() + " in " + tmxFile
+                        + " isn't made from a single image, so can't be compiled");
+            }
+            writeTileSet(data, tileSet, relativePath(mapFolder, image));
+        }
+
+        data.writeInt(map.getLayers().getCount());
+        for (MapLayer layer : map.getLayers()) {
+            if (layer instanceof TiledMapTileLayer) {
+                data.writeByte(CompiledMapLoader.TILE_LAYER);
+                writeTileLayer(data, (TiledMapTileLayer) layer);
+            } else if (layer.getClass() == MapLayer.class) {
+                data.writeByte(CompiledMapLoader.OBJECT_LAYER);
+                writeObjectLayer(data, layer);
+            } else {
+                throw new GdxRuntimeException("Layer " + layer.getName() + " in " + tmxFile
+                        + " is a " + layer.getClass().getSimpleName() + ", which can't be compiled");
+            }
+        }
+        data.flush();
+    }
+
+    /**
+     * @return The path of a file relative to the map's folder, with forward slashes
+     */
+    private static String relativePath(Path mapFolder, FileHandle file) {
+        String path = mapFolder.relativize(file.file().getAbsoluteFile().toPath().normalize()).toString();
+        return path.replace(File.separatorChar, '/');
+    }
+
+    private static void writeTileSet(DataOutputStream data, TiledMapTileSet tileSet, String imagePath) throws IOException {
+        MapProperties properties = tileSet.getProperties();
+        writeString(data, tileSet.getName());
+        writeString(data, imagePath);
+        data.writeInt(properties.get("firstgid", Integer.class));
+        data.writeInt(properties.get("imagewidth", Integer.class));
+        data.writeInt(properties.get("imageheight", Integer.class));
+        data.writeInt(properties.get("tilewidth", Integer.class));
+        data.writeInt(properties.get("tileheight", Integer.class));
+        data.writeInt(properties.get("margin", Integer.class));
+        data.writeInt(properties.get("spacing", Integer.class));
+
+        // Every tile in a tileset has the same offset
+        Iterator<TiledMapTile> tiles = tileSet.iterator();
+        TiledMapTile firstTile = tiles.hasNext() ? tiles.next() : null;
+        data.writeFloat(firstTile == null ? 0 : firstTile.getOffsetX());
+        data.writeFloat(firstTile == null ? 0 : firstTile.getOffsetY());
+        writeProperties(data, properties);
+
+        // Only tiles with an animation or properties need writing, the rest are just split from the image
+        Array<TiledMapTile> specialTiles = new Array<>();
+        for (TiledMapTile tile : tileSet) {
+            if (tile instanceof AnimatedTiledMapTile || tile.getProperties().getKeys().hasNext()) {
+                specialTiles.add(tile);
+            }
+        }
+        data.writeInt(specialTiles.size);
+        for (TiledMapTile tile : specialTiles) {
+            data.writeInt(tile.getId());
+            if (tile instanceof AnimatedTiledMapTile) {
+                AnimatedTiledMapTile animatedTile = (AnimatedTiledMapTile) tile;
+                int[] intervals = animatedTile.getAnimationIntervals();
+                data.writeInt(intervals.length);
+                for (int i = 0; i < intervals.length; i++) {
+                    data.writeInt(animatedTile.getFrameTiles()[i].getId());
+                    data.writeInt(intervals[i]);
+                }
+            } else {
+                data.writeInt(0);
+            }
+            writeProperties(data, tile.getProperties());
+        }
+    }
+
+    private static void writeLayerInfo(DataOutputStream data, MapLayer layer) throws IOException {
+        writeString(data, layer.getName());
+        data.writeBoolean(layer.isVisible());
+        data.writeFloat(layer.getOpacity());
+        data.writeFloat(layer.getOffsetX());
+        data.writeFloat(layer.getOffsetY());
+        data.writeFloat(layer.getParallaxX());
+        data.writeFloat(layer.getParallaxY());
+        writeProperties(data, layer.getProperties());
+    }
+
+    private static void writeTileLayer(DataOutputStream data, TiledMapTileLayer layer) throws IOException {
+        data.writeInt(layer.getWidth());
+        data.writeInt(layer.getHeight());
+        data.writeInt(layer.getTileWidth());
+        data.writeInt(layer.getTileHeight());
+        writeLayerInfo(data, layer);
+
+        for (int y = 0; y < layer.getHeight(); y++) {
+            for (int x = 0; x < layer.getWidth(); x++) {
+                TiledMapTileLayer.Cell cell = layer.getCell(x, y);
+                if (cell == null || cell.getTile() == null) {
+                    data.writeInt(0);
+                    continue;
+                }
+
+                int cellData = cell.getTile().getId();
+                if (cell.getFlipHorizontally()) cellData |= CompiledMapLoader.FLIP_HORIZONTALLY;
+                if (cell.getFlipVertically()) cellData |= CompiledMapLoader.FLIP_VERTICALLY;
+                cellData |= cell.getRotation() << CompiledMapLoader.ROTATION_SHIFT;
+                data.writeInt(cellData);
+            }
+        }
+    }
+
+    private static void writeObjectLayer(DataOutputStream data, MapLayer layer) throws IOException {
+        writeLayerInfo(data, layer);
+
+        data.writeInt(layer.getObjects().getCount());
+        for (MapObject object : layer.getObjects()) {
+            if (!(object instanceof RectangleMapObject)) {
+                throw new GdxRuntimeException("Object " + object.getName() + " on layer " + layer.getName()
+                        + " is a " + object.getClass().getSimpleName() + ", only rectangles can be compiled");
+            }
+            Rectangle rectangle = ((RectangleMapObject) object).getRectangle();
+            writeString(data, object.getName());
+            data.writeBoolean(object.isVisible());
+            data.writeFloat(rectangle.x);
+            data.writeFloat(rectangle.y);
+            data.writeFloat(rectangle.width);
+            data.writeFloat(rectangle.height);
+            writeProperties(data, object.getProperties());
+        }
+    }
+
+    private static void writeProperties(DataOutputStream data, MapProperties properties) throws IOException {
+        Array<String> keys = new Array<>();
+        Iterator<String> keyIterator = properties.getKeys();
+        while (keyIterator.hasNext()) {
+            keys.add(keyIterator.next());
+        }
+
+        data.writeInt(keys.size);
+        for (String key : keys) {
+            Object value = properties.get(key);
+            writeString(data, key);
+            if (value instanceof String) {
+                data.writeByte(CompiledMapLoader.STRING_PROPERTY);
+                writeString(data, (String) value);
+            } else if (value instanceof Integer) {
+                data.writeByte(CompiledMapLoader.INT_PROPERTY);
+                data.writeInt((Integer) value);
+            } else if (value instanceof Float) {
+                data.writeByte(CompiledMapLoader.FLOAT_PROPERTY);
+                data.writeFloat((Float) value);
+            } else if (value instanceof Boolean) {
+                data.writeByte(CompiledMapLoader.BOOLEAN_PROPERTY);
+                data.writeBoolean((Boolean) value);
+            } else if (value instanceof Color) {
+                data.writeByte(CompiledMapLoader.COLOR_PROPERTY);
+                data.writeInt(Color.rgba8888((Color) value));
+            } else {
+                throw new GdxRuntimeException("Property " + key + " is a "
+                        + (value == null ? "null" : value.getClass().getSimpleName()) + ", which can't be compiled");
+            }
+        }
+    }
+
+    /**
+     * Writes a string as its length in UTF-8 bytes then the bytes, -1 for null
+     */
+    private static void writeString(DataOutputStream data, String string) throws IOException {
+        if (string == null) {
+            data.writeInt(-1);
+            return;
+        }
+        byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+        data.writeInt(bytes.length);
+        data.write(bytes);
+    }
+
+    /**
+     * Loads maps without textures, keeping track of the image each tileset was made from,
+     * and every tileset file and image read
+     */
+    private static class RecordingLoader extends HeadlessTmxMapLoader {
+        final HashMap<TiledMapTileSet, FileHandle> images = new HashMap<>();
+        final LinkedHashSet<FileHandle> sources = new LinkedHashSet<>();
+
+        RecordingLoader() {
+            super(fileName -> new FileHandle(new File(fileName)));
+        }
+
+        @Override
+        protected void addStaticTiles(FileHandle tmxFile, ImageResolver imageResolver, TiledMapTileSet tileSet,
+                                      XmlReader.Element element, Array<XmlReader.Element> tileElements, String name,
+                                      int firstgid, int tilewidth, int tileheight, int spacing, int margin,
+                                      String source, int offsetX, int offsetY, String imageSource, int imageWidth,
+                                      int imageHeight, FileHandle image) {
+            super.addStaticTiles(tmxFile, imageResolver, tileSet, element, tileElements, name, firstgid,
+                    tilewidth, tileheight, spacing, margin, source, offsetX, offsetY, imageSource,
+                    imageWidth, imageHeight, image);
+            if (source != null) {
+                sources.add(getRelativeFileHandle(tmxFile, source));
+            }
+            if (image != null) {
+                images.put(tileSet, image);
+                sources.add(image);
+            }
+        }
+    }
+}
@@ -1,6 +1,8 @@
 package com.heslingtonhustle.map;
 
 import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.assets.AssetManager;
+import com.badlogic.gdx.assets.loaders.resolvers.InternalFileHandleResolver;
 import com.badlogic.gdx.graphics.g2d.BitmapFont;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
 import com.badlogic.gdx.graphics.g2d.TextureAtlas;
@@ -9,50 +11,143 @@ import com.badlogic.gdx.maps.MapLayer;
 import com.badlogic.gdx.maps.MapObject;
 import com.badlogic.gdx.maps.MapObjects;
 import com.badlogic.gdx.maps.MapProperties;
+import com.badlogic.gdx.maps.MapRenderer;
 import com.badlogic.gdx.maps.objects.RectangleMapObject;
 import com.badlogic.gdx.maps.tiled.TiledMap;
 import com.badlogic.gdx.maps.tiled.TmxMapLoader;
 import com.badlogic.gdx.maps.tiled.renderers.OrthogonalTiledMapRenderer;
 import com.badlogic.gdx.math.Rectangle;
 import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.utils.Array;
 import com.badlogic.gdx.utils.IntArray;
 import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.TimeUtils;
+import com.heslingtonhustle.renderer.AnimationClock;
+import com.heslingtonhustle.renderer.CachedTiledMapRenderer;
+import com.heslingtonhustle.renderer.CharacterFrames;
 import com.heslingtonhustle.renderer.CharacterRenderer;
 import com.heslingtonhustle.state.Facing;
 import com.heslingtonhustle.state.NPC;
 
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 /**
  * Facilitates communication about maps between the State and the Renderer.
  * Caches loaded maps, map renderers, and collision data.
  */
 public class MapManager implements Disposable {
+    // The width and height of a collision grid cell in tiles
+    private static final int COLLISION_CELL_TILES = 2;
+    // Trigger boxes are larger than the player's collision box, so use bigger cells
+    private static final int TRIGGER_CELL_TILES = 4;
+    // Set to false to draw maps tile by tile, without baking them into a cache
+    private static final boolean BAKE_MAPS = true;
+    // Enough for both campus maps with their textures and baked renderers
+    public static final long DEFAULT_MAP_BUDGET_BYTES = 64L * 1024 * 1024;
+    public static final String npcAtlasAsset = "Players/npcs.atlas";
+    public static final String labelFontAsset = "Fonts/labelfont.fnt";
+    // The number of wandering NPCs on a map without a crowdSize property
+    public static final int DEFAULT_CROWD_SIZE = 150;
     private TiledMap currentMap;
+    private String currentMapPath;
     private final TmxMapLoader mapLoader;
-    private final HashMap<String, TiledMap> loadedMaps;
-    private final HashMap<TiledMap, OrthogonalTiledMapRenderer> loadedMapRenderers;
+    private final CompiledMapLoader compiledMapLoader;
+    private final MapCache loadedMaps;
     private ShapeRenderer collisionRenderer;
     private MapObjects collisionObjects;
     private MapObjects triggerObjects;
     private MapObjects labelObjects;
+    private SpatialGrid<Rectangle> collisionGrid;
+    private SpatialGrid<MapProperties> triggerGrid;
+    private final Array<Rectangle> overlappingRectangles;
+    // Reused when converting the player's hitboxes to pixels for queries
+    private final Rectangle pixelQuery;
+    private float tileWidth;
+    private float tileHeight;
+    // The size of the current map in tiles
+    private int mapWidth;
+    private int mapHeight;
     private HashMap<MapProperties, NPC> NPCs;
+    // The same NPCs in a list, so they can be drawn without making an iterator each frame
+    private final Array<NPC> npcList = new Array<>(false, 16, NPC.class);
     private int[] backgroundLayers;
     private int[] foregroundLayers;
+    // Both null when headless
     private final TextureAtlas npcAtlas;
     private final BitmapFont labelFont;
+    private final boolean headless;
+    // Looked up once for each type of NPC, then shared by every NPC of that type
+    private final HashMap<String, CharacterFrames> npcFrames = new HashMap<>();
+    // Times the animations of every character on the map, see getAnimationClock
+    private final AnimationClock animationClock = new AnimationClock();
+    // The wandering NPCs of each loaded map, dropped along with the map
+    private final HashMap<String, NpcCrowd> crowds = new HashMap<>();
+    private NpcCrowd crowd;
+    // The frames for each type of NPC in the crowds, in type order
+    private CharacterFrames[] crowdFrames;
+    private ExecutorService crowdExecutor;
+    // Loads maps and textures when given, otherwise they are loaded and owned by this
+    private final AssetManager assets;
+    // Maps being parsed on a background thread before they are needed
+    private final HashMap<String, Future<TiledMap>> prefetchedMaps = new HashMap<>();
+    // Map files this queued in the asset manager, the rest were queued by the game and stay loaded
+    private final HashSet<String> queuedMapFiles = new HashSet<>();
+    private ExecutorService prefetchExecutor;
 
     /**
      * Instantiates a new map manager to manage loading and switching
      * between maps loaded from Tiled
      */
     public MapManager() {
-        mapLoader = new TmxMapLoader();
-        loadedMaps = new HashMap<>();
-        loadedMapRenderers = new HashMap<>();
-        npcAtlas = new TextureAtlas("Players/npcs.atlas");
-        labelFont = new BitmapFont(Gdx.files.internal("Fonts/labelfont.fnt"),false);
+        this(false);
+    }
+
+    /**
+     * Instantiates a new map manager to manage loading and switching
+     * between maps loaded from Tiled
+     * @param headless If true, no textures or fonts are loaded so the map manager
+     *                 can be used without a graphics context. Maps can still be
+     *                 queried for collisions and triggers, but can't be rendered.
+     */
+    public MapManager(boolean headless) {
+        this.headless = headless;
+        assets = null;
+        mapLoader = headless ? new HeadlessTmxMapLoader() : new TmxMapLoader();
+        compiledMapLoader = new CompiledMapLoader(new InternalFileHandleResolver());
+        loadedMaps = new MapCache(DEFAULT_MAP_BUDGET_BYTES, this::releaseMap);
+        overlappingRectangles = new Array<>();
+        pixelQuery = new Rectangle();
+        if (headless) {
+            npcAtlas = null;
+            labelFont = null;
+        } else {
+            npcAtlas = new TextureAtlas(npcAtlasAsset);
+            labelFont = new BitmapFont(Gdx.files.internal(labelFontAsset),false);
+        }
+    }
+
+    /**
+     * Instantiates a new map manager that gets its maps, NPC textures and
+     * fonts from an asset manager. Maps that were queued but haven't finished
+     * loading are waited for, and maps that weren't queued are loaded then.
+     * @param assets The asset manager the game's assets were queued in
+     */
+    public MapManager(AssetManager assets) {
+        this.headless = false;
+        this.assets = assets;
+        mapLoader = null;
+        compiledMapLoader = null;
+        loadedMaps = new MapCache(DEFAULT_MAP_BUDGET_BYTES, this::releaseMap);
+        overlappingRectangles = new Array<>();
+        pixelQuery = new Rectangle();
+        npcAtlas = assets.finishLoadingAsset(npcAtlasAsset);
+        labelFont = assets.finishLoadingAsset(labelFontAsset);
     }
 
     /**
@@ -62,10 +157,33 @@ public class MapManager implements Disposable {
      * @param path The filepath of the map to load
      */
     public void loadMap(String path) {
-        if (!loadedMaps.containsKey(path)) {
-            loadedMaps.put(path, mapLoader.load(path));
+        long start = TimeUtils.nanoTime();
+        TiledMap map = loadedMaps.get(path);
+        if (map == null) {
+            // Taken out first, so a failed prefetch isn't waited on again next time
+            Future<TiledMap> prefetched = prefetchedMaps.remove(path);
+            if (prefetched != null) {
+                map = waitForPrefetch(path, prefetched);
+            }
+            if (map == null && assets != null) {
+                String file = CompiledMapLoader.findMapFile(path);
+                if (!assets.isLoaded(file) && !assets.contains(file)) {
+                    assets.load(file, TiledMap.class);
+                    queuedMapFiles.add(file);
+                }
+                map = assets.finishLoadingAsset(file);
+            } else if (map == null) {
+                map = readMap(path, mapLoader, compiledMapLoader);
+            }
+            loadedMaps.put(path, map);
         }
-        currentMap = loadedMaps.get(path);
+        long loaded = TimeUtils.nanoTime();
+        currentMap = map;
+        currentMapPath = path;
+        tileWidth = currentMap.getProperties().get("tilewidth", Integer.class);
+        tileHeight = currentMap.getProperties().get("tileheight", Integer.class);
+        mapWidth = currentMap.getProperties().get("width", Integer.class);
+        mapHeight = currentMap.getProperties().get("height", Integer.class);
 
         // Get collidable objects
         try {
@@ -99,6 +217,13 @@ public class MapManager implements Disposable {
             labelObjects = null;
         }
 
+        // NPCs add themselves to the collision and trigger objects, so index them last
+        buildCollisionGrid();
+        buildTriggerGrid();
+
+        // Crowds are only for show, so headless maps don't have them
+        crowd = headless ? null : crowds.computeIfAbsent(path, this::createCrowd);
+
         // Get which layers are foreground and which are background
 
         IntArray foreground = new IntArray(true, currentMap.getLayers().getCount());
@@ -122,6 +247,103 @@ public class MapManager implements Disposable {
         backgroundLayers = background.toArray();
         foregroundLayers = foreground.toArray();
 
+        Gdx.app.debug("DEBUG", String.format("Loaded %s in %.1fms, %.1fms reading and %.1fms indexing",
+                path, (TimeUtils.nanoTime() - start) / 1e6, (loaded - start) / 1e6, (TimeUtils.nanoTime() - loaded) / 1e6));
+    }
+
+    /**
+     * Reads a map from its compiled file if it has been compiled, or its TMX file otherwise
+     * @param path The filepath of the map's TMX file
+     * @param tmxLoader The loader for TMX files
+     * @param compiledLoader The loader for compiled maps
+     * @return The loaded map
+     */
+    private TiledMap readMap(String path, TmxMapLoader tmxLoader, CompiledMapLoader compiledLoader) {
+        String file = CompiledMapLoader.findMapFile(path);
+        if (file.equals(path)) {
+            return tmxLoader.load(path);
+        }
+        return headless ? compiledLoader.loadHeadless(file) : compiledLoader.load(file);
+    }
+
+    /**
+     * Disposes a map when it is evicted from the cache, along with its renderer
+     * @param path The filepath of the map
+     * @param map The evicted map
+     * @param renderer The map's renderer, or null if it was never drawn
+     */
+    private void releaseMap(String path, TiledMap map, MapRenderer renderer) {
+        crowds.remove(path);
+        if (renderer != null) {
+            ((Disposable) renderer).dispose();
+        }
+        if (assets == null) {
+            map.dispose();
+        } else {
+            // Maps in the AssetManifest are left loaded, so a new game starts straight away.
+            // The asset manager disposes the rest, and loads them again if needed.
+            String file = assets.getAssetFileName(map);
+            if (file != null && queuedMapFiles.remove(file)) {
+                assets.unload(file);
+            }
+        }
+        Gdx.app.debug("DEBUG", "Released " + path + ", " + loadedMaps.getUsedBytes() / 1024 + "KB of maps still cached");
+    }
+
+    /**
+     * Starts loading a map in the background, so that it is ready
+     * by the time loadMap is called for it. Does nothing if the map is
+     * already loaded or being loaded.
+     * With an asset manager the map is queued in it, and is parsed on the asset
+     * manager's thread as the game updates it. Headless maps have no textures,
+     * so they are parsed on a thread of their own.
+     * @param path The filepath of the map to load
+     */
+    public void prefetchMap(String path) {
+        if (loadedMaps.contains(path) || prefetchedMaps.containsKey(path)) return;
+
+        Future<TiledMap> map = null;
+        if (assets != null) {
+            String file = CompiledMapLoader.findMapFile(path);
+            if (!assets.isLoaded(file) && !assets.contains(file)) {
+                assets.load(file, TiledMap.class);
+                queuedMapFiles.add(file);
+            }
+        } else if (headless) {
+            if (prefetchExecutor == null) {
+                prefetchExecutor = Executors.newSingleThreadExecutor(runnable -> {
+                    Thread thread = new Thread(runnable, "Map prefetch");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+            }
+            // Loaders keep state while loading, so each map needs its own
+            map = prefetchExecutor.submit(() -> readMap(path, new HeadlessTmxMapLoader(),
+                    new CompiledMapLoader(new InternalFileHandleResolver())));
+        } else {
+            // Textures can only be made on the render thread, so just load it when needed
+            return;
+        }
+        prefetchedMaps.put(path, map);
+        Gdx.app.debug("DEBUG", "Prefetching " + path);
+    }
+
+    /**
+     * Waits for a map being parsed in the background
+     * @param path The filepath of the map
+     * @param map The map's pending result
+     * @return The loaded map, or null if the prefetch failed and the map should be loaded again
+     */
+    private TiledMap waitForPrefetch(String path, Future<TiledMap> map) {
+        try {
+            return map.get();
+        } catch (ExecutionException e) {
+            Gdx.app.debug("DEBUG", "Couldn't prefetch " + path + ", loading it again: " + e.getCause());
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new GdxRuntimeException("Interrupted while waiting for map", e);
+        }
     }
 
     /**
@@ -130,6 +352,7 @@ public class MapManager implements Disposable {
      */
     private void createNPCs(MapObjects NPCObjects) {
         NPCs = new HashMap<>();
+        npcList.clear();
         for (MapObject npcObject : NPCObjects) {
             // Load info
             Facing[] directions = new Facing[]{Facing.UP, Facing.RIGHT, Facing.DOWN, Facing.LEFT};
@@ -144,16 +367,24 @@ public class MapManager implements Disposable {
                 );
 
                 // Give it a renderer
-                character.setRenderer(
-                        new CharacterRenderer(
-                                worldToPixelValue(0.9f),
-                                worldToPixelValue(0.9f),
-                                npcAtlas,
-                                character.getType(),
-                                true
-                        ));
+                if (!headless) {
+                    character.setRenderer(
+                            new CharacterRenderer(
+                                    worldToPixelValue(0.9f),
+                                    worldToPixelValue(0.9f),
+                                    npcFrames.computeIfAbsent(character.getType(),
+                                            type -> new CharacterFrames(npcAtlas, type, false)),
+                                    animationClock
+                            ));
+                }
 
                 NPCs.put(npcObject.getProperties(), character);
+                npcList.add(character);
+
+                // Maps are cached, so the NPC may already have been added
+                // the last time this map was loaded. Every NPC collides, but silent ones aren't triggers
+                if (collisionObjects.getIndex(npcObject) != -1) continue;
+
                 // Also add a trigger
                 if (npcObject.getProperties().containsKey("silent")) {
                     if (!npcObject.getProperties().get("silent", Boolean.class)) {
@@ -172,12 +403,136 @@ public class MapManager implements Disposable {
     }
 
     /**
-     * Renders all the NPCs
+     * Indexes the current map's collision objects in a grid so that
+     * collision checks only need to look at objects near the player.
+     * The world space rectangle of each object is worked out here once
+     * rather than on every collision check.
+     */
+    private void buildCollisionGrid() {
+        if (collisionObjects == null) {
+            collisionGrid = null;
+            return;
+        }
+
+        Vector2 mapDimensions = getCurrentMapWorldDimensions();
+        collisionGrid = new SpatialGrid<>(
+                mapDimensions.x * tileWidth,
+                mapDimensions.y * tileHeight,
+                COLLISION_CELL_TILES * tileWidth
+        );
+
+        for (MapObject object : collisionObjects) {
+            if (object instanceof RectangleMapObject) {
+                Rectangle rectangle = ((RectangleMapObject) object).getRectangle();
+                collisionGrid.add(rectangle, pixelToWorldRectangle(rectangle));
+            }
+        }
+    }
+
+    /**
+     * Indexes the current map's triggers, including those added by NPCs,
+     * so the nearest trigger can be found without checking every trigger
+     */
+    private void buildTriggerGrid() {
+        if (triggerObjects == null) {
+            triggerGrid = null;
+            return;
+        }
+
+        Vector2 mapDimensions = getCurrentMapWorldDimensions();
+        triggerGrid = new SpatialGrid<>(
+                mapDimensions.x * tileWidth,
+                mapDimensions.y * tileHeight,
+                TRIGGER_CELL_TILES * tileWidth
+        );
+
+        for (MapObject object : triggerObjects) {
+            if (object instanceof RectangleMapObject) {
+                triggerGrid.add(((RectangleMapObject) object).getRectangle(), object.getProperties());
+            }
+        }
+    }
+
+    /**
+     * @return The clock timing the animations of the NPCs, which the player
+     * should share. Update it once per frame before rendering.
+     */
+    public AnimationClock getAnimationClock() {
+        return animationClock;
+    }
+
+    /**
+     * Fills the current map with wandering NPCs, spread over everywhere they can walk
+     * @param path The filepath of the current map
+     * @return The new crowd
+     */
+    private NpcCrowd createCrowd(String path) {
+        if (crowdFrames == null) {
+            // Every type of NPC in the atlas, such as 'npc-0'
+            Array<String> types = new Array<>(String.class);
+            for (TextureAtlas.AtlasRegion region : npcAtlas.getRegions()) {
+                if (!region.name.endsWith("-idle-down")) continue;
+                String type = region.name.substring(0, region.name.length() - "-idle-down".length());
+                if (!types.contains(type, false)) types.add(type);
+            }
+            types.sort();
+            crowdFrames = new CharacterFrames[types.size];
+            for (int i = 0; i < types.size; i++) {
+                crowdFrames[i] = npcFrames.computeIfAbsent(types.get(i),
+                        type -> new CharacterFrames(npcAtlas, type, false));
+            }
+        }
+        if (crowdExecutor == null) {
+            crowdExecutor = Executors.newFixedThreadPool(
+                    Math.max(1, Runtime.getRuntime().availableProcessors() - 1), runnable -> {
+                        Thread thread = new Thread(runnable, "Crowd update");
+                        thread.setDaemon(true);
+                        return thread;
+                    });
+        }
+
+        NpcCrowd newCrowd = new NpcCrowd(mapWidth * tileWidth, mapHeight * tileHeight, tileWidth,
+                worldToPixelValue(0.9f), crowdExecutor);
+        if (collisionObjects != null) {
+            for (RectangleMapObject object : collisionObjects.getByType(RectangleMapObject.class)) {
+                newCrowd.block(object.getRectangle());
+            }
+        }
+        int size = currentMap.getProperties().get("crowdSize", DEFAULT_CROWD_SIZE, Integer.class);
+        if (crowdFrames.length > 0) {
+            newCrowd.spawn(size, crowdFrames.length, path.hashCode());
+        }
+        return newCrowd;
+    }
+
+    /**
+     * Moves the current map's wandering NPCs on by one tick
+     * @param delta The length of a tick in seconds
+     * @param view The area on screen in pixels, NPCs outside it are updated less often
+     */
+    public void updateCrowd(float delta, Rectangle view) {
+        if (crowd != null) crowd.update(delta, view);
+    }
+
+    /**
+     * @return The current map's wandering NPCs, or null when headless
+     */
+    public NpcCrowd getCrowd() {
+        return crowd;
+    }
+
+    /**
+     * Renders the NPCs that can be seen, including the wandering NPCs
      * @param batch The sprite batch to render to
+     * @param view The area on screen in pixels
      */
-    public void renderNPCs(SpriteBatch batch) {
-        for (MapProperties object : NPCs.keySet()) {
-            NPCs.get(object).render(batch);
+    public void renderNPCs(SpriteBatch batch, Rectangle view) {
+        NPC[] npcs = npcList.items;
+        for (int i = 0; i < npcList.size; i++) {
+            if (npcs[i].isInView(view)) npcs[i].render(batch);
+        }
+        if (crowd != null) {
+            crowd.render(batch, crowdFrames, animationClock.getTime(), view);
         }
     }
 
@@ -206,14 +561,23 @@ public class MapManager implements Disposable {
         return foregroundLayers;
     }
 
-    public OrthogonalTiledMapRenderer getCurrentMapRenderer(SpriteBatch spriteBatch) {
-        if (currentMap == null) return null;
-
-        if (!loadedMapRenderers.containsKey(currentMap)) {
-            loadedMapRenderers.put(currentMap, new OrthogonalTiledMapRenderer(currentMap, spriteBatch));
+    /**
+     * Gets the renderer for the current map, creating it the first time
+     * @param spriteBatch The batch the renderer should draw with
+     * @return The map renderer, or null if there is no map or this is headless
+     */
+    public MapRenderer getCurrentMapRenderer(SpriteBatch spriteBatch) {
+        if (currentMap == null || headless) return null;
+
+        MapRenderer renderer = loadedMaps.getRenderer(currentMapPath);
+        if (renderer == null) {
+            // Static layers are baked into a cache, which is much cheaper to draw
+            renderer = BAKE_MAPS
+                    ? new CachedTiledMapRenderer(currentMap, spriteBatch)
+                    : new OrthogonalTiledMapRenderer(currentMap, spriteBatch);
+            loadedMaps.putRenderer(currentMapPath, renderer);
         }
-
-        return loadedMapRenderers.get(currentMap);
+        return renderer;
     }
 
     /**
@@ -257,33 +621,15 @@ public class MapManager implements Disposable {
 
     /**
      * Finds the nearest trigger the player is overlapping
+     * Only the triggers in the grid cells around the player are tested
      * @param playerHitbox The player's trigger hitbox
      * @return The MapProperties of the nearest trigger
      */
     public MapProperties getNearestTrigger(Rectangle playerHitbox) {
-        if (triggerObjects == null) {
+        if (triggerGrid == null) {
             return null;
         }
-        playerHitbox = worldRectangleToPixelRectangle(playerHitbox);
-        // The distance of the nearest trigger
-        float closestDistance = -1f;
-        MapProperties closestObject = null;
-
-        for (MapObject object : triggerObjects) {
-            if (object instanceof RectangleMapObject) {
-                // Only calc if the trigger box overlaps the player
-                Rectangle objRect = ((RectangleMapObject) object).getRectangle();
-                if (playerHitbox.overlaps(objRect)) {
-                    float distance = distanceBetween(objRect, playerHitbox);
-                    if (closestObject == null || distance < closestDistance) {
-                        closestObject = object.getProperties();
-                        closestDistance = distance;
-                    }
-                }
-            }
-        }
-
-        return closestObject;
+        return triggerGrid.nearest(worldRectangleToPixelRectangle(playerHitbox, pixelQuery));
     }
 
     /**
@@ -291,7 +637,7 @@ public class MapManager implements Disposable {
      * @param batch The sprite batch to render to
      */
     public void renderLabels(SpriteBatch batch) {
-        if (labelObjects == null) return;
+        if (labelObjects == null || headless) return;
         for (MapObject object : labelObjects) {
             MapProperties props = object.getProperties();
             float x = props.get("x", Float.class);
@@ -341,20 +687,6 @@ public class MapManager implements Disposable {
 
     }
 
-    /**
-     * Calculates the distance between the centre of two rectangles
-     * @param rect1 The first rectangle
-     * @param rect2 The second rectangle
-     * @return The distance between the centre of the two rectangles
-     */
-    private float distanceBetween(Rectangle rect1, Rectangle rect2) {
-        Vector2 centres1 = new Vector2(rect1.width / 2 + rect1.x, rect1.height / 2 + rect1.y);
-        Vector2 centres2 = new Vector2(rect2.width / 2 +  rect2.x, rect2.height / 2 + rect2.y);
-
-        return (float) Math.sqrt((Math.pow((centres1.x - centres2.x), 2) + Math.pow((centres1.y - centres2.y), 2)));
-    }
-
-
     /**
      * @return Returns the tile width and height of the current loaded map
      */
@@ -372,13 +704,17 @@ public class MapManager implements Disposable {
      * @return The dimensions of the current loaded map
      */
     public Vector2 getCurrentMapWorldDimensions() {
-        if (currentMap == null) {
-            throw new NullPointerException("There is no currently loaded map!");
-        }
-        return new Vector2(
-                (int)currentMap.getProperties().get("width"),
-                (int)currentMap.getProperties().get("height")
-        );
+        return getCurrentMapWorldDimensions(new Vector2());
+    }
+
+    /**
+     * Gets the dimensions of the current loaded map without allocating
+     * @param out The vector to store the dimensions in
+     * @return The out vector, for convenience
+     */
+    public Vector2 getCurrentMapWorldDimensions(Vector2 out) {
+        requireMap();
+        return out.set(mapWidth, mapHeight);
     }
 
     /**
@@ -387,10 +723,18 @@ public class MapManager implements Disposable {
      * @return The equivalent of these coordinates in the maps coordinate system
      */
     public Vector2 worldToPixelCoords(Vector2 worldCoords) {
-        return new Vector2(
-                worldCoords.x * getCurrentMapTileDimensions().x,
-                worldCoords.y * getCurrentMapTileDimensions().y
-        );
+        return worldToPixelCoords(worldCoords, new Vector2());
+    }
+
+    /**
+     * Translates a player's coordinates to map coordinates without allocating
+     * @param worldCoords The player's coordinates
+     * @param out The vector to store the result in, can be worldCoords
+     * @return The out vector, for convenience
+     */
+    public Vector2 worldToPixelCoords(Vector2 worldCoords, Vector2 out) {
+        requireMap();
+        return out.set(worldCoords.x * tileWidth, worldCoords.y * tileHeight);
     }
 
     /**
@@ -399,7 +743,8 @@ public class MapManager implements Disposable {
      * @return The translated value
      */
     public float worldToPixelValue(float worldValue) {
-        return worldValue * getCurrentMapTileDimensions().x;
+        requireMap();
+        return worldValue * tileWidth;
     }
 
     /**
@@ -408,45 +753,63 @@ public class MapManager implements Disposable {
      * @return The converted value
      */
     public float pixelToWorldValue(float pixelValue) {
-        return pixelValue / getCurrentMapTileDimensions().x;
+        requireMap();
+        return pixelValue / tileWidth;
     }
 
     public Rectangle worldRectangleToPixelRectangle(Rectangle rectangle) {
-        float x = rectangle.x * getCurrentMapTileDimensions().x;
-        float y = rectangle.y * getCurrentMapTileDimensions().y;
-        float width = rectangle.width * getCurrentMapTileDimensions().x;
-        float height = rectangle.height * getCurrentMapTileDimensions().y;
-        return new Rectangle(x, y, width, height);
+        requireMap();
+        return worldRectangleToPixelRectangle(rectangle, new Rectangle());
+    }
+
+    /**
+     * Converts a rectangle in the player's coordinates to map pixels
+     * without creating a new rectangle
+     * @param rectangle The rectangle to convert
+     * @param out The rectangle to store the result in
+     * @return The out rectangle, for convenience
+     */
+    public Rectangle worldRectangleToPixelRectangle(Rectangle rectangle, Rectangle out) {
+        return out.set(
+                rectangle.x * tileWidth,
+                rectangle.y * tileHeight,
+                rectangle.width * tileWidth,
+                rectangle.height * tileHeight
+        );
     }
 
     public Rectangle pixelToWorldRectangle(Rectangle rectangle) {
-        float x = rectangle.x / getCurrentMapTileDimensions().x;
-        float y = rectangle.y / getCurrentMapTileDimensions().y;
-        float width = rectangle.width / getCurrentMapTileDimensions().x;
-        float height = rectangle.height / getCurrentMapTileDimensions().y;
-        return new Rectangle(x, y, width, height);
+        requireMap();
+        return new Rectangle(
+                rectangle.x / tileWidth,
+                rectangle.y / tileHeight,
+                rectangle.width / tileWidth,
+                rectangle.height / tileHeight
+        );
+    }
+
+    /**
+     * Makes sure a map has been loaded before converting anything with its tile size
+     */
+    private void requireMap() {
+        if (currentMap == null) {
+            throw new NullPointerException("There is no currently loaded map!");
+        }
     }
 
     /**
-     * Returns a set of rectangles the player is overlapping
+     * Returns the rectangles the player is overlapping.
+     * Only the collision objects in the grid cells around the player are tested.
+     * The returned array is reused by the next call, so it should not be kept
      * @param playerRectangle The player's collision rectangles
-     * @return A set of rectangles, may be empty
+     * @return An array of rectangles in world coordinates, may be empty
      */
-    public HashSet<Rectangle> getOverlappingRectangles(Rectangle playerRectangle) {
-        // For each rectangle in the collisions layer, check whether the player rectangle intercepts
-        HashSet<Rectangle> overlaps = new HashSet<>();
-        playerRectangle = worldRectangleToPixelRectangle(playerRectangle);
-        for (MapObject object : collisionObjects) {
-            // If rectangle
-            if (object instanceof RectangleMapObject) {
-                Rectangle rectangle = ((RectangleMapObject) object).getRectangle();
-                if (playerRectangle.overlaps(rectangle)) {
-                    // Translate to screen coordinates for player's collision
-                    overlaps.add(pixelToWorldRectangle(rectangle));
-                }
-            }
+    public Array<Rectangle> getOverlappingRectangles(Rectangle playerRectangle) {
+        if (collisionGrid == null) {
+            overlappingRectangles.clear();
+            return overlappingRectangles;
         }
-        return overlaps;
+        return collisionGrid.query(worldRectangleToPixelRectangle(playerRectangle, pixelQuery), overlappingRectangles);
     }
 
 
@@ -455,21 +818,45 @@ public class MapManager implements Disposable {
      */
     @Override
     public void dispose() {
-        for (TiledMap map : loadedMaps.values()) {
-            map.dispose();
+        loadedMaps.clear();
+        // Maps prefetched but never shown
+        for (String file : queuedMapFiles) {
+            if (assets.contains(file)) {
+                assets.unload(file);
+            }
         }
-        for (OrthogonalTiledMapRenderer mapRenderer: loadedMapRenderers.values()) {
-            mapRenderer.dispose();
+        queuedMapFiles.clear();
+        // The asset manager disposes textures it loaded itself
+        if (assets == null && npcAtlas != null) {
+            npcAtlas.dispose();
+            labelFont.dispose();
         }
         if (collisionRenderer != null) {
             collisionRenderer.dispose();
         }
+        if (prefetchExecutor != null) {
+            prefetchExecutor.shutdownNow();
+        }
+        if (crowdExecutor != null) {
+            crowdExecutor.shutdownNow();
+        }
     }
 
     /**
-     * @return The loaded maps
+     * @return True if the map manager was made without any graphics
+     */
+    public boolean isHeadless() { return headless; }
+
+    /**
+     * @param path The filepath of a map
+     * @return True if the map has been prefetched, but not loaded with loadMap yet
+     */
+    public boolean isPrefetched(String path) { return prefetchedMaps.containsKey(path); }
+
+    /**
+     * @return The cache of loaded maps, with its hit, miss and eviction counts
      */
-    public HashMap<String, TiledMap> getLoadedMaps() { return loadedMaps; }
+    public MapCache getLoadedMaps() { return loadedMaps; }
 
     /**
      * @return THe current map
@@ -0,0 +1,401 @@
+package com.heslingtonhustle.map;
+
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.heslingtonhustle.renderer.CharacterFrames;
+import com.heslingtonhustle.state.Facing;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A crowd of NPCs that wander around the map to make it feel busier.
+ * They are only for show, so the player can't talk to them and walks through them.
+ * The crowd is kept as arrays of each NPC's fields rather than an object for
+ * each NPC, so the whole crowd can be updated and drawn in one pass over memory.
+ * <p>
+ * NPCs on screen are updated every tick. NPCs off screen are updated every
+ * OFFSCREEN_TICKS ticks instead, a different quarter of them each tick.
+ * Each NPC has its own random numbers and only changes its own fields, so
+ * large crowds are split between threads and still move exactly the same.
+ * Only NPCs in view are drawn.
+ * All positions are in pixels, the same as the map's objects.
+ */
+public class NpcCrowd {
+    // Off screen NPCs are updated once every this many ticks
+    public static final int OFFSCREEN_TICKS = 4;
+    // Crowds smaller than this are updated on the calling thread only
+    public static final int PARALLEL_THRESHOLD = 1024;
+    // Speeds and distances are in NPC sizes, so they suit any tile size
+    private static final float WALK_SPEED = 2f;
+    private static final float WANDER_RADIUS = 8f;
+    private static final float MIN_WAIT = 0.5f;
+    private static final float MAX_WAIT = 4f;
+    // Drawn larger than their size and centred, the same as CharacterRenderer
+    private static final float DRAW_SCALE = 1.2f;
+    private static final Facing[] FACINGS = Facing.values();
+
+    private final float npcSize;
+    private final float cellSize;
+    private final int columns;
+    private final int rows;
+    // True for each cell NPCs can't walk into
+    private final boolean[] blocked;
+
+    private int size;
+    private float[] x = new float[0];
+    private float[] y = new float[0];
+    private float[] homeX = new float[0];
+    private float[] homeY = new float[0];
+    private float[] targetX = new float[0];
+    private float[] targetY = new float[0];
+    private float[] wait = new float[0];
+    private byte[] facing = new byte[0];
+    private boolean[] moving = new boolean[0];
+    private short[] type = new short[0];
+    private int[] seed = new int[0];
+
+    private final ExecutorService executor;
+    // One for each helper thread, reused every tick
+    private final ArrayList<RangeUpdate> updates = new ArrayList<>();
+    // The helpers still updating this tick, the last to finish wakes the updating thread
+    private final AtomicInteger running = new AtomicInteger();
+    private volatile Thread updatingThread;
+    private volatile Throwable failure;
+    private int tick;
+
+    /**
+     * Makes an empty crowd for a map
+     * @param width The map's width in pixels
+     * @param height The map's height in pixels
+     * @param cellSize The size of the cells used to check where NPCs can walk, such as a tile
+     * @param npcSize The width and height of an NPC in pixels
+     * @param executor Threads to help update large crowds with, or null to only use the calling thread
+     */
+    public NpcCrowd(float width, float height, float cellSize, float npcSize, ExecutorService executor) {
+        this.npcSize = npcSize;
+        this.cellSize = cellSize;
+        this.executor = executor;
+        columns = Math.max(1, MathUtils.ceil(width / cellSize));
+        rows = Math.max(1, MathUtils.ceil(height / cellSize));
+        blocked = new boolean[columns * rows];
+        if (executor != null) {
+            // This thread does a share too
+            int helpers = Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
+            for (int i = 0; i < helpers; i++) {
+                updates.add(new RangeUpdate());
+            }
+        }
+    }
+
+    /**
+     * Stops NPCs walking into an area, such as a building
+     * @param area The area in pixels
+     */
+    public void block(Rectangle area) {
+        int startColumn = Math.max(0, (int) (area.x / cellSize));
+        int endColumn = Math.min(columns - 1, (int) ((area.x + area.width) / cellSize));
+        int startRow = Math.max(0, (int) (area.y / cellSize));
+        int endRow = Math.min(rows - 1, (int) ((area.y + area.height) / cellSize));
+        for (int row = startRow; row <= endRow; row++) {
+            for (int column = startColumn; column <= endColumn; column++) {
+                blocked[row * columns + column] = true;
+            }
+        }
+    }
+
+    /**
+     * @return True if an NPC can't stand at the position, including anywhere off the map
+     */
+    public boolean isBlocked(float x, float y) {
+        if (x < 0 || y < 0) return true;
+        int column = (int) (x / cellSize);
+        int row = (int) (y / cellSize);
+        return column >= columns || row >= rows || blocked[row * columns + column];
+    }
+
+    /**
+     * @return True if an NPC can be at the position, checked at its feet
+     */
+    private boolean canStand(float npcX, float npcY) {
+        return !isBlocked(npcX + npcSize / 2, npcY);
+    }
+
+    /**
+     * @return The number of cells NPCs can walk in
+     */
+    public int getWalkableCells() {
+        int walkable = 0;
+        for (boolean cell : blocked) {
+            if (!cell) walkable++;
+        }
+        return walkable;
+    }
+
+    /**
+     * Adds an NPC, which wanders around where it was added
+     * @param x The NPC's x position in pixels
+     * @param y The NPC's y position in pixels
+     * @param npcType Which of the frames passed to render to draw it with
+     * @param randomSeed Picks where it wanders, any number but 0
+     * @return The NPC's index
+     */
+    public int add(float x, float y, int npcType, int randomSeed) {
+        if (size == this.x.length) grow(Math.max(16, size * 2));
+        int i = size++;
+        this.x[i] = homeX[i] = targetX[i] = x;
+        this.y[i] = homeY[i] = targetY[i] = y;
+        type[i] = (short) npcType;
+        seed[i] = randomSeed == 0 ? 1 : randomSeed;
+        facing[i] = (byte) Facing.DOWN.ordinal();
+        moving[i] = false;
+        wait[i] = MIN_WAIT + random(i) * (MAX_WAIT - MIN_WAIT);
+        return i;
+    }
+
+    /**
+     * Adds NPCs at random positions that can be walked to
+     * @param count The number of NPCs to add
+     * @param npcTypes The number of types of NPC to pick from
+     * @param randomSeed Picks where they are and where they wander
+     * @return The number actually added, fewer if there's nowhere to put them
+     */
+    public int spawn(int count, int npcTypes, long randomSeed) {
+        if (getWalkableCells() == 0) return 0;
+        Random random = new Random(randomSeed);
+        int added = 0;
+        // Give up eventually on a map with very few walkable cells
+        for (int attempt = 0; added < count && attempt < count * 100; attempt++) {
+            float spawnX = random.nextFloat() * columns * cellSize;
+            float spawnY = random.nextFloat() * rows * cellSize;
+            if (!canStand(spawnX, spawnY)) continue;
+            add(spawnX, spawnY, random.nextInt(npcTypes), random.nextInt());
+            added++;
+        }
+        return added;
+    }
+
+    private void grow(int capacity) {
+        x = Arrays.copyOf(x, capacity);
+        y = Arrays.copyOf(y, capacity);
+        homeX = Arrays.copyOf(homeX, capacity);
+        homeY = Arrays.copyOf(homeY, capacity);
+        targetX = Arrays.copyOf(targetX, capacity);
+        targetY = Arrays.copyOf(targetY, capacity);
+        wait = Arrays.copyOf(wait, capacity);
+        facing = Arrays.copyOf(facing, capacity);
+        moving = Arrays.copyOf(moving, capacity);
+        type = Arrays.copyOf(type, capacity);
+        seed = Arrays.copyOf(seed, capacity);
+    }
+
+    /**
+     * Moves the crowd on by one tick
+     * @param delta The length of a tick in seconds
+     * @param view The area on screen in pixels, NPCs outside it are updated less often
+     */
+    public void update(float delta, Rectangle view) {
+        int currentTick = tick++;
+        if (executor == null || size < PARALLEL_THRESHOLD) {
+            updateRange(0, size, delta, view, currentTick);
+            return;
+        }
+
+        int threads = updates.size() + 1;
+        int chunk = (size + threads - 1) / threads;
+        for (int i = 0; i < updates.size(); i++) {
+            updates.get(i).set(chunk * (i + 1), Math.min(size, chunk * (i + 2)), delta, view, currentTick);
+        }
+
+        updatingThread = Thread.currentThread();
+        failure = null;
+        running.set(updates.size());
+        // Handed straight to the executor rather than submitted, so no futures are made each tick
+        for (int i = 0; i < updates.size(); i++) {
+            try {
+                executor.execute(updates.get(i));
+            } catch (RejectedExecutionException e) {
+                // The executor has been shut down, so do the helper's share here
+                updates.get(i).run();
+            }
+        }
+        // This thread takes the first chunk
+        updateRange(0, Math.min(size, chunk), delta, view, currentTick);
+
+        // The helpers' chunks are short, so wait for them even if interrupted
+        boolean interrupted = false;
+        while (running.get() > 0) {
+            LockSupport.park(this);
+            interrupted |= Thread.interrupted();
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+        if (failure != null) {
+            throw new GdxRuntimeException("Couldn't update crowd", failure);
+        }
+    }
+
+    /**
+     * Updates part of the crowd on a worker thread
+     */
+    private class RangeUpdate implements Runnable {
+        private int from;
+        private int to;
+        private float delta;
+        private Rectangle view;
+        private int tick;
+
+        void set(int from, int to, float delta, Rectangle view, int tick) {
+            this.from = from;
+            this.to = to;
+            this.delta = delta;
+            this.view = view;
+            this.tick = tick;
+        }
+
+        @Override
+        public void run() {
+            try {
+                updateRange(from, to, delta, view, tick);
+            } catch (Throwable e) {
+                failure = e;
+            } finally {
+                if (running.decrementAndGet() == 0) {
+                    LockSupport.unpark(updatingThread);
+                }
+            }
+        }
+    }
+
+    private void updateRange(int from, int to, float delta, Rectangle view, int currentTick) {
+        for (int i = from; i < to; i++) {
+            if (isInView(i, view)) {
+                step(i, delta);
+            } else if ((i + currentTick) % OFFSCREEN_TICKS == 0) {
+                step(i, delta * OFFSCREEN_TICKS);
+            }
+        }
+    }
+
+    /**
+     * Moves one NPC towards where it's going, or waits to pick somewhere new
+     */
+    private void step(int i, float delta) {
+        if (wait[i] > 0) {
+            wait[i] -= delta;
+            if (wait[i] > 0) return;
+            pickTarget(i);
+            return;
+        }
+
+        float dx = targetX[i] - x[i];
+        float dy = targetY[i] - y[i];
+        float distance = (float) Math.sqrt(dx * dx + dy * dy);
+        float stepLength = WALK_SPEED * npcSize * delta;
+        if (distance <= stepLength) {
+            x[i] = targetX[i];
+            y[i] = targetY[i];
+            stop(i);
+            return;
+        }
+
+        float nextX = x[i] + dx / distance * stepLength;
+        float nextY = y[i] + dy / distance * stepLength;
+        if (!canStand(nextX, nextY)) {
+            // Something's in the way, try somewhere else later
+            stop(i);
+            return;
+        }
+        x[i] = nextX;
+        y[i] = nextY;
+        moving[i] = true;
+        if (Math.abs(dx) > Math.abs(dy)) {
+            facing[i] = (byte) (dx > 0 ? Facing.RIGHT : Facing.LEFT).ordinal();
+        } else {
+            facing[i] = (byte) (dy > 0 ? Facing.UP : Facing.DOWN).ordinal();
+        }
+    }
+
+    private void stop(int i) {
+        moving[i] = false;
+        wait[i] = MIN_WAIT + random(i) * (MAX_WAIT - MIN_WAIT);
+    }
+
+    private void pickTarget(int i) {
+        float angle = random(i) * MathUtils.PI2;
+        float distance = random(i) * WANDER_RADIUS * npcSize;
+        float newX = homeX[i] + MathUtils.cos(angle) * distance;
+        float newY = homeY[i] + MathUtils.sin(angle) * distance;
+        if (!canStand(newX, newY)) {
+            stop(i);
+            return;
+        }
+        targetX[i] = newX;
+        targetY[i] = newY;
+    }
+
+    /**
+     * A random number for one NPC, from its own xorshift generator
+     * so NPCs updated on different threads don't share anything
+     * @return A number from 0 up to but not including 1
+     */
+    private float random(int i) {
+        int s = seed[i];
+        s ^= s << 13;
+        s ^= s >>> 17;
+        s ^= s << 5;
+        seed[i] = s;
+        return (s >>> 8) * 0x1p-24f;
+    }
+
+    private boolean isInView(int i, Rectangle view) {
+        float margin = npcSize * (DRAW_SCALE - 1) / 2;
+        return x[i] + npcSize + margin > view.x && x[i] - margin < view.x + view.width
+                && y[i] + npcSize + margin > view.y && y[i] - margin < view.y + view.height;
+    }
+
+    /**
+     * Draws the NPCs that are in view
+     * @param batch The sprite batch to draw to, already begun
+     * @param frames The frames for each type of NPC
+     * @param time The time from an AnimationClock
+     * @param view The area on screen in pixels
+     * @return The number of NPCs drawn
+     */
+    public int render(SpriteBatch batch, CharacterFrames[] frames, float time, Rectangle view) {
+        float drawSize = npcSize * DRAW_SCALE;
+        float offset = (drawSize - npcSize) / 2;
+        int drawn = 0;
+        for (int i = 0; i < size; i++) {
+            if (!isInView(i, view)) continue;
+            TextureRegion frame = frames[type[i]].getFrame(FACINGS[facing[i]], moving[i], time);
+            batch.draw(frame, x[i] - offset, y[i] - offset, drawSize, drawSize);
+            drawn++;
+        }
+        return drawn;
+    }
+
+    /**
+     * @return The number of NPCs in the crowd
+     */
+    public int size() {
+        return size;
+    }
+
+    public float getX(int i) { return x[i]; }
+
+    public float getY(int i) { return y[i]; }
+
+    public Facing getFacing(int i) { return FACINGS[facing[i]]; }
+
+    public boolean isMoving(int i) { return moving[i]; }
+}
@@ -0,0 +1,204 @@
+package com.heslingtonhustle.map;
+
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.IntArray;
+
+/**
+ * A uniform grid laid over a map to quickly find the objects overlapping an area.
+ * Each object is stored in every cell its bounds touch, so a query only has to
+ * test the objects in the few cells around the query rectangle rather than
+ * every object on the map.
+ * Objects outside the grid are clamped into the edge cells, so queries stay
+ * correct for objects placed off the map.
+ * @param <T> The type of item stored with each rectangle
+ */
+public class SpatialGrid<T> {
+    private final float cellSize;
+    private final int columns;
+    private final int rows;
+    // Indices into bounds/items for each cell, null if a cell is empty
+    private final IntArray[] cells;
+    private final Array<Rectangle> bounds;
+    private final Array<T> items;
+    // The query that last visited each object, so objects spanning
+    // several cells are only reported once per query
+    private final IntArray visited;
+    private int queryStamp;
+
+    /**
+     * Creates an empty grid covering an area starting at (0, 0)
+     * @param width The width of the area to cover
+     * @param height The height of the area to cover
+     * @param cellSize The width and height of each grid cell, in the same units
+     */
+    public SpatialGrid(float width, float height, float cellSize) {
+        if (cellSize <= 0) {
+            throw new IllegalArgumentException("Cell size must be positive");
+        }
+        this.cellSize = cellSize;
+        columns = Math.max(1, MathUtils.ceil(width / cellSize));
+        rows = Math.max(1, MathUtils.ceil(height / cellSize));
+        cells = new IntArray[columns * rows];
+        bounds = new Array<>(true, 16, Rectangle.class);
+        items = new Array<>();
+        visited = new IntArray();
+    }
+
+    /**
+     * Adds an object to the grid. The bounds are stored by reference and
+     * must not be moved afterwards.
+     * @param rectangle The bounds of the object
+     * @param item The item returned by queries overlapping the bounds
+     */
+    public void add(Rectangle rectangle, T item) {
+        int index = items.size;
+        bounds.add(rectangle);
+        items.add(item);
+        visited.add(0);
+
+        int minColumn = column(rectangle.x);
+        int maxColumn = column(rectangle.x + rectangle.width);
+        int minRow = row(rectangle.y);
+        int maxRow = row(rectangle.y + rectangle.height);
+
+        for (int y = minRow; y <= maxRow; y++) {
+            for (int x = minColumn; x <= maxColumn; x++) {
+                int cell = y * columns + x;
+                if (cells[cell] == null) {
+                    cells[cell] = new IntArray(4);
+                }
+                cells[cell].add(index);
+            }
+        }
+    }
+
+    /**
+     * Finds every object whose bounds overlap the given area.
+     * Uses the same rules as {@link Rectangle#overlaps(Rectangle)}.
+     * @param area The area to search
+     * @param out The array to fill with overlapping items, it is cleared first
+     * @return The out array, for convenience
+     */
+    public Array<T> query(Rectangle area, Array<T> out) {
+        out.clear();
+        int stamp = nextStamp();
+
+        int minColumn = column(area.x);
+        int maxColumn = column(area.x + area.width);
+        int minRow = row(area.y);
+        int maxRow = row(area.y + area.height);
+
+        for (int y = minRow; y <= maxRow; y++) {
+            for (int x = minColumn; x <= maxColumn; x++) {
+                IntArray cell = cells[y * columns + x];
+                if (cell == null) continue;
+
+                for (int i = 0; i < cell.size; i++) {
+                    int index = cell.items[i];
+                    if (visited.items[index] == stamp) continue;
+                    visited.items[index] = stamp;
+
+                    if (area.overlaps(bounds.items[index])) {
+                        out.add(items.get(index));
+                    }
+                }
+            }
+        }
+        return out;
+    }
+
+    /**
+     * Finds the overlapping object whose centre is closest to the centre of the area.
+     * Compares squared distances and allocates nothing, so it is safe to call every frame.
+     * If two objects are the same distance away, the one added first is returned.
+     * @param area The area to search
+     * @return The nearest overlapping item, or null if nothing overlaps
+     */
+    public T nearest(Rectangle area) {
+        int stamp = nextStamp();
+        float centreX = area.x + area.width / 2;
+        float centreY = area.y + area.height / 2;
+
+        int nearestIndex = -1;
+        float nearestDistance = 0;
+
+        int minColumn = column(area.x);
+        int maxColumn = column(area.x + area.width);
+        int minRow = row(area.y);
+        int maxRow = row(area.y + area.height);
+
+        for (int y = minRow; y <= maxRow; y++) {
+            for (int x = minColumn; x <= maxColumn; x++) {
+                IntArray cell = cells[y * columns + x];
+                if (cell == null) continue;
+
+                for (int i = 0; i < cell.size; i++) {
+                    int index = cell.items[i];
+                    if (visited.items[index] == stamp) continue;
+                    visited.items[index] = stamp;
+
+                    Rectangle rectangle = bounds.items[index];
+                    if (!area.overlaps(rectangle)) continue;
+
+                    float dx = rectangle.x + rectangle.width / 2 - centreX;
+                    float dy = rectangle.y + rectangle.height / 2 - centreY;
+                    float distance = dx * dx + dy * dy;
+                    if (nearestIndex == -1 || distance < nearestDistance
+                            || (distance == nearestDistance && index < nearestIndex)) {
+                        nearestIndex = index;
+                        nearestDistance = distance;
+                    }
+                }
+            }
+        }
+
+        return nearestIndex == -1 ? null : items.get(nearestIndex);
+    }
+
+    /**
+     * @return The number of objects in the grid
+     */
+    public int size() {
+        return items.size;
+    }
+
+    /**
+     * @return The number of columns of cells in the grid
+     */
+    public int getColumns() {
+        return columns;
+    }
+
+    /**
+     * @return The number of rows of cells in the grid
+     */
+    public int getRows() {
+        return rows;
+    }
+
+    /**
+     * Moves on to the next query stamp, resetting the visited marks if
+     * the counter ever wraps around
+     * @return The stamp to mark visited objects with
+     */
+    private int nextStamp() {
+        queryStamp++;
+        if (queryStamp == Integer.MAX_VALUE) {
+            for (int i = 0; i < visited.size; i++) {
+                visited.items[i] = 0;
+            }
+            queryStamp = 1;
+        }
+        return queryStamp;
+    }
+
+    private int column(float x) {
+        return MathUtils.clamp((int) Math.floor(x / cellSize), 0, columns - 1);
+    }
+
+    private int row(float y) {
+        return MathUtils.clamp((int) Math.floor(y / cellSize), 0, rows - 1);
+    }
+}
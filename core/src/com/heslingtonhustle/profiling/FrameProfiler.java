@@ -0,0 +1,281 @@
+package com.heslingtonhustle.profiling;
+
+import com.badlogic.gdx.files.FileHandle;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.LongSupplier;
+
+/**
+ * Records how long each phase of a frame takes, along with draw call, texture
+ * binding and garbage collection counts, and how long input took to reach the
+ * screen, over the last WINDOW frames.
+ * Percentiles of any of these can be read back for the profiler overlay or
+ * telemetry, and the whole window can be saved as a CSV file.
+ * Nothing is recorded while the profiler is disabled, so it can be left in the
+ * render loop. Recording allocates nothing.
+ */
+public class FrameProfiler {
+    /**
+     * The parts of a frame that are timed. A phase can be started and stopped
+     * several times a frame, such as once per tick, and the times are added up.
+     * COLLISION and TRIGGERS happen inside LOGIC, so are also counted in it.
+     */
+    public enum Phase {
+        INPUT, LOGIC, COLLISION, TRIGGERS, HUD_UPDATE, MAP, CHARACTERS, HUD_DRAW
+    }
+
+    /**
+     * What is counted each frame.
+     * INPUT_LATENCY_US is the microseconds from the oldest key press used in the
+     * frame to the end of the frame, or 0 if none were used.
+     */
+    public enum Counter {
+        DRAW_CALLS, TEXTURE_BINDINGS, BATCH_FLUSHES, GARBAGE_COLLECTIONS, INPUT_LATENCY_US
+    }
+
+    // Enough frames for a few seconds at 60fps
+    public static final int WINDOW = 300;
+    private static final Phase[] PHASES = Phase.values();
+    private static final Counter[] COUNTERS = Counter.values();
+    // Samples are stored in one array per series: each phase, then the whole frame, then each counter
+    private static final int FRAME_SERIES = PHASES.length;
+    private static final int COUNTER_SERIES = PHASES.length + 1;
+
+    private final LongSupplier clock;
+    private final List<GarbageCollectorMXBean> collectors;
+    private final long[][] samples = new long[COUNTER_SERIES + COUNTERS.length][WINDOW];
+    // Reused to sort a series when finding its percentiles
+    private final long[] sorted = new long[WINDOW];
+    private final long[] phaseTimes = new long[PHASES.length];
+    private final long[] phaseStarts = new long[PHASES.length];
+    private long frameStart;
+    private long collectionsAtFrameStart;
+    private long oldestInput;
+    private int framesRecorded;
+    private boolean enabled;
+    private boolean inFrame;
+
+    /**
+     * Creates a disabled profiler timed with System.nanoTime
+     */
+    public FrameProfiler() {
+        this(System::nanoTime);
+    }
+
+    /**
+     * Creates a disabled profiler
+     * @param clock Gives the current time in nanoseconds
+     */
+    public FrameProfiler(LongSupplier clock) {
+        this.clock = clock;
+        collectors = ManagementFactory.getGarbageCollectorMXBeans();
+    }
+
+    /**
+     * Starts timing a frame
+     */
+    public void beginFrame() {
+        if (!enabled) return;
+        Arrays.fill(phaseTimes, 0);
+        collectionsAtFrameStart = countCollections();
+        oldestInput = Long.MAX_VALUE;
+        inFrame = true;
+        frameStart = clock.getAsLong();
+    }
+
+    /**
+     * Starts timing a phase of the current frame
+     * @param phase The phase that is starting
+     */
+    public void start(Phase phase) {
+        if (!inFrame) return;
+        phaseStarts[phase.ordinal()] = clock.getAsLong();
+    }
+
+    /**
+     * Stops timing a phase, adding the time since it started to the frame
+     * @param phase The phase that has finished
+     */
+    public void stop(Phase phase) {
+        if (!inFrame) return;
+        phaseTimes[phase.ordinal()] += clock.getAsLong() - phaseStarts[phase.ordinal()];
+    }
+
+    /**
+     * Notes that input was used by the current frame, to measure how long it took to reach the screen
+     * @param eventTime When the input happened, from the same clock as the profiler
+     */
+    public void inputUsed(long eventTime) {
+        if (!inFrame) return;
+        oldestInput = Math.min(oldestInput, eventTime);
+    }
+
+    /**
+     * Finishes timing a frame and records it, replacing the oldest frame once the window is full
+     * @param drawCalls The number of OpenGL draw calls made this frame
+     * @param textureBindings The number of textures bound this frame
+     * @param batchFlushes The number of times sprite batches were flushed this frame
+     */
+    public void endFrame(int drawCalls, int textureBindings, int batchFlushes) {
+        if (!inFrame) return;
+        inFrame = false;
+        int index = framesRecorded % WINDOW;
+
+        long frameEnd = clock.getAsLong();
+        samples[FRAME_SERIES][index] = frameEnd - frameStart;
+        for (int phase = 0; phase < PHASES.length; phase++) {
+            samples[phase][index] = phaseTimes[phase];
+        }
+        samples[COUNTER_SERIES + Counter.DRAW_CALLS.ordinal()][index] = drawCalls;
+        samples[COUNTER_SERIES + Counter.TEXTURE_BINDINGS.ordinal()][index] = textureBindings;
+        samples[COUNTER_SERIES + Counter.BATCH_FLUSHES.ordinal()][index] = batchFlushes;
+        samples[COUNTER_SERIES + Counter.GARBAGE_COLLECTIONS.ordinal()][index] =
+                countCollections() - collectionsAtFrameStart;
+        samples[COUNTER_SERIES + Counter.INPUT_LATENCY_US.ordinal()][index] =
+                oldestInput == Long.MAX_VALUE ? 0 : (frameEnd - oldestInput) / 1000;
+        framesRecorded++;
+    }
+
+    /**
+     * @return The total number of garbage collections run by the JVM so far
+     */
+    private long countCollections() {
+        long collections = 0;
+        // Indexed so no iterator is made
+        for (int i = 0; i < collectors.size(); i++) {
+            // -1 if this collector doesn't keep count
+            collections += Math.max(0, collectors.get(i).getCollectionCount());
+        }
+        return collections;
+    }
+
+    /**
+     * Finds a percentile of the frames in the window, using the nearest rank
+     * @param series The index of the series in samples
+     * @param percentile From 0 to 1, 0.5 for the median and 1 for the maximum
+     * @return The value at that percentile, 0 if nothing has been recorded
+     */
+    private long percentile(int series, float percentile) {
+        int count = getSampleCount();
+        if (count == 0) return 0;
+
+        System.arraycopy(samples[series], 0, sorted, 0, count);
+        Arrays.sort(sorted, 0, count);
+        int rank = (int) Math.ceil(percentile * count);
+        return sorted[Math.max(0, Math.min(count - 1, rank - 1))];
+    }
+
+    /**
+     * @param phase The phase to look at
+     * @param percentile From 0 to 1, 0.5 for the median and 1 for the maximum
+     * @return The phase's time in nanoseconds at that percentile of recent frames
+     */
+    public long getPercentile(Phase phase, float percentile) {
+        return percentile(phase.ordinal(), percentile);
+    }
+
+    /**
+     * @param counter The counter to look at
+     * @param percentile From 0 to 1, 0.5 for the median and 1 for the maximum
+     * @return The count at that percentile of recent frames
+     */
+    public long getPercentile(Counter counter, float percentile) {
+        return percentile(COUNTER_SERIES + counter.ordinal(), percentile);
+    }
+
+    /**
+     * @param percentile From 0 to 1, 0.5 for the median and 1 for the maximum
+     * @return The whole frame's time in nanoseconds at that percentile of recent frames
+     */
+    public long getFramePercentile(float percentile) {
+        return percentile(FRAME_SERIES, percentile);
+    }
+
+    /**
+     * @param counter The counter to look at
+     * @return The count for the last frame recorded, 0 if nothing has been recorded
+     */
+    public long getLast(Counter counter) {
+        if (framesRecorded == 0) return 0;
+        return samples[COUNTER_SERIES + counter.ordinal()][(framesRecorded - 1) % WINDOW];
+    }
+
+    /**
+     * @return The number of frames in the window, up to WINDOW
+     */
+    public int getSampleCount() {
+        return Math.min(framesRecorded, WINDOW);
+    }
+
+    /**
+     * @return The number of frames recorded since the profiler was made or cleared
+     */
+    public int getFramesRecorded() {
+        return framesRecorded;
+    }
+
+    /**
+     * Forgets every frame recorded so far
+     */
+    public void clear() {
+        framesRecorded = 0;
+        inFrame = false;
+    }
+
+    /**
+     * Turns recording on or off. Turning it on clears the old frames, so the window
+     * doesn't mix in frames from before it was last turned off.
+     * @param enabled True to record frames
+     */
+    public void setEnabled(boolean enabled) {
+        if (enabled && !this.enabled) {
+            clear();
+        }
+        this.enabled = enabled;
+        if (!enabled) {
+            inFrame = false;
+        }
+    }
+
+    /**
+     * @return True if frames are being recorded
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Writes every frame in the window to a CSV file, oldest first, with a
+     * column for each phase time in nanoseconds and each counter
+     * @param file The file to write, replacing anything already there
+     */
+    public void writeCsv(FileHandle file) {
+        StringBuilder csv = new StringBuilder("frame,frame_ns");
+        for (Phase phase : PHASES) {
+            csv.append(',').append(phase.name().toLowerCase(Locale.ROOT)).append("_ns");
+        }
+        for (Counter counter : COUNTERS) {
+            csv.append(',').append(counter.name().toLowerCase(Locale.ROOT));
+        }
+        csv.append('\n');
+
+        int count = getSampleCount();
+        int firstFrame = framesRecorded - count;
+        for (int frame = firstFrame; frame < framesRecorded; frame++) {
+            int index = frame % WINDOW;
+            csv.append(frame).append(',').append(samples[FRAME_SERIES][index]);
+            for (int phase = 0; phase < PHASES.length; phase++) {
+                csv.append(',').append(samples[phase][index]);
+            }
+            for (int counter = 0; counter < COUNTERS.length; counter++) {
+                csv.append(',').append(samples[COUNTER_SERIES + counter][index]);
+            }
+            csv.append('\n');
+        }
+        file.writeString(csv.toString(), false);
+    }
+}
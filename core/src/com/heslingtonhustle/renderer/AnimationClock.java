@@ -0,0 +1,25 @@
+package com.heslingtonhustle.renderer;
+
+/**
+ * The time used to pick animation frames, shared by every character drawn
+ * with it so they all animate at the same speed however many there are.
+ * Should be updated once per frame.
+ */
+public class AnimationClock {
+    private float time;
+
+    /**
+     * Moves the clock on, call once per frame
+     * @param delta The time in seconds since the last frame
+     */
+    public void update(float delta) {
+        time += delta;
+    }
+
+    /**
+     * @return The time in seconds the clock has been updated by
+     */
+    public float getTime() {
+        return time;
+    }
+}
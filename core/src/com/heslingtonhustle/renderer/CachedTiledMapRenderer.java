@@ -0,0 +1,609 @@
+package com.heslingtonhustle.renderer;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.OrthographicCamera;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.Batch;
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.graphics.g2d.SpriteCache;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.maps.MapLayer;
+import com.badlogic.gdx.maps.MapRenderer;
+import com.badlogic.gdx.maps.tiled.TiledMap;
+import com.badlogic.gdx.maps.tiled.TiledMapTile;
+import com.badlogic.gdx.maps.tiled.TiledMapTileLayer;
+import com.badlogic.gdx.maps.tiled.TiledMapTileLayer.Cell;
+import com.badlogic.gdx.maps.tiled.renderers.OrthogonalTiledMapRenderer;
+import com.badlogic.gdx.maps.tiled.tiles.AnimatedTiledMapTile;
+import com.badlogic.gdx.math.Matrix4;
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.FloatArray;
+import com.badlogic.gdx.utils.IntArray;
+import com.badlogic.gdx.utils.ObjectMap;
+import com.badlogic.gdx.utils.TimeUtils;
+
+import java.util.Arrays;
+
+/**
+ * Draws a Tiled map from tiles baked ahead of time into a SpriteCache.
+ * The map is cut into square chunks, and each run of static layers in a chunk is
+ * baked into a single cache. Drawing the visible part of the map then only takes a
+ * draw call per texture in each visible chunk, rather than submitting every tile
+ * to a batch every frame.
+ * <p>
+ * Layers with an "animated" property, or with parallax, are drawn tile by tile as
+ * usual. Animated tiles in an otherwise static layer are drawn tile by tile straight
+ * after the baked tiles of their layer, so layers still stack in the right order.
+ * Chunks are baked the first time a set of layers is rendered. Hidden layers aren't
+ * baked, so showing or hiding a layer bakes the map again the next time it is rendered.
+ */
+public class CachedTiledMapRenderer implements MapRenderer, Disposable {
+    // The width and height of a chunk in tiles
+    public static final int CHUNK_TILES = 32;
+    // Position, packed colour and texture coordinates
+    private static final int VERTEX_SIZE = 5;
+    // Floats per tile in the cache, two triangles as the cache doesn't use indices
+    private static final int CACHE_VERTICES = 6 * VERTEX_SIZE;
+    private static final int BATCH_VERTICES = 4 * VERTEX_SIZE;
+    // The corners of a tile making up each vertex. Two triangles need the first and third corners twice
+    private static final int[] TRIANGLE_CORNERS = {0, 1, 2, 2, 3, 0};
+    private static final int[] QUAD_CORNERS = {0, 1, 2, 3};
+    private final TiledMap map;
+    private final Batch batch;
+    // Draws the layers that can't be baked
+    private final OrthogonalTiledMapRenderer tileRenderer;
+    private final SpriteCache cache;
+    private final int cacheCapacity;
+    private int cachedTiles;
+    // What to draw for each list of layers passed to render, worked out on first use
+    private final Array<int[]> plannedLayers = new Array<>();
+    private final Array<Array<Segment>> plans = new Array<>();
+    // Whether each layer in a list was visible when its plan was made
+    private final Array<boolean[]> plannedVisibility = new Array<>();
+    private final int[] allLayers;
+    private final float[] vertices = new float[CACHE_VERTICES];
+    // Each corner of the tile being worked out, reused as animated tiles are worked out every frame
+    private final float[] cornerU = new float[4];
+    private final float[] cornerV = new float[4];
+    private final float[] cornerX = new float[4];
+    private final float[] cornerY = new float[4];
+    private final Color layerColour = new Color();
+    private int renderCalls;
+
+    /**
+     * Creates a renderer for a map, drawing in map pixels
+     * @param map The map to draw
+     * @param batch The batch to draw unbaked layers and animated tiles with
+     */
+    public CachedTiledMapRenderer(TiledMap map, Batch batch) {
+        this.map = map;
+        this.batch = batch;
+        tileRenderer = new OrthogonalTiledMapRenderer(map, batch);
+
+        // Room to bake every tile once
+        int tiles = 0;
+        for (MapLayer layer : map.getLayers()) {
+            if (layer instanceof TiledMapTileLayer) {
+                tiles += countTiles((TiledMapTileLayer) layer);
+            }
+        }
+        cacheCapacity = Math.max(1, tiles);
+        cache = new SpriteCache(cacheCapacity, false);
+
+        allLayers = new int[map.getLayers().getCount()];
+        for (int i = 0; i < allLayers.length; i++) {
+            allLayers[i] = i;
+        }
+    }
+
+    @Override
+    public void setView(OrthographicCamera camera) {
+        tileRenderer.setView(camera);
+        cache.setProjectionMatrix(camera.combined);
+        renderCalls = 0;
+    }
+
+    @Override
+    public void setView(Matrix4 projectionMatrix, float viewX, float viewY, float viewWidth, float viewHeight) {
+        tileRenderer.setView(projectionMatrix, viewX, viewY, viewWidth, viewHeight);
+        cache.setProjectionMatrix(projectionMatrix);
+        renderCalls = 0;
+    }
+
+    @Override
+    public void render() {
+        render(allLayers);
+    }
+
+    @Override
+    public void render(int[] layers) {
+        int planIndex = findPlan(layers);
+        if (planIndex >= 0 && visibilityChanged(plannedVisibility.get(planIndex), layers)) {
+            // Everything is baked again, as the cache only has room for each tile once
+            clearPlans();
+            planIndex = -1;
+        }
+
+        Array<Segment> plan;
+        if (planIndex >= 0) {
+            plan = plans.get(planIndex);
+        } else {
+            plan = bake(layers);
+            plannedLayers.add(layers.clone());
+            plans.add(plan);
+            boolean[] visibility = new boolean[layers.length];
+            for (int i = 0; i < layers.length; i++) {
+                visibility[i] = map.getLayers().get(layers[i]).isVisible();
+            }
+            plannedVisibility.add(visibility);
+        }
+
+        Rectangle viewBounds = tileRenderer.getViewBounds();
+        for (Segment segment : plan) {
+            segment.render(viewBounds);
+        }
+    }
+
+    /**
+     * Finds how a list of layers was drawn before, if it has been
+     * @param layers The indices of the layers to draw
+     * @return The index of the list's plan, or -1 if the layers haven't been drawn yet
+     */
+    private int findPlan(int[] layers) {
+        // There are only ever a couple of lists, so a linear search is fastest
+        for (int i = 0; i < plannedLayers.size; i++) {
+            if (Arrays.equals(plannedLayers.get(i), layers)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private boolean visibilityChanged(boolean[] visibility, int[] layers) {
+        for (int i = 0; i < layers.length; i++) {
+            if (map.getLayers().get(layers[i]).isVisible() != visibility[i]) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Forgets how every list of layers was drawn and empties the cache
+     */
+    private void clearPlans() {
+        cache.clear();
+        cachedTiles = 0;
+        plannedLayers.clear();
+        plans.clear();
+        plannedVisibility.clear();
+    }
+
+    /**
+     * Works out how to draw a list of layers, baking any runs of static layers
+     * @param layers The indices of the layers to draw, in order
+     * @return The segments to draw in order
+     */
+    private Array<Segment> bake(int[] layers) {
+        long start = TimeUtils.millis();
+        int tilesBefore = cachedTiles;
+        Array<Segment> plan = new Array<>();
+        Array<TiledMapTileLayer> run = new Array<>();
+
+        for (int index : layers) {
+            MapLayer layer = map.getLayers().get(index);
+            if (!layer.isVisible()) continue;
+
+            if (canBake(layer)) {
+                TiledMapTileLayer tileLayer = (TiledMapTileLayer) layer;
+                run.add(tileLayer);
+                // Animated tiles have to be drawn before anything above them
+                if (hasAnimatedTiles(tileLayer)) {
+                    plan.add(bakeRun(run));
+                    run.clear();
+                }
+            } else {
+                if (run.notEmpty()) {
+                    plan.add(bakeRun(run));
+                    run.clear();
+                }
+                plan.add(new UnbakedLayer(index));
+            }
+        }
+        if (run.notEmpty()) {
+            plan.add(bakeRun(run));
+        }
+
+        Gdx.app.debug("DEBUG", "Baked " + (cachedTiles - tilesBefore) + " tiles into "
+                + plan.size + " segments in " + TimeUtils.timeSinceMillis(start) + "ms");
+        return plan;
+    }
+
+    /**
+     * Bakes a run of static layers into a cache for each chunk of the map.
+     * If the cache is too full, the layers are drawn tile by tile instead.
+     * @param layers The layers to bake, bottom first
+     * @return The segment drawing the run
+     */
+    private Segment bakeRun(Array<TiledMapTileLayer> layers) {
+        int tiles = 0;
+        for (TiledMapTileLayer layer : layers) {
+            tiles += countTiles(layer);
+        }
+        if (cachedTiles + tiles > cacheCapacity) {
+            Gdx.app.debug("DEBUG", "Map cache is full, drawing layers tile by tile");
+            UnbakedRun unbaked = new UnbakedRun();
+            for (TiledMapTileLayer layer : layers) {
+                unbaked.add(map.getLayers().getIndex(layer));
+            }
+            return unbaked;
+        }
+
+        BakedRun bakedRun = new BakedRun();
+        TiledMapTileLayer first = layers.first();
+        int chunkColumns = (first.getWidth() + CHUNK_TILES - 1) / CHUNK_TILES;
+        int chunkRows = (first.getHeight() + CHUNK_TILES - 1) / CHUNK_TILES;
+
+        Chunk[] chunks = new Chunk[chunkColumns * chunkRows];
+        for (int i = 0; i < chunks.length; i++) {
+            chunks[i] = new Chunk();
+        }
+
+        // Gather every layer's tiles, by chunk and texture, before baking any chunk, as a cache has to be built in one go
+        Array<Array<ObjectMap<Texture, FloatArray>>> layerTiles = new Array<>();
+        for (TiledMapTileLayer layer : layers) {
+            // Null for chunks the layer has no tiles in
+            Array<ObjectMap<Texture, FloatArray>> tilesByChunk = new Array<>(chunks.length);
+            tilesByChunk.setSize(chunks.length);
+            float colour = layerColour(layer);
+            float offsetX = layer.getRenderOffsetX();
+            // Offset in Tiled is y down
+            float offsetY = -layer.getRenderOffsetY();
+
+            for (int row = 0; row < layer.getHeight(); row++) {
+                for (int column = 0; column < layer.getWidth(); column++) {
+                    Cell cell = layer.getCell(column, row);
+                    if (cell == null || cell.getTile() == null) continue;
+                    if (cell.getTile() instanceof AnimatedTiledMapTile) {
+                        bakedRun.addAnimatedTile(cell,
+                                column * layer.getTileWidth() + offsetX,
+                                row * layer.getTileHeight() + offsetY, colour);
+                        continue;
+                    }
+
+                    float x = column * layer.getTileWidth() + offsetX;
+                    float y = row * layer.getTileHeight() + offsetY;
+                    tileVertices(cell, x, y, colour, vertices, true);
+
+                    // Tiles are put in the chunk they are drawn in, so chunks never overlap
+                    int chunkColumn = clamp((int) Math.floor(x / layer.getTileWidth()) / CHUNK_TILES, chunkColumns);
+                    int chunkRow = clamp((int) Math.floor(y / layer.getTileHeight()) / CHUNK_TILES, chunkRows);
+                    int chunk = chunkRow * chunkColumns + chunkColumn;
+                    ObjectMap<Texture, FloatArray> chunkTiles = tilesByChunk.get(chunk);
+                    if (chunkTiles == null) {
+                        chunkTiles = new ObjectMap<>();
+                        tilesByChunk.set(chunk, chunkTiles);
+                    }
+
+                    Texture texture = cell.getTile().getTextureRegion().getTexture();
+                    FloatArray textureTiles = chunkTiles.get(texture);
+                    if (textureTiles == null) {
+                        textureTiles = new FloatArray(CACHE_VERTICES * 16);
+                        chunkTiles.put(texture, textureTiles);
+                    }
+                    textureTiles.addAll(vertices, 0, CACHE_VERTICES);
+                    chunks[chunk].extend(x, y, cell.getTile().getTextureRegion());
+                }
+            }
+            layerTiles.add(tilesByChunk);
+        }
+
+        // Bake each chunk, layer by layer, with a layer's tiles grouped by texture.
+        // Tiles in a layer never overlap, so changing their order is safe
+        for (int i = 0; i < chunks.length; i++) {
+            if (chunks[i].bounds == null) continue;
+
+            cache.beginCache();
+            for (Array<ObjectMap<Texture, FloatArray>> tilesByChunk : layerTiles) {
+                if (tilesByChunk.get(i) == null) continue;
+                for (ObjectMap.Entry<Texture, FloatArray> entry : tilesByChunk.get(i)) {
+                    cache.add(entry.key, entry.value.items, 0, entry.value.size);
+                    cachedTiles += entry.value.size / CACHE_VERTICES;
+                }
+            }
+            chunks[i].cacheId = cache.endCache();
+            bakedRun.chunks.add(chunks[i]);
+        }
+        return bakedRun;
+    }
+
+    /**
+     * Checks if a layer can be baked into the cache
+     */
+    private boolean canBake(MapLayer layer) {
+        if (!(layer instanceof TiledMapTileLayer)) return false;
+        if (layer.getProperties().get("animated", false, Boolean.class)) return false;
+        // Parallax layers move with the camera
+        return layer.getParallaxX() == 1f && layer.getParallaxY() == 1f;
+    }
+
+    private boolean hasAnimatedTiles(TiledMapTileLayer layer) {
+        for (int row = 0; row < layer.getHeight(); row++) {
+            for (int column = 0; column < layer.getWidth(); column++) {
+                Cell cell = layer.getCell(column, row);
+                if (cell != null && cell.getTile() instanceof AnimatedTiledMapTile) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private int countTiles(TiledMapTileLayer layer) {
+        int tiles = 0;
+        for (int row = 0; row < layer.getHeight(); row++) {
+            for (int column = 0; column < layer.getWidth(); column++) {
+                Cell cell = layer.getCell(column, row);
+                if (cell != null && cell.getTile() != null) {
+                    tiles++;
+                }
+            }
+        }
+        return tiles;
+    }
+
+    private float layerColour(TiledMapTileLayer layer) {
+        layerColour.set(batch.getColor());
+        layerColour.a *= layer.getOpacity();
+        return layerColour.toFloatBits();
+    }
+
+    private static int clamp(int value, int size) {
+        return Math.max(0, Math.min(size - 1, value));
+    }
+
+    /**
+     * Works out the vertices to draw a tile with, following its flips and rotation
+     * the same way as OrthogonalTiledMapRenderer
+     * @param cell The cell holding the tile
+     * @param x The x position to draw at
+     * @param y The y position to draw at
+     * @param colour The packed colour to tint the tile with
+     * @param out The array to write vertices to
+     * @param triangles If true, writes six vertices making two triangles for the cache,
+     *                  otherwise four vertices for a batch
+     */
+    private void tileVertices(Cell cell, float x, float y, float colour, float[] out, boolean triangles) {
+        TiledMapTile tile = cell.getTile();
+        TextureRegion region = tile.getTextureRegion();
+
+        float x1 = x + tile.getOffsetX();
+        float y1 = y + tile.getOffsetY();
+        float x2 = x1 + region.getRegionWidth();
+        float y2 = y1 + region.getRegionHeight();
+
+        // The texture coordinates of each corner, anticlockwise from the bottom left
+        float[] u = cornerU;
+        float[] v = cornerV;
+        u[0] = region.getU();
+        u[1] = region.getU();
+        u[2] = region.getU2();
+        u[3] = region.getU2();
+        v[0] = region.getV2();
+        v[1] = region.getV();
+        v[2] = region.getV();
+        v[3] = region.getV2();
+
+        if (cell.getFlipHorizontally()) {
+            swap(u, 0, 2);
+            swap(u, 1, 3);
+        }
+        if (cell.getFlipVertically()) {
+            swap(v, 0, 1);
+            swap(v, 2, 3);
+        }
+        switch (cell.getRotation()) {
+            case Cell.ROTATE_90:
+                rotate(u, 1);
+                rotate(v, 1);
+                break;
+            case Cell.ROTATE_180:
+                rotate(u, 2);
+                rotate(v, 2);
+                break;
+            case Cell.ROTATE_270:
+                rotate(u, 3);
+                rotate(v, 3);
+                break;
+        }
+
+        cornerX[0] = x1;
+        cornerX[1] = x1;
+        cornerX[2] = x2;
+        cornerX[3] = x2;
+        cornerY[0] = y1;
+        cornerY[1] = y2;
+        cornerY[2] = y2;
+        cornerY[3] = y1;
+        int i = 0;
+        for (int corner : triangles ? TRIANGLE_CORNERS : QUAD_CORNERS) {
+            out[i++] = cornerX[corner];
+            out[i++] = cornerY[corner];
+            out[i++] = colour;
+            out[i++] = u[corner];
+            out[i++] = v[corner];
+        }
+    }
+
+    private static void swap(float[] values, int a, int b) {
+        float temp = values[a];
+        values[a] = values[b];
+        values[b] = temp;
+    }
+
+    /**
+     * Moves each value back by some places, wrapping around
+     */
+    private static void rotate(float[] values, int places) {
+        for (int i = 0; i < places; i++) {
+            float first = values[0];
+            System.arraycopy(values, 1, values, 0, values.length - 1);
+            values[values.length - 1] = first;
+        }
+    }
+
+    /**
+     * @return The number of draw calls made since the view was last set,
+     *         usually the number made drawing the map this frame
+     */
+    public int getRenderCalls() {
+        return renderCalls;
+    }
+
+    /**
+     * @return The number of tiles baked into the cache
+     */
+    public int getCachedTiles() {
+        return cachedTiles;
+    }
+
+    /**
+     * @return The number of tiles the cache has room for, all allocated up front
+     */
+    public int getCacheCapacity() {
+        return cacheCapacity;
+    }
+
+    /**
+     * @return The size of the cache's mesh in bytes, allocated when the renderer is made
+     */
+    public long getCacheBytes() {
+        return (long) cacheCapacity * CACHE_VERTICES * Float.BYTES;
+    }
+
+    @Override
+    public void dispose() {
+        cache.dispose();
+        tileRenderer.dispose();
+    }
+
+    /**
+     * Part of the drawing of a list of layers
+     */
+    private interface Segment {
+        void render(Rectangle viewBounds);
+    }
+
+    /**
+     * A square part of the map with some layers baked into the cache
+     */
+    private static class Chunk {
+        int cacheId;
+        // The area covered by the chunk's tiles, null if it has none
+        Rectangle bounds;
+
+        void extend(float x, float y, TextureRegion region) {
+            if (bounds == null) {
+                bounds = new Rectangle(x, y, region.getRegionWidth(), region.getRegionHeight());
+            } else {
+                bounds.merge(x, y);
+                bounds.merge(x + region.getRegionWidth(), y + region.getRegionHeight());
+            }
+        }
+    }
+
+    /**
+     * A run of static layers baked into chunks, followed by any animated tiles
+     * in the run's top layer
+     */
+    private class BakedRun implements Segment {
+        final Array<Chunk> chunks = new Array<>();
+        final Array<Cell> animatedCells = new Array<>();
+        // x, y and packed colour of each animated cell
+        final FloatArray animatedPositions = new FloatArray();
+        final Rectangle tileBounds = new Rectangle();
+
+        void addAnimatedTile(Cell cell, float x, float y, float colour) {
+            animatedCells.add(cell);
+            animatedPositions.add(x, y, colour);
+        }
+
+        @Override
+        public void render(Rectangle viewBounds) {
+            Gdx.gl.glEnable(GL20.GL_BLEND);
+            Gdx.gl.glBlendFunc(GL20.GL_SRC_ALPHA, GL20.GL_ONE_MINUS_SRC_ALPHA);
+            cache.begin();
+            for (Chunk chunk : chunks) {
+                if (chunk.bounds.overlaps(viewBounds)) {
+                    cache.draw(chunk.cacheId);
+                }
+            }
+            cache.end();
+            Gdx.gl.glDisable(GL20.GL_BLEND);
+            renderCalls += cache.renderCalls;
+
+            if (animatedCells.isEmpty()) return;
+
+            AnimatedTiledMapTile.updateAnimationBaseTime();
+            batch.begin();
+            for (int i = 0; i < animatedCells.size; i++) {
+                Cell cell = animatedCells.get(i);
+                float x = animatedPositions.get(i * 3);
+                float y = animatedPositions.get(i * 3 + 1);
+                TextureRegion region = cell.getTile().getTextureRegion();
+                tileBounds.set(x, y, region.getRegionWidth(), region.getRegionHeight());
+                if (!viewBounds.overlaps(tileBounds)) continue;
+
+                tileVertices(cell, x, y, animatedPositions.get(i * 3 + 2), vertices, false);
+                batch.draw(cell.getTile().getTextureRegion().getTexture(), vertices, 0, BATCH_VERTICES);
+            }
+            batch.end();
+            renderCalls += renderCallsOf(batch);
+        }
+    }
+
+    /**
+     * A single layer drawn tile by tile
+     */
+    private class UnbakedLayer implements Segment {
+        final int[] layer;
+
+        UnbakedLayer(int index) {
+            layer = new int[]{index};
+        }
+
+        @Override
+        public void render(Rectangle viewBounds) {
+            tileRenderer.render(layer);
+            renderCalls += renderCallsOf(batch);
+        }
+    }
+
+    /**
+     * Static layers that didn't fit in the cache, drawn tile by tile
+     */
+    private class UnbakedRun implements Segment {
+        final IntArray layers = new IntArray();
+        int[] layerArray;
+
+        void add(int index) {
+            layers.add(index);
+            layerArray = layers.toArray();
+        }
+
+        @Override
+        public void render(Rectangle viewBounds) {
+            tileRenderer.render(layerArray);
+            renderCalls += renderCallsOf(batch);
+        }
+    }
+
+    private static int renderCallsOf(Batch batch) {
+        if (batch instanceof SpriteBatch) {
+            return ((SpriteBatch) batch).renderCalls;
+        }
+        return 0;
+    }
+}
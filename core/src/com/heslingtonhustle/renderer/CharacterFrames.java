@@ -0,0 +1,73 @@
+package com.heslingtonhustle.renderer;
+
+import com.badlogic.gdx.graphics.g2d.Animation;
+import com.badlogic.gdx.graphics.g2d.TextureAtlas;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.heslingtonhustle.state.Facing;
+
+import java.util.Locale;
+
+/**
+ * Every frame a character can be drawn with, looked up once from the atlas
+ * and kept in a table indexed by the way the character faces and whether it's
+ * moving. Characters drawn the same way can share one of these, such as every
+ * NPC of the same type.
+ * For example, in the texture atlas, if you have regions such as 'main-player-idle-down', 'main-player-idle-right',
+ * the prefix is 'main-player'
+ */
+public class CharacterFrames {
+    public static final float WALKING_FRAME_SECONDS = 0.15f;
+    private static final Facing[] FACINGS = Facing.values();
+
+    // Index with getIndex, idle frames are single frame animations
+    private final Animation<TextureRegion>[] frames;
+
+    /**
+     * Looks up a character's frames from an atlas
+     * @param textureAtlas The atlas containing the character textures
+     * @param textureRegionPrefix The prefix to identify the character 'player-x'
+     * @param walking True to load walking animations, otherwise the idle frames are used when moving,
+     *                as NPCs don't have walking animations
+     * @throws GdxRuntimeException If a frame is missing from the atlas
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public CharacterFrames(TextureAtlas textureAtlas, String textureRegionPrefix, boolean walking) {
+        frames = new Animation[FACINGS.length * 2];
+        for (Facing facing : FACINGS) {
+            String direction = facing.name().toLowerCase(Locale.ROOT);
+
+            TextureRegion idle = textureAtlas.findRegion(textureRegionPrefix + "-idle-" + direction);
+            if (idle == null) {
+                throw new GdxRuntimeException("No region " + textureRegionPrefix + "-idle-" + direction);
+            }
+            Animation<TextureRegion> idleAnimation = new Animation<>(WALKING_FRAME_SECONDS, idle);
+            frames[getIndex(facing, false)] = idleAnimation;
+            frames[getIndex(facing, true)] = idleAnimation;
+
+            if (walking) {
+                Array<TextureAtlas.AtlasRegion> walkingFrames =
+                        textureAtlas.findRegions(textureRegionPrefix + "-walking-" + direction);
+                if (walkingFrames.size == 0) {
+                    throw new GdxRuntimeException("No regions " + textureRegionPrefix + "-walking-" + direction);
+                }
+                frames[getIndex(facing, true)] = new Animation<TextureRegion>(WALKING_FRAME_SECONDS, walkingFrames);
+            }
+        }
+    }
+
+    private static int getIndex(Facing facing, boolean moving) {
+        return facing.ordinal() * 2 + (moving ? 1 : 0);
+    }
+
+    /**
+     * @param facing The direction the character is facing
+     * @param moving True if the character is moving
+     * @param time The time from an AnimationClock
+     * @return The frame to draw the character with
+     */
+    public TextureRegion getFrame(Facing facing, boolean moving, float time) {
+        return frames[getIndex(facing, moving)].getKeyFrame(time, true);
+    }
+}
@@ -1,12 +1,11 @@
 package com.heslingtonhustle.renderer;
 
 import com.badlogic.gdx.Gdx;
-import com.badlogic.gdx.graphics.Color;
 import com.badlogic.gdx.graphics.OrthographicCamera;
 import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.maps.MapProperties;
 import com.badlogic.gdx.scenes.scene2d.Stage;
-import com.badlogic.gdx.scenes.scene2d.actions.Actions;
+import com.badlogic.gdx.utils.Array;
 import com.badlogic.gdx.utils.Disposable;
 import com.badlogic.gdx.utils.viewport.FitViewport;
 import com.heslingtonhustle.state.DialogueManager;
@@ -33,11 +32,20 @@ public class HudRenderer implements Disposable {
     private final Window dialogueWindow;
     private final Label dialogueText;
     private final Table optionTable;
+    // Rows of the option table, reused between dialogue boxes
+    private final Array<Label> optionPointers = new Array<>();
+    private final Array<Label> optionLabels = new Array<>();
+    private int shownOptionRows;
     private final TextButton dayButton;
     private final TextButton timeButton;
     private final Label interactLabel;
     private final Image energyBar;
     private final Image blackScreen;
+    // What the HUD is showing, so text is only laid out again when it changes
+    private String shownTime;
+    private int shownDay = -1;
+    private int shownEnergy = -1;
+    public static final String blackScreenAsset = "Graphics/black.png";
 
     /**
      * Initialises images and labels to display to the screen.
@@ -46,10 +54,11 @@ public class HudRenderer implements Disposable {
      *
      * @param dialogueManager The current dialogue manager
      * @param skin The loaded UI skin
+     * @param blackScreenTexture The loaded texture to fade the screen to black with
      * @param width Width of the game window
      * @param height Height of the game window
      */
-    public HudRenderer(Skin skin, DialogueManager dialogueManager, int width, int height) {
+    public HudRenderer(Skin skin, Texture blackScreenTexture, DialogueManager dialogueManager, int width, int height) {
         this.skin = skin;
         this.dialogueManager = dialogueManager;
 
@@ -61,9 +70,9 @@ public class HudRenderer implements Disposable {
         hudStage = new Stage(new FitViewport(width, height));
 
         // Black screen
-        blackScreen = new Image(new Texture(Gdx.files.internal("Graphics/black.png")));
+        blackScreen = new Image(blackScreenTexture);
         blackScreen.setSize(viewport.getWorldWidth(), viewport.getWorldHeight());
-        blackScreen.addAction(Actions.alpha(0f));
+        setBlackScreenAlpha(0f);
         hudStage.addActor(blackScreen);
 
         // Display time
@@ -154,47 +163,35 @@ public class HudRenderer implements Disposable {
 
 
     /**
-     * Updates hud's time, date and energy labels
+     * Updates hud's time, date and energy labels.
+     * Only the values that have changed since the last call are updated.
      * @param time The time represented as a string
      * @param day The day number to display
      * @param energy The amount of energy the player has left, between 0 and 100
      */
     public void updateValues(String time, int day, int energy) {
-        timeButton.setText(time);
-        dayButton.setText("Day " + day);
-
-        energyBar.setScaleY(energy / 100f);
-    }
-
-
-    /**
-     * Fades the black screen in
-     */
-    public void fadeIn(float duration) {
-        blackScreen.addAction(Actions.fadeIn(duration));
-    }
-
-    /**
-     * Fades the screen in from black
-     */
-    public void fadeOut(float duration) {
-        blackScreen.addAction(Actions.fadeOut(duration));
+        // Clock reuses the same string for each minute, so this is usually just a reference check
+        if (!time.equals(shownTime)) {
+            timeButton.setText(time);
+            shownTime = time;
+        }
+        if (day != shownDay) {
+            dayButton.setText("Day " + day);
+            shownDay = day;
+        }
+        if (energy != shownEnergy) {
+            energyBar.setScaleY(energy / 100f);
+            shownEnergy = energy;
+        }
     }
 
-    /**
-     * @return Returns true if the screen is black
-     */
-    public Boolean screenIsBlack() {
-        Color colour = blackScreen.getColor();
-        return colour.a == 1f;
-    }
 
     /**
-     * @return True if a black screen is not being faded in or out
+     * Sets how dark the black screen drawn over the game is
+     * @param alpha The opacity of the black screen, from 0 to 1
      */
-    public Boolean screenClear() {
-        Color colour = blackScreen.getColor();
-        return colour.a == 0f;
+    public void setBlackScreenAlpha(float alpha) {
+        blackScreen.getColor().a = alpha;
     }
 
 
@@ -219,10 +216,13 @@ public class HudRenderer implements Disposable {
     }
 
     /**
-     * Builds a dialogue box using scene2d elements
+     * Updates the dialogue box's scene2d elements
      * Displays the main dialogue text, a list of options and a pointer if
      * necessary.
      * Called when text is changed or an option pointer is moved.
+     * The option rows are kept and reused, so moving the pointer only changes
+     * which pointer is visible, and the table is only laid out again when the
+     * number of options changes.
      */
     public void reconstructDialogueBox() {
         // Check dialogue details
@@ -230,25 +230,30 @@ public class HudRenderer implements Disposable {
         List<String> options = dialogueManager.getOptions();
         int selectedOption = dialogueManager.getSelectedOption();
 
+        // Doesn't lay out the text again if it hasn't changed
         dialogueText.setText(message);
-        optionTable.clearChildren();
-
-        // Only draw if the player has options to choose from
-        if (options != null) {
-            // Add player's options to the options table
-            for (int i = 0; i < options.size(); i++) {
-                Label pointer = new Label(">>", skin, "dialoguesmall");
-                // Hide pointer if not selected
-                if (selectedOption != i) pointer.setVisible(false);
-                Label option = new Label(options.get(i), skin, "dialoguesmall");
-
-                optionTable.add(pointer).left().padRight(10);
-                optionTable.add(option).left();
+
+        // Only show options if the player has options to choose from
+        int rows = options == null ? 0 : options.size();
+        if (rows != shownOptionRows) {
+            optionTable.clearChildren();
+            for (int i = 0; i < rows; i++) {
+                if (i == optionLabels.size) {
+                    optionPointers.add(new Label(">>", skin, "dialoguesmall"));
+                    optionLabels.add(new Label("", skin, "dialoguesmall"));
+                }
+                optionTable.add(optionPointers.get(i)).left().padRight(10);
+                optionTable.add(optionLabels.get(i)).left();
                 optionTable.row();
             }
+            shownOptionRows = rows;
         }
 
-
+        for (int i = 0; i < rows; i++) {
+            optionLabels.get(i).setText(options.get(i));
+            // Hide pointer if not selected
+            optionPointers.get(i).setVisible(selectedOption == i);
+        }
     }
 
     /**
@@ -0,0 +1,131 @@
+package com.heslingtonhustle.renderer;
+
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.scenes.scene2d.Stage;
+import com.badlogic.gdx.scenes.scene2d.ui.Image;
+import com.badlogic.gdx.scenes.scene2d.ui.Label;
+import com.badlogic.gdx.scenes.scene2d.ui.Skin;
+import com.badlogic.gdx.utils.Align;
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.viewport.FitViewport;
+import com.heslingtonhustle.profiling.FrameProfiler;
+import com.heslingtonhustle.profiling.FrameProfiler.Counter;
+import com.heslingtonhustle.profiling.FrameProfiler.Phase;
+
+/**
+ * Draws the frame profiler's numbers in the top left of the screen:
+ * the p50, p99 and max time of each phase of recent frames,
+ * and how many draw calls, texture bindings and garbage collections there were.
+ */
+public class ProfilerOverlay implements Disposable {
+    // How often the text is rebuilt in seconds, so it can be read and doesn't cost much
+    private static final float REFRESH_INTERVAL = 0.25f;
+    private static final Phase[] PHASES = Phase.values();
+    private static final Counter[] COUNTERS = Counter.values();
+    private final FrameProfiler profiler;
+    private final Stage stage;
+    private final Image background;
+    private final Label label;
+    // Reused each time the text is rebuilt
+    private final StringBuilder text = new StringBuilder();
+    private float sinceRefresh = REFRESH_INTERVAL;
+
+    /**
+     * @param skin The loaded UI skin
+     * @param backgroundTexture The loaded texture to darken the game behind the numbers with
+     * @param profiler The profiler to show the numbers of
+     * @param width Width of the game window
+     * @param height Height of the game window
+     */
+    public ProfilerOverlay(Skin skin, Texture backgroundTexture, FrameProfiler profiler, int width, int height) {
+        this.profiler = profiler;
+        stage = new Stage(new FitViewport(width, height));
+
+        background = new Image(backgroundTexture);
+        background.getColor().a = 0.6f;
+        stage.addActor(background);
+
+        label = new Label("", skin, "achievementlabel");
+        label.setAlignment(Align.topLeft);
+        stage.addActor(label);
+    }
+
+    /**
+     * Updates the numbers if they are due a refresh, then draws them
+     * @param delta The time in seconds since the last render
+     */
+    public void render(float delta) {
+        sinceRefresh += delta;
+        if (sinceRefresh >= REFRESH_INTERVAL) {
+            sinceRefresh = 0;
+            refresh();
+        }
+
+        stage.getViewport().apply();
+        stage.draw();
+    }
+
+    /**
+     * Rebuilds the text from the profiler and fits the background around it
+     */
+    private void refresh() {
+        text.setLength(0);
+        text.append("Frames: ").append(profiler.getSampleCount()).append("   p50 / p99 / max ms\n");
+        appendTimes("FRAME", profiler.getFramePercentile(0.5f),
+                profiler.getFramePercentile(0.99f), profiler.getFramePercentile(1f));
+        for (Phase phase : PHASES) {
+            appendTimes(phase.name(), profiler.getPercentile(phase, 0.5f),
+                    profiler.getPercentile(phase, 0.99f), profiler.getPercentile(phase, 1f));
+        }
+        for (Counter counter : COUNTERS) {
+            text.append(counter.name()).append(": ").append(profiler.getLast(counter))
+                    .append(" (max ").append(profiler.getPercentile(counter, 1f)).append(")\n");
+        }
+        text.append("F4 - Save CSV");
+        label.setText(text);
+
+        label.pack();
+        float height = stage.getViewport().getWorldHeight();
+        label.setPosition(15, height - 15 - label.getHeight());
+        background.setBounds(5, height - 25 - label.getHeight(), label.getWidth() + 20, label.getHeight() + 20);
+    }
+
+    /**
+     * Adds a line with a phase's times in milliseconds
+     */
+    private void appendTimes(String name, long p50, long p99, long max) {
+        text.append(name).append(": ");
+        appendMillis(p50);
+        text.append(" / ");
+        appendMillis(p99);
+        text.append(" / ");
+        appendMillis(max);
+        text.append('\n');
+    }
+
+    /**
+     * Adds a time in nanoseconds as milliseconds to two decimal places,
+     * without going through String.format
+     */
+    private void appendMillis(long nanos) {
+        long hundredths = (nanos + 5000) / 10000;
+        text.append(hundredths / 100).append('.');
+        long fraction = hundredths % 100;
+        if (fraction < 10) text.append('0');
+        text.append(fraction);
+    }
+
+    /**
+     * Corrects the size of the overlay
+     * @param width New width of the game window
+     * @param height New height of the game window
+     */
+    public void resize(int width, int height) {
+        stage.getViewport().update(width, height, true);
+    }
+
+    @Override
+    public void dispose() {
+        stage.dispose();
+    }
+}
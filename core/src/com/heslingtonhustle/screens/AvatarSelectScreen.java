@@ -16,13 +16,12 @@ import com.badlogic.gdx.utils.ScreenUtils;
 import com.badlogic.gdx.utils.viewport.FitViewport;
 import com.badlogic.gdx.utils.viewport.Viewport;
 import com.heslingtonhustle.HeslingtonHustleGame;
-import com.heslingtonhustle.input.InputHandler;
 import com.heslingtonhustle.input.KeyboardInputHandler;
 import com.heslingtonhustle.sound.SoundController;
 import com.heslingtonhustle.sound.Sounds;
 import com.heslingtonhustle.state.Action;
 
-import java.util.HashSet;
+import java.util.Set;
 
 public class AvatarSelectScreen implements Screen {
     private final HeslingtonHustleGame game;
@@ -32,7 +31,10 @@ public class AvatarSelectScreen implements Screen {
     private final OrthographicCamera camera;
     private final Viewport viewport;
     private final Texture backgroundTexture;
-    private final InputHandler inputHandler;
+    // Released when the screen is disposed
+    private final Array<String> textures = new Array<>();
+    private final KeyboardInputHandler inputHandler;
+    private final InputMultiplexer inputMultiplexer;
     private ImageButton avatar0, avatar1;
 
     public static final String avatarMenuBackgroundAsset = "Graphics/UI/Backgrounds/menu_background.jpg";
@@ -48,7 +50,6 @@ public class AvatarSelectScreen implements Screen {
 
         // An option screen to let the player adjust the volume of music and sound effects
         tutStage = new Stage(new FitViewport(game.width, game.height));
-        Gdx.input.setInputProcessor(tutStage);
 
         // Configure orthographic camera and viewport
         camera = new OrthographicCamera();
@@ -56,16 +57,15 @@ public class AvatarSelectScreen implements Screen {
         camera.setToOrtho(false, game.width, game.height);
 
         // Background texture
-        backgroundTexture = new Texture(avatarMenuBackgroundAsset);
+        backgroundTexture = game.textures.acquire(avatarMenuBackgroundAsset, textures);
         Image backgroundImage = new Image(backgroundTexture);
         tutStage.addActor(backgroundImage);
 
         // Inputs
         inputHandler = new KeyboardInputHandler();
-        InputMultiplexer inputMultiplexer = new InputMultiplexer();
+        inputMultiplexer = new InputMultiplexer();
         inputMultiplexer.addProcessor(inputHandler);
         inputMultiplexer.addProcessor(tutStage);
-        Gdx.input.setInputProcessor(inputMultiplexer);
 
         createAvatarSelect();
 
@@ -138,6 +138,7 @@ public class AvatarSelectScreen implements Screen {
         ScreenUtils.clear(0, 0, 0, 1);
         Gdx.gl.glClear(GL20.GL_COLOR_BUFFER_BIT);
 
+        inputHandler.processEvents();
         handleActions();
         inputHandler.resetPressedActions();
 
@@ -150,7 +151,7 @@ public class AvatarSelectScreen implements Screen {
 
     private void handleActions() {
         // Get pressed actions
-        HashSet<Action> actions = inputHandler.getPressedActions();
+        Set<Action> actions = inputHandler.getPressedActions();
 
         if (actions.contains(Action.INTERACT)) {
             // Start
@@ -171,9 +172,16 @@ public class AvatarSelectScreen implements Screen {
         }
     }
 
+    /**
+     * Called each time the screen is switched to, as the screen is reused
+     */
     @Override
     public void show() {
-
+        Gdx.input.setInputProcessor(inputMultiplexer);
+        // Forget keys pressed while the screen was last shown
+        inputHandler.processEvents();
+        inputHandler.resetPressedActions();
+        avatar0.setChecked(true);
     }
 
     /**
@@ -208,6 +216,6 @@ public class AvatarSelectScreen implements Screen {
     @Override
     public void dispose(){
         tutStage.dispose();
-        backgroundTexture.dispose();
+        game.textures.releaseAll(textures);
     }
 }
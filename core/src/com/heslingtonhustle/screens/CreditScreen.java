@@ -11,6 +11,7 @@ import com.badlogic.gdx.scenes.scene2d.ui.Label;
 import com.badlogic.gdx.scenes.scene2d.ui.ScrollPane;
 import com.badlogic.gdx.scenes.scene2d.ui.Window;
 import com.badlogic.gdx.scenes.scene2d.utils.ChangeListener;
+import com.badlogic.gdx.utils.Array;
 import com.badlogic.gdx.utils.ScreenUtils;
 import com.badlogic.gdx.utils.viewport.FitViewport;
 import com.badlogic.gdx.utils.viewport.Viewport;
@@ -27,6 +28,9 @@ public class CreditScreen implements Screen{
     private OrthographicCamera camera;
     private Viewport viewport;
     private Texture backgroundTexture;
+    private ScrollPane scrollWindow;
+    // Released when the screen is disposed
+    private final Array<String> textures = new Array<>();
 
     public static final String creditMenuBackgroundAsset = "Graphics/UI/Backgrounds/menu_background.jpg";
 
@@ -40,14 +44,13 @@ public class CreditScreen implements Screen{
         // Basically all the same code as the settings menu
         this.game = game;
         creditStage = new Stage(new FitViewport(game.width, game.height));
-        Gdx.input.setInputProcessor(creditStage);
 
         camera = new OrthographicCamera();
         viewport = new FitViewport(game.width, game.height, camera);
         camera.setToOrtho(false, game.width, game.height);
 
         // Background texture
-        backgroundTexture = new Texture(creditMenuBackgroundAsset);
+        backgroundTexture = game.textures.acquire(creditMenuBackgroundAsset, textures);
         Image backgroundImage = new Image(backgroundTexture);
         creditStage.addActor(backgroundImage);
 
@@ -69,7 +72,7 @@ public class CreditScreen implements Screen{
         Table scrollTable = new Table();
 
         // Scrollable widget
-        ScrollPane scrollWindow = new ScrollPane(scrollTable, game.skin);
+        scrollWindow = new ScrollPane(scrollTable, game.skin);
         scrollWindow.setFadeScrollBars(false);
         // scrollWindow.setDebug(true);
 
@@ -133,11 +136,19 @@ public class CreditScreen implements Screen{
         viewport.update(width, height);
     }
 
-    // Other required methods from Screen
+    /**
+     * Called each time the screen is switched to, as the screen is reused
+     */
     @Override
     public void show() {
+        Gdx.input.setInputProcessor(creditStage);
+        // Start from the top of the credits again
+        scrollWindow.setScrollY(0);
+        scrollWindow.updateVisualScroll();
     }
 
+    // Other required methods from Screen
+
     @Override
     public void hide() {
     }
@@ -156,7 +167,7 @@ public class CreditScreen implements Screen{
     @Override
     public void dispose() {
         creditStage.dispose();
-        backgroundTexture.dispose();
+        game.textures.releaseAll(textures);
     }
 
     /**
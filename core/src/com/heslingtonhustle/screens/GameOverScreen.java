@@ -22,9 +22,9 @@ import com.heslingtonhustle.sound.Sounds;
 import com.heslingtonhustle.state.Achievement;
 import com.heslingtonhustle.state.Activity;
 import com.heslingtonhustle.state.LeaderboardManager;
+import com.heslingtonhustle.state.Score;
 
 import java.util.HashMap;
-import java.util.HashSet;
 
 /**
  * A screen to display the user's score, along with any secret achievements
@@ -37,19 +37,13 @@ public class GameOverScreen implements Screen {
     // UI Elements
     private final Stage stage;
     private final Texture backgroundTexture;
+    // Released when the screen is disposed
+    private final Array<String> textures = new Array<>();
     private final Window queryWindow;
     private final Window nameEntryWindow;
 
     // Player game data
-    private final HashMap<String, Activity> activities;
-    private final boolean stepAchievement;
-    private final HashSet<Achievement> achievements = new HashSet<>();
-    private int numAchievements = 0;
-
-    // The scores for each category
-    private final HashMap<String, Integer> categoryScores = new HashMap<String, Integer>();
-    // The number of times an event in each category was completed
-    private final HashMap<String, Integer> categoryHours = new HashMap<String, Integer>();
+    private final Score score;
 
     public static final String gameOverPath = "Graphics/UI/Gameover/page.png";
     public static final String gameOverTableBackgroundAsset = "Graphics/UI/Backgrounds/table_background.jpg";
@@ -62,8 +56,6 @@ public class GameOverScreen implements Screen {
      */
     public GameOverScreen(HeslingtonHustleGame game, HashMap<String, Activity> activities, boolean stepAchievement) {
         this.game = game;
-        this.activities = activities;
-        this.stepAchievement = stepAchievement;
 
         this.skin = game.skin;
         this.soundController = game.soundController;
@@ -73,14 +65,12 @@ public class GameOverScreen implements Screen {
         Gdx.input.setInputProcessor(stage);
 
         // Background table image
-        backgroundTexture = new Texture(gameOverTableBackgroundAsset);
+        backgroundTexture = game.textures.acquire(gameOverTableBackgroundAsset, textures);
         Image backgroundImage = new Image(backgroundTexture);
         stage.addActor(backgroundImage);
 
         // Figure out which achievements/penalties the player has got
-        populateCategoryInformation();
-        getAchievements();
-        getPenalties();
+        score = new Score(activities, stepAchievement);
 
         // Show the player's score breakdown
         drawScorePaper();
@@ -96,71 +86,13 @@ public class GameOverScreen implements Screen {
 
     }
 
-    /**
-     * Calculates the final score the player got
-     * @return The player's score
-     */
-    private int calcScore() {
-        int score = 0;
-
-        // Add score for activities
-        for (Activity activity : activities.values()) {
-            score += activity.getScore() * activity.getTimesCompleted();
-        }
-
-        // Add/minus penalties and achievements
-        for (Achievement achievement : achievements) {
-            score += achievement.getScore();
-        }
-
-        return score;
-    }
-
-    /**
-     * Populates the HashMaps for the amount of score gained from
-     * each category and the number of times an event in each category
-     * was completed.
-     */
-    private void populateCategoryInformation() {
-        categoryScores.put("sleep", 0);
-        categoryScores.put("study", 0);
-        categoryScores.put("recreation", 0);
-        categoryScores.put("eat", 0);
-
-        categoryHours.put("sleep", 0);
-        categoryHours.put("study", 0);
-        categoryHours.put("recreation", 0);
-        categoryHours.put("eat", 0);
-
-        // For each activity
-        for (Activity activity : activities.values()) {
-            // Find the score for this type, and add this activity's score
-            if (categoryScores.containsKey(activity.getScoreType())) {
-                int score = categoryScores.get(activity.getScoreType());
-                categoryScores.put(activity.getScoreType(), score + activity.getScore() * activity.getTimesCompleted());
-
-                // Same with the number of times completed
-                // For eating just add times done
-                if (activity.getScoreType().equals("eat")) {
-                    int times = categoryHours.get(activity.getScoreType());
-                    categoryHours.put("eat", times + activity.getTimesCompleted());
-                } else {
-                    int hours = categoryHours.get(activity.getScoreType());
-                    categoryHours.put(activity.getScoreType(), hours + activity.getHoursSpent());
-                }
-            }
-        }
-
-    }
-
-
     /**
      * Formats and draws the player's score breakdown in the form
      * of a report card
      */
     private void drawScorePaper() {
         // Background page
-        Texture pageTexture = new Texture(gameOverPath);
+        Texture pageTexture = game.textures.acquire(gameOverPath, textures);
         Image pageImage = new Image(pageTexture);
         pageImage.setPosition(
                 (game.width - pageImage.getWidth()) / 2,
@@ -175,12 +107,12 @@ public class GameOverScreen implements Screen {
 
         // The individual score lines to write to the paper
         Array<String> scoreLines = new Array<String>();
-        scoreLines.add("Hours slept: " + categoryHours.get("sleep"));
-        scoreLines.add("Hours studied: " + categoryHours.get("study"));
-        scoreLines.add("Hours of fun: " + categoryHours.get("recreation"));
-        scoreLines.add("Times ate: " + categoryHours.get("eat"));
-        scoreLines.add("Streaks: " + numAchievements);
-        scoreLines.add("Penalties: " + (achievements.size() - numAchievements));
+        scoreLines.add("Hours slept: " + score.getCategoryHours("sleep"));
+        scoreLines.add("Hours studied: " + score.getCategoryHours("study"));
+        scoreLines.add("Hours of fun: " + score.getCategoryHours("recreation"));
+        scoreLines.add("Times ate: " + score.getCategoryHours("eat"));
+        scoreLines.add("Streaks: " + score.getNumAchievements());
+        scoreLines.add("Penalties: " + score.getNumPenalties());
 
         // Draw lines of text
         for (int i = 0; i < scoreLines.size; i++) {
@@ -194,7 +126,7 @@ public class GameOverScreen implements Screen {
 
 
         // Final score text
-        Label scoreText = new Label("Score: " + calcScore(), game.skin, "handwriting64px");
+        Label scoreText = new Label("Score: " + score.getTotal(), game.skin, "handwriting64px");
         scoreText.setPosition((game.width - gameOver.getWidth()) / 2 - 20, 93);
         stage.addActor(scoreText);
 
@@ -223,10 +155,10 @@ public class GameOverScreen implements Screen {
         Table achievementTable = new Table();
         Table penaltyTable = new Table();
 
-        for (Achievement achievement : achievements) {
+        for (Achievement achievement : score.getAchievements()) {
             TextButton banner = new TextButton(achievement.getTitle(), skin, "banner");
             Label description = new Label(achievement.getDescription(), skin, "achievementlabel");
-            Label score = new Label(Integer.toString(achievement.getScore()), skin, "achievementscore");
+            Label scoreLabel = new Label(Integer.toString(achievement.getScore()), skin, "achievementscore");
 
             if (achievement.isPositive()) {
                 // Achievement
@@ -234,7 +166,7 @@ public class GameOverScreen implements Screen {
                 achievementTable.row();
                 achievementTable.add(description).padBottom(10);
                 achievementTable.row();
-                achievementTable.add(score);
+                achievementTable.add(scoreLabel);
                 achievementTable.row();
             } else {
                 // Penalty
@@ -243,7 +175,7 @@ public class GameOverScreen implements Screen {
                 penaltyTable.row();
                 penaltyTable.add(description).padBottom(10);
                 penaltyTable.row();
-                penaltyTable.add(score);
+                penaltyTable.add(scoreLabel);
                 penaltyTable.row();
             }
 
@@ -359,7 +291,7 @@ public class GameOverScreen implements Screen {
                 String name = nameField.getText();
                 if (LeaderboardManager.isValidName(name)) {
                     // If valid, write this score
-                    LeaderboardManager.writeScore(name, calcScore());
+                    LeaderboardManager.writeScore(name, score.getTotal());
                     game.switchScreen(AvailableScreens.MenuScreen, false);
                 } else {
                     // Show an error message
@@ -415,106 +347,6 @@ public class GameOverScreen implements Screen {
     @Override
     public void dispose() {
         stage.dispose();
-        backgroundTexture.dispose();
-    }
-
-
-    /**
-     * Determines the secret achievements the player has achieved
-     * based on the activities completed.
-     * Adds these to the set of achievements
-     */
-    private void getAchievements() {
-        if (stepAchievement) {
-            achievements.add(new Achievement(
-                    "Walker",
-                    "Walk 200 steps each day",
-                    200
-            ));
-            numAchievements += 1;
-        }
-
-        // Give if the player went clubbing at least once
-        if (activities.containsKey("club")) {
-            achievements.add(new Achievement(
-                    "Clubber",
-                    "Go clubbing at least once",
-                    500
-            ));
-            numAchievements += 1;
-        }
-
-        // Give if the player fed the ducks at least six times
-        if (activities.containsKey("ducks")) {
-            if (activities.get("ducks").getTimesCompleted() >= 6) {
-                achievements.add(new Achievement(
-                        "Duck duck go",
-                        "Feed the ducks 6 times",
-                        300
-                ));
-                numAchievements += 1;
-            }
-        }
-
-        // Give if the player goes to the gym at least 3 times per week
-        if (activities.containsKey("gym")) {
-            if (activities.get("gym").getTimesCompleted() >= 3) {
-                achievements.add(new Achievement(
-                        "Gymbro",
-                        "Go to the gym at least 3 times per week",
-                        500
-                ));
-                numAchievements += 1;
-            }
-        }
-
+        game.textures.releaseAll(textures);
     }
-
-    /**
-     * Adds negative achievements, or 'penalties' if the player has not eaten
-     * or studied enough etc.
-     * If the player hasn't done a type of activity, they get given a
-     * 'super' penalty, which takes off even more points.
-     */
-    private void getPenalties() {
-        // Player should ideally get between 50-60 hours of sleep each week
-        if (categoryHours.get("sleep") < 50 ) {
-            achievements.add(new Achievement(
-                    "Zombie",
-                    "You didn't get enough sleep!",
-                    -500
-            ));
-        }
-
-        // 2 hours of study each day
-        if (categoryHours.get("study") < 14) {
-            achievements.add(new Achievement(
-                    "Clueless",
-                    "You didn't study enough!",
-                    -1000
-            ));
-        }
-
-        // Eat 3 meals a day
-        if (categoryHours.get("eat") < 21) {
-            achievements.add(new Achievement(
-                    "Hungry",
-                    "You didn't eat well enough!",
-                    -500
-            ));
-        }
-
-        // Two hours of fun each day
-        if (categoryHours.get("recreation") < 14) {
-            achievements.add(new Achievement(
-                    "Party Pooper",
-                    "You didn't have enough fun!",
-                    -500
-            ));
-        }
-
-    }
-
-
-
 }
@@ -24,6 +24,11 @@ public class LeaderboardScreen implements Screen {
     private final SoundController soundController;
     private final Stage stage;
     private final Texture backgroundTexture;
+    // Released when the screen is disposed
+    private final Array<String> textures = new Array<>();
+    private Table scoresTable;
+    // The leaderboard version the scores shown are from, see LeaderboardManager.getVersion
+    private int shownVersion;
     public static final String leaderboardBackgroundAsset = "Graphics/UI/Backgrounds/menu_background.jpg";
 
 
@@ -38,9 +43,8 @@ public class LeaderboardScreen implements Screen {
         this.soundController = game.soundController;
 
         stage = new Stage(new FitViewport(game.width, game.height));
-        Gdx.input.setInputProcessor(stage);
 
-        backgroundTexture = new Texture(leaderboardBackgroundAsset);
+        backgroundTexture = game.textures.acquire(leaderboardBackgroundAsset, textures);
         Image backgroundImage = new Image(backgroundTexture);
         stage.addActor(backgroundImage);
 
@@ -85,10 +89,18 @@ public class LeaderboardScreen implements Screen {
         table.row();
 
         // Table for scores
-        Table scoresTable = new Table();
+        scoresTable = new Table();
         table.add(scoresTable).prefWidth(leaderboard.getWidth()-50).expandY().top();
 
-        // Add scores
+        addScores();
+    }
+
+    /**
+     * Fills the scores table with the latest scores
+     */
+    private void addScores() {
+        scoresTable.clearChildren();
+        shownVersion = LeaderboardManager.getVersion();
         Array<String> scores = LeaderboardManager.getScores();
 
         for (String score : scores) {
@@ -100,14 +112,30 @@ public class LeaderboardScreen implements Screen {
 
 
 
+    /**
+     * Called each time the screen is switched to, as the screen is reused
+     */
     @Override
-    public void show() { }
+    public void show() {
+        Gdx.input.setInputProcessor(stage);
+        // Scores may have been added since the screen was last shown
+        if (LeaderboardManager.getVersion() != shownVersion) {
+            addScores();
+        }
+        // The scores shown may be out of date when using a leaderboard service,
+        // they are filled in again once the latest arrive
+        LeaderboardManager.refresh();
+    }
 
     @Override
     public void render(float delta) {
         Gdx.gl.glClearColor(0, 0, 0, 1);
         Gdx.gl.glClear(GL20.GL_COLOR_BUFFER_BIT | GL20.GL_DEPTH_BUFFER_BIT);
 
+        if (LeaderboardManager.getVersion() != shownVersion) {
+            addScores();
+        }
+
         stage.act(Math.min(Gdx.graphics.getDeltaTime(), 1 / 30f));
         stage.draw();
     }
@@ -129,6 +157,6 @@ public class LeaderboardScreen implements Screen {
     @Override
     public void dispose() {
         stage.dispose();
-        backgroundTexture.dispose();
+        game.textures.releaseAll(textures);
     }
 }
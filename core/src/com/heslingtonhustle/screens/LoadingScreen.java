@@ -0,0 +1,97 @@
+package com.heslingtonhustle.screens;
+
+import com.badlogic.gdx.Screen;
+import com.badlogic.gdx.assets.AssetManager;
+import com.badlogic.gdx.graphics.OrthographicCamera;
+import com.badlogic.gdx.graphics.glutils.ShapeRenderer;
+import com.badlogic.gdx.utils.ScreenUtils;
+import com.badlogic.gdx.utils.viewport.FitViewport;
+import com.heslingtonhustle.HeslingtonHustleGame;
+
+/**
+ * A screen showing a progress bar while the asset manager loads.
+ * Nothing from the skin can be used, as it may not be loaded yet.
+ */
+public class LoadingScreen implements Screen {
+    // How long to spend loading each frame, so the bar keeps moving
+    private static final int LOAD_MILLIS = 15;
+    private static final float BAR_WIDTH = 600;
+    private static final float BAR_HEIGHT = 20;
+    private final HeslingtonHustleGame game;
+    private final AssetManager assets;
+    private final Runnable onLoaded;
+    private final FitViewport viewport;
+    private final ShapeRenderer shapeRenderer;
+    private boolean loaded;
+
+    /**
+     * @param game The main game object
+     * @param onLoaded Called once everything queued in the game's asset manager has loaded
+     */
+    public LoadingScreen(HeslingtonHustleGame game, Runnable onLoaded) {
+        this.game = game;
+        this.assets = game.assets;
+        this.onLoaded = onLoaded;
+
+        OrthographicCamera camera = new OrthographicCamera();
+        viewport = new FitViewport(game.width, game.height, camera);
+        camera.setToOrtho(false, game.width, game.height);
+        shapeRenderer = new ShapeRenderer();
+    }
+
+    @Override
+    public void show() { }
+
+    /**
+     * Loads for part of the frame then draws the progress so far
+     * @param delta The time in seconds since the last render.
+     */
+    @Override
+    public void render(float delta) {
+        if (loaded) return;
+
+        if (assets.update(LOAD_MILLIS)) {
+            // Only call back once, as the callback will usually switch screen
+            loaded = true;
+            onLoaded.run();
+            return;
+        }
+
+        ScreenUtils.clear(0, 0, 0, 1);
+        viewport.apply();
+        shapeRenderer.setProjectionMatrix(viewport.getCamera().combined);
+
+        float x = (game.width - BAR_WIDTH) / 2;
+        float y = (game.height - BAR_HEIGHT) / 2;
+        shapeRenderer.begin(ShapeRenderer.ShapeType.Filled);
+        shapeRenderer.setColor(0.25f, 0.25f, 0.25f, 1);
+        shapeRenderer.rect(x, y, BAR_WIDTH, BAR_HEIGHT);
+        shapeRenderer.setColor(1, 1, 1, 1);
+        shapeRenderer.rect(x, y, BAR_WIDTH * assets.getProgress(), BAR_HEIGHT);
+        shapeRenderer.end();
+    }
+
+    /**
+     * Method to resize the viewport if the window changes.
+     * @param width The width of the game screen
+     * @param height The height of the game screen
+     */
+    @Override
+    public void resize(int width, int height) {
+        viewport.update(width, height);
+    }
+
+    @Override
+    public void pause() { }
+
+    @Override
+    public void resume() { }
+
+    @Override
+    public void hide() { }
+
+    @Override
+    public void dispose() {
+        shapeRenderer.dispose();
+    }
+}
@@ -10,6 +10,7 @@ import com.badlogic.gdx.scenes.scene2d.Stage;
 import com.badlogic.gdx.scenes.scene2d.actions.Actions;
 import com.badlogic.gdx.scenes.scene2d.ui.*;
 import com.badlogic.gdx.scenes.scene2d.utils.ChangeListener;
+import com.badlogic.gdx.utils.Array;
 import com.badlogic.gdx.utils.viewport.FitViewport;
 import com.heslingtonhustle.HeslingtonHustleGame;
 import com.heslingtonhustle.sound.SoundController;
@@ -22,6 +23,8 @@ public class MenuScreen implements Screen {
     private final Stage stage;
     private Table optionsTable;
     private final Texture backgroundTexture;
+    // Released when the screen is disposed
+    private final Array<String> textures = new Array<>();
     public static final String menuBackgroundAsset = "Graphics/UI/Backgrounds/menu_background.jpg";
 
     /**
@@ -36,10 +39,9 @@ public class MenuScreen implements Screen {
 
         // Add menu stage
         stage = new Stage(new FitViewport(game.width, game.height));
-        Gdx.input.setInputProcessor(stage);
 
         // Add a background texture to the menu
-        backgroundTexture = new Texture(menuBackgroundAsset);
+        backgroundTexture = game.textures.acquire(menuBackgroundAsset, textures);
         Image backgroundImage = new Image(backgroundTexture);
         stage.addActor(backgroundImage);
 
@@ -139,8 +141,13 @@ public class MenuScreen implements Screen {
 
     }
 
+    /**
+     * Called each time the screen is switched to, as the screen is reused
+     */
     @Override
-    public void show() { }
+    public void show() {
+        Gdx.input.setInputProcessor(stage);
+    }
 
     /**
      * A method to render the menu stage.
@@ -180,7 +187,7 @@ public class MenuScreen implements Screen {
     @Override
     public void dispose() {
         stage.dispose();
-        backgroundTexture.dispose();
+        game.textures.releaseAll(textures);
     }
 
     public Table getOptionsTable() { return optionsTable; }
@@ -9,6 +9,7 @@ import com.badlogic.gdx.scenes.scene2d.Actor;
 import com.badlogic.gdx.scenes.scene2d.Stage;
 import com.badlogic.gdx.scenes.scene2d.ui.*;
 import com.badlogic.gdx.scenes.scene2d.utils.ChangeListener;
+import com.badlogic.gdx.utils.Array;
 import com.badlogic.gdx.utils.ScreenUtils;
 import com.badlogic.gdx.utils.viewport.FitViewport;
 import com.badlogic.gdx.utils.viewport.Viewport;
@@ -27,6 +28,8 @@ public class OptionsScreen implements Screen {
     private Slider musicSlider;
     private Slider sfxSlider;
     private final Texture backgroundTexture;
+    // Released when the screen is disposed
+    private final Array<String> textures = new Array<>();
     public static final String optionsBackgroundAsset = "Graphics/UI/Backgrounds/menu_background.jpg";
 
     /**
@@ -41,7 +44,6 @@ public class OptionsScreen implements Screen {
 
         // An option screen to let the player adjust the volume of music and sound effects
         optionStage = new Stage(new FitViewport(game.width, game.height));
-        Gdx.input.setInputProcessor(optionStage);
 
         // Configure orthographic camera and viewport
         camera = new OrthographicCamera();
@@ -49,7 +51,7 @@ public class OptionsScreen implements Screen {
         camera.setToOrtho(false, game.width, game.height);
 
         // Background texture
-        backgroundTexture = new Texture(optionsBackgroundAsset);
+        backgroundTexture = game.textures.acquire(optionsBackgroundAsset, textures);
         Image backgroundImage = new Image(backgroundTexture);
         optionStage.addActor(backgroundImage);
 
@@ -82,10 +84,6 @@ public class OptionsScreen implements Screen {
         // optionTable.setDebug(true);
         // sliderTable.setDebug(true);
 
-        // Set to correct values
-        musicSlider.setValue(soundController.getMusicVolume()*100);
-        sfxSlider.setValue(soundController.getSfxVolume()*100);
-
         // Add to a smaller table to centre the labels and slider bars
         sliderTable.add(musicTitle).padRight(20);
         sliderTable.add(musicSlider).prefWidth(250);
@@ -138,9 +136,16 @@ public class OptionsScreen implements Screen {
         camera.update();
     }
 
+    /**
+     * Called each time the screen is switched to, as the screen is reused
+     */
     @Override
     public void show() {
+        Gdx.input.setInputProcessor(optionStage);
 
+        // Set to correct values
+        musicSlider.setValue(soundController.getMusicVolume()*100);
+        sfxSlider.setValue(soundController.getSfxVolume()*100);
     }
 
     /**
@@ -175,7 +180,7 @@ public class OptionsScreen implements Screen {
     @Override
     public void dispose(){
         optionStage.dispose();
-        backgroundTexture.dispose();
+        game.textures.releaseAll(textures);
     }
 
     /**
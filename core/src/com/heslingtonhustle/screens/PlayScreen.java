@@ -3,31 +3,39 @@ package com.heslingtonhustle.screens;
 import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.InputMultiplexer;
 import com.badlogic.gdx.Screen;
+import com.badlogic.gdx.files.FileHandle;
 import com.badlogic.gdx.graphics.GL20;
 import com.badlogic.gdx.graphics.OrthographicCamera;
+import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
 import com.badlogic.gdx.graphics.g2d.TextureAtlas;
 import com.badlogic.gdx.graphics.glutils.ShapeRenderer;
-import com.badlogic.gdx.maps.MapProperties;
+import com.badlogic.gdx.graphics.profiling.GLProfiler;
 import com.badlogic.gdx.maps.MapRenderer;
 import com.badlogic.gdx.math.Rectangle;
 import com.badlogic.gdx.math.Vector2;
 import com.badlogic.gdx.math.Vector3;
 import com.badlogic.gdx.utils.ScreenUtils;
+import com.badlogic.gdx.utils.TimeUtils;
 import com.badlogic.gdx.utils.viewport.FitViewport;
 import com.heslingtonhustle.HeslingtonHustleGame;
-import com.heslingtonhustle.input.InputHandler;
+import com.heslingtonhustle.input.InputRecorder;
 import com.heslingtonhustle.input.KeyboardInputHandler;
+import com.heslingtonhustle.input.ReplayInputHandler;
 import com.heslingtonhustle.map.MapManager;
+import com.heslingtonhustle.renderer.CharacterFrames;
 import com.heslingtonhustle.renderer.CharacterRenderer;
+import com.heslingtonhustle.profiling.FrameProfiler;
+import com.heslingtonhustle.profiling.FrameProfiler.Phase;
 import com.heslingtonhustle.renderer.HudRenderer;
+import com.heslingtonhustle.renderer.ProfilerOverlay;
+import com.heslingtonhustle.simulation.GameSimulation;
 import com.heslingtonhustle.state.Action;
 import com.heslingtonhustle.state.DialogueManager;
 import com.heslingtonhustle.state.Player;
 import com.heslingtonhustle.state.State;
-import com.badlogic.gdx.math.Interpolation;
 
-import java.util.HashSet;
+import java.util.Set;
 
 
 /**
@@ -36,24 +44,46 @@ import java.util.HashSet;
 public class PlayScreen implements Screen {
     private final HeslingtonHustleGame game;
     InputMultiplexer inputMultiplexer;
-    private final InputHandler inputHandler;
+    private final KeyboardInputHandler inputHandler;
+    private final GameSimulation simulation;
     private final State gameState;
     private final MapManager mapManager;
     private final PauseMenu pauseMenu;
     private boolean isPaused;
     private final Player player;
-    private final DialogueManager dialogueManager;
     private final FitViewport viewport;
     private final OrthographicCamera camera;
     private final SpriteBatch batch;
     private final HudRenderer hudRenderer;
     private final CharacterRenderer playerRenderer;
-    private float zoomLevel = 7f;
-    private float zoomTarget = 1f;
-    private float zoomProgress = 1f;
-    private Vector2 zoomCoordinates = null;
-    MapProperties changeMapTrigger = null;
+    // Times each part of the frame, shown with F3
+    private final FrameProfiler profiler;
+    private final ProfilerOverlay profilerOverlay;
+    private final GLProfiler glProfiler;
+    private int batchFlushesAtFrameStart;
+    // The recording being played instead of the keyboard, or null when playing normally
+    private final ReplayInputHandler replay;
+
+    // The length of one game logic tick in seconds
+    public static final float TIME_STEP = GameSimulation.TIME_STEP;
+    // The most time that can be caught up on in one frame, stops a long
+    // hitch from causing a spiral of more and more ticks
+    private static final float MAX_FRAME_TIME = 0.25f;
+    // Time passed that has not yet been simulated
+    private float accumulator = 0f;
+    // Simulated positions of the player and camera at the previous and current tick
+    private final Vector2 previousPlayerPosition = new Vector2();
+    private final Vector2 renderPlayerPosition = new Vector2();
+    // Scratch vectors so that each frame doesn't allocate
+    private final Vector2 playerPosition = new Vector2();
+    private final Vector2 playerPixelPosition = new Vector2();
+    private final Vector3 previousCameraPosition = new Vector3();
+    private final Vector3 cameraPosition = new Vector3();
+    private final Vector3 cameraTarget = new Vector3();
+    // The area on screen in pixels, for culling what can't be seen
+    private final Rectangle view = new Rectangle();
     public static final String campusEastMapPath = "Maps/campusEast.tmx";
+    public static final String playerAtlasAsset = "Players/players.atlas";
 
     /**
      * A screen to display the main game when the user is playing; importantly rendering the map,
@@ -62,7 +92,20 @@ public class PlayScreen implements Screen {
      * @param game The main game object
      */
     public PlayScreen(HeslingtonHustleGame game, String playerString) {
+        this(game, playerString, null);
+    }
+
+    /**
+     * A screen to display the main game, either played with the keyboard and recorded
+     * so it can be replayed later, or playing back a recording.
+     * The keyboard still works during a replay, but only for pausing and debug keys.
+     * @param game The main game object
+     * @param playerString The texture prefix of the player's chosen avatar
+     * @param replay The recording to play back, or null to play with the keyboard
+     */
+    public PlayScreen(HeslingtonHustleGame game, String playerString, ReplayInputHandler replay) {
         this.game = game;
+        this.replay = replay;
         float zoom = 4.5f;
 
         camera = new OrthographicCamera();
@@ -72,201 +115,151 @@ public class PlayScreen implements Screen {
 
         isPaused = false;
 
-        // The player size is in world units
-        float playerWidth = 0.9f;
-        float playerHeight = 0.9f;
-
         // Classes needed for the game
-        player = new Player(playerWidth, playerHeight);
-
-        dialogueManager = new DialogueManager(game.soundController);
-
-        mapManager = new MapManager();
-        mapManager.loadMap(campusEastMapPath);
+        DialogueManager dialogueManager = new DialogueManager(game.soundController);
+        mapManager = new MapManager(game.assets);
+        simulation = new GameSimulation(dialogueManager, mapManager, campusEastMapPath);
+        player = simulation.getPlayer();
+        gameState = simulation.getState();
+        if (replay == null) {
+            // Kept for the whole game so it can be saved with F5 at any point
+            simulation.setRecorder(new InputRecorder());
+        }
 
-        gameState = new State(dialogueManager);
-        hudRenderer = new HudRenderer(game.skin, dialogueManager, game.width, game.height);
+        hudRenderer = new HudRenderer(game.skin, game.assets.get(HudRenderer.blackScreenAsset, Texture.class),
+                dialogueManager, game.width, game.height);
         pauseMenu = new PauseMenu(this, game);
 
+        profiler = new FrameProfiler();
+        simulation.setProfiler(profiler);
+        glProfiler = new GLProfiler(Gdx.graphics);
+        profilerOverlay = new ProfilerOverlay(game.skin, game.assets.get(HudRenderer.blackScreenAsset, Texture.class),
+                profiler, game.width, game.height);
 
         // Configure the input handler
         inputHandler = new KeyboardInputHandler();
         addInputHandlers();
 
-        gameState.pushStartDayDialogue();
-        camera.position.set(mapManager.worldToPixelCoords(player.getPosition()), 0);
-
         float playerWidthInPixels = mapManager.worldToPixelValue(player.getPlayerWidth());
         float playerHeightInPixels = mapManager.worldToPixelValue(player.getPlayerHeight());
 
-        TextureAtlas textureAtlas = new TextureAtlas("Players/players.atlas");
-        playerRenderer = new CharacterRenderer(playerWidthInPixels, playerHeightInPixels, textureAtlas, playerString, false);
+        TextureAtlas textureAtlas = game.assets.get(playerAtlasAsset, TextureAtlas.class);
+        playerRenderer = new CharacterRenderer(playerWidthInPixels, playerHeightInPixels,
+                new CharacterFrames(textureAtlas, playerString, true), mapManager.getAnimationClock());
 
-        player.setPosition(mapManager.getSpawnPoint());
-        Vector2 playerPixelPosition = mapManager.worldToPixelCoords(player.getPosition());
-        camera.position.set(new Vector3(
-                playerPixelPosition.x + (mapManager.worldToPixelValue(player.getPlayerWidth())/2),
-                playerPixelPosition.y + (mapManager.worldToPixelValue(player.getPlayerHeight())/2),
-                0
-        ));
+        snapCameraToPlayer();
     }
 
     /**
      * A method to render the game.
+     * The game logic is advanced in fixed ticks of TIME_STEP seconds, so the
+     * game runs at the same speed whatever the frame rate. The player and
+     * camera are drawn part way between the last two ticks.
      * @param delta The time in seconds since the last render.
      */
     @Override
     public void render(float delta) {
+        beginProfiledFrame();
         ScreenUtils.clear(0, 0, 0, 1);
         Gdx.gl.glClear(GL20.GL_COLOR_BUFFER_BIT);
         viewport.apply();
 
-        delta = 0.01667f;
-
         // <--- LOGIC ---> //
 
-        // Get inputs
-        HashSet<Action> heldActions = inputHandler.getHeldActions();
-        HashSet<Action> pressedActions = inputHandler.getPressedActions();
-
-        // Check if the player has paused the game
-        handleActions(pressedActions);
-
-        // Check for pause
-        if (!isPaused) {
-            // Let the player move if there is no dialogue on screen
-            if (dialogueManager.isEmpty() && camera.zoom == 1f && hudRenderer.screenClear()) {
-                player.move(heldActions, delta);
-            } else {
-                player.dontMove();
-            }
-
-            // Player's can either interact with a trigger or with on-screen dialogue
-            // but no both at once
-            if (!dialogueManager.isEmpty()) {
-                dialogueManager.handleAction(pressedActions);
-            } else if (camera.zoom == 1f) {
-                // Only interact if button pressed and screen clear
-                if (pressedActions.contains(Action.INTERACT) && hudRenderer.screenClear()) {
-                    gameState.handleInteraction();
-
-                    MapProperties currentTrigger = gameState.getNearestTrigger();
-
-                    // Check for NPC to rotate and sleep fade ins
-                    if (currentTrigger != null) {
-                        if (currentTrigger.containsKey("dialogue")) {
-                            mapManager.rotateNPC(currentTrigger, mapManager.worldToPixelCoords(player.getCentre()));
-                        }
-                    }
-                }
-            }
-
-            // Check for a zoom in
-            if (dialogueManager.isEmpty()) {
-                // Allow a zoom
-                if (pressedActions.contains(Action.MAP) && zoomProgress == 1) {
-                    zoom();
-                }
-            }
-            gameState.passTime(delta);
-
-        } else {
-            player.dontMove();
+        // Run as many ticks as the time passed allows, carrying over the remainder
+        accumulator += Math.min(delta, MAX_FRAME_TIME);
+        long frameTime = TimeUtils.nanoTime();
+        while (accumulator >= TIME_STEP) {
+            accumulator -= TIME_STEP;
+
+            // Get the inputs from up to the end of this tick, which is the time left over before now.
+            // Later key presses are kept for the next tick, even if that's in the next frame.
+            profiler.start(Phase.INPUT);
+            inputHandler.processEvents(frameTime - (long) (accumulator * 1e9f));
+            profiler.stop(Phase.INPUT);
+
+            profiler.start(Phase.LOGIC);
+            tick(inputHandler.getHeldActions(), inputHandler.getPressedActions());
+            profiler.stop(Phase.LOGIC);
+            // Key presses only count once
+            inputHandler.resetPressedActions();
         }
-
-        // Start fading the screen in to black if needed
-        if (gameState.getFading() && hudRenderer.screenClear()) {
-            hudRenderer.fadeIn(2f);
-            gameState.setFading(false);
+        long oldestInput = inputHandler.takeOldestEventTime();
+        if (oldestInput >= 0) {
+            profiler.inputUsed(oldestInput);
         }
 
-        // Zoom camera
-        if (zoomProgress < 0.98) {
-            camera.zoom = Interpolation.exp10Out.apply(zoomLevel, zoomTarget, zoomProgress);
-            zoomProgress += delta;
-
-        } else {
-            zoomProgress = 1;
-            camera.zoom = zoomTarget;
-        }
-
-        // The player needs to move out of any objects it is inside
-        player.collide(mapManager.getOverlappingRectangles(player.getCollisionBox()));
-        // Also stay inside map
-        player.setInBounds(mapManager.getCurrentMapWorldDimensions());
-
-        // Find the nearest interactable object
-        MapProperties nearestTrigger = mapManager.getNearestTrigger(player.getTriggerBox());
-        gameState.setNearestTrigger(nearestTrigger);
-
-        hudRenderer.updateValues(gameState.getTime(), gameState.getDay(), gameState.getEnergy());
+        // How far through the next tick we are, used to smooth movement
+        float alpha = accumulator / TIME_STEP;
 
         // <--- RENDERING ---> //
         MapRenderer mapRenderer = mapManager.getCurrentMapRenderer(batch); // Maybe change how this works
-        // Set this before slerping the camera to remove odd black bar errors
-        if (!(zoomTarget == 1 && zoomProgress < 0.6)) mapRenderer.setView(camera);
 
-        // Centre and zoom camera
-        Vector2 playerPixelPosition = mapManager.worldToPixelCoords(player.getPosition());
-        // Centre camera on the player
-        if (zoomCoordinates == null) {
-            camera.position.slerp(
-                    new Vector3(
-                            playerPixelPosition.x + (mapManager.worldToPixelValue(player.getPlayerWidth())/2),
-                            playerPixelPosition.y + (mapManager.worldToPixelValue(player.getPlayerHeight())/2),
-                            0
-                    ),
-                    delta*5);
-        } else {
-            camera.position.slerp(
-                new Vector3(
-                        zoomCoordinates.x,
-                        zoomCoordinates.y,
-                        0
-                ),
-                delta*5);
-        }
+        // Draw the camera and player between their last two positions
+        camera.position.set(previousCameraPosition).lerp(cameraPosition, alpha);
+        camera.zoom = simulation.getZoom();
+        camera.update();
+        float viewWidth = camera.viewportWidth * camera.zoom;
+        float viewHeight = camera.viewportHeight * camera.zoom;
+        view.set(camera.position.x - viewWidth / 2, camera.position.y - viewHeight / 2, viewWidth, viewHeight);
+        // Don't set the view early in a zoom in to remove odd black bar errors
+        if (!(simulation.getZoomTarget() == 1 && simulation.getZoomProgress() < 0.6)) mapRenderer.setView(camera);
 
+        renderPlayerPosition.set(previousPlayerPosition).lerp(player.getPosition(playerPosition), alpha);
+        mapManager.worldToPixelCoords(renderPlayerPosition, playerPixelPosition);
 
         // Draw map
+        profiler.start(Phase.MAP);
         mapRenderer.render(mapManager.getBackgroundLayers());
+        profiler.stop(Phase.MAP);
 
         // Draw player and NPCs
+        profiler.start(Phase.CHARACTERS);
+        mapManager.getAnimationClock().update(delta);
         batch.setProjectionMatrix(camera.combined);
         batch.begin();
-        mapManager.renderNPCs(batch);
+        mapManager.renderNPCs(batch, view);
         // Add 1 to stop player's feet clipping into things
         playerRenderer.render(batch, playerPixelPosition.x, playerPixelPosition.y+1, player.getFacing(), player.getMoving());
         batch.end();
+        profiler.stop(Phase.CHARACTERS);
 
         // Render layers in front of player
+        profiler.start(Phase.MAP);
         mapRenderer.render(mapManager.getForegroundLayers());
 
+        boolean zoomedOut = simulation.getZoomTarget() != 1f || simulation.getZoomProgress() < 0.2f;
+
         // Render map labels if zoomed out or zooming in
-        if (zoomTarget != 1f || zoomProgress < 0.2f) {
+        if (zoomedOut) {
             batch.begin();
             mapManager.renderLabels(batch);
             batch.end();
         }
+        profiler.stop(Phase.MAP);
+
+        profiler.start(Phase.HUD_UPDATE);
+        hudRenderer.updateValues(gameState.getTime(), gameState.getDay(), gameState.getEnergy());
+        hudRenderer.setBlackScreenAlpha(simulation.getFade());
+        profiler.stop(Phase.HUD_UPDATE);
 
         // Draw HUD if not zoomed out
-        if (!(zoomTarget != 1f || zoomProgress < 0.2f)) {
+        profiler.start(Phase.HUD_DRAW);
+        if (!zoomedOut) {
             if (isPaused) {
                 hudRenderer.render(null);
             } else {
                 // Pass the nearest trigger for the interaction label
-                hudRenderer.render(nearestTrigger);
+                hudRenderer.render(simulation.getNearestTrigger());
             }
         }
         pauseMenu.render();
+        profiler.stop(Phase.HUD_DRAW);
 
-        // <--- FINAL CHECKS AND RESETS ---> //
-        doBlackScreenActions();
-
-        inputHandler.resetPressedActions();
-        camera.update();
+        endProfiledFrame(delta);
 
-        if (gameState.isGameOver()) {
+        // <--- FINAL CHECKS AND RESETS ---> //
+        if (simulation.isGameOver()) {
             game.gameOver(
                     gameState.getActivities(),
                     player.getStepAchievement());
@@ -274,6 +267,99 @@ public class PlayScreen implements Screen {
         }
     }
 
+    /**
+     * Starts the profiler's frame, and resets the OpenGL counts so only this frame's are recorded
+     */
+    private void beginProfiledFrame() {
+        if (!profiler.isEnabled()) return;
+        glProfiler.reset();
+        batchFlushesAtFrameStart = batch.totalRenderCalls;
+        profiler.beginFrame();
+    }
+
+    /**
+     * Records the frame with the profiler and draws the overlay over everything else.
+     * The overlay is drawn after the frame is recorded so it doesn't count itself.
+     * @param delta The time in seconds since the last render
+     */
+    private void endProfiledFrame(float delta) {
+        if (!profiler.isEnabled()) return;
+        profiler.endFrame(glProfiler.getDrawCalls(), glProfiler.getTextureBindings(),
+                batch.totalRenderCalls - batchFlushesAtFrameStart);
+        profilerOverlay.render(delta);
+    }
+
+    /**
+     * Advances the game by one fixed step of TIME_STEP seconds.
+     * The game logic itself is left to the simulation, this handles the
+     * pause and debug keys and moves the camera along.
+     * @param heldActions The actions held down during this tick
+     * @param pressedActions The actions pressed since the last tick
+     */
+    private void tick(Set<Action> heldActions, Set<Action> pressedActions) {
+        // Remember where things were so rendering can smooth between ticks
+        player.getPosition(previousPlayerPosition);
+        previousCameraPosition.set(cameraPosition);
+
+        // Check if the player has paused the game
+        handleActions(pressedActions);
+
+        // The crowd is only for show, so it isn't part of the simulation or replays.
+        // It uses the view from the last frame drawn.
+        if (!isPaused) {
+            mapManager.updateCrowd(TIME_STEP, view);
+        }
+
+        if (replay == null) {
+            simulation.tick(heldActions, pressedActions);
+        } else if (!isPaused && !replay.isFinished()) {
+            // Skipped while the replay is paused, as every tick has to match the recording
+            replay.nextTick();
+            simulation.setPaused(replay.isPaused());
+            simulation.tick(replay.getHeldActions(), replay.getPressedActions());
+            if (replay.isFinished()) {
+                Gdx.app.debug("DEBUG", "Replay finished after " + replay.totalTicks() + " ticks");
+            }
+        }
+
+        // Jump straight to the player if they have changed map
+        if (simulation.takePlayerMoved()) {
+            snapCameraToPlayer();
+            return;
+        }
+
+        // Move the camera towards the player, or the map centre when zoomed out
+        Vector2 zoomCoordinates = simulation.getZoomCoordinates();
+        if (zoomCoordinates == null) {
+            mapManager.worldToPixelCoords(player.getPosition(playerPosition), playerPixelPosition);
+            cameraTarget.set(
+                    playerPixelPosition.x + (mapManager.worldToPixelValue(player.getPlayerWidth())/2),
+                    playerPixelPosition.y + (mapManager.worldToPixelValue(player.getPlayerHeight())/2),
+                    0
+            );
+        } else {
+            cameraTarget.set(zoomCoordinates.x, zoomCoordinates.y, 0);
+        }
+        cameraPosition.slerp(cameraTarget, TIME_STEP*5);
+    }
+
+    /**
+     * Moves the camera straight to the player and stops the player and
+     * camera being smoothed from their old positions, used after the
+     * player has been moved somewhere new
+     */
+    private void snapCameraToPlayer() {
+        mapManager.worldToPixelCoords(player.getPosition(playerPosition), playerPixelPosition);
+        cameraPosition.set(
+                playerPixelPosition.x + (mapManager.worldToPixelValue(player.getPlayerWidth())/2),
+                playerPixelPosition.y + (mapManager.worldToPixelValue(player.getPlayerHeight())/2),
+                0
+        );
+        previousCameraPosition.set(cameraPosition);
+        camera.position.set(cameraPosition);
+        player.getPosition(previousPlayerPosition);
+    }
+
     /**
      * DEBUG
      * Draws the player's two hit boxes for debugging purposes
@@ -298,80 +384,20 @@ public class PlayScreen implements Screen {
      * Calls events related to the actions called by the player on the current frame
      * @param pressedActions All actions related to key presses this frame
      */
-    private void handleActions(HashSet<Action> pressedActions) {
+    private void handleActions(Set<Action> pressedActions) {
+        // Nothing pressed on most frames
+        if (pressedActions.isEmpty()) return;
         // For each action...
         for (Action action : pressedActions) {
             // Check whether anything needs to be done
             handlePauseAction(action);
             handleDebugAction(action);
+            handleProfilerAction(action);
+            handleRecordingAction(action);
         }
 
     }
 
-    /**
-     * Actions that need to be performed when the game screen
-     * is fully black, includes sleeping and changing maps
-     */
-    private void doBlackScreenActions() {
-        if (hudRenderer.screenIsBlack()) {
-            // Always fade out if the screen is fully black
-            hudRenderer.fadeOut(3f);
-            gameState.setFading(false);
-
-            // Change map
-            if (gameState.getNewMapTrigger() != null) {
-                changeMap(gameState.getNewMapTrigger());
-                gameState.resetNewMapTrigger();
-            }
-
-            // Sleep
-            if (gameState.getSleeping()) {
-                gameState.sleep();
-                gameState.setSleeping(false);
-            }
-
-        }
-    }
-
-    /**
-     * Changes the map to the map defined by the current Trigger
-     * Also sets the player to the new position defined in the trigger
-     * and moves the camera
-     * @param currentTrigger The trigger containing information about
-     *                       the new map to switch to
-     */
-    public void changeMap(MapProperties currentTrigger) {
-        mapManager.loadMap("Maps/" + currentTrigger.get("new_map"));
-        player.setPosition(new Vector2(
-                (float) currentTrigger.get("new_map_x"),
-                (float) currentTrigger.get("new_map_y")));
-        Vector2 playerPixelPosition = mapManager.worldToPixelCoords(player.getPosition());
-        camera.position.set(
-            camera.position.set(
-                new Vector3(
-                        playerPixelPosition.x + (mapManager.worldToPixelValue(player.getPlayerWidth())/2),
-                        playerPixelPosition.y + (mapManager.worldToPixelValue(player.getPlayerHeight())/2),
-                        0
-                )
-            )
-        );
-    }
-
-    /**
-     * Zooms the camera in/out
-     */
-    private void zoom() {
-        float temp = zoomLevel;
-        zoomLevel = zoomTarget;
-        zoomTarget = temp;
-        zoomProgress = 0f;
-        if (zoomCoordinates == null) {
-            zoomCoordinates = mapManager.getCentre();
-        } else {
-            zoomCoordinates = null;
-        }
-    }
-
     /**
      * Checks if a debug key has been pressed and performs the corresponding actions if one has.
      * @param action An action related to a key press.
@@ -397,6 +423,41 @@ public class PlayScreen implements Screen {
         }
     }
 
+    /**
+     * Checks if a profiler key has been pressed, and either turns the profiler
+     * overlay on or off, or saves the frames it has recorded to a CSV file
+     * @param action An action related to a key press.
+     */
+    private void handleProfilerAction(Action action) {
+        if (action == Action.TOGGLE_PROFILER) {
+            boolean enabled = !profiler.isEnabled();
+            profiler.setEnabled(enabled);
+            if (enabled) {
+                glProfiler.enable();
+            } else {
+                glProfiler.disable();
+            }
+        } else if (action == Action.SAVE_PROFILE && profiler.isEnabled()) {
+            FileHandle file = Gdx.files.local("profile-" + System.currentTimeMillis() + ".csv");
+            profiler.writeCsv(file);
+            Gdx.app.debug("DEBUG", "Saved " + profiler.getSampleCount() + " frames to " + file.path());
+        }
+    }
+
+    /**
+     * Checks if the save recording key has been pressed, and saves everything played
+     * since the game started if it has
+     * @param action An action related to a key press.
+     */
+    private void handleRecordingAction(Action action) {
+        InputRecorder recorder = simulation.getRecorder();
+        if (action != Action.SAVE_RECORDING || recorder == null) return;
+
+        FileHandle file = Gdx.files.local("recording-" + System.currentTimeMillis() + ".hhrec");
+        recorder.write(file);
+        Gdx.app.debug("DEBUG", "Saved " + recorder.getTicks() + " ticks of input to " + file.path());
+    }
+
     /**
      * Checks if a key press corresponds to a pause action. If so and the game is playing,
      * the game pauses. If so and the game is paused, the game resumes.
@@ -439,6 +500,7 @@ public class PlayScreen implements Screen {
     public void resize(int width, int height) {
         viewport.update(width, height);
         hudRenderer.resize(width, height);
+        profilerOverlay.resize(width, height);
     }
 
     /**
@@ -447,6 +509,7 @@ public class PlayScreen implements Screen {
     @Override
     public void pause() {
         isPaused = true;
+        simulation.setPaused(true);
         Gdx.input.setInputProcessor(inputMultiplexer);
         pauseMenu.showPauseMenu();
     }
@@ -456,6 +519,7 @@ public class PlayScreen implements Screen {
      */
     public void unPause() {
         isPaused = false;
+        simulation.setPaused(false);
         Gdx.input.setInputProcessor(inputHandler);
         pauseMenu.hidePauseMenu();
     }
@@ -486,6 +550,8 @@ public class PlayScreen implements Screen {
         mapManager.dispose();
 //        renderer.dispose();
         pauseMenu.dispose();
+        profilerOverlay.dispose();
+        glProfiler.disable();
     }
 
     /**
@@ -500,4 +566,8 @@ public class PlayScreen implements Screen {
     public MapManager getMapManager() { return mapManager; }
 
     public State getState() { return gameState; }
+
+    public GameSimulation getSimulation() { return simulation; }
+
+    public FrameProfiler getProfiler() { return profiler; }
 }
@@ -0,0 +1,93 @@
+package com.heslingtonhustle.screens;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.Screen;
+
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Keeps the menu screens once they have been made, so switching back to one
+ * doesn't build its whole stage again. Each screen is made the first time it's
+ * needed, and resets itself in show() when it's switched back to.
+ * Screens are only disposed when evicted, or when the pool is disposed.
+ */
+public class ScreenPool {
+    private final EnumMap<AvailableScreens, Screen> screens = new EnumMap<>(AvailableScreens.class);
+    private final Function<AvailableScreens, Screen> factory;
+
+    /**
+     * @param factory Makes a new screen of the type given
+     */
+    public ScreenPool(Function<AvailableScreens, Screen> factory) {
+        this.factory = factory;
+    }
+
+    /**
+     * Gets the pooled screen of a type, making it if it hasn't been yet
+     * @param type The screen to get
+     * @return The screen
+     */
+    public Screen get(AvailableScreens type) {
+        Screen screen = screens.get(type);
+        if (screen == null) {
+            screen = factory.apply(type);
+            screens.put(type, screen);
+        }
+        return screen;
+    }
+
+    /**
+     * @param screen A screen
+     * @return True if the screen is kept by the pool, so mustn't be disposed
+     */
+    public boolean contains(Screen screen) {
+        return screen != null && screens.containsValue(screen);
+    }
+
+    /**
+     * Disposes every pooled screen that isn't in use, to free memory.
+     * They are made again the next time they are needed.
+     * @param inUse Screens to keep, such as the current screen
+     */
+    public void evict(Screen... inUse) {
+        int evicted = 0;
+        Iterator<Map.Entry<AvailableScreens, Screen>> iterator = screens.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Screen screen = iterator.next().getValue();
+            if (isInUse(screen, inUse)) continue;
+            screen.dispose();
+            iterator.remove();
+            evicted++;
+        }
+        if (evicted > 0) {
+            Gdx.app.debug("DEBUG", "Evicted " + evicted + " pooled screens");
+        }
+    }
+
+    private static boolean isInUse(Screen screen, Screen[] inUse) {
+        for (Screen used : inUse) {
+            if (screen == used) return true;
+        }
+        return false;
+    }
+
+    /**
+     * @return The number of screens in the pool
+     */
+    public int size() {
+        return screens.size();
+    }
+
+    /**
+     * Disposes every pooled screen
+     */
+    public void dispose() {
+        for (Screen screen : screens.values()) {
+            screen.dispose();
+        }
+        screens.clear();
+    }
+}
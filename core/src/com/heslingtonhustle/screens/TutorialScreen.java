@@ -10,6 +10,7 @@ import com.badlogic.gdx.scenes.scene2d.Stage;
 import com.badlogic.gdx.scenes.scene2d.ui.*;
 import com.badlogic.gdx.scenes.scene2d.utils.ChangeListener;
 import com.badlogic.gdx.utils.Align;
+import com.badlogic.gdx.utils.Array;
 import com.badlogic.gdx.utils.ScreenUtils;
 import com.badlogic.gdx.utils.viewport.FitViewport;
 import com.badlogic.gdx.utils.viewport.Viewport;
@@ -25,6 +26,8 @@ public class TutorialScreen implements Screen {
     private final OrthographicCamera camera;
     private final Viewport viewport;
     private final Texture backgroundTexture;
+    // Released when the screen is disposed
+    private final Array<String> textures = new Array<>();
     public static final String tutorialBackgroundAsset = "Graphics/UI/Backgrounds/menu_background.jpg";
     public static final String tutorialAsset1 = "Graphics/UI/Tutorial/tut2.jpg";
     public static final String tutorialAsset2 = "Graphics/UI/Tutorial/tut1.jpg";
@@ -40,7 +43,6 @@ public class TutorialScreen implements Screen {
         this.skin = game.skin;
 
         tutStage = new Stage(new FitViewport(game.width, game.height));
-        Gdx.input.setInputProcessor(tutStage);
 
         // Configure orthographic camera and viewport
         camera = new OrthographicCamera();
@@ -48,7 +50,7 @@ public class TutorialScreen implements Screen {
         camera.setToOrtho(false, game.width, game.height);
 
         // Background texture
-        backgroundTexture = new Texture(tutorialBackgroundAsset);
+        backgroundTexture = game.textures.acquire(tutorialBackgroundAsset, textures);
         Image backgroundImage = new Image(backgroundTexture);
         tutStage.addActor(backgroundImage);
 
@@ -81,7 +83,7 @@ public class TutorialScreen implements Screen {
         mainTable.row();
 
         // First image
-        Image img1 = new Image(new Texture(Gdx.files.internal(tutorialAsset1)));
+        Image img1 = new Image(game.textures.acquire(tutorialAsset1, textures));
         mainTable.add(img1).prefSize(938/2f, 423/2f).left();
 
         // Padding
@@ -108,7 +110,7 @@ public class TutorialScreen implements Screen {
         mainTable.add(info3).padTop(30).prefWidth(650).colspan(2);
 
         // Second image
-        Image img2 = new Image(new Texture(Gdx.files.internal(tutorialAsset2)));
+        Image img2 = new Image(game.textures.acquire(tutorialAsset2, textures));
         mainTable.add(img2).prefSize(582/2f, 468/2f).right();
         mainTable.row();
 
@@ -142,9 +144,12 @@ public class TutorialScreen implements Screen {
         camera.update();
     }
 
+    /**
+     * Called each time the screen is switched to, as the screen is reused
+     */
     @Override
     public void show() {
-
+        Gdx.input.setInputProcessor(tutStage);
     }
 
     /**
@@ -179,7 +184,7 @@ public class TutorialScreen implements Screen {
     @Override
     public void dispose(){
         tutStage.dispose();
-        backgroundTexture.dispose();
+        game.textures.releaseAll(textures);
     }
 
     /**
@@ -0,0 +1,172 @@
+package com.heslingtonhustle.simulation;
+
+import com.heslingtonhustle.state.Achievement;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Collects the results of many simulated weeks into a score distribution.
+ * Reports from different threads can be combined, so this can be used to
+ * collect the results of a parallel stream.
+ */
+public class BalanceReport {
+    // Scores are counted in buckets of this many points
+    public static final int BUCKET_SIZE = 100;
+    // Scores outside this range are counted in the first or last bucket
+    private static final int MIN_SCORE = -5000;
+    private static final int MAX_SCORE = 50000;
+    private final long[] histogram = new long[(MAX_SCORE - MIN_SCORE) / BUCKET_SIZE + 1];
+    private final TreeMap<String, Long> achievementCounts = new TreeMap<>();
+    private long runs;
+    private double scoreSum;
+    private double scoreSquareSum;
+    private int bestScore = Integer.MIN_VALUE;
+    private long bestSeed;
+    private int worstScore = Integer.MAX_VALUE;
+    private long worstSeed;
+    // Weeks that got to the exam with fewer sleeps than days, by staying up past midnight
+    private long skippingRuns;
+    private int bestSkippingScore = Integer.MIN_VALUE;
+    private long bestSkippingSeed;
+
+    /**
+     * Adds a single week to the report
+     * @param week The result of the week
+     */
+    public void add(SimulatedWeek week) {
+        int score = week.getScore().getTotal();
+        runs++;
+        scoreSum += score;
+        scoreSquareSum += (double) score * score;
+        histogram[bucket(score)]++;
+
+        // Ties go to the lowest seed, so reports don't depend on thread timing
+        if (score > bestScore || (score == bestScore && week.getSeed() < bestSeed)) {
+            bestScore = score;
+            bestSeed = week.getSeed();
+        }
+        if (score < worstScore || (score == worstScore && week.getSeed() < worstSeed)) {
+            worstScore = score;
+            worstSeed = week.getSeed();
+        }
+        if (week.getDaysSkipped() > 0) {
+            skippingRuns++;
+            if (score > bestSkippingScore || (score == bestSkippingScore && week.getSeed() < bestSkippingSeed)) {
+                bestSkippingScore = score;
+                bestSkippingSeed = week.getSeed();
+            }
+        }
+
+        for (Achievement achievement : week.getScore().getAchievements()) {
+            achievementCounts.merge(achievement.getTitle(), 1L, Long::sum);
+        }
+    }
+
+    /**
+     * Adds the results of another report to this one
+     * @param other The report to add
+     */
+    public void combine(BalanceReport other) {
+        if (other.runs == 0) return;
+
+        runs += other.runs;
+        scoreSum += other.scoreSum;
+        scoreSquareSum += other.scoreSquareSum;
+        for (int i = 0; i < histogram.length; i++) {
+            histogram[i] += other.histogram[i];
+        }
+
+        if (other.bestScore > bestScore || (other.bestScore == bestScore && other.bestSeed < bestSeed)) {
+            bestScore = other.bestScore;
+            bestSeed = other.bestSeed;
+        }
+        if (other.worstScore < worstScore || (other.worstScore == worstScore && other.worstSeed < worstSeed)) {
+            worstScore = other.worstScore;
+            worstSeed = other.worstSeed;
+        }
+        if (other.skippingRuns > 0) {
+            skippingRuns += other.skippingRuns;
+            if (other.bestSkippingScore > bestSkippingScore
+                    || (other.bestSkippingScore == bestSkippingScore && other.bestSkippingSeed < bestSkippingSeed)) {
+                bestSkippingScore = other.bestSkippingScore;
+                bestSkippingSeed = other.bestSkippingSeed;
+            }
+        }
+
+        for (Map.Entry<String, Long> entry : other.achievementCounts.entrySet()) {
+            achievementCounts.merge(entry.getKey(), entry.getValue(), Long::sum);
+        }
+    }
+
+    /**
+     * Finds the score that the given fraction of weeks scored at or below,
+     * to the nearest bucket
+     * @param fraction The fraction of weeks, between 0 and 1
+     * @return The lowest score of the bucket the percentile falls in
+     */
+    public int getPercentile(double fraction) {
+        if (runs == 0) return 0;
+
+        long target = Math.max(1, (long) Math.ceil(fraction * runs));
+        long seen = 0;
+        for (int i = 0; i < histogram.length; i++) {
+            seen += histogram[i];
+            if (seen >= target) {
+                return MIN_SCORE + i * BUCKET_SIZE;
+            }
+        }
+        return MAX_SCORE;
+    }
+
+    /**
+     * @return The number of weeks that scored in each bucket, starting from getHistogramStart()
+     */
+    public long[] getHistogram() {
+        return histogram;
+    }
+
+    /**
+     * @return The lowest score counted in the first histogram bucket
+     */
+    public int getHistogramStart() {
+        return MIN_SCORE;
+    }
+
+    private int bucket(int score) {
+        int clamped = Math.max(MIN_SCORE, Math.min(MAX_SCORE, score));
+        return Math.floorDiv(clamped - MIN_SCORE, BUCKET_SIZE);
+    }
+
+    public long getRuns() { return runs; }
+
+    public double getMean() { return runs == 0 ? 0 : scoreSum / runs; }
+
+    /**
+     * @return The standard deviation of the scores
+     */
+    public double getStandardDeviation() {
+        if (runs == 0) return 0;
+        double mean = getMean();
+        return Math.sqrt(Math.max(0, scoreSquareSum / runs - mean * mean));
+    }
+
+    public int getBestScore() { return bestScore; }
+
+    public long getBestSeed() { return bestSeed; }
+
+    public int getWorstScore() { return worstScore; }
+
+    public long getWorstSeed() { return worstSeed; }
+
+    public long getSkippingRuns() { return skippingRuns; }
+
+    public int getBestSkippingScore() { return bestSkippingScore; }
+
+    public long getBestSkippingSeed() { return bestSkippingSeed; }
+
+    /**
+     * @return How many weeks earned each achievement or penalty, by title
+     */
+    public TreeMap<String, Long> getAchievementCounts() { return achievementCounts; }
+}
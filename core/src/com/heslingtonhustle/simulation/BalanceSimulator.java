@@ -0,0 +1,351 @@
+package com.heslingtonhustle.simulation;
+
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.maps.MapLayer;
+import com.badlogic.gdx.maps.MapObject;
+import com.badlogic.gdx.maps.MapProperties;
+import com.badlogic.gdx.maps.tiled.TiledMap;
+import com.badlogic.gdx.utils.Array;
+import com.heslingtonhustle.map.HeadlessTmxMapLoader;
+import com.heslingtonhustle.state.Activity;
+import com.heslingtonhustle.state.DialogueManager;
+import com.heslingtonhustle.state.Score;
+import com.heslingtonhustle.state.State;
+
+import java.io.File;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.stream.LongStream;
+
+/**
+ * Plays out huge numbers of random activity schedules to see how the scoring holds up.
+ * Each week is a random list of activities for each day, each day ending in sleep.
+ * Schedules are played through the real State and Score classes, so opening hours,
+ * energy, daily limits and the clock all work as they do in game, but there is no
+ * walking around; a fixed amount of time passes between activities instead.
+ * Weeks are spread across every core with a parallel stream, and every week is made
+ * from its own seed, so any week in a report can be replayed on its own.
+ * <p>
+ * Can be run from the command line with the 'balance' Gradle task.
+ */
+public class BalanceSimulator {
+    public static final String[] DEFAULT_MAPS = {"Maps/campusEast.tmx", "Maps/urbanMap.tmx"};
+    // The number of days in a game, the exam is the morning after the last
+    private static final int DAYS = 7;
+    // Stops a week going on forever if the game never ends
+    private static final int MAX_SLEEPS = 30;
+    // One trigger for each different activity on the maps
+    private final Array<MapProperties> activityTriggers;
+    private final MapProperties sleepTrigger;
+    private int maxActivitiesPerDay = 8;
+    private float travelHours = 0.5f;
+    private boolean stepAchievement = false;
+
+    /**
+     * Creates a simulator choosing from the given activities
+     * @param activityTriggers The triggers of the activities to choose from
+     * @param sleepTrigger The trigger to sleep at
+     */
+    public BalanceSimulator(Array<MapProperties> activityTriggers, MapProperties sleepTrigger) {
+        if (activityTriggers.isEmpty()) {
+            throw new IllegalArgumentException("There must be at least one activity to choose from");
+        }
+        this.activityTriggers = activityTriggers;
+        this.sleepTrigger = sleepTrigger;
+    }
+
+    /**
+     * Creates a simulator from the activities found on Tiled maps.
+     * Maps are read straight from disk and without textures, so no libGDX
+     * application is needed.
+     * @param assetsDirectory The directory the map paths are relative to
+     * @param mapPaths The maps to take activities from
+     * @return A simulator choosing between one of each activity on the maps
+     */
+    public static BalanceSimulator fromMaps(File assetsDirectory, String... mapPaths) {
+        HeadlessTmxMapLoader loader = new HeadlessTmxMapLoader(
+                fileName -> new FileHandle(new File(assetsDirectory, fileName)));
+
+        Array<MapProperties> activityTriggers = new Array<>();
+        HashSet<String> activityNames = new HashSet<>();
+        MapProperties sleepTrigger = null;
+
+        for (String mapPath : mapPaths) {
+            TiledMap map = loader.load(mapPath);
+            for (MapLayer layer : map.getLayers()) {
+                for (MapObject object : layer.getObjects()) {
+                    MapProperties properties = object.getProperties();
+                    if (properties.containsKey("activity")) {
+                        // The first trigger found for an activity decides its score etc
+                        if (activityNames.add(properties.get("activity", String.class))) {
+                            activityTriggers.add(properties);
+                        }
+                    } else if (properties.containsKey("sleep") && sleepTrigger == null) {
+                        sleepTrigger = properties;
+                    }
+                }
+            }
+        }
+
+        if (sleepTrigger == null) {
+            sleepTrigger = new MapProperties();
+            sleepTrigger.put("sleep", true);
+        }
+        return new BalanceSimulator(activityTriggers, sleepTrigger);
+    }
+
+    /**
+     * Plays one random week
+     * @param seed The seed to choose the week's activities with
+     * @param recordSchedule If true, the activities done each day are recorded
+     * @return The result of the week
+     */
+    public SimulatedWeek simulateWeek(long seed, boolean recordSchedule) {
+        SplittableRandom random = new SplittableRandom(seed);
+        StringBuilder schedule = recordSchedule ? new StringBuilder() : null;
+
+        // No sound controller, so dialogue is silent
+        DialogueManager dialogueManager = new DialogueManager(null);
+        State state = new State(dialogueManager);
+        dismissDialogue(dialogueManager);
+
+        int sleeps = 0;
+        int activitiesCompleted = 0;
+        while (!state.isGameOver() && sleeps < MAX_SLEEPS) {
+            if (schedule != null) {
+                schedule.append("Day ").append(state.getDay()).append(": ");
+            }
+
+            int activityCount = random.nextInt(maxActivitiesPerDay + 1);
+            for (int i = 0; i < activityCount; i++) {
+                MapProperties trigger = activityTriggers.get(random.nextInt(activityTriggers.size));
+                String name = trigger.get("activity", String.class);
+                int timesBefore = timesCompleted(state, name);
+
+                state.getClock().passHours(travelHours);
+                interact(state, dialogueManager, trigger);
+
+                boolean completed = timesCompleted(state, name) > timesBefore;
+                if (completed) {
+                    activitiesCompleted++;
+                }
+                if (schedule != null) {
+                    schedule.append(name).append(completed ? "" : " (failed)").append(", ");
+                }
+            }
+
+            state.getClock().passHours(travelHours);
+            interact(state, dialogueManager, sleepTrigger);
+            sleeps++;
+            if (schedule != null) {
+                schedule.append("sleep\n");
+            }
+        }
+
+        // Staying up past midnight moves on a day, and sleeping then moves on another,
+        // so the exam can come around with fewer sleeps than days
+        int daysSkipped = DAYS - sleeps;
+        return new SimulatedWeek(
+                seed,
+                new Score(state.getActivities(), stepAchievement),
+                sleeps,
+                Math.max(0, daysSkipped),
+                activitiesCompleted,
+                schedule == null ? null : schedule.toString());
+    }
+
+    /**
+     * Plays many random weeks across every core
+     * @param runs The number of weeks to play
+     * @param seed The seed of the first week, each following week uses the next seed
+     * @return A report of the scores of every week
+     */
+    public BalanceReport run(long runs, long seed) {
+        return LongStream.range(0, runs)
+                .parallel()
+                .collect(
+                        BalanceReport::new,
+                        (report, i) -> report.add(simulateWeek(seed + i, false)),
+                        BalanceReport::combine);
+    }
+
+    /**
+     * Interacts with a trigger and says yes to everything it asks
+     */
+    private void interact(State state, DialogueManager dialogueManager, MapProperties trigger) {
+        state.setNearestTrigger(trigger);
+        state.handleInteraction();
+        dismissDialogue(dialogueManager);
+
+        // In game, sleep happens once the screen has faded to black
+        if (state.getSleeping()) {
+            state.setSleeping(false);
+            state.sleep();
+            dismissDialogue(dialogueManager);
+        }
+        state.setFading(false);
+    }
+
+    /**
+     * Confirms every dialogue box in the queue, choosing the first option
+     */
+    private void dismissDialogue(DialogueManager dialogueManager) {
+        while (!dialogueManager.isEmpty()) {
+            dialogueManager.submit();
+        }
+    }
+
+    private int timesCompleted(State state, String activityName) {
+        Activity activity = state.getActivities().get(activityName);
+        return activity == null ? 0 : activity.getTimesCompleted();
+    }
+
+    /**
+     * @param maxActivitiesPerDay The most activities that are tried in a day,
+     *                            each day tries between 0 and this many
+     */
+    public void setMaxActivitiesPerDay(int maxActivitiesPerDay) {
+        this.maxActivitiesPerDay = maxActivitiesPerDay;
+    }
+
+    /**
+     * @param travelHours The in game hours that pass getting to each activity
+     */
+    public void setTravelHours(float travelHours) {
+        this.travelHours = travelHours;
+    }
+
+    /**
+     * @param stepAchievement If true, every week is given the walking achievement
+     */
+    public void setStepAchievement(boolean stepAchievement) {
+        this.stepAchievement = stepAchievement;
+    }
+
+    /**
+     * @return The trigger for each activity the simulator chooses from
+     */
+    public Array<MapProperties> getActivityTriggers() {
+        return activityTriggers;
+    }
+
+    /**
+     * Runs the simulator from the command line and prints a report
+     * @param args See printUsage()
+     */
+    public static void main(String[] args) {
+        long runs = 1000000;
+        long seed = 0;
+        int maxActivities = 8;
+        float travelHours = 0.5f;
+        boolean walker = false;
+        File assets = new File(".");
+        String[] maps = DEFAULT_MAPS;
+
+        try {
+            for (int i = 0; i < args.length; i++) {
+                switch (args[i]) {
+                    case "--runs": runs = Long.parseLong(args[++i]); break;
+                    case "--seed": seed = Long.parseLong(args[++i]); break;
+                    case "--max-activities": maxActivities = Integer.parseInt(args[++i]); break;
+                    case "--travel-hours": travelHours = Float.parseFloat(args[++i]); break;
+                    case "--walker": walker = true; break;
+                    case "--assets": assets = new File(args[++i]); break;
+                    case "--maps": maps = args[++i].split(","); break;
+                    default: throw new IllegalArgumentException(args[i]);
+                }
+            }
+        } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+            printUsage();
+            System.exit(1);
+            return;
+        }
+
+        BalanceSimulator simulator = fromMaps(assets, maps);
+        simulator.setMaxActivitiesPerDay(maxActivities);
+        simulator.setTravelHours(travelHours);
+        simulator.setStepAchievement(walker);
+
+        long start = System.nanoTime();
+        BalanceReport report = simulator.run(runs, seed);
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        System.out.printf("Simulated %d weeks in %.2fs (%.0f weeks/s) on %d cores%n",
+                report.getRuns(), seconds, report.getRuns() / seconds,
+                Runtime.getRuntime().availableProcessors());
+        System.out.printf("Activities: %d, up to %d a day, %.2f hours travel between each%n",
+                simulator.getActivityTriggers().size, maxActivities, travelHours);
+        printReport(simulator, report);
+    }
+
+    private static void printReport(BalanceSimulator simulator, BalanceReport report) {
+        if (report.getRuns() == 0) return;
+
+        System.out.printf("%nScore: mean %.1f, sd %.1f, min %d, max %d%n",
+                report.getMean(), report.getStandardDeviation(), report.getWorstScore(), report.getBestScore());
+        System.out.printf("Percentiles (to the nearest %d): ", BalanceReport.BUCKET_SIZE);
+        double[] percentiles = {0.01, 0.05, 0.25, 0.5, 0.75, 0.95, 0.99};
+        for (double percentile : percentiles) {
+            System.out.printf("p%d %d  ", Math.round(percentile * 100), report.getPercentile(percentile));
+        }
+        System.out.println();
+
+        // Histogram in buckets of 500 points
+        System.out.println("\nDistribution:");
+        long[] histogram = report.getHistogram();
+        int bucketsPerRow = 5;
+        long[] rows = new long[(histogram.length + bucketsPerRow - 1) / bucketsPerRow];
+        long largest = 0;
+        for (int i = 0; i < histogram.length; i++) {
+            rows[i / bucketsPerRow] += histogram[i];
+            largest = Math.max(largest, rows[i / bucketsPerRow]);
+        }
+        for (int i = 0; i < rows.length; i++) {
+            if (rows[i] == 0) continue;
+            int from = report.getHistogramStart() + i * bucketsPerRow * BalanceReport.BUCKET_SIZE;
+            int bar = (int) Math.ceil(50.0 * rows[i] / largest);
+            System.out.printf("%6d | %-50s %.2f%%%n", from, repeat('#', bar), 100.0 * rows[i] / report.getRuns());
+        }
+
+        System.out.println("\nAchievements and penalties:");
+        for (Map.Entry<String, Long> entry : report.getAchievementCounts().entrySet()) {
+            System.out.printf("  %-14s %.2f%%%n", entry.getKey(), 100.0 * entry.getValue() / report.getRuns());
+        }
+
+        printWeek("Best week", simulator.simulateWeek(report.getBestSeed(), true));
+        printWeek("Worst week", simulator.simulateWeek(report.getWorstSeed(), true));
+
+        System.out.printf("%nWeeks that skipped days by staying up past midnight: %d (%.2f%%)%n",
+                report.getSkippingRuns(), 100.0 * report.getSkippingRuns() / report.getRuns());
+        if (report.getSkippingRuns() > 0) {
+            printWeek("Best skipping week", simulator.simulateWeek(report.getBestSkippingSeed(), true));
+        }
+    }
+
+    private static void printWeek(String title, SimulatedWeek week) {
+        System.out.printf("%n%s (seed %d), score %d, %d activities, %d sleeps:%n",
+                title, week.getSeed(), week.getScore().getTotal(),
+                week.getActivitiesCompleted(), week.getSleeps());
+        System.out.print(week.getSchedule());
+    }
+
+    private static String repeat(char character, int times) {
+        StringBuilder builder = new StringBuilder(times);
+        for (int i = 0; i < times; i++) {
+            builder.append(character);
+        }
+        return builder.toString();
+    }
+
+    private static void printUsage() {
+        System.out.println("Usage: BalanceSimulator [options]");
+        System.out.println("  --runs N               Number of weeks to simulate (default 1000000)");
+        System.out.println("  --seed N               Seed of the first week (default 0)");
+        System.out.println("  --max-activities N     Most activities tried each day (default 8)");
+        System.out.println("  --travel-hours H       Hours passing between activities (default 0.5)");
+        System.out.println("  --walker               Give every week the walking achievement");
+        System.out.println("  --assets DIR           Directory holding the maps (default .)");
+        System.out.println("  --maps A.tmx,B.tmx     Maps to take activities from");
+    }
+}
@@ -0,0 +1,401 @@
+package com.heslingtonhustle.simulation;
+
+import com.badlogic.gdx.maps.MapProperties;
+import com.badlogic.gdx.math.Interpolation;
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.math.Vector2;
+import com.heslingtonhustle.input.InputRecorder;
+import com.heslingtonhustle.input.ReplayInputHandler;
+import com.heslingtonhustle.input.ScriptedInputHandler;
+import com.heslingtonhustle.map.MapManager;
+import com.heslingtonhustle.profiling.FrameProfiler;
+import com.heslingtonhustle.profiling.FrameProfiler.Phase;
+import com.heslingtonhustle.state.Action;
+import com.heslingtonhustle.state.DialogueManager;
+import com.heslingtonhustle.state.Player;
+import com.heslingtonhustle.state.State;
+
+import java.util.Set;
+
+/**
+ * Runs the logic of a playthrough one fixed tick at a time, without drawing anything.
+ * PlayScreen hands its logic to this and draws whatever state it is left in,
+ * but it can also be run on its own with a headless MapManager and scripted input
+ * to play whole games through as fast as the CPU allows.
+ */
+public class GameSimulation {
+    // The length of one game logic tick in seconds
+    public static final float TIME_STEP = 1 / 60f;
+    // The player size is in world units
+    private static final float PLAYER_WIDTH = 0.9f;
+    private static final float PLAYER_HEIGHT = 0.9f;
+    private final State gameState;
+    private final Player player;
+    private final DialogueManager dialogueManager;
+    private final MapManager mapManager;
+    private boolean paused;
+    private MapProperties nearestTrigger;
+    // The nearest trigger last checked for a map to prefetch, so each is only checked once
+    private MapProperties lastPrefetchTrigger;
+    // How zoomed out the map is, 1 is following the player
+    private float zoom = 1f;
+    private float zoomLevel = 7f;
+    private float zoomTarget = 1f;
+    private float zoomProgress = 1f;
+    private Vector2 zoomCoordinates = null;
+    // The opacity of the black screen shown when sleeping or changing maps,
+    // and how much it changes each second
+    private float fade = 0f;
+    private float fadeRate = 0f;
+    private boolean playerMoved;
+    private long ticks;
+    // Reused each tick so that ticking doesn't allocate
+    private final Vector2 mapSize = new Vector2();
+    // Times collision and trigger checks if set, see setProfiler
+    private FrameProfiler profiler;
+    // Records the input of every tick if set, see setRecorder
+    private InputRecorder recorder;
+
+    /**
+     * Starts a new playthrough on the given map
+     * @param dialogueManager The dialogue manager the game's dialogue is shown with
+     * @param mapManager The map manager to load maps with, can be headless
+     * @param mapPath The map to start on
+     */
+    public GameSimulation(DialogueManager dialogueManager, MapManager mapManager, String mapPath) {
+        this.dialogueManager = dialogueManager;
+        this.mapManager = mapManager;
+
+        player = new Player(PLAYER_WIDTH, PLAYER_HEIGHT);
+        mapManager.loadMap(mapPath);
+        gameState = new State(dialogueManager);
+        gameState.pushStartDayDialogue();
+
+        player.setPosition(mapManager.getSpawnPoint());
+    }
+
+    /**
+     * Advances the game logic by one fixed step of TIME_STEP seconds.
+     * Moves the player, handles interactions and dialogue, passes time,
+     * and moves any zoom or fade along.
+     * @param heldActions The actions held down during this tick
+     * @param pressedActions The actions pressed since the last tick
+     */
+    public void tick(Set<Action> heldActions, Set<Action> pressedActions) {
+        ticks++;
+        if (recorder != null) recorder.record(heldActions, pressedActions, paused);
+
+        if (!paused) {
+            // Let the player move if there is no dialogue on screen
+            if (dialogueManager.isEmpty() && zoom == 1f && screenClear()) {
+                player.move(heldActions, TIME_STEP);
+            } else {
+                player.dontMove();
+            }
+
+            // Players can either interact with a trigger or with on-screen dialogue,
+            // but not both at once
+            if (!dialogueManager.isEmpty()) {
+                dialogueManager.handleAction(pressedActions);
+            } else if (zoom == 1f) {
+                // Only interact if button pressed and screen clear
+                if (pressedActions.contains(Action.INTERACT) && screenClear()) {
+                    gameState.handleInteraction();
+
+                    MapProperties currentTrigger = gameState.getNearestTrigger();
+
+                    // Check for NPC to rotate
+                    if (currentTrigger != null) {
+                        if (currentTrigger.containsKey("dialogue")) {
+                            mapManager.rotateNPC(currentTrigger, mapManager.worldToPixelCoords(player.getCentre()));
+                        }
+                    }
+                }
+            }
+
+            // Check for a zoom in
+            if (dialogueManager.isEmpty()) {
+                // Allow a zoom
+                if (pressedActions.contains(Action.MAP) && zoomProgress == 1) {
+                    toggleZoom();
+                }
+            }
+            gameState.passTime(TIME_STEP);
+
+        } else {
+            player.dontMove();
+        }
+
+        // Start fading the screen in to black if needed
+        if (gameState.getFading() && screenClear()) {
+            fadeIn(2f);
+            gameState.setFading(false);
+        }
+
+        updateFade();
+        updateZoom();
+
+        // The player needs to move out of any objects it is inside
+        if (profiler != null) profiler.start(Phase.COLLISION);
+        player.collide(mapManager.getOverlappingRectangles(player.getCollisionBox()));
+        // Also stay inside map
+        player.setInBounds(mapManager.getCurrentMapWorldDimensions(mapSize));
+        if (profiler != null) profiler.stop(Phase.COLLISION);
+
+        // Find the nearest interactable object
+        if (profiler != null) profiler.start(Phase.TRIGGERS);
+        nearestTrigger = mapManager.getNearestTrigger(player.getTriggerBox());
+        if (profiler != null) profiler.stop(Phase.TRIGGERS);
+        gameState.setNearestTrigger(nearestTrigger);
+
+        // Start loading the map a trigger leads to as soon as the player is near it,
+        // so it's ready by the time the screen goes black
+        if (nearestTrigger != lastPrefetchTrigger) {
+            lastPrefetchTrigger = nearestTrigger;
+            if (nearestTrigger != null && nearestTrigger.containsKey("new_map")) {
+                mapManager.prefetchMap("Maps/" + nearestTrigger.get("new_map"));
+            }
+        }
+
+        doBlackScreenActions();
+    }
+
+    /**
+     * Plays the game with scripted input until it is over, or until
+     * the tick limit is reached
+     * @param input The script to take actions from
+     * @param maxTicks The most ticks to run for
+     * @return The number of ticks that were run
+     */
+    public long run(ScriptedInputHandler input, long maxTicks) {
+        long start = ticks;
+        while (!isGameOver() && ticks - start < maxTicks) {
+            input.nextTick();
+            tick(input.getHeldActions(), input.getPressedActions());
+            input.resetPressedActions();
+        }
+        return ticks - start;
+    }
+
+    /**
+     * Replays a recording made with setRecorder as fast as the CPU allows, until
+     * it finishes or the game is over. The recording should start from a new game
+     * on the same map as this one for the game to play out the same way.
+     * @param input The recording to take actions from
+     * @return The number of ticks that were run
+     */
+    public long replay(ReplayInputHandler input) {
+        long start = ticks;
+        while (!isGameOver() && !input.isFinished()) {
+            input.nextTick();
+            paused = input.isPaused();
+            tick(input.getHeldActions(), input.getPressedActions());
+            input.resetPressedActions();
+        }
+        return ticks - start;
+    }
+
+    /**
+     * Actions that need to be performed when the game screen
+     * is fully black, includes sleeping and changing maps
+     */
+    private void doBlackScreenActions() {
+        if (screenIsBlack()) {
+            // Always fade out if the screen is fully black
+            fadeOut(3f);
+            gameState.setFading(false);
+
+            // Change map
+            if (gameState.getNewMapTrigger() != null) {
+                changeMap(gameState.getNewMapTrigger());
+                gameState.resetNewMapTrigger();
+            }
+
+            // Sleep
+            if (gameState.getSleeping()) {
+                gameState.sleep();
+                gameState.setSleeping(false);
+            }
+        }
+    }
+
+    /**
+     * Changes the map to the map defined by the current Trigger
+     * Also sets the player to the new position defined in the trigger
+     * @param currentTrigger The trigger containing information about
+     *                       the new map to switch to
+     */
+    public void changeMap(MapProperties currentTrigger) {
+        mapManager.loadMap("Maps/" + currentTrigger.get("new_map"));
+        player.setPosition(
+                (float) currentTrigger.get("new_map_x"),
+                (float) currentTrigger.get("new_map_y"));
+        playerMoved = true;
+    }
+
+    /**
+     * Zooms the map in/out
+     */
+    private void toggleZoom() {
+        float temp = zoomLevel;
+        zoomLevel = zoomTarget;
+        zoomTarget = temp;
+        zoomProgress = 0f;
+        if (zoomCoordinates == null) {
+            zoomCoordinates = mapManager.getCentre();
+        } else {
+            zoomCoordinates = null;
+        }
+    }
+
+    /**
+     * Moves the zoom one tick along towards its target
+     */
+    private void updateZoom() {
+        if (zoomProgress < 0.98) {
+            zoom = Interpolation.exp10Out.apply(zoomLevel, zoomTarget, zoomProgress);
+            zoomProgress += TIME_STEP;
+        } else {
+            zoomProgress = 1;
+            zoom = zoomTarget;
+        }
+    }
+
+    /**
+     * Moves the black screen one tick along its fade, stopping once
+     * it is fully black or fully clear
+     */
+    private void updateFade() {
+        if (fadeRate == 0f) return;
+
+        fade = MathUtils.clamp(fade + fadeRate * TIME_STEP, 0f, 1f);
+        if (fade == 0f || fade == 1f) {
+            fadeRate = 0f;
+        }
+    }
+
+    /**
+     * Fades the black screen in
+     * @param duration The time in seconds to take
+     */
+    public void fadeIn(float duration) {
+        fadeRate = 1f / duration;
+    }
+
+    /**
+     * Fades the screen in from black
+     * @param duration The time in seconds to take
+     */
+    public void fadeOut(float duration) {
+        fadeRate = -1f / duration;
+    }
+
+    /**
+     * @return Returns true if the screen is black
+     */
+    public boolean screenIsBlack() {
+        return fade == 1f;
+    }
+
+    /**
+     * @return True if a black screen is not being faded in or out
+     */
+    public boolean screenClear() {
+        return fade == 0f;
+    }
+
+    /**
+     * @return The opacity of the black screen, from 0 to 1
+     */
+    public float getFade() {
+        return fade;
+    }
+
+    /**
+     * Checks if the player has been moved somewhere new since this was last called,
+     * such as onto a new map, so anything following them can jump straight there
+     * @return True if the player has been moved
+     */
+    public boolean takePlayerMoved() {
+        boolean moved = playerMoved;
+        playerMoved = false;
+        return moved;
+    }
+
+    /**
+     * Stops or restarts time passing and the player moving
+     * @param paused Whether the game should be paused
+     */
+    public void setPaused(boolean paused) {
+        this.paused = paused;
+    }
+
+    /**
+     * Sets a profiler to time the collision and trigger checks of each tick with
+     * @param profiler The profiler, or null to stop timing
+     */
+    public void setProfiler(FrameProfiler profiler) {
+        this.profiler = profiler;
+    }
+
+    /**
+     * Sets a recorder to record the actions of every tick with, so the game can be replayed
+     * @param recorder The recorder, or null to stop recording
+     */
+    public void setRecorder(InputRecorder recorder) {
+        this.recorder = recorder;
+    }
+
+    /**
+     * @return The recorder recording this game, or null if it isn't being recorded
+     */
+    public InputRecorder getRecorder() { return recorder; }
+
+    /**
+     * @return whether the game is paused or not
+     */
+    public boolean isPaused() { return paused; }
+
+    /**
+     * @return True if the last day has finished
+     */
+    public boolean isGameOver() { return gameState.isGameOver(); }
+
+    /**
+     * @return The current zoom, 1 when following the player
+     */
+    public float getZoom() { return zoom; }
+
+    /**
+     * @return The zoom being moved towards
+     */
+    public float getZoomTarget() { return zoomTarget; }
+
+    /**
+     * @return How far through the current zoom the map is, 1 when finished
+     */
+    public float getZoomProgress() { return zoomProgress; }
+
+    /**
+     * @return The pixel coordinates to look at when zoomed out, or null if following the player
+     */
+    public Vector2 getZoomCoordinates() { return zoomCoordinates; }
+
+    /**
+     * @return The trigger nearest the player, or null if there isn't one
+     */
+    public MapProperties getNearestTrigger() { return nearestTrigger; }
+
+    /**
+     * @return The number of ticks run so far
+     */
+    public long getTicks() { return ticks; }
+
+    public State getState() { return gameState; }
+
+    public Player getPlayer() { return player; }
+
+    public DialogueManager getDialogueManager() { return dialogueManager; }
+
+    public MapManager getMapManager() { return mapManager; }
+}
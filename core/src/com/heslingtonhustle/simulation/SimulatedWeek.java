@@ -0,0 +1,47 @@
+package com.heslingtonhustle.simulation;
+
+import com.heslingtonhustle.state.Score;
+
+/**
+ * The outcome of one week played by the balance simulator
+ */
+public class SimulatedWeek {
+    private final long seed;
+    private final Score score;
+    private final int sleeps;
+    private final int daysSkipped;
+    private final int activitiesCompleted;
+    private final String schedule;
+
+    /**
+     * @param seed The seed the week's schedule was made from
+     * @param score The week's final score
+     * @param sleeps The number of times the player slept
+     * @param daysSkipped The number of days that passed without sleeping
+     * @param activitiesCompleted The number of activities done successfully
+     * @param schedule What was done each day, or null if it wasn't recorded
+     */
+    public SimulatedWeek(long seed, Score score, int sleeps, int daysSkipped, int activitiesCompleted, String schedule) {
+        this.seed = seed;
+        this.score = score;
+        this.sleeps = sleeps;
+        this.daysSkipped = daysSkipped;
+        this.activitiesCompleted = activitiesCompleted;
+        this.schedule = schedule;
+    }
+
+    public long getSeed() { return seed; }
+
+    public Score getScore() { return score; }
+
+    public int getSleeps() { return sleeps; }
+
+    public int getDaysSkipped() { return daysSkipped; }
+
+    public int getActivitiesCompleted() { return activitiesCompleted; }
+
+    /**
+     * @return What was done each day, one day per line, or null if it wasn't recorded
+     */
+    public String getSchedule() { return schedule; }
+}
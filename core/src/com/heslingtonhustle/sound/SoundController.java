@@ -1,5 +1,6 @@
 package com.heslingtonhustle.sound;
 import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.assets.AssetManager;
 import com.badlogic.gdx.audio.Music;
 import com.badlogic.gdx.audio.Sound;
 import com.badlogic.gdx.utils.Disposable;
@@ -15,6 +16,10 @@ public class SoundController implements Disposable {
     private final HashMap<Sounds, Music> musicTypes = new HashMap<>();
     private final HashMap<Sounds, Sound> sfxTypes = new HashMap<>();
     private float musicVolume = 0.5f, sfxVolume = 0.8f;
+    // False if the sounds belong to an asset manager, which disposes them instead
+    private final boolean ownsSounds;
+    // The asset manager to fetch the game music from, if it wasn't loaded yet
+    private final AssetManager assets;
     public static final String MenuMusicAsset = "Sound/Music/menuMusic.mp3";
     public static final String GameMusicAsset = "Sound/Music/gameMusic.mp3";
     public static final String OpenSfxAsset = "Sound/SFX/open.ogg";
@@ -27,33 +32,57 @@ public class SoundController implements Disposable {
      * Call to load sounds and initialise a class to switch sounds
      */
     public SoundController() {
+        ownsSounds = true;
+        assets = null;
         load();
     }
 
+    /**
+     * Creates a sound controller using sounds loaded by an asset manager.
+     * The game music may still be loading, it's fetched when first played.
+     * @param assets The asset manager the menu sounds have been loaded by
+     */
+    public SoundController(AssetManager assets) {
+        ownsSounds = false;
+        this.assets = assets;
+
+        menuMusic = assets.get(MenuMusicAsset, Music.class);
+        open = assets.get(OpenSfxAsset, Sound.class);
+        close = assets.get(CloseSfxAsset, Sound.class);
+        optionSwitch = assets.get(OptionSwitchSfxAsset, Sound.class);
+        confirm = assets.get(ConfirmSfxAsset, Sound.class);
+        register();
+    }
+
     /**
      * Loads game music and sound effects
      */
     private void load() {
-        // Menu Music
         menuMusic = Gdx.audio.newMusic(Gdx.files.internal(MenuMusicAsset));
-        menuMusic.setLooping(true);
-        menuMusic.setVolume(musicVolume);
-
-        // Game music
         gameMusic = Gdx.audio.newMusic(Gdx.files.internal(GameMusicAsset));
-        gameMusic.setLooping(true);
-        gameMusic.setVolume(musicVolume);
 
         // SFX
         open = Gdx.audio.newSound(Gdx.files.internal(OpenSfxAsset));
         close = Gdx.audio.newSound(Gdx.files.internal(CloseSfxAsset));
         optionSwitch = Gdx.audio.newSound(Gdx.files.internal(OptionSwitchSfxAsset));
         confirm = Gdx.audio.newSound(Gdx.files.internal(ConfirmSfxAsset));
+        register();
+    }
 
+    /**
+     * Sets up the loaded music and maps each sound to its value in Sounds
+     */
+    private void register() {
+        menuMusic.setLooping(true);
+        menuMusic.setVolume(musicVolume);
 
         // Map values in Sounds to sound effects to play
         musicTypes.put(Sounds.MENU, menuMusic);
-        musicTypes.put(Sounds.GAME, gameMusic);
+        if (gameMusic != null) {
+            gameMusic.setLooping(true);
+            gameMusic.setVolume(musicVolume);
+            musicTypes.put(Sounds.GAME, gameMusic);
+        }
 
         sfxTypes.put(Sounds.DIALOGUEOPEN, open);
         sfxTypes.put(Sounds.DIALOGUECLOSE, close);
@@ -93,6 +122,10 @@ public class SoundController implements Disposable {
      * @param sound An enum value from Sounds
      */
     public void setMusic(Sounds sound) {
+        if (sound == Sounds.GAME && gameMusic == null) {
+            loadGameMusic();
+        }
+
         if (musicTypes.containsKey(sound)) {
             if (currentMusic == null) {
                 // No music set yet
@@ -110,6 +143,14 @@ public class SoundController implements Disposable {
         }
     }
 
+    /**
+     * Gets the game music from the asset manager, waiting for it if it's still loading
+     */
+    private void loadGameMusic() {
+        gameMusic = assets.finishLoadingAsset(GameMusicAsset);
+        register();
+    }
+
     /**
      * Sets the volume of in game music
      * @param volume The float value to set
@@ -147,6 +188,8 @@ public class SoundController implements Disposable {
      */
     @Override
     public void dispose() {
+        if (!ownsSounds) return;
+
         menuMusic.dispose();
         gameMusic.dispose();
         open.dispose();
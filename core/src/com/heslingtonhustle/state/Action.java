@@ -11,4 +11,6 @@ public enum Action {
     PAUSE,
     DEBUGGING_ACTION1, DEBUGGING_ACTION2, DEBUGGING_ACTION3,
     MAP,
+    TOGGLE_PROFILER, SAVE_PROFILE,
+    SAVE_RECORDING,
 }
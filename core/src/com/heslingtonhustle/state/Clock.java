@@ -5,6 +5,15 @@ package com.heslingtonhustle.state;
  * Provides methods to get a formatted time and day
  */
 public class Clock {
+    private static final int MINUTES_IN_DAY = 1440;
+    // Every time of day, formatted once rather than every frame the HUD is drawn
+    private static final String[] TIMES = new String[MINUTES_IN_DAY];
+    static {
+        for (int minutes = 0; minutes < MINUTES_IN_DAY; minutes++) {
+            TIMES[minutes] = formatTime(minutes);
+        }
+    }
+
     private float speed;
     private float timeUnits;
     private int day;
@@ -23,18 +32,30 @@ public class Clock {
      * @return A 12 hour representation of the current in game time as a string
      */
     public String getTime() {
-        int hour = Math.floorDiv((int) timeUnits, 60);
-        String minutes = String.format("%02d", ((int) timeUnits - hour * 60));
+        int minutes = (int) timeUnits;
+        if (minutes >= 0 && minutes < MINUTES_IN_DAY) {
+            return TIMES[minutes];
+        }
+        return formatTime(minutes);
+    }
+
+    /**
+     * @param minutes The minutes passed since midnight
+     * @return A 12 hour representation of the time
+     */
+    private static String formatTime(int minutes) {
+        int hour = Math.floorDiv(minutes, 60);
+        String minute = String.format("%02d", (minutes - hour * 60));
 
         // Make 12 hour
         if (hour == 24 || hour == 0) {
-            return String.format("12:%sam", minutes);
+            return String.format("12:%sam", minute);
         } else if (hour == 12) {
-            return String.format("12:%spm", minutes);
+            return String.format("12:%spm", minute);
         } else if (hour > 12) {
-            return String.format("%d:%spm", hour-12, minutes);
+            return String.format("%d:%spm", hour-12, minute);
         } else {
-            return String.format("%d:%sam", hour, minutes);
+            return String.format("%d:%sam", hour, minute);
         }
     }
 
@@ -16,12 +16,13 @@ public class DialogueManager {
      * A class to store the data provided to the player in a dialogue box
      * DialogueBox is a private inner class that can only be interacted with through DialogueManager
      * Public methods within DialogueBox are only accessible to DialogueManager
+     * Boxes are reused once they have been submitted, see set and clear
      */
     private class DialogueBox {
-        private final String message;
-        private final List<String> options;
+        private String message;
+        private List<String> options;
         private int selectedOption;
-        private final DialogueCallback callback;
+        private DialogueCallback callback;
 
 
         /**
@@ -30,10 +31,18 @@ public class DialogueManager {
          * @param options The options to choose from, can be null
          * @param callback The lambda function to run afterwards, passed the chosen option
          */
-        private DialogueBox(String message, List<String> options, DialogueCallback callback) {
+        private void set(String message, List<String> options, DialogueCallback callback) {
             this.message = message;
             this.options = options;
             this.callback = callback;
+            selectedOption = 0;
+        }
+
+        /**
+         * Lets go of the box's data once it's been submitted
+         */
+        private void clear() {
+            set(null, null, null);
         }
 
         /**
@@ -58,20 +67,20 @@ public class DialogueManager {
                 }
         }
 
-        /**
-         * Runs the provided lambda function and passes in the selected option
-         */
-        private void submit() {
-            if (callback != null) {
-                callback.onSelected(selectedOption);
-            }
-        }
     }
 
 
     // ~~~ DialogueManager's properties and methods ~~~
 
-    private final Queue<DialogueBox> dialogueQueue;
+    // Options used by many prompts, shared rather than made for every prompt
+    public static final List<String> YES_NO = Collections.unmodifiableList(Arrays.asList("Yes", "No"));
+    private static final int INITIAL_CAPACITY = 8;
+
+    // A ring buffer of dialogue boxes, the front of the queue is at head.
+    // Boxes stay in the buffer to be reused, it only grows if it fills up.
+    private DialogueBox[] dialogueQueue = new DialogueBox[INITIAL_CAPACITY];
+    private int head;
+    private int size;
     // True if changes have been made that means the dialogue box should be re-drawn
     private boolean update;
 
@@ -80,29 +89,30 @@ public class DialogueManager {
     /**
      * Initialises a queue to store dialogueboxes, and stores the soundcontroller to play
      * dialogue sounds
-     * @param soundController The sound controller used by the game
+     * @param soundController The sound controller used by the game, or null to play no sounds
      */
     public DialogueManager(SoundController soundController) {
         this.soundController = soundController;
-        dialogueQueue = new LinkedList<DialogueBox>();
+        for (int i = 0; i < dialogueQueue.length; i++) {
+            dialogueQueue[i] = new DialogueBox();
+        }
     }
 
     /**
      * Reacts to a set of actions
      * @param pressedActions A set of pressed actions this frame
      */
-    public void handleAction(HashSet<Action> pressedActions) {
-        for (Action action : pressedActions)
-            switch (action) {
-                case MOVE_UP:
-                    decreaseSelection();
-                    break;
-                case MOVE_DOWN:
-                    increaseSelection();
-                    break;
-                case INTERACT:
-                    submit();
-            }
+    public void handleAction(Set<Action> pressedActions) {
+        // Checked in a fixed order so replays always do the same thing
+        if (pressedActions.contains(Action.MOVE_UP)) {
+            decreaseSelection();
+        }
+        if (pressedActions.contains(Action.MOVE_DOWN)) {
+            increaseSelection();
+        }
+        if (pressedActions.contains(Action.INTERACT)) {
+            submit();
+        }
     }
 
     /**
@@ -110,7 +120,7 @@ public class DialogueManager {
      * @return True if the queue is empty
      */
     public boolean isEmpty() {
-        return dialogueQueue.isEmpty();
+        return size == 0;
     }
 
     /**
@@ -120,10 +130,26 @@ public class DialogueManager {
      * @param callback The lambda to function to run when the player confirms
      */
     public void addDialogue(String message, List<String> options, DialogueCallback callback) {
-        DialogueBox dialogueBox = new DialogueBox(message, options, callback);
-        dialogueQueue.add(dialogueBox);
+        if (size == dialogueQueue.length) grow();
+        dialogueQueue[(head + size) % dialogueQueue.length].set(message, options, callback);
+        size++;
         update = true;
-        soundController.playSound(Sounds.DIALOGUEOPEN);
+        playSound(Sounds.DIALOGUEOPEN);
+    }
+
+    /**
+     * Doubles the size of the ring buffer, keeping the queue's order
+     */
+    private void grow() {
+        DialogueBox[] grown = new DialogueBox[dialogueQueue.length * 2];
+        for (int i = 0; i < dialogueQueue.length; i++) {
+            grown[i] = dialogueQueue[(head + i) % dialogueQueue.length];
+        }
+        for (int i = dialogueQueue.length; i < grown.length; i++) {
+            grown[i] = new DialogueBox();
+        }
+        dialogueQueue = grown;
+        head = 0;
     }
 
     /**
@@ -132,10 +158,7 @@ public class DialogueManager {
      * @param options The options the player can choose from
      */
     public void addDialogue(String message, List<String> options) {
-        DialogueBox dialogueBox = new DialogueBox(message, options, null);
-        dialogueQueue.add(dialogueBox);
-        update = true;
-        soundController.playSound(Sounds.DIALOGUEOPEN);
+        addDialogue(message, options, null);
     }
 
     /**
@@ -143,10 +166,7 @@ public class DialogueManager {
      * @param message The message to display
      */
     public void addDialogue(String message) {
-        DialogueBox dialogueBox = new DialogueBox(message, null, null);
-        dialogueQueue.add(dialogueBox);
-        update = true;
-        soundController.playSound(Sounds.DIALOGUEOPEN);
+        addDialogue(message, null, null);
     }
 
     /**
@@ -155,10 +175,17 @@ public class DialogueManager {
      * @param callback The lambda to function to run when the player confirms
      */
     public void addDialogue(String message, DialogueCallback callback) {
-        DialogueBox dialogueBox = new DialogueBox(message, null, callback);
-        dialogueQueue.add(dialogueBox);
-        update = true;
-        soundController.playSound(Sounds.DIALOGUEOPEN);
+        addDialogue(message, null, callback);
+    }
+
+    /**
+     * Plays a dialogue sound, if there is a sound controller to play it with
+     * @param sound The sound to play
+     */
+    private void playSound(Sounds sound) {
+        if (soundController != null) {
+            soundController.playSound(sound);
+        }
     }
 
     /**
@@ -166,33 +193,30 @@ public class DialogueManager {
      * @return The message on the dialoguebox
      */
     public String getMessage() {
-        if (dialogueQueue.isEmpty()){
+        if (isEmpty()){
             return null;
         }
-        DialogueBox dialogueBox = dialogueQueue.peek();
-        return dialogueBox.message;
+        return dialogueQueue[head].message;
     }
 
     /**
      * @return A list of options on the current dialogue box
      */
     public List<String> getOptions() {
-        if (dialogueQueue.isEmpty()){
+        if (isEmpty()){
             return null;
         }
-        DialogueBox dialogueBox = dialogueQueue.peek();
-        return dialogueBox.options;
+        return dialogueQueue[head].options;
     }
 
     /**
      * @return The option that the player has currently selected
      */
     public int getSelectedOption() {
-        if (dialogueQueue.isEmpty()){
+        if (isEmpty()){
             return -1;
         }
-        DialogueBox dialogueBox = dialogueQueue.peek();
-        return dialogueBox.selectedOption;
+        return dialogueQueue[head].selectedOption;
     }
 
     /**
@@ -207,7 +231,7 @@ public class DialogueManager {
         // Works if no option are available
         if (dialogueBox.options != null && option != getSelectedOption()) {
             update = true;
-            soundController.playSound(Sounds.OPTIONSWITCH);
+            playSound(Sounds.OPTIONSWITCH);
         }
     }
 
@@ -222,7 +246,7 @@ public class DialogueManager {
 
         if (dialogueBox.options != null && option != getSelectedOption()) {
             update = true;
-            soundController.playSound(Sounds.OPTIONSWITCH);
+            playSound(Sounds.OPTIONSWITCH);
         }
     }
 
@@ -231,19 +255,30 @@ public class DialogueManager {
      * Also plays a confirmation/closing sound and advances the queue along.
      */
     public void submit() {
-        if (dialogueQueue.isEmpty()) {
+        if (isEmpty()) {
             throw new RuntimeException("There are no dialog boxes to submit");
         }
 
-        DialogueBox dialogueBox = dialogueQueue.remove();
-        dialogueBox.submit();
+        // Take what's needed out of the box first, as the callback can add
+        // more dialogue which might reuse it
+        DialogueBox dialogueBox = dialogueQueue[head];
+        DialogueCallback callback = dialogueBox.callback;
+        int selectedOption = dialogueBox.selectedOption;
+        boolean hadOptions = dialogueBox.options != null;
+        dialogueBox.clear();
+        head = (head + 1) % dialogueQueue.length;
+        size--;
+
+        if (callback != null) {
+            callback.onSelected(selectedOption);
+        }
         update = true;
         // If no options are available, we just close
-        if (dialogueBox.options == null) {
-            soundController.playSound(Sounds.DIALOGUECLOSE);
+        if (!hadOptions) {
+            playSound(Sounds.DIALOGUECLOSE);
         } else {
             // If there were options, play a confirm noise
-            soundController.playSound(Sounds.CONFIRM);
+            playSound(Sounds.CONFIRM);
         }
     }
 
@@ -251,10 +286,10 @@ public class DialogueManager {
      * @return The dialogue box at the front of the queue
      */
     private DialogueBox getDialogueBox() {
-        if (dialogueQueue.isEmpty()) {
+        if (isEmpty()) {
             throw new RuntimeException("There are no dialog boxes to get");
         }
-        return dialogueQueue.peek();
+        return dialogueQueue[head];
     }
 
     /**
@@ -275,6 +310,6 @@ public class DialogueManager {
      * @return True if the dialogue queue is empty
      */
     public boolean queueEmpty() {
-        return dialogueQueue.isEmpty();
+        return isEmpty();
     }
 }
@@ -3,28 +3,36 @@ package com.heslingtonhustle.state;
 import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.files.FileHandle;
 import com.badlogic.gdx.utils.Array;
+import com.heslingtonhustle.leaderboard.LeaderboardClient;
+import com.heslingtonhustle.leaderboard.LeaderboardStore;
+
+import java.net.MalformedURLException;
+import java.net.URL;
 
 import java.util.regex.Pattern;
 
 /**
  * A class to manage reading from and writing to the leaderboard
  * Can also handle inserting a new element into the leaderbaord
+ * Every score is kept in a LeaderboardStore, but only the top ten are shown
+ * Can instead share a leaderboard with other kiosks through a LeaderboardServer,
+ * see useService
  */
 public class LeaderboardManager {
     // Regex to check names against
     private static final Pattern namePattern = Pattern.compile("[^a-zA-Z0-9 ]");
-
-    /**
-     * A small class to store information about a name and a score
-     */
-    private static class Score {
-        public String name;
-        public String score;
-        private Score(String name, String score) {
-            this.name = name;
-            this.score = score;
-        }
-    }
+    public static final String LEADERBOARD_FILE = "leaderboard.log";
+    // The text leaderboard used before the log, imported the first time the log is opened
+    public static final String OLD_LEADERBOARD_FILE = "leaderboard.txt";
+    // The number of scores shown on the leaderboard
+    public static final int SHOWN_SCORES = 10;
+    // Scores waiting to be sent to the leaderboard service
+    public static final String SERVICE_QUEUE_FILE = "leaderboard-queue.txt";
+    private static LeaderboardStore store;
+    // Set when using a leaderboard service instead of the local store
+    private static LeaderboardClient client;
+    // Goes up each time the local leaderboard changes
+    private static int localVersion;
 
     /**
      * Checks whether a name is valid to add to the leaderboard
@@ -46,104 +54,124 @@ public class LeaderboardManager {
     }
 
     /**
-     * Loads data from the leaderboard file
+     * Uses a leaderboard service shared with other kiosks instead of the local log.
+     * Scores are sent and the top scores fetched in the background, so the
+     * leaderboard shown may be a few seconds behind.
+     * @param serverUrl The service's address, such as http://localhost:8086
+     * @throws IllegalArgumentException If the address isn't a valid URL
+     */
+    public static synchronized void useService(String serverUrl) {
+        URL url;
+        try {
+            url = new URL(serverUrl);
+        } catch (MalformedURLException e) {
+            throw new IllegalArgumentException("Invalid leaderboard service address " + serverUrl, e);
+        }
+        if (client != null) client.close();
+        client = new LeaderboardClient(url, Gdx.files.local(SERVICE_QUEUE_FILE).file(), SHOWN_SCORES);
+        Gdx.app.debug("DEBUG", "Using leaderboard service at " + serverUrl);
+    }
+
+    /**
+     * Opens the leaderboard log the first time it's needed
+     * @return The store holding every score
+     */
+    public static synchronized LeaderboardStore getStore() {
+        if (store == null) {
+            FileHandle file = Gdx.files.local(LEADERBOARD_FILE);
+            boolean isNew = !file.exists();
+            store = new LeaderboardStore(file.file(), true);
+            if (isNew) {
+                importOldLeaderboard();
+            }
+        }
+        return store;
+    }
+
+    /**
+     * Adds the scores from the old text leaderboard to the log, then renames
+     * the old file so it isn't imported again
+     */
+    private static void importOldLeaderboard() {
+        FileHandle oldFile = Gdx.files.local(OLD_LEADERBOARD_FILE);
+        if (!oldFile.exists()) return;
+
+        int imported = 0;
+        for (String line : oldFile.readString().split("\n")) {
+            // Ignores blank lines and lines without a comma
+            int comma = line.indexOf(',');
+            if (comma == -1) continue;
+            try {
+                store.add(line.substring(0, comma), Integer.parseInt(line.substring(comma + 1).trim()));
+                imported++;
+            } catch (NumberFormatException e) {
+                Gdx.app.debug("DEBUG", "Skipped leaderboard line: " + line);
+            }
+        }
+        oldFile.moveTo(Gdx.files.local(OLD_LEADERBOARD_FILE + ".old"));
+        Gdx.app.debug("DEBUG", "Imported " + imported + " scores from " + OLD_LEADERBOARD_FILE);
+    }
+
+    /**
+     * Loads the top scores from the leaderboard
      * @return A list of strings, with each string representing
      * a line on the leaderboard
      */
     public static Array<String> getScores() {
         Array<String> lines = new Array<>();
 
-        // Read leaderboard data
-        Array<Score> scores = readValues();
-
-        for (Score score : scores) {
-            lines.add(score.name + ": " + score.score);
+        Array<LeaderboardStore.Entry> top = client == null ? getStore().top(SHOWN_SCORES) : client.getCachedTop();
+        for (int i = 0; i < top.size; i++) {
+            lines.add(top.get(i).name + ": " + top.get(i).score);
         }
 
         return lines;
     }
 
     /**
-     * Reads the two raw strings from each line in the leaderboard file
-     * Returns values as a linked hash map to preserve order and pairings
-     * Should be formatted further to Strings or String int pairs
-     * @return A LinkedHashMap containing names and string scores
+     * Asks the leaderboard service for the latest scores, without waiting for them.
+     * Does nothing when the leaderboard is local, as it is always up to date.
      */
-    private static Array<Score> readValues() {
-        Array<Score> scores = new Array<>();
-        FileHandle file = Gdx.files.local("leaderboard.txt");
-
-        // If there isn't a leaderboard file, just return the empty hashmap
-        if (!file.exists()) {
-            return scores;
-        }
-
-        String data = file.readString();
-        int count = 0;
-        // Split into lines
-        for (String line : data.split("\n")) {
-            // Ignores blank lines and lines without a comma
-            if (line.contains(",")) {
-                scores.add(
-                        new Score(
-                                line.split(",")[0],
-                                line.split(",")[1].replaceAll("\r", "")
-                        )
-                );
-                count += 1;
-            }
-            // Only return the top 10 values
-            if (count == 10) {
-                break;
-            }
-        }
-
-        return scores;
+    public static void refresh() {
+        if (client != null) client.refresh();
     }
 
+    /**
+     * @return A number that goes up whenever the scores from getScores() change
+     */
+    public static int getVersion() {
+        return client == null ? localVersion : client.getVersion();
+    }
 
     /**
-     * Writes a player's score to the leaderboard at the correct position
+     * Writes a player's score to the leaderboard. Every score is kept,
+     * but only the top ten are shown.
      * @param newName The name of the player
      * @param newScore The score the player got
-     * @return True if the score was added to the leaderboard
+     * @return True if the score made it into the top ten
      */
     public static boolean writeScore(String newName, int newScore) {
-        Array<Score> scores = readValues();
-        FileHandle file = Gdx.files.local("leaderboard.txt");
-
-        String stringToWrite = "";
-        boolean scoreWritten = false;
-        int totalScoresWritten = 0;
-
-        // Write values back to leaderboard, inserting the new score if
-        // the new score is greater than the value to be written
-
-        for (Score score : scores) {
-            // New score is greater
-            if (newScore > Integer.parseInt(score.score) && !scoreWritten) {
-                stringToWrite += newName + "," + newScore + "\n";
-                scoreWritten = true;
-                totalScoresWritten++;
-            }
-            // Write old score
-            stringToWrite += score.name + "," + score.score + "\n";
-            totalScoresWritten++;
-
-            if (totalScoresWritten == 10) {
-                break;
-            }
-
+        if (client != null) {
+            // Sent in the background, so the rank is a guess from the last scores fetched
+            client.submit(newName, newScore);
+            return client.estimateRank(newScore) <= SHOWN_SCORES;
         }
+        localVersion++;
+        return getStore().add(newName, newScore).rank <= SHOWN_SCORES;
+    }
 
-        // Append to the end of the leaderboard
-        if (totalScoresWritten < 10 && !scoreWritten) {
-            stringToWrite += newName + "," + newScore;
-            scoreWritten = true;
+    /**
+     * Closes the leaderboard log and stops using any leaderboard service,
+     * the log is opened again if needed
+     */
+    public static synchronized void close() {
+        if (store != null) {
+            store.close();
+            store = null;
+        }
+        if (client != null) {
+            client.close();
+            client = null;
         }
-
-        file.writeString(stringToWrite, false);
-
-        return scoreWritten;
     }
 }
@@ -1,6 +1,7 @@
 package com.heslingtonhustle.state;
 
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.math.Rectangle;
 import com.badlogic.gdx.math.Vector2;
 import com.heslingtonhustle.renderer.CharacterRenderer;
 
@@ -38,7 +39,11 @@ public class NPC {
      * @param playerPos The centre position of the player
      */
     public void reposition(Vector2 playerPos) {
-        Vector2 diff = playerPos.sub(getCentre());
+        // NPCs without a renderer have no size, and no one to see them turn
+        Vector2 centre = getCentre();
+        if (centre == null) return;
+
+        Vector2 diff = playerPos.sub(centre);
 
         if (Math.abs(diff.x) > Math.abs(diff.y) && diff.x > 0) direction = Facing.RIGHT;
         if (Math.abs(diff.x) > Math.abs(diff.y) && diff.x < 0) direction = Facing.LEFT;
@@ -61,6 +66,19 @@ public class NPC {
         this.renderer = renderer;
     }
 
+    /**
+     * @param view The area on screen in pixels
+     * @return True if any of the NPC can be seen in the area
+     */
+    public boolean isInView(Rectangle view) {
+        if (renderer == null) return false;
+        Vector2 size = renderer.getSize();
+        // Drawn a little larger than its size, see CharacterRenderer
+        float margin = Math.max(size.x, size.y) * 0.1f;
+        return position.x + size.x + margin > view.x && position.x - margin < view.x + view.width
+                && position.y + size.y + margin > view.y && position.y - margin < view.y + view.height;
+    }
+
     /**
      * Renders the NPC to the screen
      */
@@ -4,15 +4,17 @@ import com.badlogic.gdx.math.MathUtils;
 import com.badlogic.gdx.math.Rectangle;
 import com.badlogic.gdx.math.Vector2;
 
-import java.util.HashSet;
+import java.util.Set;
 
 /**
  * Represents the player character. Is responsible for the movement of the player.
  * */
 public class Player {
     // Positional and hitbox variables
-    private Vector2 position;
-    private Vector2 previousPosition;
+    private final Vector2 position;
+    private final Vector2 previousPosition;
+    // Reused by move so that moving doesn't allocate
+    private final Vector2 movementVector = new Vector2();
     private final Rectangle collisionBox;
     private final Rectangle triggerBox;
     private final float width;
@@ -59,12 +61,30 @@ public class Player {
         return new Vector2(position);
     }
 
+    /**
+     * Copies the player's position without allocating
+     * @param out The vector to store the position in
+     * @return The out vector, for convenience
+     */
+    public Vector2 getPosition(Vector2 out) {
+        return out.set(position);
+    }
+
     /**
      * Sets the player's position, updating all of their relevant hit boxes
-     * @param newPosition Vector of the new position
+     * @param newPosition Vector of the new position, which is copied
      */
     public void setPosition(Vector2 newPosition) {
-        position = newPosition;
+        setPosition(newPosition.x, newPosition.y);
+    }
+
+    /**
+     * Sets the player's position, updating all of their relevant hit boxes
+     * @param x The new x coordinate
+     * @param y The new y coordinate
+     */
+    public void setPosition(float x, float y) {
+        position.set(x, y);
 
         collisionBox.setPosition(position.x,position.y);
 
@@ -78,9 +98,6 @@ public class Player {
      * @param x The x coordinate to set
      */
     public void setX(float x) {
-        if (position == null) {
-            position = new Vector2();
-        }
         position.x = x;
         collisionBox.setX(x);
         triggerBox.setX(position.x-(width*triggerBoxScale.x-width)/2);
@@ -91,9 +108,6 @@ public class Player {
      * @param y The y coordinate to set to
      */
     public void setY(float y) {
-        if (position == null) {
-            position = new Vector2();
-        }
         position.y = y;
         collisionBox.setY(y);
         triggerBox.setY(position.y-(height*triggerBoxScale.y-height)/2);
@@ -101,12 +115,11 @@ public class Player {
 
     // Player can only move in one direction at a time because of this
     // But what if we wanted MORE!?
-    public void move(HashSet<Action> actions, float delta) {
+    public void move(Set<Action> actions, float delta) {
         // Stores the previous position for collision
-        previousPosition = getPosition();
+        previousPosition.set(position);
 
-        //
-        Vector2 movementVector = new Vector2(0, 0);
+        movementVector.set(0, 0);
         moving = false;
 
         // Find the directions the player needs to move in, accounting
@@ -147,16 +160,16 @@ public class Player {
         }
 
         // Set new position
-        setPosition(position.add(movementVector));
+        setPosition(position.x + movementVector.x, position.y + movementVector.y);
         distanceTravelled += movementVector.len2();
     }
 
     /**
      * The player will move itself to the edge of any objects it is
      * overlapping
-     * @param rectangles The set of rectangles the player is overlapping
+     * @param rectangles The rectangles the player is overlapping
      */
-    public void collide(HashSet<Rectangle> rectangles) {
+    public void collide(Iterable<Rectangle> rectangles) {
 
         // For each object
         for (Rectangle collider : rectangles) {
@@ -191,7 +204,16 @@ public class Player {
      * @return The centre of the player as a vector
      */
     public Vector2 getCentre() {
-        return new Vector2(
+        return getCentre(new Vector2());
+    }
+
+    /**
+     * Finds the centre of the player without allocating
+     * @param out The vector to store the centre in
+     * @return The out vector, for convenience
+     */
+    public Vector2 getCentre(Vector2 out) {
+        return out.set(
                 position.x - width/2,
                 position.y - height/2
         );
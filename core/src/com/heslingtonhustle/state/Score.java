@@ -0,0 +1,235 @@
+package com.heslingtonhustle.state;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+
+/**
+ * Works out a player's final score from the activities they completed,
+ * along with the secret achievements and penalties they earned.
+ * Doesn't touch any graphics, so scores can be calculated anywhere.
+ */
+public class Score {
+    private final Map<String, Activity> activities;
+    private final boolean stepAchievement;
+    private final HashSet<Achievement> achievements = new HashSet<>();
+    private int numAchievements = 0;
+    private final int total;
+
+    // The scores for each category
+    private final HashMap<String, Integer> categoryScores = new HashMap<String, Integer>();
+    // The number of hours spent on each category, or times eaten for eating
+    private final HashMap<String, Integer> categoryHours = new HashMap<String, Integer>();
+
+    /**
+     * Scores a finished game
+     * @param activities The activities the player did, mapped from their names
+     * @param stepAchievement True if the player walked enough each day
+     */
+    public Score(Map<String, Activity> activities, boolean stepAchievement) {
+        this.activities = activities;
+        this.stepAchievement = stepAchievement;
+
+        populateCategoryInformation();
+        addAchievements();
+        addPenalties();
+        total = calcScore();
+    }
+
+    /**
+     * Calculates the final score the player got
+     * @return The player's score
+     */
+    private int calcScore() {
+        int score = 0;
+
+        // Add score for activities
+        for (Activity activity : activities.values()) {
+            score += activity.getScore() * activity.getTimesCompleted();
+        }
+
+        // Add/minus penalties and achievements
+        for (Achievement achievement : achievements) {
+            score += achievement.getScore();
+        }
+
+        return score;
+    }
+
+    /**
+     * Populates the HashMaps for the amount of score gained from
+     * each category and the number of times an event in each category
+     * was completed.
+     */
+    private void populateCategoryInformation() {
+        categoryScores.put("sleep", 0);
+        categoryScores.put("study", 0);
+        categoryScores.put("recreation", 0);
+        categoryScores.put("eat", 0);
+
+        categoryHours.put("sleep", 0);
+        categoryHours.put("study", 0);
+        categoryHours.put("recreation", 0);
+        categoryHours.put("eat", 0);
+
+        // For each activity
+        for (Activity activity : activities.values()) {
+            // Find the score for this type, and add this activity's score
+            if (categoryScores.containsKey(activity.getScoreType())) {
+                int score = categoryScores.get(activity.getScoreType());
+                categoryScores.put(activity.getScoreType(), score + activity.getScore() * activity.getTimesCompleted());
+
+                // Same with the number of times completed
+                // For eating just add times done
+                if (activity.getScoreType().equals("eat")) {
+                    int times = categoryHours.get(activity.getScoreType());
+                    categoryHours.put("eat", times + activity.getTimesCompleted());
+                } else {
+                    int hours = categoryHours.get(activity.getScoreType());
+                    categoryHours.put(activity.getScoreType(), hours + activity.getHoursSpent());
+                }
+            }
+        }
+
+    }
+
+    /**
+     * Determines the secret achievements the player has achieved
+     * based on the activities completed.
+     * Adds these to the set of achievements
+     */
+    private void addAchievements() {
+        if (stepAchievement) {
+            achievements.add(new Achievement(
+                    "Walker",
+                    "Walk 200 steps each day",
+                    200
+            ));
+            numAchievements += 1;
+        }
+
+        // Give if the player went clubbing at least once
+        if (activities.containsKey("club")) {
+            achievements.add(new Achievement(
+                    "Clubber",
+                    "Go clubbing at least once",
+                    500
+            ));
+            numAchievements += 1;
+        }
+
+        // Give if the player fed the ducks at least six times
+        if (activities.containsKey("ducks")) {
+            if (activities.get("ducks").getTimesCompleted() >= 6) {
+                achievements.add(new Achievement(
+                        "Duck duck go",
+                        "Feed the ducks 6 times",
+                        300
+                ));
+                numAchievements += 1;
+            }
+        }
+
+        // Give if the player goes to the gym at least 3 times per week
+        if (activities.containsKey("gym")) {
+            if (activities.get("gym").getTimesCompleted() >= 3) {
+                achievements.add(new Achievement(
+                        "Gymbro",
+                        "Go to the gym at least 3 times per week",
+                        500
+                ));
+                numAchievements += 1;
+            }
+        }
+
+    }
+
+    /**
+     * Adds negative achievements, or 'penalties' if the player has not eaten
+     * or studied enough etc.
+     * If the player hasn't done a type of activity, they get given a
+     * 'super' penalty, which takes off even more points.
+     */
+    private void addPenalties() {
+        // Player should ideally get between 50-60 hours of sleep each week
+        if (categoryHours.get("sleep") < 50 ) {
+            achievements.add(new Achievement(
+                    "Zombie",
+                    "You didn't get enough sleep!",
+                    -500
+            ));
+        }
+
+        // 2 hours of study each day
+        if (categoryHours.get("study") < 14) {
+            achievements.add(new Achievement(
+                    "Clueless",
+                    "You didn't study enough!",
+                    -1000
+            ));
+        }
+
+        // Eat 3 meals a day
+        if (categoryHours.get("eat") < 21) {
+            achievements.add(new Achievement(
+                    "Hungry",
+                    "You didn't eat well enough!",
+                    -500
+            ));
+        }
+
+        // Two hours of fun each day
+        if (categoryHours.get("recreation") < 14) {
+            achievements.add(new Achievement(
+                    "Party Pooper",
+                    "You didn't have enough fun!",
+                    -500
+            ));
+        }
+
+    }
+
+    /**
+     * @return The player's final score, including achievements and penalties
+     */
+    public int getTotal() {
+        return total;
+    }
+
+    /**
+     * @return Every achievement and penalty the player earned
+     */
+    public HashSet<Achievement> getAchievements() {
+        return achievements;
+    }
+
+    /**
+     * @return The number of positive achievements earned
+     */
+    public int getNumAchievements() {
+        return numAchievements;
+    }
+
+    /**
+     * @return The number of penalties earned
+     */
+    public int getNumPenalties() {
+        return achievements.size() - numAchievements;
+    }
+
+    /**
+     * @param category Either 'sleep', 'study', 'recreation' or 'eat'
+     * @return The hours spent on the category, or the times eaten for 'eat'
+     */
+    public int getCategoryHours(String category) {
+        return categoryHours.getOrDefault(category, 0);
+    }
+
+    /**
+     * @param category Either 'sleep', 'study', 'recreation' or 'eat'
+     * @return The score gained from activities in the category
+     */
+    public int getCategoryScore(String category) {
+        return categoryScores.getOrDefault(category, 0);
+    }
+}
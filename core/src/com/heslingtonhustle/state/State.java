@@ -12,6 +12,10 @@ import java.util.*;
  */
 public class State {
     private static final int MAX_DAYS = 7;
+    // Activities that can be done any time
+    private static final Set<String> DO_ANYTIME = new HashSet<>(Arrays.asList("cat", "ducks", "picnic"));
+    private static final List<String> DEBUG_OPTIONS = Collections.unmodifiableList(Arrays.asList(
+            "End Game", "Decrement day", "Set time speed to VERY FAST", "Set time speed to normal", "Close"));
     private boolean gameOver;
     private final Clock clock;
     private final DialogueManager dialogueManager;
@@ -132,9 +136,8 @@ public class State {
 
         // Change map
         if (currentTrigger.containsKey("new_map")) {
-            List<String> options = new ArrayList<>(Arrays.asList("Yes", "No"));
             String prompt = currentTrigger.get("prompt", String.class);
-            dialogueManager.addDialogue(prompt, options, selectedOption -> {
+            dialogueManager.addDialogue(prompt, DialogueManager.YES_NO, selectedOption -> {
                         if (selectedOption == 0) {
                             newMapTrigger = currentTrigger;
                             fading = true;
@@ -153,8 +156,7 @@ public class State {
                 );
             }
 
-            List<String> options = new ArrayList<>(Arrays.asList("Yes", "No"));
-            dialogueManager.addDialogue("Do you want to sleep?", options, selectedOption -> {
+            dialogueManager.addDialogue("Do you want to sleep?", DialogueManager.YES_NO, selectedOption -> {
                     if (selectedOption == 0) {
                         fading = true;
                         sleeping = true;
@@ -180,8 +182,7 @@ public class State {
 
             // Call a dialogue box to prompt the player if they want to do
             // the listed activity
-            List<String> options = new ArrayList<>(Arrays.asList("Yes", "No"));
-            dialogueManager.addDialogue((String) currentTrigger.get("prompt_message"), options, selectedOption -> {
+            dialogueManager.addDialogue((String) currentTrigger.get("prompt_message"), DialogueManager.YES_NO, selectedOption -> {
                     if (selectedOption == 0) {
                         // If 'yes', do activity
                         doActivity(activity);
@@ -218,19 +219,12 @@ public class State {
      */
     private void doActivity(Activity activity) {
 
-        // Activities that can be done any time
-        HashSet<String> doAnytime = new HashSet<>(3);
-        doAnytime.add("cat");
-        doAnytime.add("ducks");
-        doAnytime.add("picnic");
-
-
         // Various checks for if the player can do the activity
         if (!activity.canDoActivity()) {
             dialogueManager.addDialogue("You've done this too much today!\nGo do something else!");
         } else if (energy < activity.getEnergyUse()) {
             dialogueManager.addDialogue("You don't have enough energy to do this right now!");
-        } else if (!(clock.getRawTime() > 480) && !doAnytime.contains(activity.getName())) {
+        } else if (!(clock.getRawTime() > 480) && !DO_ANYTIME.contains(activity.getName())) {
             dialogueManager.addDialogue("This building opens at 8am.");
         } else {
             // They can do it
@@ -323,8 +317,7 @@ public class State {
      */
     public void pushTestDialogue() {
         // This is a debugging function that creates a useful control dialog box when you press '/'
-        List<String> options = new ArrayList<>(Arrays.asList("End Game", "Decrement day", "Set time speed to VERY FAST", "Set time speed to normal", "Close"));
-        dialogueManager.addDialogue("This is the debugging console. Please select an option", options, selectedOption -> {
+        dialogueManager.addDialogue("This is the debugging console. Please select an option", DEBUG_OPTIONS, selectedOption -> {
             switch (selectedOption) {
                 case 0: // Option 0 selected
                     setGameOver();
@@ -13,7 +13,8 @@ public class DesktopLauncher {
 		int HEIGHT = 720;
 		Lwjgl3ApplicationConfiguration config = new Lwjgl3ApplicationConfiguration();
 		config.setHdpiMode(HdpiMode.Logical);
-		config.setForegroundFPS(60);
+		// The game logic runs in fixed ticks, so rendering can match the monitor
+		config.setForegroundFPS(Lwjgl3ApplicationConfiguration.getDisplayMode().refreshRate);
 		config.setWindowedMode(WIDTH, HEIGHT);
 		config.setWindowSizeLimits(WIDTH/3, HEIGHT/3, 1920, 1080);
 		config.useVsync(true);
@@ -24,6 +25,16 @@ public class DesktopLauncher {
 		config.setWindowIcon(Files.FileType.Internal, "Icons/icon_32x32.png");
 		config.setWindowIcon(Files.FileType.Internal, "Icons/icon_128x128.png");
 
-		new Lwjgl3Application(new HeslingtonHustleGame(WIDTH, HEIGHT), config);
+		HeslingtonHustleGame game = new HeslingtonHustleGame(WIDTH, HEIGHT);
+		for (int i = 0; i + 1 < arg.length; i += 2) {
+			switch (arg[i]) {
+				// Play back a recording saved with F5, e.g. --replay recording-123.hhrec
+				case "--replay": game.setReplayPath(arg[i + 1]); break;
+				// Share scores with other kiosks, e.g. --leaderboard-server http://192.168.1.10:8086
+				case "--leaderboard-server": game.setLeaderboardServer(arg[i + 1]); break;
+			}
+		}
+
+		new Lwjgl3Application(game, config);
 	}
 }
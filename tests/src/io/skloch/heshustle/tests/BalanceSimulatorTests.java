@@ -0,0 +1,78 @@
+package io.skloch.heshustle.tests;
+
+import com.heslingtonhustle.simulation.BalanceReport;
+import com.heslingtonhustle.simulation.BalanceSimulator;
+import com.heslingtonhustle.simulation.SimulatedWeek;
+import org.junit.Test;
+
+import java.io.File;
+
+import static org.junit.Assert.*;
+
+public class BalanceSimulatorTests {
+    private BalanceSimulator newSimulator() {
+        return BalanceSimulator.fromMaps(new File("../assets"), BalanceSimulator.DEFAULT_MAPS);
+    }
+
+    @Test
+    public void testActivitiesLoadedFromMaps() {
+        BalanceSimulator simulator = newSimulator();
+
+        // Each activity should only be loaded once, however many triggers it has
+        assertTrue(simulator.getActivityTriggers().size > 5);
+        for (int i = 0; i < simulator.getActivityTriggers().size; i++) {
+            for (int j = i + 1; j < simulator.getActivityTriggers().size; j++) {
+                assertNotEquals(
+                        simulator.getActivityTriggers().get(i).get("activity"),
+                        simulator.getActivityTriggers().get(j).get("activity"));
+            }
+        }
+    }
+
+    @Test
+    public void testWeekEndsAfterSevenSleeps() {
+        SimulatedWeek week = newSimulator().simulateWeek(16, true);
+
+        assertEquals(7, week.getSleeps() + week.getDaysSkipped());
+        assertTrue(week.getSchedule().startsWith("Day 1: "));
+    }
+
+    @Test
+    public void testSameSeedGivesSameWeek() {
+        BalanceSimulator simulator = newSimulator();
+        SimulatedWeek first = simulator.simulateWeek(1234, true);
+        SimulatedWeek second = simulator.simulateWeek(1234, true);
+
+        assertEquals(first.getScore().getTotal(), second.getScore().getTotal());
+        assertEquals(first.getSchedule(), second.getSchedule());
+    }
+
+    @Test
+    public void testParallelRunMatchesSequentialRun() {
+        BalanceSimulator simulator = newSimulator();
+        BalanceReport parallel = simulator.run(2000, 5);
+
+        BalanceReport sequential = new BalanceReport();
+        for (long seed = 5; seed < 2005; seed++) {
+            sequential.add(simulator.simulateWeek(seed, false));
+        }
+
+        assertEquals(2000, parallel.getRuns());
+        assertEquals(sequential.getMean(), parallel.getMean(), 0.001);
+        assertEquals(sequential.getBestScore(), parallel.getBestScore());
+        assertEquals(sequential.getBestSeed(), parallel.getBestSeed());
+        assertEquals(sequential.getWorstSeed(), parallel.getWorstSeed());
+        assertArrayEquals(sequential.getHistogram(), parallel.getHistogram());
+        assertEquals(sequential.getAchievementCounts(), parallel.getAchievementCounts());
+        assertEquals(sequential.getPercentile(0.5), parallel.getPercentile(0.5));
+    }
+
+    @Test
+    public void testBestWeekReplaysToBestScore() {
+        BalanceSimulator simulator = newSimulator();
+        BalanceReport report = simulator.run(500, 0);
+
+        assertEquals(report.getBestScore(),
+                simulator.simulateWeek(report.getBestSeed(), true).getScore().getTotal());
+    }
+}
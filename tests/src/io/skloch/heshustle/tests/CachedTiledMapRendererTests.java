@@ -0,0 +1,143 @@
+package io.skloch.heshustle.tests;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.OrthographicCamera;
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.Batch;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.maps.tiled.TiledMap;
+import com.badlogic.gdx.maps.tiled.TiledMapTileLayer;
+import com.badlogic.gdx.maps.tiled.renderers.OrthogonalTiledMapRenderer;
+import com.badlogic.gdx.maps.tiled.tiles.StaticTiledMapTile;
+import com.heslingtonhustle.renderer.CachedTiledMapRenderer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.nio.IntBuffer;
+
+import static org.junit.Assert.*;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.*;
+
+@RunWith(GdxTestRunner.class)
+public class CachedTiledMapRendererTests {
+    // Two chunks across and two up
+    private static final int MAP_TILES = 40;
+    private static final int TILE_SIZE = 16;
+
+    private Texture texture;
+    private TiledMap map;
+    private Batch batch;
+    private CachedTiledMapRenderer renderer;
+    private OrthographicCamera camera;
+
+    @Before
+    public void setUp() {
+        Gdx.gl = Gdx.gl20;
+        // Lets the cache's shader compile and link on the mocked GL
+        when(Gdx.gl20.glCreateShader(anyInt())).thenReturn(1);
+        when(Gdx.gl20.glCreateProgram()).thenReturn(1);
+        doAnswer(invocation -> {
+            ((IntBuffer) invocation.getArguments()[2]).put(0, 1);
+            return null;
+        }).when(Gdx.gl20).glGetShaderiv(anyInt(), eq(GL20.GL_COMPILE_STATUS), any(IntBuffer.class));
+        doAnswer(invocation -> {
+            ((IntBuffer) invocation.getArguments()[2]).put(0, 1);
+            return null;
+        }).when(Gdx.gl20).glGetProgramiv(anyInt(), eq(GL20.GL_LINK_STATUS), any(IntBuffer.class));
+
+        Pixmap pixmap = new Pixmap(TILE_SIZE, TILE_SIZE, Pixmap.Format.RGBA8888);
+        texture = new Texture(pixmap);
+        pixmap.dispose();
+        StaticTiledMapTile tile = new StaticTiledMapTile(new TextureRegion(texture));
+
+        map = new TiledMap();
+        for (int i = 0; i < 2; i++) {
+            TiledMapTileLayer layer = new TiledMapTileLayer(MAP_TILES, MAP_TILES, TILE_SIZE, TILE_SIZE);
+            for (int column = 0; column < MAP_TILES; column++) {
+                for (int row = 0; row < MAP_TILES; row++) {
+                    TiledMapTileLayer.Cell cell = new TiledMapTileLayer.Cell();
+                    cell.setTile(tile);
+                    layer.setCell(column, row, cell);
+                }
+            }
+            map.getLayers().add(layer);
+        }
+
+        batch = mock(Batch.class);
+        when(batch.getColor()).thenReturn(Color.WHITE);
+        renderer = new CachedTiledMapRenderer(map, batch);
+        camera = new OrthographicCamera(MAP_TILES * TILE_SIZE, MAP_TILES * TILE_SIZE);
+        camera.position.set(MAP_TILES * TILE_SIZE / 2f, MAP_TILES * TILE_SIZE / 2f, 0);
+        camera.update();
+    }
+
+    @After
+    public void tearDown() {
+        renderer.dispose();
+        texture.dispose();
+    }
+
+    @Test
+    public void testStaticLayersAreBakedOnce() {
+        renderer.setView(camera);
+        renderer.render();
+        assertEquals(2 * MAP_TILES * MAP_TILES, renderer.getCachedTiles());
+        // A draw call for each chunk, as every tile shares one texture
+        assertEquals(4, renderer.getRenderCalls());
+
+        renderer.setView(camera);
+        renderer.render();
+        assertEquals(2 * MAP_TILES * MAP_TILES, renderer.getCachedTiles());
+        assertEquals(4, renderer.getRenderCalls());
+        // No tile was sent to the batch
+        verify(batch, never()).draw(any(Texture.class), any(float[].class), anyInt(), anyInt());
+    }
+
+    @Test
+    public void testTileByTileRendererSendsEveryTile() {
+        // What the cached renderer saves each frame
+        Batch tileBatch = mock(Batch.class);
+        when(tileBatch.getColor()).thenReturn(Color.WHITE);
+        OrthogonalTiledMapRenderer tileRenderer = new OrthogonalTiledMapRenderer(map, tileBatch);
+        tileRenderer.setView(camera);
+        tileRenderer.render();
+        verify(tileBatch, times(2 * MAP_TILES * MAP_TILES))
+                .draw(any(Texture.class), any(float[].class), anyInt(), anyInt());
+        tileRenderer.dispose();
+    }
+
+    @Test
+    public void testChunksOutOfViewAreSkipped() {
+        // Only the bottom left chunk
+        camera.setToOrtho(false, 10 * TILE_SIZE, 10 * TILE_SIZE);
+        renderer.setView(camera);
+        renderer.render();
+        assertEquals(1, renderer.getRenderCalls());
+    }
+
+    @Test
+    public void testHidingLayerBakesAgain() {
+        renderer.setView(camera);
+        renderer.render();
+
+        map.getLayers().get(1).setVisible(false);
+        renderer.setView(camera);
+        renderer.render();
+        assertEquals(MAP_TILES * MAP_TILES, renderer.getCachedTiles());
+
+        map.getLayers().get(1).setVisible(true);
+        renderer.setView(camera);
+        renderer.render();
+        assertEquals(2 * MAP_TILES * MAP_TILES, renderer.getCachedTiles());
+        // Baked again rather than running out of room and drawing tile by tile
+        verify(batch, never()).draw(any(Texture.class), any(float[].class), anyInt(), anyInt());
+    }
+}
@@ -0,0 +1,90 @@
+package io.skloch.heshustle.tests;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.graphics.g2d.TextureAtlas;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.heslingtonhustle.map.MapManager;
+import com.heslingtonhustle.renderer.AnimationClock;
+import com.heslingtonhustle.renderer.CharacterFrames;
+import com.heslingtonhustle.renderer.CharacterRenderer;
+import com.heslingtonhustle.screens.PlayScreen;
+import com.heslingtonhustle.state.Facing;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.mock;
+
+@RunWith(GdxTestRunner.class)
+public class CharacterFramesTests {
+    private TextureAtlas players;
+    private TextureAtlas npcs;
+
+    @Before
+    public void setUp() {
+        Gdx.gl = Gdx.gl20;
+        players = new TextureAtlas(PlayScreen.playerAtlasAsset);
+        npcs = new TextureAtlas(MapManager.npcAtlasAsset);
+    }
+
+    @After
+    public void tearDown() {
+        players.dispose();
+        npcs.dispose();
+    }
+
+    // findRegions returns copies of the regions, so they can't be compared directly
+    private static void assertSameRegion(TextureRegion expected, TextureRegion actual) {
+        assertEquals(expected.getRegionX(), actual.getRegionX());
+        assertEquals(expected.getRegionY(), actual.getRegionY());
+    }
+
+    @Test
+    public void testFramesMatchAtlasRegions() {
+        CharacterFrames frames = new CharacterFrames(players, "player-0", true);
+        assertSame(players.findRegion("player-0-idle-left"), frames.getFrame(Facing.LEFT, false, 5));
+        assertSame(players.findRegion("player-0-idle-up"), frames.getFrame(Facing.UP, false, 0));
+        // Walking frames go in atlas order, one every WALKING_FRAME_SECONDS
+        assertSameRegion(players.findRegions("player-0-walking-right").get(0), frames.getFrame(Facing.RIGHT, true, 0));
+        assertSameRegion(players.findRegions("player-0-walking-right").get(1),
+                frames.getFrame(Facing.RIGHT, true, CharacterFrames.WALKING_FRAME_SECONDS * 1.5f));
+    }
+
+    @Test
+    public void testNpcsUseIdleFramesWhenMoving() {
+        CharacterFrames frames = new CharacterFrames(npcs, "npc-0", false);
+        for (Facing facing : Facing.values()) {
+            assertSame(frames.getFrame(facing, false, 0), frames.getFrame(facing, true, 1.234f));
+        }
+    }
+
+    @Test
+    public void testSharedClockAnimatesAtTheSameSpeed() {
+        CharacterFrames frames = new CharacterFrames(players, "player-1", true);
+        AnimationClock clock = new AnimationClock();
+        CharacterRenderer[] characters = new CharacterRenderer[100];
+        for (int i = 0; i < characters.length; i++) {
+            characters[i] = new CharacterRenderer(16, 16, frames, clock);
+        }
+
+        // Rendering more characters doesn't make the animation run faster
+        clock.update(CharacterFrames.WALKING_FRAME_SECONDS * 2.5f);
+        TextureRegion expected = players.findRegions("player-1-walking-down").get(2);
+        SpriteBatch batch = mock(SpriteBatch.class);
+        for (CharacterRenderer character : characters) {
+            character.render(batch, 0, 0, Facing.DOWN, true);
+        }
+        for (CharacterRenderer character : characters) {
+            assertSameRegion(expected, character.getCharacterSprite());
+        }
+    }
+
+    @Test(expected = GdxRuntimeException.class)
+    public void testMissingCharacterThrows() {
+        new CharacterFrames(players, "player-9", true);
+    }
+}
@@ -5,6 +5,7 @@ import org.junit.Test;
 import org.junit.runner.RunWith;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
 
 public class ClockTests {
     @Test
@@ -136,6 +137,36 @@ public class ClockTests {
         assertEquals(newDay, clock.getDay());
         assertEquals(newTimeUnits, clock.getRawTime(), 0.0f);
     }
+
+    @Test
+    public void testTimeIsReusedWithinAMinute() {
+        Clock clock = new Clock();
+        clock.setTime(754.1f);
+        String time = clock.getTime();
+        assertEquals("12:34pm", time);
+
+        // The HUD only lays out its text again when this changes
+        clock.setTime(754.9f);
+        assertSame(time, clock.getTime());
+    }
+
+    @Test
+    public void testEveryMinuteOfTheDay() {
+        Clock clock = new Clock();
+        assertEquals("12:00am", timeAt(clock, 0));
+        assertEquals("9:05am", timeAt(clock, 545));
+        assertEquals("11:59am", timeAt(clock, 719));
+        assertEquals("12:00pm", timeAt(clock, 720));
+        assertEquals("1:00pm", timeAt(clock, 780));
+        assertEquals("11:59pm", timeAt(clock, 1439));
+        // Outside of a day is still shown the same way as before
+        assertEquals("12:00am", timeAt(clock, 1440));
+    }
+
+    private static String timeAt(Clock clock, float timeUnits) {
+        clock.setTime(timeUnits);
+        return clock.getTime();
+    }
 }
 // public void passHours(float hours) {
 //        timeUnits += hours * 60;
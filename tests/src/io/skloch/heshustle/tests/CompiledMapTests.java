@@ -0,0 +1,241 @@
+package io.skloch.heshustle.tests;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.assets.AssetManager;
+import com.badlogic.gdx.assets.loaders.resolvers.AbsoluteFileHandleResolver;
+import com.badlogic.gdx.maps.MapLayer;
+import com.badlogic.gdx.maps.MapObject;
+import com.badlogic.gdx.maps.MapProperties;
+import com.badlogic.gdx.maps.objects.RectangleMapObject;
+import com.badlogic.gdx.maps.tiled.TiledMap;
+import com.badlogic.gdx.maps.tiled.TiledMapTile;
+import com.badlogic.gdx.maps.tiled.TiledMapTileLayer;
+import com.badlogic.gdx.maps.tiled.TiledMapTileSet;
+import com.badlogic.gdx.maps.tiled.tiles.AnimatedTiledMapTile;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.heslingtonhustle.assets.AssetManifest;
+import com.heslingtonhustle.map.CompiledMapLoader;
+import com.heslingtonhustle.map.HeadlessTmxMapLoader;
+import com.heslingtonhustle.map.MapCompiler;
+import com.heslingtonhustle.screens.PlayScreen;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Iterator;
+
+import static org.junit.Assert.*;
+
+@RunWith(GdxTestRunner.class)
+public class CompiledMapTests {
+    // Tests run from the tests folder
+    private static final File ASSETS_DIR = new File("../assets");
+    private static TiledMap tmxMap;
+    private static TiledMap compiledMap;
+
+    @BeforeClass
+    public static void compileMap() throws IOException {
+        File compiledFile = File.createTempFile("campusEast", CompiledMapLoader.COMPILED_EXTENSION);
+        compiledFile.deleteOnExit();
+        MapCompiler.compile(new File(ASSETS_DIR, PlayScreen.campusEastMapPath), compiledFile);
+
+        tmxMap = new HeadlessTmxMapLoader().load(PlayScreen.campusEastMapPath);
+        compiledMap = new CompiledMapLoader(new AbsoluteFileHandleResolver()).loadHeadless(compiledFile.getAbsolutePath());
+    }
+
+    @Test
+    public void testMapPropertiesMatch() {
+        assertPropertiesEqual(tmxMap.getProperties(), compiledMap.getProperties());
+    }
+
+    @Test
+    public void testLayersMatch() {
+        assertEquals(tmxMap.getLayers().getCount(), compiledMap.getLayers().getCount());
+        for (int i = 0; i < tmxMap.getLayers().getCount(); i++) {
+            MapLayer expected = tmxMap.getLayers().get(i);
+            MapLayer actual = compiledMap.getLayers().get(i);
+            assertEquals(expected.getName(), actual.getName());
+            assertEquals(expected.getClass(), actual.getClass());
+            assertEquals(expected.isVisible(), actual.isVisible());
+            assertEquals(expected.getOpacity(), actual.getOpacity(), 0);
+            assertPropertiesEqual(expected.getProperties(), actual.getProperties());
+        }
+    }
+
+    @Test
+    public void testTileLayerCellsMatch() {
+        for (int i = 0; i < tmxMap.getLayers().getCount(); i++) {
+            if (!(tmxMap.getLayers().get(i) instanceof TiledMapTileLayer)) continue;
+            TiledMapTileLayer expected = (TiledMapTileLayer) tmxMap.getLayers().get(i);
+            TiledMapTileLayer actual = (TiledMapTileLayer) compiledMap.getLayers().get(i);
+            assertEquals(expected.getWidth(), actual.getWidth());
+            assertEquals(expected.getHeight(), actual.getHeight());
+
+            for (int x = 0; x < expected.getWidth(); x++) {
+                for (int y = 0; y < expected.getHeight(); y++) {
+                    TiledMapTileLayer.Cell expectedCell = expected.getCell(x, y);
+                    TiledMapTileLayer.Cell actualCell = actual.getCell(x, y);
+                    String where = expected.getName() + " at " + x + ", " + y;
+                    if (expectedCell == null) {
+                        assertNull(where, actualCell);
+                        continue;
+                    }
+                    assertNotNull(where, actualCell);
+                    assertEquals(where, expectedCell.getTile().getId(), actualCell.getTile().getId());
+                    assertEquals(where, expectedCell.getFlipHorizontally(), actualCell.getFlipHorizontally());
+                    assertEquals(where, expectedCell.getFlipVertically(), actualCell.getFlipVertically());
+                    assertEquals(where, expectedCell.getRotation(), actualCell.getRotation());
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testObjectsMatch() {
+        for (int i = 0; i < tmxMap.getLayers().getCount(); i++) {
+            MapLayer expected = tmxMap.getLayers().get(i);
+            if (expected instanceof TiledMapTileLayer) continue;
+            MapLayer actual = compiledMap.getLayers().get(i);
+            assertEquals(expected.getObjects().getCount(), actual.getObjects().getCount());
+
+            for (int j = 0; j < expected.getObjects().getCount(); j++) {
+                MapObject expectedObject = expected.getObjects().get(j);
+                MapObject actualObject = actual.getObjects().get(j);
+                assertEquals(expectedObject.getName(), actualObject.getName());
+                assertEquals(((RectangleMapObject) expectedObject).getRectangle(),
+                        ((RectangleMapObject) actualObject).getRectangle());
+                assertPropertiesEqual(expectedObject.getProperties(), actualObject.getProperties());
+            }
+        }
+    }
+
+    @Test
+    public void testTilesMatch() {
+        // Tileset names aren't unique, so match them up by their order
+        Iterator<TiledMapTileSet> actualTileSets = compiledMap.getTileSets().iterator();
+        for (TiledMapTileSet expectedTileSet : tmxMap.getTileSets()) {
+            assertTrue(actualTileSets.hasNext());
+            TiledMapTileSet actualTileSet = actualTileSets.next();
+            assertEquals(expectedTileSet.getName(), actualTileSet.getName());
+            assertEquals(expectedTileSet.size(), actualTileSet.size());
+
+            for (TiledMapTile expectedTile : expectedTileSet) {
+                TiledMapTile actualTile = actualTileSet.getTile(expectedTile.getId());
+                assertNotNull(actualTile);
+                assertEquals(expectedTile.getClass(), actualTile.getClass());
+                assertPropertiesEqual(expectedTile.getProperties(), actualTile.getProperties());
+                if (expectedTile instanceof AnimatedTiledMapTile) {
+                    AnimatedTiledMapTile expectedAnimation = (AnimatedTiledMapTile) expectedTile;
+                    AnimatedTiledMapTile actualAnimation = (AnimatedTiledMapTile) actualTile;
+                    assertArrayEquals(expectedAnimation.getAnimationIntervals(), actualAnimation.getAnimationIntervals());
+                    for (int i = 0; i < expectedAnimation.getFrameTiles().length; i++) {
+                        assertEquals(expectedAnimation.getFrameTiles()[i].getId(), actualAnimation.getFrameTiles()[i].getId());
+                    }
+                }
+            }
+        }
+        assertFalse(actualTileSets.hasNext());
+    }
+
+    @Test(expected = GdxRuntimeException.class)
+    public void testLoadingOtherFilesFails() throws IOException {
+        File notCompiled = File.createTempFile("notCompiled", CompiledMapLoader.COMPILED_EXTENSION);
+        notCompiled.deleteOnExit();
+        Files.write(notCompiled.toPath(), "<map></map>".getBytes());
+
+        new CompiledMapLoader(new AbsoluteFileHandleResolver()).loadHeadless(notCompiled.getAbsolutePath());
+    }
+
+    @Test
+    public void testStaleCompiledMapIsIgnored() throws IOException {
+        File folder = Files.createTempDirectory("maps").toFile();
+        File tmxFile = new File(folder, "map.tmx");
+        File compiledFile = new File(CompiledMapLoader.compiledPath(tmxFile.getAbsolutePath()));
+        Files.write(tmxFile.toPath(), new byte[0]);
+        Files.write(compiledFile.toPath(), new byte[0]);
+        tmxFile.deleteOnExit();
+        compiledFile.deleteOnExit();
+        folder.deleteOnExit();
+
+        assertTrue(compiledFile.setLastModified(tmxFile.lastModified() + 10000));
+        assertEquals(compiledFile.getAbsolutePath(), CompiledMapLoader.findMapFile(tmxFile.getAbsolutePath()));
+        // The map was edited after compiling
+        assertTrue(compiledFile.setLastModified(tmxFile.lastModified() - 10000));
+        assertEquals(tmxFile.getAbsolutePath(), CompiledMapLoader.findMapFile(tmxFile.getAbsolutePath()));
+    }
+
+    @Test
+    public void testCompiledMapIsStaleWhenTilesetChanges() throws IOException {
+        File folder = Files.createTempDirectory("maps").toFile();
+        File tmxFile = new File(folder, "map.tmx");
+        File tilesetFile = new File(folder, "tiles.tsx");
+        File imageFile = new File(folder, "tiles.png");
+        Files.write(tmxFile.toPath(), ("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n"
+                + "<map version=\"1.10\" orientation=\"orthogonal\" renderorder=\"right-down\" width=\"2\" height=\"2\""
+                + " tilewidth=\"16\" tileheight=\"16\" infinite=\"0\" nextlayerid=\"2\" nextobjectid=\"1\">\n"
+                + " <tileset firstgid=\"1\" source=\"tiles.tsx\"/>\n"
+                + " <layer id=\"1\" name=\"Ground\" width=\"2\" height=\"2\">\n"
+                + "  <data encoding=\"csv\">1,2,3,4</data>\n"
+                + " </layer>\n"
+                + "</map>\n").getBytes());
+        Files.write(tilesetFile.toPath(), ("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n"
+                + "<tileset version=\"1.10\" name=\"tiles\" tilewidth=\"16\" tileheight=\"16\" tilecount=\"4\" columns=\"2\">\n"
+                + " <image source=\"tiles.png\" width=\"32\" height=\"32\"/>\n"
+                + "</tileset>\n").getBytes());
+        Files.write(imageFile.toPath(), new byte[0]);
+        File compiledFile = new File(CompiledMapLoader.compiledPath(tmxFile.getAbsolutePath()));
+        MapCompiler.compile(tmxFile, compiledFile);
+        for (File file : new File[]{tmxFile, tilesetFile, imageFile, compiledFile, folder}) {
+            file.deleteOnExit();
+        }
+
+        long compiledTime = tmxFile.lastModified() + 10000;
+        assertTrue(compiledFile.setLastModified(compiledTime));
+        assertTrue(tilesetFile.setLastModified(compiledTime - 10000));
+        assertTrue(imageFile.setLastModified(compiledTime - 10000));
+        assertEquals(compiledFile.getAbsolutePath(), CompiledMapLoader.findMapFile(tmxFile.getAbsolutePath()));
+
+        // The tileset was edited after compiling, but the map wasn't
+        assertTrue(tilesetFile.setLastModified(compiledTime + 10000));
+        assertEquals(tmxFile.getAbsolutePath(), CompiledMapLoader.findMapFile(tmxFile.getAbsolutePath()));
+
+        // So was its image
+        assertTrue(tilesetFile.setLastModified(compiledTime - 10000));
+        assertTrue(imageFile.setLastModified(compiledTime + 10000));
+        assertEquals(tmxFile.getAbsolutePath(), CompiledMapLoader.findMapFile(tmxFile.getAbsolutePath()));
+    }
+
+    private static void assertPropertiesEqual(MapProperties expected, MapProperties actual) {
+        int count = 0;
+        Iterator<String> keys = expected.getKeys();
+        while (keys.hasNext()) {
+            String key = keys.next();
+            assertEquals(key, expected.get(key), actual.get(key));
+            count++;
+        }
+        Iterator<String> actualKeys = actual.getKeys();
+        while (actualKeys.hasNext()) {
+            actualKeys.next();
+            count--;
+        }
+        assertEquals(0, count);
+    }
+
+    @Test
+    public void testAssetManagerLoadsUncompiledMap() {
+        Gdx.gl = Gdx.gl20;
+        AssetManager assets = AssetManifest.createAssetManager();
+        try {
+            // Tests run without the maps being compiled
+            assets.load(PlayScreen.campusEastMapPath, TiledMap.class);
+            assets.finishLoading();
+            TiledMap map = assets.get(PlayScreen.campusEastMapPath, TiledMap.class);
+            assertEquals(tmxMap.getLayers().getCount(), map.getLayers().getCount());
+        } finally {
+            assets.dispose();
+        }
+    }
+}
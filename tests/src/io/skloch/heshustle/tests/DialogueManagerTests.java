@@ -126,5 +126,75 @@ public class DialogueManagerTests {
         assertEquals(-1, dialogueManager.getSelectedOption());
     }
 
+    @Test
+    public void testQueueKeepsOrderWhenWrappingAndGrowing() {
+        DialogueManager dialogueManager = new DialogueManager(null);
+        int next = 0;
+        int expected = 0;
+        // Fill and empty the queue by different amounts so it wraps around and grows
+        for (int round = 1; round <= 20; round++) {
+            for (int i = 0; i < round; i++) {
+                dialogueManager.addDialogue("message " + next++);
+            }
+            for (int i = 0; i < round / 2; i++) {
+                assertEquals("message " + expected++, dialogueManager.getMessage());
+                dialogueManager.submit();
+            }
+        }
+        while (!dialogueManager.isEmpty()) {
+            assertEquals("message " + expected++, dialogueManager.getMessage());
+            dialogueManager.submit();
+        }
+        assertEquals(next, expected);
+        assertNull(dialogueManager.getMessage());
+    }
+
+    @Test
+    public void testCallbackCanAddDialogue() {
+        DialogueManager dialogueManager = new DialogueManager(null);
+        int[] chosen = {-1};
+        // The callback's dialogue reuses the box being submitted
+        dialogueManager.addDialogue("Continue?", DialogueManager.YES_NO, selectedOption -> {
+            chosen[0] = selectedOption;
+            dialogueManager.addDialogue("Chose " + selectedOption);
+        });
+        dialogueManager.increaseSelection();
+        dialogueManager.submit();
+
+        assertEquals(1, chosen[0]);
+        assertEquals("Chose 1", dialogueManager.getMessage());
+        assertNull(dialogueManager.getOptions());
+        assertEquals(0, dialogueManager.getSelectedOption());
+    }
+
+    @Test
+    public void testReusedBoxesStartAtFirstOption() {
+        DialogueManager dialogueManager = new DialogueManager(null);
+        for (int i = 0; i < 50; i++) {
+            dialogueManager.addDialogue("Are you sure?", DialogueManager.YES_NO);
+            assertEquals(0, dialogueManager.getSelectedOption());
+            assertSame(DialogueManager.YES_NO, dialogueManager.getOptions());
+            dialogueManager.increaseSelection();
+            dialogueManager.submit();
+        }
+        assertTrue(dialogueManager.isEmpty());
+    }
+
+    @Test
+    public void testSelectionMovesBeforeSubmitting() {
+        DialogueManager dialogueManager = new DialogueManager(null);
+        int[] chosen = {-1};
+        dialogueManager.addDialogue("Continue?", DialogueManager.YES_NO, selectedOption -> chosen[0] = selectedOption);
+
+        // Pressed on the same tick, the selection always moves first
+        dialogueManager.handleAction(EnumSet.of(Action.INTERACT, Action.MOVE_DOWN));
 
+        assertEquals(1, chosen[0]);
+        assertTrue(dialogueManager.isEmpty());
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testSharedOptionsCantBeChanged() {
+        DialogueManager.YES_NO.set(0, "Maybe");
+    }
 }
\ No newline at end of file
@@ -0,0 +1,94 @@
+package io.skloch.heshustle.tests;
+
+import com.badlogic.gdx.math.Vector2;
+import com.heslingtonhustle.map.MapManager;
+import com.heslingtonhustle.simulation.GameSimulation;
+import com.heslingtonhustle.sound.SoundController;
+import com.heslingtonhustle.state.Action;
+import com.heslingtonhustle.state.DialogueManager;
+import com.heslingtonhustle.state.Player;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.lang.management.ManagementFactory;
+import java.util.EnumSet;
+
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+@RunWith(GdxTestRunner.class)
+public class FrameAllocationTests {
+    private static final String MAP = "Maps/campusEast.tmx";
+    // Long enough for everything to have been used and compiled at least once
+    private static final int WARMUP_TICKS = 5000;
+    private static final int MEASURED_TICKS = 10000;
+    // How long to walk each way, so the player paces around the spawn point
+    private static final int PACE_TICKS = 40;
+
+    private final EnumSet<Action> noActions = EnumSet.noneOf(Action.class);
+    private final EnumSet<Action> interact = EnumSet.noneOf(Action.class);
+    private final EnumSet<Action> walkLeft = EnumSet.noneOf(Action.class);
+    private final EnumSet<Action> walkRight = EnumSet.noneOf(Action.class);
+    private final Vector2 position = new Vector2();
+    private final Vector2 pixelPosition = new Vector2();
+
+    /**
+     * @return The HotSpot thread bean, which can count the bytes a thread allocates
+     */
+    private static com.sun.management.ThreadMXBean threadBean() {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        assumeTrue(bean instanceof com.sun.management.ThreadMXBean);
+        com.sun.management.ThreadMXBean threadBean = (com.sun.management.ThreadMXBean) bean;
+        assumeTrue(threadBean.isThreadAllocatedMemorySupported());
+        threadBean.setThreadAllocatedMemoryEnabled(true);
+        return threadBean;
+    }
+
+    /**
+     * Runs what a frame does with the game logic, one tick then converting
+     * the player's position to pixels to draw them
+     */
+    private void frame(GameSimulation simulation, int tick) {
+        EnumSet<Action> held = (tick / PACE_TICKS) % 2 == 0 ? walkLeft : walkRight;
+        simulation.tick(held, noActions);
+
+        Player player = simulation.getPlayer();
+        simulation.getMapManager().worldToPixelCoords(player.getPosition(position), pixelPosition);
+        player.getCentre(position);
+    }
+
+    @Test
+    public void testSteadyStateFramesDontAllocate() {
+        com.sun.management.ThreadMXBean threadBean = threadBean();
+        long thread = Thread.currentThread().getId();
+
+        interact.add(Action.INTERACT);
+        walkLeft.add(Action.MOVE_LEFT);
+        walkRight.add(Action.MOVE_RIGHT);
+        GameSimulation simulation = new GameSimulation(
+                new DialogueManager(new SoundController()), new MapManager(true), MAP);
+        // Close the start of day dialogue so the player can move
+        simulation.tick(noActions, interact);
+        assertTrue(simulation.getDialogueManager().isEmpty());
+
+        for (int tick = 0; tick < WARMUP_TICKS; tick++) {
+            frame(simulation, tick);
+        }
+
+        // Reading the counter can allocate itself, so take that away
+        long overheadStart = threadBean.getThreadAllocatedBytes(thread);
+        long overhead = threadBean.getThreadAllocatedBytes(thread) - overheadStart;
+
+        long start = threadBean.getThreadAllocatedBytes(thread);
+        for (int tick = 0; tick < MEASURED_TICKS; tick++) {
+            frame(simulation, tick);
+        }
+        long allocated = threadBean.getThreadAllocatedBytes(thread) - start - overhead;
+
+        assertTrue("Player didn't move", simulation.getPlayer().getDistanceTravelled() > 0);
+        // Anything allocated every frame would be at least 16 bytes a frame. The JIT can still
+        // allocate the odd object when it deoptimises, so allow less than a byte a frame for that
+        assertTrue("Allocated " + allocated + " bytes over " + MEASURED_TICKS + " ticks",
+                allocated < MEASURED_TICKS);
+    }
+}
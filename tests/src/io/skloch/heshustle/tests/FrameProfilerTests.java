@@ -0,0 +1,136 @@
+package io.skloch.heshustle.tests;
+
+import com.badlogic.gdx.files.FileHandle;
+import com.heslingtonhustle.profiling.FrameProfiler;
+import com.heslingtonhustle.profiling.FrameProfiler.Counter;
+import com.heslingtonhustle.profiling.FrameProfiler.Phase;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+
+import static org.junit.Assert.*;
+
+public class FrameProfilerTests {
+    // A clock that only moves when told to
+    private long now;
+
+    private FrameProfiler newProfiler() {
+        FrameProfiler profiler = new FrameProfiler(() -> now);
+        profiler.setEnabled(true);
+        return profiler;
+    }
+
+    /**
+     * Records a frame where the logic phase takes the given time, and the whole frame twice that
+     */
+    private void recordFrame(FrameProfiler profiler, long logicNanos, int drawCalls) {
+        profiler.beginFrame();
+        profiler.start(Phase.LOGIC);
+        now += logicNanos;
+        profiler.stop(Phase.LOGIC);
+        now += logicNanos;
+        profiler.endFrame(drawCalls, 1, 2);
+    }
+
+    @Test
+    public void testPercentiles() {
+        FrameProfiler profiler = newProfiler();
+        for (int i = 1; i <= 100; i++) {
+            recordFrame(profiler, i, i % 10);
+        }
+
+        assertEquals(100, profiler.getSampleCount());
+        assertEquals(50, profiler.getPercentile(Phase.LOGIC, 0.5f));
+        assertEquals(99, profiler.getPercentile(Phase.LOGIC, 0.99f));
+        assertEquals(100, profiler.getPercentile(Phase.LOGIC, 1f));
+        assertEquals(200, profiler.getFramePercentile(1f));
+        assertEquals(0, profiler.getPercentile(Phase.MAP, 1f));
+        assertEquals(9, profiler.getPercentile(Counter.DRAW_CALLS, 1f));
+        assertEquals(0, profiler.getLast(Counter.DRAW_CALLS));
+    }
+
+    @Test
+    public void testPhaseTimesAddUpWithinFrame() {
+        FrameProfiler profiler = newProfiler();
+        profiler.beginFrame();
+        for (int tick = 0; tick < 3; tick++) {
+            profiler.start(Phase.COLLISION);
+            now += 10;
+            profiler.stop(Phase.COLLISION);
+        }
+        profiler.endFrame(0, 0, 0);
+
+        assertEquals(30, profiler.getPercentile(Phase.COLLISION, 1f));
+    }
+
+    @Test
+    public void testWindowKeepsNewestFrames() {
+        FrameProfiler profiler = newProfiler();
+        for (int i = 1; i <= FrameProfiler.WINDOW + 50; i++) {
+            recordFrame(profiler, i, 0);
+        }
+
+        assertEquals(FrameProfiler.WINDOW, profiler.getSampleCount());
+        assertEquals(FrameProfiler.WINDOW + 50, profiler.getFramesRecorded());
+        // The first 50 frames have been replaced
+        assertEquals(51, profiler.getPercentile(Phase.LOGIC, 0f));
+        assertEquals(FrameProfiler.WINDOW + 50, profiler.getPercentile(Phase.LOGIC, 1f));
+    }
+
+    @Test
+    public void testDisabledRecordsNothing() {
+        FrameProfiler profiler = new FrameProfiler(() -> now);
+        recordFrame(profiler, 10, 5);
+
+        assertEquals(0, profiler.getSampleCount());
+        assertEquals(0, profiler.getPercentile(Phase.LOGIC, 0.5f));
+
+        // Turning it on again starts from an empty window
+        profiler.setEnabled(true);
+        recordFrame(profiler, 10, 5);
+        profiler.setEnabled(false);
+        profiler.setEnabled(true);
+        assertEquals(0, profiler.getSampleCount());
+    }
+
+    @Test
+    public void testInputLatency() {
+        FrameProfiler profiler = newProfiler();
+        now = 1_000_000;
+        // Pressed before the frame started
+        long pressed = now - 4_000_000;
+        profiler.beginFrame();
+        profiler.inputUsed(pressed + 1_000_000);
+        profiler.inputUsed(pressed);
+        now += 16_000_000;
+        profiler.endFrame(0, 0, 0);
+        assertEquals(20_000, profiler.getLast(Counter.INPUT_LATENCY_US));
+
+        // Frames without input count as none
+        recordFrame(profiler, 10, 0);
+        assertEquals(0, profiler.getLast(Counter.INPUT_LATENCY_US));
+        assertEquals(20_000, profiler.getPercentile(Counter.INPUT_LATENCY_US, 1f));
+    }
+
+    @Test
+    public void testWriteCsv() throws IOException {
+        FrameProfiler profiler = newProfiler();
+        recordFrame(profiler, 10, 4);
+        recordFrame(profiler, 20, 6);
+
+        File file = File.createTempFile("profile", ".csv");
+        file.deleteOnExit();
+        profiler.writeCsv(new FileHandle(file));
+        String[] lines = new FileHandle(file).readString().split("\n");
+
+        assertEquals(3, lines.length);
+        assertEquals("frame,frame_ns,input_ns,logic_ns,collision_ns,triggers_ns,hud_update_ns,map_ns,"
+                + "characters_ns,hud_draw_ns,draw_calls,texture_bindings,batch_flushes,garbage_collections,"
+                + "input_latency_us", lines[0]);
+        assertTrue(lines[1].startsWith("0,20,0,10,"));
+        assertTrue(lines[2].startsWith("1,40,0,20,"));
+        assertEquals(15, lines[2].split(",").length);
+        assertTrue(lines[2].contains(",6,1,2,"));
+    }
+}
@@ -0,0 +1,178 @@
+package io.skloch.heshustle.tests;
+
+import com.badlogic.gdx.math.Vector2;
+import com.heslingtonhustle.input.ScriptedInputHandler;
+import com.heslingtonhustle.map.MapManager;
+import com.heslingtonhustle.simulation.GameSimulation;
+import com.heslingtonhustle.sound.SoundController;
+import com.heslingtonhustle.state.Action;
+import com.heslingtonhustle.state.DialogueManager;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.HashSet;
+
+import static org.junit.Assert.*;
+
+@RunWith(GdxTestRunner.class)
+public class GameSimulationTests {
+    private static final String MAP = "Maps/campusEast.tmx";
+    // A sleep trigger on campusEast, in world units
+    private static final Vector2 SLEEP_TRIGGER = new Vector2(88.2f, 70f);
+    // The trigger on campusEast leading into town
+    private static final Vector2 TOWN_TRIGGER = new Vector2(42f, 75f);
+    private static final String TOWN_MAP = "Maps/urbanMap.tmx";
+
+    private GameSimulation newSimulation() {
+        return new GameSimulation(new DialogueManager(new SoundController()), new MapManager(true), MAP);
+    }
+
+    @Test
+    public void testHeadlessMapLoadsObjects() {
+        GameSimulation simulation = newSimulation();
+
+        assertTrue(simulation.getMapManager().isHeadless());
+        assertEquals(simulation.getMapManager().getSpawnPoint(), simulation.getPlayer().getPosition());
+        assertFalse(simulation.getDialogueManager().isEmpty());
+    }
+
+    @Test
+    public void testScriptedInputMovesPlayer() {
+        GameSimulation simulation = newSimulation();
+        Vector2 start = simulation.getPlayer().getPosition();
+        ScriptedInputHandler input = new ScriptedInputHandler()
+                .press(Action.INTERACT)
+                .hold(30, Action.MOVE_DOWN);
+
+        simulation.run(input, input.totalTicks());
+
+        assertTrue(simulation.getDialogueManager().isEmpty());
+        assertTrue(simulation.getPlayer().getPosition().y < start.y);
+        assertEquals(start.x, simulation.getPlayer().getPosition().x, 0.001f);
+    }
+
+    @Test
+    public void testPausedSimulationStopsTime() {
+        GameSimulation simulation = newSimulation();
+        float time = simulation.getState().getClock().getRawTime();
+
+        simulation.setPaused(true);
+        simulation.run(new ScriptedInputHandler().hold(60, Action.MOVE_UP), 60);
+
+        assertEquals(time, simulation.getState().getClock().getRawTime(), 0f);
+    }
+
+    @Test
+    public void testSleepingEveryDayFinishesGame() {
+        GameSimulation simulation = newSimulation();
+        simulation.getPlayer().setPosition(SLEEP_TRIGGER);
+        // Mash interact, which sleeps whenever there's no dialogue
+        ScriptedInputHandler input = new ScriptedInputHandler()
+                .press(Action.INTERACT)
+                .waitTicks(10);
+        input.setLooping(true);
+
+        long ticks = simulation.run(input, 60 * 60 * 10);
+
+        assertTrue(simulation.isGameOver());
+        assertEquals(8, simulation.getState().getDay());
+        assertEquals(7, simulation.getState().getActivities().get("sleep").getTimesCompleted());
+        assertEquals(ticks, simulation.getTicks());
+    }
+
+    @Test
+    public void testMapPrefetchedNearTrigger() {
+        GameSimulation simulation = newSimulation();
+        MapManager mapManager = simulation.getMapManager();
+        assertFalse(mapManager.isPrefetched(TOWN_MAP));
+
+        simulation.getPlayer().setPosition(TOWN_TRIGGER);
+        simulation.tick(new HashSet<>(), new HashSet<>());
+
+        assertNotNull(simulation.getNearestTrigger());
+        assertTrue(mapManager.isPrefetched(TOWN_MAP));
+        assertFalse(mapManager.getLoadedMaps().contains(TOWN_MAP));
+    }
+
+    @Test
+    public void testPrefetchedMapIsUsedWhenLoaded() {
+        MapManager mapManager = new MapManager(true);
+        mapManager.prefetchMap(TOWN_MAP);
+        mapManager.loadMap(TOWN_MAP);
+
+        assertFalse(mapManager.isPrefetched(TOWN_MAP));
+        assertEquals(1, mapManager.getLoadedMaps().getMisses());
+        assertSame(mapManager.getLoadedMaps().get(TOWN_MAP), mapManager.getCurrentMap());
+        assertNotNull(mapManager.getSpawnPoint());
+        mapManager.dispose();
+    }
+
+    @Test
+    public void testReloadingCachedMapDoesNotAddNpcsAgain() {
+        MapManager mapManager = new MapManager(true);
+        mapManager.loadMap(MAP);
+        int collisions = mapManager.getCurrentMap().getLayers().get("Collisions").getObjects().getCount();
+        int triggers = mapManager.getCurrentMap().getLayers().get("Triggers").getObjects().getCount();
+
+        // campusEast has silent NPCs, which only collide
+        mapManager.loadMap(TOWN_MAP);
+        mapManager.loadMap(MAP);
+        mapManager.loadMap(MAP);
+
+        assertEquals(collisions, mapManager.getCurrentMap().getLayers().get("Collisions").getObjects().getCount());
+        assertEquals(triggers, mapManager.getCurrentMap().getLayers().get("Triggers").getObjects().getCount());
+        mapManager.dispose();
+    }
+
+    @Test
+    public void testFailedPrefetchIsForgotten() {
+        MapManager mapManager = new MapManager(true);
+        mapManager.prefetchMap("Maps/missing.tmx");
+        assertTrue(mapManager.isPrefetched("Maps/missing.tmx"));
+
+        // Loading it again straight away fails too, but not from the old prefetch
+        try {
+            mapManager.loadMap("Maps/missing.tmx");
+            fail("A missing map shouldn't load");
+        } catch (RuntimeException e) {
+            assertFalse(mapManager.isPrefetched("Maps/missing.tmx"));
+        }
+
+        // Prefetching and loading work as normal afterwards
+        mapManager.prefetchMap(TOWN_MAP);
+        mapManager.loadMap(TOWN_MAP);
+        assertSame(mapManager.getLoadedMaps().get(TOWN_MAP), mapManager.getCurrentMap());
+        mapManager.dispose();
+    }
+
+    @Test
+    public void testParsedScriptMatchesBuiltScript() {
+        ScriptedInputHandler parsed = ScriptedInputHandler.parse(
+                "# walk then talk\n" +
+                "hold MOVE_UP,MOVE_RIGHT 3\n" +
+                "\n" +
+                "press interact\n" +
+                "wait 2\n");
+
+        assertEquals(6, parsed.totalTicks());
+        parsed.nextTick();
+        assertTrue(parsed.getHeldActions().contains(Action.MOVE_UP));
+        assertTrue(parsed.getHeldActions().contains(Action.MOVE_RIGHT));
+        parsed.nextTick();
+        parsed.nextTick();
+        parsed.nextTick();
+        assertTrue(parsed.getHeldActions().isEmpty());
+        assertTrue(parsed.getPressedActions().contains(Action.INTERACT));
+        parsed.nextTick();
+        parsed.nextTick();
+        assertTrue(parsed.getPressedActions().isEmpty());
+        assertFalse(parsed.isFinished());
+        parsed.nextTick();
+        assertTrue(parsed.isFinished());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testBadScriptThrows() {
+        ScriptedInputHandler.parse("jump INTERACT");
+    }
+}
@@ -0,0 +1,83 @@
+package io.skloch.heshustle.tests;
+
+import com.heslingtonhustle.input.InputEventQueue;
+import com.heslingtonhustle.state.Action;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class InputEventQueueTests {
+    private static final Action[] ACTIONS = Action.values();
+
+    @Test
+    public void testEventsComeOutInOrder() {
+        InputEventQueue queue = new InputEventQueue(4);
+        assertFalse(queue.poll());
+        assertEquals(Long.MAX_VALUE, queue.peekTime());
+
+        // Wrap around the buffer a few times
+        for (int i = 0; i < 10; i++) {
+            assertTrue(queue.offer(ACTIONS[i % ACTIONS.length], i % 2 == 0, i));
+            assertTrue(queue.offer(Action.PAUSE, false, i + 100));
+            assertEquals(2, queue.size());
+            assertEquals(i, queue.peekTime());
+
+            assertTrue(queue.poll());
+            assertEquals(ACTIONS[i % ACTIONS.length], queue.getAction());
+            assertEquals(i % 2 == 0, queue.isDown());
+            assertEquals(i, queue.getTime());
+            assertTrue(queue.poll());
+            assertEquals(i + 100, queue.getTime());
+            assertTrue(queue.isEmpty());
+        }
+    }
+
+    @Test
+    public void testFullQueueDropsEvents() {
+        InputEventQueue queue = new InputEventQueue(2);
+        assertTrue(queue.offer(Action.MOVE_UP, true, 1));
+        assertTrue(queue.offer(Action.MOVE_UP, false, 2));
+        assertFalse(queue.offer(Action.INTERACT, true, 3));
+        assertEquals(1, queue.getDropped());
+
+        // The events already queued are kept
+        assertTrue(queue.poll());
+        assertEquals(1, queue.getTime());
+        assertTrue(queue.offer(Action.INTERACT, true, 3));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testCapacityMustBePowerOfTwo() {
+        new InputEventQueue(100);
+    }
+
+    @Test
+    public void testProducerAndConsumerThreads() throws InterruptedException {
+        InputEventQueue queue = new InputEventQueue(64);
+        int events = 200_000;
+        Thread producer = new Thread(() -> {
+            for (int i = 0; i < events; i++) {
+                // Wait for space rather than dropping, so every event can be checked
+                while (!queue.offer(ACTIONS[i % ACTIONS.length], i % 3 == 0, i)) {
+                    Thread.yield();
+                }
+            }
+        }, "Input producer");
+        producer.start();
+
+        int received = 0;
+        while (received < events) {
+            if (!queue.poll()) {
+                Thread.yield();
+                continue;
+            }
+            // Each event is whole and in order
+            assertEquals(received, queue.getTime());
+            assertEquals(ACTIONS[received % ACTIONS.length], queue.getAction());
+            assertEquals(received % 3 == 0, queue.isDown());
+            received++;
+        }
+        producer.join();
+        assertTrue(queue.isEmpty());
+    }
+}
@@ -5,10 +5,12 @@ import com.heslingtonhustle.state.Action;
 import org.junit.Test;
 import com.badlogic.gdx.Input.Keys;
 
+import java.util.EnumSet;
 import java.util.HashSet;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 
 public class KeyboardInputHandlerTests {
 
@@ -22,6 +24,7 @@ public class KeyboardInputHandlerTests {
         newPressedActions.add(Action.MOVE_RIGHT);
 
         keyboardInputHandler.keyDown(keycode);
+        keyboardInputHandler.processEvents();
 
         assertEquals(newHeldActions, keyboardInputHandler.getHeldActions());
         assertEquals(newPressedActions, keyboardInputHandler.getPressedActions());
@@ -42,6 +45,7 @@ public class KeyboardInputHandlerTests {
         HashSet<Action> newPressedActions = new HashSet<>();
 
         keyboardInputHandler.keyUp(keycode);
+        keyboardInputHandler.processEvents();
 
         assertEquals(newHeldActions, keyboardInputHandler.getHeldActions());
         assertEquals(newPressedActions, keyboardInputHandler.getPressedActions());
@@ -65,4 +69,65 @@ public class KeyboardInputHandlerTests {
 
         assertEquals(newPressedActionsLength, keyboardInputHandler.getPressedActions().size());
     }
+
+    @Test
+    public void testKeysOutsideTheKeymap() {
+        KeyboardInputHandler keyboardInputHandler = new KeyboardInputHandler();
+        assertFalse(keyboardInputHandler.keyDown(Keys.ANY_KEY));
+        assertFalse(keyboardInputHandler.keyUp(Keys.ANY_KEY));
+        assertFalse(keyboardInputHandler.keyDown(Keys.MAX_KEYCODE + 1));
+        assertTrue(keyboardInputHandler.getEvents().isEmpty());
+    }
+
+    @Test
+    public void testTwoKeysForOneAction() {
+        KeyboardInputHandler keyboardInputHandler = new KeyboardInputHandler();
+        assertTrue(keyboardInputHandler.keyDown(Keys.W));
+        assertTrue(keyboardInputHandler.keyDown(Keys.UP));
+        assertTrue(keyboardInputHandler.keyDown(Keys.E));
+        keyboardInputHandler.processEvents();
+        assertEquals(2, keyboardInputHandler.getHeldActions().size());
+        assertTrue(keyboardInputHandler.getHeldActions().contains(Action.MOVE_UP));
+        assertTrue(keyboardInputHandler.getPressedActions().contains(Action.INTERACT));
+
+        keyboardInputHandler.keyUp(Keys.UP);
+        keyboardInputHandler.processEvents();
+        assertFalse(keyboardInputHandler.getHeldActions().contains(Action.MOVE_UP));
+        assertTrue(keyboardInputHandler.getHeldActions().contains(Action.INTERACT));
+    }
+
+    @Test
+    public void testTapWithinAFrameIsKept() {
+        KeyboardInputHandler keyboardInputHandler = new KeyboardInputHandler();
+        keyboardInputHandler.keyDown(Keys.E);
+        keyboardInputHandler.keyUp(Keys.E);
+        keyboardInputHandler.processEvents();
+
+        assertTrue(keyboardInputHandler.getPressedActions().contains(Action.INTERACT));
+        assertFalse(keyboardInputHandler.getHeldActions().contains(Action.INTERACT));
+    }
+
+    @Test
+    public void testEventsAreProcessedUpToATime() {
+        long[] now = {0};
+        KeyboardInputHandler keyboardInputHandler = new KeyboardInputHandler(() -> now[0]);
+        now[0] = 100;
+        keyboardInputHandler.keyDown(Keys.W);
+        now[0] = 200;
+        keyboardInputHandler.keyUp(Keys.W);
+        keyboardInputHandler.keyDown(Keys.D);
+
+        // Only the first tick's worth
+        keyboardInputHandler.processEvents(150);
+        assertEquals(EnumSet.of(Action.MOVE_UP), keyboardInputHandler.getHeldActions());
+        assertEquals(2, keyboardInputHandler.getEvents().size());
+        assertEquals(100, keyboardInputHandler.takeOldestEventTime());
+        assertEquals(-1, keyboardInputHandler.takeOldestEventTime());
+
+        keyboardInputHandler.resetPressedActions();
+        keyboardInputHandler.processEvents(200);
+        assertEquals(EnumSet.of(Action.MOVE_RIGHT), keyboardInputHandler.getHeldActions());
+        assertEquals(EnumSet.of(Action.MOVE_RIGHT), keyboardInputHandler.getPressedActions());
+        assertTrue(keyboardInputHandler.getEvents().isEmpty());
+    }
 }
\ No newline at end of file
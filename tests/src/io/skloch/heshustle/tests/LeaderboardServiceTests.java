@@ -0,0 +1,228 @@
+package io.skloch.heshustle.tests;
+
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.heslingtonhustle.leaderboard.LeaderboardClient;
+import com.heslingtonhustle.leaderboard.LeaderboardServer;
+import com.heslingtonhustle.leaderboard.LeaderboardStore;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.ServerSocket;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class LeaderboardServiceTests {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private LeaderboardStore store;
+    private LeaderboardServer server;
+
+    @Before
+    public void setUp() throws IOException {
+        store = new LeaderboardStore(new File(folder.getRoot(), "server.log"), false);
+        server = new LeaderboardServer(store, "localhost", 0, 8);
+    }
+
+    @After
+    public void tearDown() {
+        server.stop();
+        store.close();
+    }
+
+    private String request(String method, String path, String body) throws IOException {
+        URL url = new URL("http://localhost:" + server.getPort() + path);
+        HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+        connection.setRequestMethod(method);
+        if (body != null) {
+            connection.setDoOutput(true);
+            try (OutputStream out = connection.getOutputStream()) {
+                out.write(body.getBytes(StandardCharsets.UTF_8));
+            }
+        }
+        assertEquals(200, connection.getResponseCode());
+        try (InputStream in = connection.getInputStream()) {
+            ByteArrayOutputStream reply = new ByteArrayOutputStream();
+            byte[] buffer = new byte[1024];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                reply.write(buffer, 0, read);
+            }
+            return new String(reply.toByteArray(), StandardCharsets.UTF_8);
+        }
+    }
+
+    @Test
+    public void testThousandsOfConcurrentSubmissions() throws Exception {
+        int kiosks = 32;
+        int scoresEach = 150;
+        ExecutorService pool = Executors.newFixedThreadPool(kiosks);
+        List<Future<?>> sent = new ArrayList<>();
+        for (int kiosk = 0; kiosk < kiosks; kiosk++) {
+            int k = kiosk;
+            sent.add(pool.submit(() -> {
+                // Some one at a time and some in batches, like kiosks catching up
+                for (int i = 0; i < scoresEach; i += 1 + i % 5) {
+                    StringBuilder body = new StringBuilder();
+                    for (int j = i; j < Math.min(scoresEach, i + 1 + i % 5); j++) {
+                        body.append(k).append('-').append(j).append(",Kiosk ").append(k)
+                                .append(',').append(k * scoresEach + j).append('\n');
+                    }
+                    request("POST", "/scores", body.toString());
+                }
+                return null;
+            }));
+        }
+        for (Future<?> future : sent) {
+            future.get(60, TimeUnit.SECONDS);
+        }
+        pool.shutdown();
+
+        int total = kiosks * scoresEach;
+        assertEquals(total, store.size());
+        String[] top = request("GET", "/top?count=3", null).split("\n");
+        assertEquals("1,Kiosk 31," + (total - 1), top[0]);
+        assertEquals("3,Kiosk 31," + (total - 3), top[2]);
+        // 99 higher scores
+        assertEquals("100", request("GET", "/rank?score=" + (total - 100), null));
+    }
+
+    @Test
+    public void testRepeatedSubmissionIsIgnored() throws IOException {
+        assertEquals("2", request("POST", "/scores", "a,Alice,300\nb,Bob,500\n"));
+        // As if the kiosk didn't hear back and sent the batch again
+        assertEquals("1", request("POST", "/scores", "a,Alice,300\nb,Bob,500\nc,Carol,400\n"));
+        assertEquals(3, store.size());
+    }
+
+    @Test
+    public void testBatchIsAcceptedAgainAfterFailedFlush() throws IOException {
+        server.stop();
+        store.close();
+        boolean[] failFlush = {true};
+        store = new LeaderboardStore(new File(folder.getRoot(), "failing.log"), false) {
+            @Override
+            public synchronized void flush() {
+                if (failFlush[0]) throw new GdxRuntimeException("Disk full");
+                super.flush();
+            }
+        };
+        server = new LeaderboardServer(store, "localhost", 0, 2);
+
+        HttpURLConnection connection = (HttpURLConnection)
+                new URL("http://localhost:" + server.getPort() + "/scores").openConnection();
+        connection.setRequestMethod("POST");
+        connection.setDoOutput(true);
+        try (OutputStream out = connection.getOutputStream()) {
+            out.write("a,Alice,300\nb,Bob,500\n".getBytes(StandardCharsets.UTF_8));
+        }
+        assertEquals(500, connection.getResponseCode());
+        assertEquals(0, store.size());
+
+        // The kiosk kept the batch and sends it again once the disk is fine
+        failFlush[0] = false;
+        assertEquals("2", request("POST", "/scores", "a,Alice,300\nb,Bob,500\n"));
+        assertEquals(2, store.size());
+    }
+
+    @Test
+    public void testBadLinesAreSkipped() throws IOException {
+        assertEquals("1", request("POST", "/scores", "a,Alice,300\nb,Bob\nc,Ca;rol,400\nd,Dave,lots\n"));
+        assertEquals("1,Alice,300\n", request("GET", "/top?count=10", null));
+    }
+
+    @Test
+    public void testClientQueuesScoresUntilServiceIsReachable() throws Exception {
+        int port;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        File queueFile = new File(folder.getRoot(), "queue.txt");
+
+        LeaderboardClient client = new LeaderboardClient(new URL("http://localhost:" + port), queueFile, 10);
+        client.submit("Alice", 300);
+        client.submit("Bob", 500);
+        client.refresh().get(10, TimeUnit.SECONDS);
+        assertFalse(client.isReachable());
+        assertEquals(2, client.getPendingCount());
+        client.close();
+
+        // Still queued for the next time the game starts
+        String[] queued = new String(Files.readAllBytes(queueFile.toPath()),
+                StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, queued.length);
+        assertTrue(queued[1].endsWith(",Bob,500"));
+
+        LeaderboardStore otherStore = new LeaderboardStore(new File(folder.getRoot(), "other.log"), false);
+        LeaderboardServer otherServer = new LeaderboardServer(otherStore, "localhost", port, 2);
+        try {
+            client = new LeaderboardClient(new URL("http://localhost:" + port), queueFile, 10);
+            client.refresh().get(10, TimeUnit.SECONDS);
+            assertTrue(client.isReachable());
+            assertEquals(0, client.getPendingCount());
+            assertEquals(2, otherStore.size());
+
+            Array<LeaderboardStore.Entry> top = client.getCachedTop();
+            assertEquals(2, top.size);
+            assertEquals("Bob", top.get(0).name);
+            assertEquals(1, top.get(0).rank);
+            assertTrue(client.getVersion() > 0);
+            assertEquals(2, client.estimateRank(400));
+            assertEquals(3, client.estimateRank(300));
+            client.close();
+        } finally {
+            otherServer.stop();
+            otherStore.close();
+        }
+    }
+
+    @Test
+    public void testClientQueuesInMemoryWhenQueueFileCantBeRead() throws Exception {
+        int port;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        // A folder can't be read as a file
+        File queueFile = folder.newFolder("queue.txt");
+
+        LeaderboardClient client = new LeaderboardClient(new URL("http://localhost:" + port), queueFile, 10);
+        client.submit("Alice", 300);
+        client.submit("Bob", 500);
+        client.refresh().get(10, TimeUnit.SECONDS);
+        assertFalse(client.isQueueSaved());
+        assertFalse(client.isReachable());
+        assertEquals(2, client.getPendingCount());
+
+        LeaderboardStore otherStore = new LeaderboardStore(new File(folder.getRoot(), "other.log"), false);
+        LeaderboardServer otherServer = new LeaderboardServer(otherStore, "localhost", port, 2);
+        try {
+            client.refresh().get(10, TimeUnit.SECONDS);
+            assertTrue(client.isReachable());
+            assertEquals(0, client.getPendingCount());
+            assertEquals(2, otherStore.size());
+            client.close();
+        } finally {
+            otherServer.stop();
+            otherStore.close();
+        }
+    }
+}
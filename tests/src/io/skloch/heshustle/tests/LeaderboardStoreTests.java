@@ -0,0 +1,245 @@
+package io.skloch.heshustle.tests;
+
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.heslingtonhustle.leaderboard.LeaderboardStore;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Random;
+import java.util.zip.CRC32;
+
+import static org.junit.Assert.*;
+
+public class LeaderboardStoreTests {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private File logFile() {
+        return new File(folder.getRoot(), "leaderboard.log");
+    }
+
+    @Test
+    public void testTopScoresInOrder() {
+        try (LeaderboardStore store = new LeaderboardStore(logFile(), false)) {
+            store.add("Alice", 300);
+            store.add("Bob", 500);
+            store.add("Carol", 300);
+            LeaderboardStore.Entry dave = store.add("Dave", 100);
+
+            Array<LeaderboardStore.Entry> top = store.top(3);
+            assertEquals(3, top.size);
+            assertEquals("Bob", top.get(0).name);
+            // Ties go to whoever got the score first
+            assertEquals("Alice", top.get(1).name);
+            assertEquals("Carol", top.get(2).name);
+            assertEquals(3, top.get(2).rank);
+            assertEquals(4, dave.rank);
+            assertEquals(4, store.size());
+        }
+    }
+
+    @Test
+    public void testRankOfScore() {
+        try (LeaderboardStore store = new LeaderboardStore(logFile(), false)) {
+            assertEquals(1, store.rankOf(100));
+            store.add("Alice", 300);
+            store.add("Bob", 500);
+            store.add("Carol", 300);
+
+            assertEquals(1, store.rankOf(600));
+            assertEquals(2, store.rankOf(400));
+            // Behind both of the existing 300s
+            assertEquals(2, store.rankOf(300));
+            assertEquals(4, store.rankOf(0));
+            assertEquals("Carol", store.get(3).name);
+            assertNull(store.get(4));
+        }
+    }
+
+    @Test
+    public void testScoresSurviveReopening() {
+        try (LeaderboardStore store = new LeaderboardStore(logFile(), true)) {
+            store.add("Alice", 300);
+            store.add("Bob", 500);
+        }
+        try (LeaderboardStore store = new LeaderboardStore(logFile(), true)) {
+            assertEquals(2, store.size());
+            assertEquals("Bob", store.get(1).name);
+            // Ids carry on from the ones already used
+            assertEquals(2, store.add("Carol", 400).id);
+        }
+    }
+
+    @Test
+    public void testPartlyWrittenRecordIsCutOff() throws IOException {
+        try (LeaderboardStore store = new LeaderboardStore(logFile(), true)) {
+            store.add("Alice", 300);
+            store.add("Bob", 500);
+        }
+        // As if the game stopped part way through writing Bob's score
+        long length = logFile().length();
+        try (RandomAccessFile file = new RandomAccessFile(logFile(), "rw")) {
+            file.setLength(length - 3);
+        }
+
+        try (LeaderboardStore store = new LeaderboardStore(logFile(), true)) {
+            assertEquals(1, store.size());
+            assertEquals("Alice", store.get(1).name);
+            assertTrue(store.getDiscardedBytes() > 0);
+            store.add("Carol", 400);
+        }
+        try (LeaderboardStore store = new LeaderboardStore(logFile(), true)) {
+            assertEquals(2, store.size());
+            assertEquals(0, store.getDiscardedBytes());
+        }
+    }
+
+    @Test
+    public void testCorruptRecordIsCutOff() throws IOException {
+        try (LeaderboardStore store = new LeaderboardStore(logFile(), true)) {
+            store.add("Alice", 300);
+            store.add("Bob", 500);
+        }
+        // Change a letter of Bob's name so the checksum doesn't match
+        try (RandomAccessFile file = new RandomAccessFile(logFile(), "rw")) {
+            file.seek(file.length() - 5);
+            file.write('c');
+        }
+
+        try (LeaderboardStore store = new LeaderboardStore(logFile(), true)) {
+            assertEquals(1, store.size());
+        }
+    }
+
+    @Test
+    public void testRemoveAndCompact() {
+        try (LeaderboardStore store = new LeaderboardStore(logFile(), true)) {
+            LeaderboardStore.Entry alice = store.add("Alice", 300);
+            store.add("Bob", 500);
+            store.add("Carol", 400);
+
+            assertTrue(store.remove(alice.id));
+            assertFalse(store.remove(alice.id));
+            assertEquals(2, store.size());
+            assertEquals(2, store.getDeadRecords());
+
+            long before = store.getLogBytes();
+            store.compact();
+            assertTrue(store.getLogBytes() < before);
+            assertEquals(0, store.getDeadRecords());
+            store.add("Dave", 450);
+        }
+        try (LeaderboardStore store = new LeaderboardStore(logFile(), true)) {
+            assertEquals(3, store.size());
+            assertEquals("Bob", store.get(1).name);
+            assertEquals("Dave", store.get(2).name);
+            assertEquals("Carol", store.get(3).name);
+        }
+    }
+
+    @Test
+    public void testIdsAreNotReusedAfterCompacting() {
+        try (LeaderboardStore store = new LeaderboardStore(logFile(), true)) {
+            store.add("Alice", 300);
+            LeaderboardStore.Entry bob = store.add("Bob", 500);
+            store.remove(bob.id);
+            store.compact();
+        }
+        try (LeaderboardStore store = new LeaderboardStore(logFile(), true)) {
+            // Bob's id has gone from the log, but mustn't be given to anyone else
+            assertEquals(2, store.add("Carol", 400).id);
+            store.compact();
+        }
+        try (LeaderboardStore store = new LeaderboardStore(logFile(), true)) {
+            assertEquals(3, store.add("Dave", 200).id);
+        }
+    }
+
+    @Test
+    public void testVersionOneLogIsRead() throws IOException {
+        // A version 1 header, without the next id, then Alice's score
+        byte[] name = "Alice".getBytes(StandardCharsets.UTF_8);
+        ByteBuffer log = ByteBuffer.allocate(5 + 15 + name.length);
+        log.putInt(0x48484C42).put((byte) 1);
+        log.put((byte) 1).putInt(0).putInt(300).putShort((short) name.length).put(name);
+        CRC32 crc = new CRC32();
+        crc.update(log.array(), 5, log.position() - 5);
+        log.putInt((int) crc.getValue());
+        Files.write(logFile().toPath(), log.array());
+
+        try (LeaderboardStore store = new LeaderboardStore(logFile(), true)) {
+            assertEquals(1, store.size());
+            assertEquals("Alice", store.get(1).name);
+            assertEquals(0, store.getDiscardedBytes());
+            assertEquals(1, store.add("Bob", 500).id);
+        }
+        try (LeaderboardStore store = new LeaderboardStore(logFile(), true)) {
+            assertEquals(2, store.size());
+            store.compact();
+        }
+        try (LeaderboardStore store = new LeaderboardStore(logFile(), true)) {
+            assertEquals(2, store.size());
+            assertEquals(2, store.add("Carol", 400).id);
+        }
+    }
+
+    @Test
+    public void testUnfinishedCompactionIsIgnored() throws IOException {
+        try (LeaderboardStore store = new LeaderboardStore(logFile(), true)) {
+            store.add("Alice", 300);
+        }
+        File compactFile = new File(logFile().getPath() + ".compact");
+        Files.write(compactFile.toPath(), new byte[] {1, 2, 3});
+
+        try (LeaderboardStore store = new LeaderboardStore(logFile(), true)) {
+            assertEquals(1, store.size());
+        }
+        assertFalse(compactFile.exists());
+    }
+
+    @Test(expected = GdxRuntimeException.class)
+    public void testOtherFileThrows() throws IOException {
+        Files.write(logFile().toPath(), "Alice,300\nBob,500\n".getBytes());
+        new LeaderboardStore(logFile(), true);
+    }
+
+    @Test
+    public void testManyScoresMatchSorting() {
+        Random random = new Random(15);
+        ArrayList<Integer> scores = new ArrayList<>();
+        try (LeaderboardStore store = new LeaderboardStore(logFile(), false)) {
+            for (int i = 0; i < 20000; i++) {
+                int score = random.nextInt(5000);
+                scores.add(score);
+                store.add("Player " + i, score);
+                // Remove some along the way so slots get reused
+                if (i % 7 == 0) {
+                    LeaderboardStore.Entry removed = store.get(1 + random.nextInt(store.size()));
+                    store.remove(removed.id);
+                    scores.remove((Integer) removed.score);
+                }
+            }
+            scores.sort(Collections.reverseOrder());
+
+            assertEquals(scores.size(), store.size());
+            for (int rank = 1; rank <= scores.size(); rank += 97) {
+                assertEquals((int) scores.get(rank - 1), store.get(rank).score);
+            }
+            for (int score = 0; score < 5000; score += 250) {
+                int above = 0;
+                while (above < scores.size() && scores.get(above) > score) above++;
+                assertEquals(above + 1, store.rankOf(score));
+            }
+        }
+    }
+}
@@ -0,0 +1,187 @@
+package io.skloch.heshustle.tests;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.assets.AssetManager;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.g2d.Batch;
+import com.badlogic.gdx.graphics.g2d.BitmapFont;
+import com.badlogic.gdx.graphics.g2d.TextureAtlas;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.maps.tiled.TiledMap;
+import com.badlogic.gdx.maps.tiled.TiledMapTileLayer;
+import com.badlogic.gdx.maps.tiled.tiles.StaticTiledMapTile;
+import com.heslingtonhustle.assets.AssetManifest;
+import com.heslingtonhustle.map.CompiledMapLoader;
+import com.heslingtonhustle.map.MapCache;
+import com.heslingtonhustle.map.MapManager;
+import com.heslingtonhustle.renderer.CachedTiledMapRenderer;
+import com.heslingtonhustle.screens.PlayScreen;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.nio.IntBuffer;
+import java.util.ArrayList;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+@RunWith(GdxTestRunner.class)
+public class MapCacheTests {
+    private static TiledMap newMap(int width, int height) {
+        TiledMap map = new TiledMap();
+        map.getLayers().add(new TiledMapTileLayer(width, height, 16, 16));
+        return map;
+    }
+
+    @Test
+    public void testHitsAndMisses() {
+        MapCache cache = new MapCache(Long.MAX_VALUE, (path, map, renderer) -> { });
+        TiledMap map = newMap(10, 10);
+
+        assertNull(cache.get("a"));
+        cache.put("a", map);
+        assertSame(map, cache.get("a"));
+        assertSame(map, cache.get("a"));
+
+        assertEquals(2, cache.getHits());
+        assertEquals(1, cache.getMisses());
+        assertEquals(0, cache.getEvictions());
+    }
+
+    @Test
+    public void testLeastRecentlyUsedIsEvicted() {
+        ArrayList<String> evicted = new ArrayList<>();
+        long mapBytes = MapCache.estimateBytes(newMap(10, 10));
+        // Room for two maps
+        MapCache cache = new MapCache(mapBytes * 2, (path, map, renderer) -> evicted.add(path));
+
+        cache.put("a", newMap(10, 10));
+        cache.put("b", newMap(10, 10));
+        cache.get("a");
+        cache.put("c", newMap(10, 10));
+
+        assertEquals(1, evicted.size());
+        assertEquals("b", evicted.get(0));
+        assertTrue(cache.contains("a"));
+        assertTrue(cache.contains("c"));
+        assertEquals(1, cache.getEvictions());
+        assertEquals(mapBytes * 2, cache.getUsedBytes());
+    }
+
+    @Test
+    public void testCurrentMapIsKeptOverBudget() {
+        ArrayList<String> evicted = new ArrayList<>();
+        MapCache cache = new MapCache(1, (path, map, renderer) -> evicted.add(path));
+
+        cache.put("a", newMap(10, 10));
+        cache.put("b", newMap(10, 10));
+
+        assertEquals(1, cache.size());
+        assertTrue(cache.contains("b"));
+        assertEquals(1, evicted.size());
+    }
+
+    @Test
+    public void testLoweringBudgetEvicts() {
+        ArrayList<String> evicted = new ArrayList<>();
+        MapCache cache = new MapCache(Long.MAX_VALUE, (path, map, renderer) -> evicted.add(path));
+        cache.put("a", newMap(10, 10));
+        cache.put("b", newMap(10, 10));
+        cache.put("c", newMap(10, 10));
+
+        cache.setBudget(0);
+
+        assertEquals(2, evicted.size());
+        assertEquals("a", evicted.get(0));
+        assertEquals("b", evicted.get(1));
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    public void testClearReleasesWithoutCountingEvictions() {
+        ArrayList<String> evicted = new ArrayList<>();
+        MapCache cache = new MapCache(Long.MAX_VALUE, (path, map, renderer) -> evicted.add(path));
+        cache.put("a", newMap(10, 10));
+        cache.put("b", newMap(10, 10));
+
+        cache.clear();
+
+        assertEquals(2, evicted.size());
+        assertEquals(0, cache.size());
+        assertEquals(0, cache.getUsedBytes());
+        assertEquals(0, cache.getEvictions());
+    }
+
+    @Test
+    public void testLargerMapsAreEstimatedLarger() {
+        assertTrue(MapCache.estimateBytes(newMap(100, 100)) > MapCache.estimateBytes(newMap(10, 10)));
+    }
+
+    @Test
+    public void testRendererCacheCountsBeforeBaking() {
+        // Lets the cache's shader compile and link on the mocked GL
+        when(Gdx.gl20.glCreateShader(anyInt())).thenReturn(1);
+        when(Gdx.gl20.glCreateProgram()).thenReturn(1);
+        doAnswer(invocation -> {
+            ((IntBuffer) invocation.getArguments()[2]).put(0, 1);
+            return null;
+        }).when(Gdx.gl20).glGetShaderiv(anyInt(), eq(GL20.GL_COMPILE_STATUS), any(IntBuffer.class));
+        doAnswer(invocation -> {
+            ((IntBuffer) invocation.getArguments()[2]).put(0, 1);
+            return null;
+        }).when(Gdx.gl20).glGetProgramiv(anyInt(), eq(GL20.GL_LINK_STATUS), any(IntBuffer.class));
+
+        TiledMap map = newMap(10, 10);
+        TiledMapTileLayer layer = (TiledMapTileLayer) map.getLayers().get(0);
+        StaticTiledMapTile tile = new StaticTiledMapTile(new TextureRegion());
+        for (int column = 0; column < 10; column++) {
+            for (int row = 0; row < 10; row++) {
+                TiledMapTileLayer.Cell cell = new TiledMapTileLayer.Cell();
+                cell.setTile(tile);
+                layer.setCell(column, row, cell);
+            }
+        }
+
+        MapCache cache = new MapCache(Long.MAX_VALUE, (path, evictedMap, renderer) -> { });
+        cache.put("a", map);
+        long mapBytes = cache.getUsedBytes();
+
+        CachedTiledMapRenderer renderer = new CachedTiledMapRenderer(map, mock(Batch.class));
+        cache.putRenderer("a", renderer);
+
+        // Nothing has been drawn yet, but the cache's mesh is already allocated
+        assertEquals(0, renderer.getCachedTiles());
+        assertEquals(100, renderer.getCacheCapacity());
+        // Six vertices of five floats for each tile
+        assertEquals(100 * 6 * 5 * 4, renderer.getCacheBytes());
+        assertEquals(mapBytes + renderer.getCacheBytes(), cache.getUsedBytes());
+        renderer.dispose();
+    }
+
+    @Test
+    public void testManifestMapStaysLoadedAfterMapManagerIsDisposed() {
+        Gdx.gl = Gdx.gl20;
+        AssetManager assets = AssetManifest.createAssetManager();
+        String manifestMap = CompiledMapLoader.findMapFile(PlayScreen.campusEastMapPath);
+        String otherMap = CompiledMapLoader.findMapFile("Maps/urbanMap.tmx");
+        try {
+            // As if loaded by the AssetManifest, without the other map
+            assets.load(MapManager.npcAtlasAsset, TextureAtlas.class);
+            assets.load(MapManager.labelFontAsset, BitmapFont.class);
+            assets.load(manifestMap, TiledMap.class);
+            assets.finishLoading();
+
+            MapManager mapManager = new MapManager(assets);
+            mapManager.loadMap(PlayScreen.campusEastMapPath);
+            mapManager.loadMap("Maps/urbanMap.tmx");
+            assertTrue(assets.isLoaded(otherMap));
+            mapManager.dispose();
+
+            // The next game's starting map is still ready
+            assertTrue(assets.isLoaded(manifestMap));
+            assertFalse(assets.isLoaded(otherMap));
+        } finally {
+            assets.dispose();
+        }
+    }
+}
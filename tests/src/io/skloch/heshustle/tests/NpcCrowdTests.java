@@ -0,0 +1,152 @@
+package io.skloch.heshustle.tests;
+
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.math.Rectangle;
+import com.heslingtonhustle.map.NpcCrowd;
+import com.heslingtonhustle.renderer.CharacterFrames;
+import com.heslingtonhustle.simulation.GameSimulation;
+import com.heslingtonhustle.state.Facing;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+@RunWith(GdxTestRunner.class)
+public class NpcCrowdTests {
+    private static final float CELL = 16;
+    private static final float NPC_SIZE = 14.4f;
+    private final Rectangle wholeMap = new Rectangle(0, 0, 100 * CELL, 100 * CELL);
+
+    private NpcCrowd createCrowd(ExecutorService executor) {
+        NpcCrowd crowd = new NpcCrowd(wholeMap.width, wholeMap.height, CELL, NPC_SIZE, executor);
+        // A wall down the middle and a building
+        crowd.block(new Rectangle(50 * CELL, 0, CELL, 100 * CELL));
+        crowd.block(new Rectangle(10 * CELL, 10 * CELL, 20 * CELL, 20 * CELL));
+        return crowd;
+    }
+
+    private static void assertNoneBlocked(NpcCrowd crowd) {
+        for (int i = 0; i < crowd.size(); i++) {
+            assertFalse(crowd.isBlocked(crowd.getX(i) + NPC_SIZE / 2, crowd.getY(i)));
+        }
+    }
+
+    @Test
+    public void testBlockedCells() {
+        NpcCrowd crowd = createCrowd(null);
+        assertTrue(crowd.isBlocked(50 * CELL + 1, 5));
+        assertTrue(crowd.isBlocked(15 * CELL, 15 * CELL));
+        assertFalse(crowd.isBlocked(5, 5));
+        // Off the map
+        assertTrue(crowd.isBlocked(-1, 5));
+        assertTrue(crowd.isBlocked(5, 100 * CELL + 1));
+    }
+
+    @Test
+    public void testNpcsNeverWalkIntoBlockedCells() {
+        NpcCrowd crowd = createCrowd(null);
+        assertEquals(500, crowd.spawn(500, 3, 7));
+        assertNoneBlocked(crowd);
+
+        boolean moved = false;
+        for (int tick = 0; tick < 60 * 30; tick++) {
+            crowd.update(GameSimulation.TIME_STEP, wholeMap);
+            if (tick % 60 == 0) assertNoneBlocked(crowd);
+            moved |= crowd.isMoving(0);
+        }
+        assertNoneBlocked(crowd);
+        assertTrue(moved);
+    }
+
+    @Test
+    public void testSpawnGivesUpWithNowhereToStand() {
+        NpcCrowd crowd = new NpcCrowd(4 * CELL, 4 * CELL, CELL, NPC_SIZE, null);
+        crowd.block(new Rectangle(0, 0, 4 * CELL, 4 * CELL));
+        assertEquals(0, crowd.getWalkableCells());
+        assertEquals(0, crowd.spawn(10, 1, 1));
+        assertEquals(0, crowd.size());
+    }
+
+    @Test
+    public void testAddGrowsArrays() {
+        NpcCrowd crowd = createCrowd(null);
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(i, crowd.add(i % 40, i / 40f, 0, i));
+        }
+        assertEquals(1000, crowd.size());
+        assertEquals(999 % 40, crowd.getX(999), 0);
+        assertEquals(Facing.DOWN, crowd.getFacing(999));
+        assertFalse(crowd.isMoving(999));
+    }
+
+    @Test
+    public void testOnlyNpcsInViewAreDrawn() {
+        NpcCrowd crowd = createCrowd(null);
+        crowd.add(5, 5, 0, 1);
+        crowd.add(200, 200, 1, 2);
+        crowd.add(1000, 1000, 0, 3);
+
+        CharacterFrames frames = mock(CharacterFrames.class);
+        when(frames.getFrame(any(), anyBoolean(), anyFloat())).thenReturn(new TextureRegion());
+        CharacterFrames[] types = new CharacterFrames[] {frames, frames};
+        SpriteBatch batch = mock(SpriteBatch.class);
+
+        assertEquals(3, crowd.render(batch, types, 0, wholeMap));
+        assertEquals(2, crowd.render(batch, types, 0, new Rectangle(0, 0, 300, 300)));
+        assertEquals(0, crowd.render(batch, types, 0, new Rectangle(400, 400, 100, 100)));
+        verify(batch, times(5)).draw(any(TextureRegion.class), anyFloat(), anyFloat(), anyFloat(), anyFloat());
+    }
+
+    @Test
+    public void testParallelUpdateMatchesSerial() {
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+        try {
+            NpcCrowd serial = createCrowd(null);
+            NpcCrowd parallel = createCrowd(executor);
+            int count = NpcCrowd.PARALLEL_THRESHOLD * 5;
+            serial.spawn(count, 4, 42);
+            parallel.spawn(count, 4, 42);
+
+            // Only part of the map is on screen, so some NPCs are updated less often
+            Rectangle view = new Rectangle(300, 300, 480, 270);
+            for (int tick = 0; tick < 600; tick++) {
+                serial.update(GameSimulation.TIME_STEP, view);
+                parallel.update(GameSimulation.TIME_STEP, view);
+            }
+
+            for (int i = 0; i < count; i++) {
+                assertEquals(serial.getX(i), parallel.getX(i), 0);
+                assertEquals(serial.getY(i), parallel.getY(i), 0);
+                assertEquals(serial.getFacing(i), parallel.getFacing(i));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testShutDownExecutorUpdatesOnCallingThread() {
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        executor.shutdown();
+        NpcCrowd serial = createCrowd(null);
+        NpcCrowd parallel = createCrowd(executor);
+        int count = NpcCrowd.PARALLEL_THRESHOLD * 2;
+        serial.spawn(count, 4, 9);
+        parallel.spawn(count, 4, 9);
+
+        for (int tick = 0; tick < 120; tick++) {
+            serial.update(GameSimulation.TIME_STEP, wholeMap);
+            parallel.update(GameSimulation.TIME_STEP, wholeMap);
+        }
+
+        for (int i = 0; i < count; i++) {
+            assertEquals(serial.getX(i), parallel.getX(i), 0);
+            assertEquals(serial.getY(i), parallel.getY(i), 0);
+        }
+    }
+}
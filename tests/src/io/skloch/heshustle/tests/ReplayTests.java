@@ -0,0 +1,139 @@
+package io.skloch.heshustle.tests;
+
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.heslingtonhustle.input.InputRecorder;
+import com.heslingtonhustle.input.ReplayInputHandler;
+import com.heslingtonhustle.input.ScriptedInputHandler;
+import com.heslingtonhustle.map.MapManager;
+import com.heslingtonhustle.simulation.GameSimulation;
+import com.heslingtonhustle.sound.SoundController;
+import com.heslingtonhustle.state.Action;
+import com.heslingtonhustle.state.DialogueManager;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+
+import static org.junit.Assert.*;
+
+@RunWith(GdxTestRunner.class)
+public class ReplayTests {
+    private static final String MAP = "Maps/campusEast.tmx";
+
+    private GameSimulation newSimulation() {
+        return new GameSimulation(new DialogueManager(new SoundController()), new MapManager(true), MAP);
+    }
+
+    private static HashSet<Action> actions(Action... actions) {
+        return new HashSet<>(Arrays.asList(actions));
+    }
+
+    @Test
+    public void testRecordingPlaysBackEachTick() {
+        InputRecorder recorder = new InputRecorder();
+        recorder.record(actions(Action.MOVE_UP), actions(), false);
+        recorder.record(actions(Action.MOVE_UP), actions(), false);
+        recorder.record(actions(Action.MOVE_UP, Action.MOVE_LEFT), actions(Action.INTERACT), false);
+        recorder.record(actions(), actions(), true);
+
+        ReplayInputHandler replay = new ReplayInputHandler(recorder.toBytes(), "test");
+        assertEquals(4, replay.totalTicks());
+
+        replay.nextTick();
+        assertEquals(actions(Action.MOVE_UP), replay.getHeldActions());
+        replay.nextTick();
+        assertEquals(actions(Action.MOVE_UP), replay.getHeldActions());
+        assertTrue(replay.getPressedActions().isEmpty());
+        replay.nextTick();
+        assertEquals(actions(Action.MOVE_UP, Action.MOVE_LEFT), replay.getHeldActions());
+        assertEquals(actions(Action.INTERACT), replay.getPressedActions());
+        assertFalse(replay.isPaused());
+        replay.nextTick();
+        assertTrue(replay.getHeldActions().isEmpty());
+        assertTrue(replay.isPaused());
+        assertTrue(replay.isFinished());
+    }
+
+    @Test
+    public void testRunsAreCompact() {
+        InputRecorder recorder = new InputRecorder();
+        HashSet<Action> held = actions(Action.MOVE_DOWN);
+        HashSet<Action> none = actions();
+        for (int i = 0; i < 10000; i++) {
+            recorder.record(held, none, false);
+        }
+
+        // A header and a single run
+        assertTrue(recorder.toBytes().length < 20);
+        assertEquals(10000, recorder.getTicks());
+    }
+
+    @Test
+    public void testRecordingCanContinueAfterSaving() {
+        InputRecorder recorder = new InputRecorder();
+        HashSet<Action> held = actions(Action.MOVE_DOWN);
+        HashSet<Action> none = actions();
+        recorder.record(held, none, false);
+        byte[] first = recorder.toBytes();
+        recorder.record(held, none, false);
+        recorder.record(none, none, false);
+
+        assertEquals(1, new ReplayInputHandler(first, "first").totalTicks());
+        ReplayInputHandler replay = new ReplayInputHandler(recorder.toBytes(), "second");
+        assertEquals(3, replay.totalTicks());
+        replay.nextTick();
+        replay.nextTick();
+        assertEquals(held, replay.getHeldActions());
+        replay.nextTick();
+        assertEquals(Collections.emptySet(), replay.getHeldActions());
+    }
+
+    @Test(expected = GdxRuntimeException.class)
+    public void testNotARecordingThrows() {
+        new ReplayInputHandler(new byte[] {1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11}, "bad");
+    }
+
+    @Test(expected = GdxRuntimeException.class)
+    public void testCutShortRecordingThrows() {
+        InputRecorder recorder = new InputRecorder();
+        recorder.record(actions(Action.MOVE_DOWN), actions(), false);
+        byte[] bytes = recorder.toBytes();
+        new ReplayInputHandler(Arrays.copyOf(bytes, bytes.length - 1), "short");
+    }
+
+    @Test
+    public void testReplayPlaysOutTheSameGame() {
+        ScriptedInputHandler input = new ScriptedInputHandler()
+                .press(Action.INTERACT)
+                .hold(60, Action.MOVE_DOWN)
+                .hold(60, Action.MOVE_RIGHT)
+                .press(Action.MAP)
+                .waitTicks(90)
+                .press(Action.MAP)
+                .hold(45, Action.MOVE_UP, Action.MOVE_LEFT)
+                .press(Action.INTERACT)
+                .waitTicks(30);
+        GameSimulation recorded = newSimulation();
+        InputRecorder recorder = new InputRecorder();
+        recorded.setRecorder(recorder);
+        recorded.run(input, input.totalTicks());
+        // Pausing stops time, so it has to be replayed too
+        recorded.setPaused(true);
+        recorded.run(new ScriptedInputHandler().hold(30, Action.MOVE_DOWN), 30);
+        recorded.setPaused(false);
+        recorded.run(new ScriptedInputHandler().hold(30, Action.MOVE_LEFT), 30);
+
+        GameSimulation replayed = newSimulation();
+        ReplayInputHandler replay = new ReplayInputHandler(recorder.toBytes(), "recorded");
+        long ticks = replayed.replay(replay);
+
+        assertEquals(recorded.getTicks(), ticks);
+        assertTrue(replay.isFinished());
+        assertEquals(recorded.getPlayer().getPosition(), replayed.getPlayer().getPosition());
+        assertEquals(recorded.getState().getClock().getRawTime(), replayed.getState().getClock().getRawTime(), 0f);
+        assertEquals(recorded.getZoom(), replayed.getZoom(), 0f);
+        assertEquals(recorded.getPlayer().getFacing(), replayed.getPlayer().getFacing());
+    }
+}
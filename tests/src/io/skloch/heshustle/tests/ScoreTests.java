@@ -0,0 +1,84 @@
+package io.skloch.heshustle.tests;
+
+import com.heslingtonhustle.state.Achievement;
+import com.heslingtonhustle.state.Activity;
+import com.heslingtonhustle.state.Score;
+import org.junit.Test;
+
+import java.util.HashMap;
+
+import static org.junit.Assert.*;
+
+public class ScoreTests {
+    private Activity completed(String name, String type, int score, int hours, int times) {
+        Activity activity = new Activity(name, type, score, 0, hours, -1);
+        for (int i = 0; i < times; i++) {
+            activity.completeActivity();
+        }
+        return activity;
+    }
+
+    private boolean hasAchievement(Score score, String title) {
+        for (Achievement achievement : score.getAchievements()) {
+            if (achievement.getTitle().equals(title)) return true;
+        }
+        return false;
+    }
+
+    @Test
+    public void testNothingDoneGetsEveryPenalty() {
+        Score score = new Score(new HashMap<>(), false);
+
+        assertEquals(-500 - 1000 - 500 - 500, score.getTotal());
+        assertEquals(0, score.getNumAchievements());
+        assertEquals(4, score.getNumPenalties());
+    }
+
+    @Test
+    public void testBalancedWeekHasNoPenalties() {
+        HashMap<String, Activity> activities = new HashMap<>();
+        activities.put("sleep", completed("sleep", "sleep", 5, 8, 7));
+        activities.put("study", completed("study", "study", 400, 2, 7));
+        activities.put("cafe", completed("cafe", "eat", 50, 1, 21));
+        activities.put("fountain", completed("fountain", "recreation", 75, 1, 14));
+
+        Score score = new Score(activities, false);
+
+        assertEquals(0, score.getNumPenalties());
+        assertEquals(56, score.getCategoryHours("sleep"));
+        assertEquals(14, score.getCategoryHours("study"));
+        assertEquals(21, score.getCategoryHours("eat"));
+        assertEquals(14, score.getCategoryHours("recreation"));
+        assertEquals(7 * 5 + 7 * 400 + 21 * 50 + 14 * 75, score.getTotal());
+    }
+
+    @Test
+    public void testAchievementsAddToScore() {
+        HashMap<String, Activity> activities = new HashMap<>();
+        activities.put("club", completed("club", "recreation", 0, 4, 1));
+        activities.put("ducks", completed("ducks", "recreation", 0, 1, 6));
+        activities.put("gym", completed("gym", "recreation", 0, 2, 3));
+
+        Score score = new Score(activities, true);
+
+        assertTrue(hasAchievement(score, "Walker"));
+        assertTrue(hasAchievement(score, "Clubber"));
+        assertTrue(hasAchievement(score, "Duck duck go"));
+        assertTrue(hasAchievement(score, "Gymbro"));
+        assertEquals(4, score.getNumAchievements());
+        // Recreation is 16 hours, so only the other three penalties
+        assertEquals(3, score.getNumPenalties());
+        assertEquals(200 + 500 + 300 + 500 - 500 - 1000 - 500, score.getTotal());
+    }
+
+    @Test
+    public void testEatingCountsTimesNotHours() {
+        HashMap<String, Activity> activities = new HashMap<>();
+        activities.put("piazza", completed("piazza", "eat", 50, 2, 3));
+
+        Score score = new Score(activities, false);
+
+        assertEquals(3, score.getCategoryHours("eat"));
+        assertEquals(150, score.getCategoryScore("eat"));
+    }
+}
@@ -0,0 +1,76 @@
+package io.skloch.heshustle.tests;
+
+import com.badlogic.gdx.Screen;
+import com.heslingtonhustle.screens.AvailableScreens;
+import com.heslingtonhustle.screens.ScreenPool;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.EnumMap;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+@RunWith(GdxTestRunner.class)
+public class ScreenPoolTests {
+    private final EnumMap<AvailableScreens, Integer> made = new EnumMap<>(AvailableScreens.class);
+
+    private ScreenPool createPool() {
+        return new ScreenPool(type -> {
+            made.merge(type, 1, Integer::sum);
+            return mock(Screen.class);
+        });
+    }
+
+    @Test
+    public void testScreensAreMadeOnceAndReused() {
+        ScreenPool pool = createPool();
+        assertEquals(0, pool.size());
+
+        Screen menu = pool.get(AvailableScreens.MenuScreen);
+        pool.get(AvailableScreens.OptionsScreen);
+        for (int i = 0; i < 100; i++) {
+            assertSame(menu, pool.get(AvailableScreens.MenuScreen));
+            pool.get(AvailableScreens.OptionsScreen);
+        }
+
+        assertEquals(1, (int) made.get(AvailableScreens.MenuScreen));
+        assertEquals(1, (int) made.get(AvailableScreens.OptionsScreen));
+        assertFalse(made.containsKey(AvailableScreens.CreditScreen));
+        assertEquals(2, pool.size());
+        assertTrue(pool.contains(menu));
+        assertFalse(pool.contains(mock(Screen.class)));
+        assertFalse(pool.contains(null));
+    }
+
+    @Test
+    public void testEvictKeepsScreensInUse() {
+        ScreenPool pool = createPool();
+        Screen menu = pool.get(AvailableScreens.MenuScreen);
+        Screen options = pool.get(AvailableScreens.OptionsScreen);
+        Screen credits = pool.get(AvailableScreens.CreditScreen);
+
+        pool.evict(options, null);
+        verify(menu).dispose();
+        verify(credits).dispose();
+        verify(options, never()).dispose();
+        assertEquals(1, pool.size());
+        assertFalse(pool.contains(menu));
+
+        // Made again when next needed
+        assertNotSame(menu, pool.get(AvailableScreens.MenuScreen));
+        assertEquals(2, (int) made.get(AvailableScreens.MenuScreen));
+    }
+
+    @Test
+    public void testDisposeDisposesEveryScreen() {
+        ScreenPool pool = createPool();
+        Screen menu = pool.get(AvailableScreens.MenuScreen);
+        Screen tutorial = pool.get(AvailableScreens.TutorialScreen);
+
+        pool.dispose();
+        verify(menu).dispose();
+        verify(tutorial).dispose();
+        assertEquals(0, pool.size());
+    }
+}
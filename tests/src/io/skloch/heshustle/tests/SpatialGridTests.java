@@ -0,0 +1,167 @@
+package io.skloch.heshustle.tests;
+
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.utils.Array;
+import com.heslingtonhustle.map.SpatialGrid;
+import org.junit.Test;
+
+import java.util.HashSet;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class SpatialGridTests {
+    @Test
+    public void testQueryFindsOverlappingObjects() {
+        SpatialGrid<String> grid = new SpatialGrid<>(100, 100, 10);
+        grid.add(new Rectangle(5, 5, 10, 10), "near");
+        grid.add(new Rectangle(80, 80, 5, 5), "far");
+        Array<String> out = new Array<>();
+
+        grid.query(new Rectangle(0, 0, 8, 8), out);
+
+        assertEquals(1, out.size);
+        assertEquals("near", out.first());
+    }
+
+    @Test
+    public void testQueryReportsLargeObjectsOnce() {
+        SpatialGrid<String> grid = new SpatialGrid<>(100, 100, 10);
+        // Spans many cells
+        grid.add(new Rectangle(0, 0, 100, 100), "big");
+        Array<String> out = new Array<>();
+
+        grid.query(new Rectangle(5, 5, 50, 50), out);
+
+        assertEquals(1, out.size);
+    }
+
+    @Test
+    public void testQueryClearsOutputArray() {
+        SpatialGrid<String> grid = new SpatialGrid<>(100, 100, 10);
+        Array<String> out = new Array<>();
+        out.add("stale");
+
+        grid.query(new Rectangle(5, 5, 5, 5), out);
+
+        assertEquals(0, out.size);
+    }
+
+    @Test
+    public void testTouchingEdgesDoNotOverlap() {
+        SpatialGrid<String> grid = new SpatialGrid<>(100, 100, 10);
+        grid.add(new Rectangle(10, 0, 10, 10), "touching");
+        Array<String> out = new Array<>();
+
+        grid.query(new Rectangle(0, 0, 10, 10), out);
+
+        assertEquals(0, out.size);
+    }
+
+    @Test
+    public void testObjectsOutsideGridAreFound() {
+        SpatialGrid<String> grid = new SpatialGrid<>(100, 100, 10);
+        grid.add(new Rectangle(-20, 150, 10, 10), "outside");
+        Array<String> out = new Array<>();
+
+        grid.query(new Rectangle(-15, 155, 2, 2), out);
+
+        assertEquals(1, out.size);
+    }
+
+    @Test
+    public void testQueryMatchesLinearScan() {
+        Random random = new Random(16);
+        SpatialGrid<Rectangle> grid = new SpatialGrid<>(2000, 1500, 32);
+        Array<Rectangle> rectangles = new Array<>();
+        for (int i = 0; i < 500; i++) {
+            Rectangle rectangle = new Rectangle(
+                    random.nextFloat() * 2000, random.nextFloat() * 1500,
+                    1 + random.nextFloat() * 100, 1 + random.nextFloat() * 100);
+            rectangles.add(rectangle);
+            grid.add(rectangle, rectangle);
+        }
+
+        Array<Rectangle> out = new Array<>();
+        for (int i = 0; i < 200; i++) {
+            Rectangle area = new Rectangle(
+                    random.nextFloat() * 2000, random.nextFloat() * 1500,
+                    random.nextFloat() * 60, random.nextFloat() * 60);
+
+            HashSet<Rectangle> expected = new HashSet<>();
+            for (Rectangle rectangle : rectangles) {
+                if (area.overlaps(rectangle)) expected.add(rectangle);
+            }
+
+            grid.query(area, out);
+            assertEquals(expected.size(), out.size);
+            for (Rectangle rectangle : out) {
+                assertTrue(expected.contains(rectangle));
+            }
+        }
+    }
+
+    @Test
+    public void testNearestReturnsNullWhenNothingOverlaps() {
+        SpatialGrid<String> grid = new SpatialGrid<>(100, 100, 10);
+        grid.add(new Rectangle(80, 80, 5, 5), "far");
+
+        assertNull(grid.nearest(new Rectangle(0, 0, 10, 10)));
+    }
+
+    @Test
+    public void testNearestPicksClosestCentre() {
+        SpatialGrid<String> grid = new SpatialGrid<>(100, 100, 10);
+        grid.add(new Rectangle(0, 0, 10, 10), "corner");
+        grid.add(new Rectangle(18, 18, 4, 4), "centre");
+
+        assertEquals("centre", grid.nearest(new Rectangle(5, 5, 30, 30)));
+    }
+
+    @Test
+    public void testNearestPrefersFirstAddedOnTie() {
+        SpatialGrid<String> grid = new SpatialGrid<>(100, 100, 10);
+        grid.add(new Rectangle(40, 40, 10, 10), "first");
+        grid.add(new Rectangle(40, 40, 10, 10), "second");
+
+        assertEquals("first", grid.nearest(new Rectangle(35, 35, 20, 20)));
+    }
+
+    /**
+     * Stress map with thousands of triggers, checked against the old linear search
+     */
+    @Test
+    public void testNearestMatchesLinearScanOnStressMap() {
+        Random random = new Random(16);
+        SpatialGrid<Rectangle> grid = new SpatialGrid<>(137 * 16, 96 * 16, 64);
+        Array<Rectangle> triggers = new Array<>();
+        for (int i = 0; i < 5000; i++) {
+            Rectangle trigger = new Rectangle(
+                    random.nextFloat() * 137 * 16, random.nextFloat() * 96 * 16,
+                    8 + random.nextFloat() * 24, 8 + random.nextFloat() * 24);
+            triggers.add(trigger);
+            grid.add(trigger, trigger);
+        }
+
+        for (int i = 0; i < 500; i++) {
+            Rectangle playerHitbox = new Rectangle(
+                    random.nextFloat() * 137 * 16, random.nextFloat() * 96 * 16, 43.2f, 36f);
+
+            Rectangle expected = null;
+            float closest = -1f;
+            for (Rectangle trigger : triggers) {
+                if (playerHitbox.overlaps(trigger)) {
+                    float dx = trigger.x + trigger.width / 2 - (playerHitbox.x + playerHitbox.width / 2);
+                    float dy = trigger.y + trigger.height / 2 - (playerHitbox.y + playerHitbox.height / 2);
+                    float distance = dx * dx + dy * dy;
+                    if (expected == null || distance < closest) {
+                        expected = trigger;
+                        closest = distance;
+                    }
+                }
+            }
+
+            assertSame(expected, grid.nearest(playerHitbox));
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package io.skloch.heshustle.tests;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.assets.AssetManager;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.utils.Array;
+import com.heslingtonhustle.assets.TextureCache;
+import com.heslingtonhustle.screens.GameOverScreen;
+import com.heslingtonhustle.screens.MenuScreen;
+import com.heslingtonhustle.screens.TutorialScreen;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import static org.junit.Assert.*;
+
+@RunWith(GdxTestRunner.class)
+public class TextureCacheTests {
+    private AssetManager assets;
+    private TextureCache textures;
+
+    @Before
+    public void setUp() {
+        Gdx.gl = Gdx.gl20;
+        assets = new AssetManager();
+        textures = new TextureCache(assets);
+    }
+
+    @After
+    public void tearDown() {
+        assets.dispose();
+    }
+
+    @Test
+    public void testTextureIsSharedAndUnloadedWhenReleased() {
+        Texture first = textures.acquire(GameOverScreen.gameOverPath);
+        Texture second = textures.acquire(GameOverScreen.gameOverPath);
+        assertSame(first, second);
+        assertEquals(2, textures.getReferences(GameOverScreen.gameOverPath));
+
+        textures.release(GameOverScreen.gameOverPath);
+        assertTrue(assets.isLoaded(GameOverScreen.gameOverPath));
+        textures.release(GameOverScreen.gameOverPath);
+        assertFalse(assets.isLoaded(GameOverScreen.gameOverPath));
+        assertEquals(0, textures.getReferences(GameOverScreen.gameOverPath));
+    }
+
+    @Test
+    public void testPreloadedTextureStaysLoaded() {
+        // As if loaded by the AssetManifest
+        assets.load(MenuScreen.menuBackgroundAsset, Texture.class);
+        assets.finishLoading();
+
+        Texture texture = textures.acquire(MenuScreen.menuBackgroundAsset);
+        textures.release(MenuScreen.menuBackgroundAsset);
+        assets.finishLoading();
+        assertTrue(assets.isLoaded(MenuScreen.menuBackgroundAsset));
+        assertSame(texture, assets.get(MenuScreen.menuBackgroundAsset, Texture.class));
+    }
+
+    @Test
+    public void testScreensOpenedRepeatedlyDoNotLeak() {
+        for (int i = 0; i < 50; i++) {
+            // A screen acquiring its textures then being disposed
+            Array<String> acquired = new Array<>();
+            textures.acquire(TutorialScreen.tutorialAsset1, acquired);
+            textures.acquire(TutorialScreen.tutorialAsset2, acquired);
+            textures.acquire(GameOverScreen.gameOverPath, acquired);
+            textures.releaseAll(acquired);
+            assertEquals(0, acquired.size);
+        }
+        assertEquals(0, assets.getLoadedAssets());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testReleasingTooManyTimesThrows() {
+        textures.acquire(GameOverScreen.gameOverPath);
+        textures.release(GameOverScreen.gameOverPath);
+        textures.release(GameOverScreen.gameOverPath);
+    }
+}